@@ -1,9 +0,0 @@
-/// <reference path="../typings/dts-bundle/dts-bundle.d.ts"/>
-var dts = require('dts-bundle');
-dts.bundle({
-    name: 'ts-tinkerpop',
-    main: 'lib/ts-tinkerpop.d.ts',
-    out: '../o/bundle.d.ts',
-    externals: false
-});
-//# sourceMappingURL=bundle-dts.js.map
\ No newline at end of file
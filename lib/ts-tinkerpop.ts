@@ -1,5 +1,4 @@
 /// <reference path='../typings/debug/debug.d.ts' />
-/// <reference path='../typings/json-stable-stringify/json-stable-stringify.d.ts' />
 /// <reference path='../typings/lodash/lodash.d.ts' />
 
 import _ = require('lodash');
@@ -7,8 +6,6 @@ import _java = require('./tsJavaModule');
 import assert = require('assert');
 import BluePromise = require('bluebird');
 import debug = require('debug');
-import fs = require('fs');
-import jsonStableStringify = require('json-stable-stringify');
 
 var dlog = debug('ts-tinkerpop');
 
@@ -48,8 +45,26 @@ module Tinkerpop {
   export var TinkerGraph: Java.TinkerGraph.Static;
 
   // #### Other Java classes
+  export var BulkLoader: Java.BulkLoader.Static;
   export var ByteArrayOutputStream: Java.ByteArrayOutputStream.Static;
+  export var ClosureStore: Java.ClosureStore.Static;
+  export var ElementProjection: Java.ElementProjection.Static;
+  export var GroovyImports: Java.GroovyImports.Static;
   export var GroovyLambda: Java.GroovyLambda.Static;
+  export var GryoSnapshot: Java.GryoSnapshot.Static;
+  export var InstrumentedGlobFunction: Java.InstrumentedGlobFunction.Static;
+  export var JavaScriptLambda: Java.JavaScriptLambda.Static;
+  export var LambdaClassRegistry: Java.LambdaClassRegistry.Static;
+  export var LambdaMetricsRegistry: Java.LambdaMetricsRegistry.Static;
+  export var NativeLambda: Java.NativeLambda.Static;
+  export var ParallelTraversalRunner: Java.ParallelTraversalRunner.Static;
+  export var PrettyGraphSON: Java.PrettyGraphSON.Static;
+  export var StringInputStream: Java.StringInputStream.Static;
+  export var TraversalBatcher: Java.TraversalBatcher.Static;
+  export var TraversalExecutor: Java.TraversalExecutor.Static;
+  export var TraversalJson: Java.TraversalJson.Static;
+  export var TraversalProfile: Java.TraversalProfile.Static;
+  export var TraversalResultCache: Java.TraversalResultCache.Static;
 
   // #### Useful singleton variables
 
@@ -70,25 +85,43 @@ module Tinkerpop {
   // It is wasteful, but not an error, to call this method more than once.
   export function initialize() {
     __ = autoImport('__');
+    BulkLoader = autoImport('BulkLoader');
     ByteArrayOutputStream = autoImport('ByteArrayOutputStream');
     Cardinality = autoImport('VertexProperty$Cardinality');
+    ClosureStore = autoImport('ClosureStore');
     Compare = autoImport('Compare');
     Contains = autoImport('Contains');
     Direction = autoImport('Direction');
+    ElementProjection = autoImport('ElementProjection');
     GraphSONReader = autoImport('GraphSONReader');
     GraphSONWriter = autoImport('GraphSONWriter');
     GraphSONMapper = autoImport('GraphSONMapper');
     GremlinGroovyScriptEngine = autoImport('GremlinGroovyScriptEngine');
+    GroovyImports = autoImport('GroovyImports');
     GroovyLambda = autoImport('GroovyLambda');
+    GryoSnapshot = autoImport('GryoSnapshot');
+    InstrumentedGlobFunction = autoImport('InstrumentedGlobFunction');
+    JavaScriptLambda = autoImport('JavaScriptLambda');
+    LambdaClassRegistry = autoImport('LambdaClassRegistry');
+    LambdaMetricsRegistry = autoImport('LambdaMetricsRegistry');
+    NativeLambda = autoImport('NativeLambda');
     NULL = autoImport('NullObject').getNullObject();
     Order = autoImport('Order');
     P = autoImport('P');
+    ParallelTraversalRunner = autoImport('ParallelTraversalRunner');
+    PrettyGraphSON = autoImport('PrettyGraphSON');
     Pop = autoImport('Pop');
     Scope = autoImport('Scope');
     ScriptEngineLambda = autoImport('ScriptEngineLambda');
     T = autoImport('T');
+    StringInputStream = autoImport('StringInputStream');
     TinkerFactory = autoImport('TinkerFactory');
     TinkerGraph = autoImport('TinkerGraph');
+    TraversalBatcher = autoImport('TraversalBatcher');
+    TraversalExecutor = autoImport('TraversalExecutor');
+    TraversalJson = autoImport('TraversalJson');
+    TraversalProfile = autoImport('TraversalProfile');
+    TraversalResultCache = autoImport('TraversalResultCache');
     UTF8 = autoImport('StandardCharsets').UTF_8.name();
 
     /// TODO: provide a separate factory class for script engine instances.
@@ -115,10 +148,37 @@ module Tinkerpop {
     return Java.newArray('java.lang.Object', _.map(a, (n: number) => id(n)));
   }
 
+  // #### `longs(a: number[])`
+  // Creates a Java `long[]`, e.g. a column of ids for `BulkLoader`, in a single bridge call rather than boxing each
+  // id with `id()`:
+  // ```
+  // var loader: Java.BulkLoader = new TP.BulkLoader(graph);
+  // loader.vertices(TP.longs([1, 2]), TP.strings(['person'])).property('name', TP.strings(['marko', 'vadas']));
+  // loader.edges(null, TP.strings(['knows']), TP.longs([1]), TP.longs([2])).property('weight', TP.doubles([0.5]));
+  // loader.load();
+  // ```
+  export function longs(a: number[]): Java.array_t<Java.longValue_t> {
+    return Java.newArray<Java.longValue_t>('long', a);
+  }
+
+  // #### `doubles(a: number[])`
+  // Creates a Java `double[]`, e.g. a column of property values for `BulkLoader`.
+  export function doubles(a: number[]): Java.array_t<number> {
+    return Java.newArray<number>('double', a);
+  }
+
+  // #### `strings(a: string[])`
+  // Creates a Java `String[]`, e.g. a column of labels or property values for `BulkLoader`.
+  export function strings(a: string[]): Java.array_t<string> {
+    return Java.newArray<string>('java.lang.String', a);
+  }
+
   // #### `newJavaScriptLambda(javascript: string)`
-  // Creates a lambda function from a javascript string.
-  export function newJavaScriptLambda(javascript: string): Java.ScriptEngineLambda {
-    return new ScriptEngineLambda(_javaScriptEngineName, javascript);
+  // Creates a lambda function from a javascript fragment with implicit parameters a,b,c, e.g. 'a.get().value("age") > 30'.
+  // The fragment is compiled once and cached by source text; a single expression is called as a compiled function.
+  // While `setLambdaMetricsEnabled(true)` is in effect, the lambda records its own invocation metrics.
+  export function newJavaScriptLambda(javascript: string): Java.JavaScriptLambda {
+    return JavaScriptLambda.of(javascript);
   };
 
   // #### `newGroovyLambda(groovyFragment: string)`
@@ -133,10 +193,96 @@ module Tinkerpop {
 
   // #### `newGroovyClosure(groovyClosureString: string)`
   // Creates a lambda function from a groovy closure string.
+  // Compiled closures are cached by source text, so repeating the same closure string is cheap.
+  // While `setLambdaMetricsEnabled(true)` is in effect, the closure records its own invocation metrics.
   export function newGroovyClosure(groovyClosureString: string): Java.GroovyLambda {
     // The groovy string must be a closure expression, e.g. '{ x -> println(x) }'.
     assert.ok(_isClosure(groovyClosureString));
-    return new GroovyLambda(groovyClosureString, _groovyScriptEngine);
+    return GroovyLambda.of(groovyClosureString, _groovyScriptEngine);
+  };
+
+  // #### `newInstrumentedGroovyClosure(groovyClosureString: string)`
+  // As `newGroovyClosure`, but wrapped to record invocation metrics, which `lambdaMetrics()` returns, whether or not
+  // `setLambdaMetricsEnabled(true)` is in effect.
+  export function newInstrumentedGroovyClosure(groovyClosureString: string): Java.GlobFunction {
+    return InstrumentedGlobFunction.instrument(newGroovyClosure(groovyClosureString));
+  };
+
+  // #### `newNativeLambda(expression: string)`
+  // Creates a lambda function from a simple expression without using Groovy, e.g. `'{ v -> v.value("age") > 30 }'`,
+  // `'{ it.label() == "person" }'` or `'it.value("name").length()'`. The expression may use property values, label(),
+  // id(), comparisons, `&&`, `||`, `!`, `?:`, arithmetic and a few string methods; see NativeLambda.java for the full
+  // list. Anything else is rejected at once. Creating and calling a native lambda is much cheaper than a Groovy
+  // closure, so prefer it for simple filters, choices and projections.
+  // While `setLambdaMetricsEnabled(true)` is in effect, the lambda records its own invocation metrics.
+  export function newNativeLambda(expression: string): Java.NativeLambda {
+    return NativeLambda.compile(expression);
+  };
+
+  // #### `setLambdaMetricsEnabled(enabled: boolean)`
+  // Turns on or off the recording of invocation metrics for lambdas subsequently created by `newGroovyClosure` (and the
+  // other `new...GroovyClosure` functions), `newJavaScriptLambda` and `newNativeLambda`.
+  // The same switch is the `InstrumentNewClosures` attribute of the JMX bean `co.redseal.gremlinnode:type=LambdaMetrics`.
+  export function setLambdaMetricsEnabled(enabled: boolean): void {
+    LambdaMetricsRegistry.setInstrumentNewClosures(enabled);
+  };
+
+  // #### `lambdaMetrics()`
+  // Returns the metrics of every instrumented closure, keyed by the closure's identity, e.g. `GroovyLambda({ x -> x })`:
+  // invocation counts per shape (apply, test, accept, get), exceptions, predicate pass ratio and latency histogram.
+  export function lambdaMetrics(): any {
+    return JSON.parse(LambdaMetricsRegistry.snapshotJson());
+  };
+
+  // #### `resetLambdaMetrics()`
+  // Zeroes the metrics of every instrumented closure.
+  export function resetLambdaMetrics(): void {
+    LambdaMetricsRegistry.reset();
+  };
+
+  // #### `newThreadSafeGroovyClosure(groovyClosureString: string)`
+  // As `newGroovyClosure`, but safe to call from several Java threads at once, e.g. from asynchronous (`...P`) calls
+  // or parallel traversals. Each thread gets its own clone of the compiled closure.
+  export function newThreadSafeGroovyClosure(groovyClosureString: string): Java.GroovyLambda {
+    assert.ok(_isClosure(groovyClosureString));
+    return GroovyLambda.of(groovyClosureString, _groovyScriptEngine).threadSafe();
+  };
+
+  // #### `newStaticGroovyClosure(groovyClosureString: string, parameterTypes: string[] = [])`
+  // Creates a lambda function from a groovy closure string compiled with `@CompileStatic`, giving untyped closure
+  // parameters the Java class names in `parameterTypes`, e.g. `newStaticGroovyClosure('{ v -> v.id() }', ['Vertex'])`.
+  // Calls skip Groovy's dynamic dispatch. A closure that fails static type checking falls back to the dynamic path;
+  // `getStaticCompilationFailure()` on the result explains why.
+  export function newStaticGroovyClosure(groovyClosureString: string, parameterTypes: string[] = []): Java.GroovyLambda {
+    assert.ok(_isClosure(groovyClosureString));
+    var types: Java.array_t<string> = Java.newArray('java.lang.String', parameterTypes);
+    return GroovyLambda.compileStatic(groovyClosureString, _groovyScriptEngine, types);
+  };
+
+  // #### `newReclaimableGroovyClosure(groovyClosureString: string)`
+  // As `newGroovyClosure`, but compiled into a class loader of its own, so that its classes are unloaded once it is
+  // closed with `close()` or garbage collected, rather than kept by the Groovy engine for the life of the process.
+  // Use it for ad-hoc closures in long-running processes. Each call compiles the closure again, and the closure cannot
+  // refer to classes defined by scripts evaluated in the engine.
+  export function newReclaimableGroovyClosure(groovyClosureString: string): Java.GroovyLambda {
+    assert.ok(_isClosure(groovyClosureString));
+    return GroovyLambda.reclaimable(groovyClosureString, _groovyScriptEngine);
+  };
+
+  // #### `lambdaClassMetrics()`
+  // Returns the counts of reclaimable closures created, closed, released and still loaded, and of their classes, e.g.
+  // `{ created: 500, closed: 500, released: 498, live: 3, liveClasses: 6, unloaded: 497, unloadedClasses: 994 }`.
+  export function lambdaClassMetrics(): any {
+    return JSON.parse(LambdaClassRegistry.snapshotJson());
+  };
+
+  // #### `warmUpGroovyClosures(storeDirectory: string, groovyClosureStrings: string[])`
+  // Loads each closure from the precompiled store in `storeDirectory`, compiling and storing any that are missing, so
+  // later `newGroovyClosure` calls with the same strings skip compilation. Entries are kept per Groovy and TinkerPop
+  // version. Returns a report, e.g. `{ closures: 12, storeHits: 12, compiled: 0, millis: 40, storeHit: true }`.
+  export function warmUpGroovyClosures(storeDirectory: string, groovyClosureStrings: string[]): any {
+    var store: Java.ClosureStore = new ClosureStore(storeDirectory, _groovyScriptEngine);
+    return JSON.parse(store.warmUp(strings(groovyClosureStrings)).toJson());
   };
 
   // ### `getGroovyEngine()`
@@ -145,15 +291,14 @@ module Tinkerpop {
     return _groovyScriptEngine;
   }
 
-  // ### `importGroovy(pkgOrClass: string)`
-  // Imports a Java package or class, based on fully-qualified wildcard or class name.  This affects the operation of
-  // `newGroovyClosure` but does NOT affect `newGroovyLambda`.
-  export function importGroovy(javaClassOrPkg: string): void {
-    var engine = getGroovyEngine();
-    var HashSet: Java.HashSet.Static = autoImport('HashSet');
-    var imports: Java.HashSet = new HashSet();
-    imports.add('import ' + javaClassOrPkg);
-    engine.addImports(imports);
+  // ### `importGroovy(pkgOrClass: string | string[])`
+  // Imports Java packages or classes, based on fully-qualified wildcard or class names, e.g. `'java.util.concurrent.*'`
+  // or `'static java.lang.Math.max'`.  This affects the operation of `newGroovyClosure` but does NOT affect
+  // `newGroovyLambda`.  Importing resets the Groovy engine, so import everything in one call; names that are already
+  // imported are skipped, and if nothing is left the engine and its compiled closures are kept.
+  export function importGroovy(javaClassOrPkg: string | string[]): void {
+    var names: string[] = typeof javaClassOrPkg === 'string' ? [<string> javaClassOrPkg] : <string[]> javaClassOrPkg;
+    GroovyImports.addImports(getGroovyEngine(), strings(names));
   }
 
   // #### `vertexStringify(vertex: Java.Vertex)`
@@ -190,6 +335,20 @@ module Tinkerpop {
     return JSON.parse(edgeStringify(edge));
   };
 
+  // #### `function projectedVertexToJson(vertex: Java.Vertex, keys?: string[], includeEdges: boolean = false)`
+  // Converts a Tinkerpop Vertex to a javascript object shaped as `simplifyVertexProperties` would leave it, with only
+  // the properties named in *keys* (all of them if *keys* is omitted). Adjacent edges are included as `outE` and `inE`
+  // objects keyed by label only if *includeEdges* is true. Much cheaper than `vertexToJson` for large results.
+  export function projectedVertexToJson(vertex: Java.Vertex, keys?: string[], includeEdges: boolean = false): any {
+    return JSON.parse(ElementProjection.vertexToJson(vertex, keys ? strings(keys) : null, includeEdges));
+  };
+
+  // #### `function projectedEdgeToJson(edge: Java.Edge, keys?: string[])`
+  // As `edgeToJson`, but with only the properties named in *keys* (all of them if *keys* is omitted).
+  export function projectedEdgeToJson(edge: Java.Edge, keys?: string[]): any {
+    return JSON.parse(ElementProjection.edgeToJson(edge, keys ? strings(keys) : null));
+  };
+
   // ### `function L(n: number)`
   // Produce a longValue_t literal.
   export import L = Java.L;
@@ -262,6 +421,66 @@ module Tinkerpop {
   // See implementation in tsJavaModule.ts
   export import forEach = Java.forEach;
 
+  // #### `interface ConsumeBatch`
+  // A function interface for a consumer of an array of Java Objects.
+  // See `forEachBatch` below.
+  export interface ConsumeBatch {
+    (batch: Java.object_t[]): any | BluePromise<any>;
+  }
+
+  // #### `forEachBatch(javaIterator: Java.Iterator, consumer: ConsumeBatch, batchSize?: number, prefetch?: boolean)`
+  // Like `forEach`, but applies *consumer* to arrays of up to *batchSize* objects, so that there is one bridge call
+  // per batch rather than two per object.
+  // If *prefetch* is true, the next batch is drained in Java while *consumer* works on the current one.
+  // Returns a promise that is resolved when all objects have been consumed.
+  export function forEachBatch(javaIterator: Java.Iterator, consumer: ConsumeBatch,
+                               batchSize: number = 1000, prefetch: boolean = false): BluePromise<void> {
+    var batcher: Java.TraversalBatcher = new TraversalBatcher(javaIterator, batchSize, prefetch);
+    function _eachBatch(): BluePromise<void> {
+      return batcher.nextArrayP()
+        .then((batch: Java.object_t[]): BluePromise<void> => {
+          if (batch.length === 0) {
+            return BluePromise.resolve();
+          } else {
+            return BluePromise.resolve(consumer(batch))
+              .then(() => _eachBatch());
+          }
+        });
+    }
+    return _eachBatch()
+      .finally(() => batcher.close());
+  }
+
+  // #### `forEachBatchOn(executor: Java.TraversalExecutor, javaIterator: Java.Iterator, consumer: ConsumeBatch, ...)`
+  // Like `forEachBatch`, but *javaIterator* runs on the dedicated Java threads of *executor* (a `TraversalExecutor`)
+  // instead of node's libuv pool, so a long traversal cannot starve other asynchronous Java calls. Results are polled
+  // with cheap synchronous calls, every *pollIntervalMs* while none are ready. A *timeoutMs* of 0 means no timeout.
+  // If *consumer* fails, the traversal is cancelled.
+  export function forEachBatchOn(executor: Java.TraversalExecutor, javaIterator: Java.Iterator, consumer: ConsumeBatch,
+                                 batchSize: number = 1000, timeoutMs: number = 0,
+                                 pollIntervalMs: number = 10): BluePromise<void> {
+    var execution: Java.TraversalExecutor$Execution = executor.submit(javaIterator, timeoutMs);
+    function _eachBatch(): BluePromise<void> {
+      return BluePromise.try((): Java.object_t[] => execution.poll(batchSize))
+        .then((batch: Java.object_t[]): BluePromise<void> => {
+          if (batch.length > 0) {
+            return BluePromise.resolve(consumer(batch))
+              .then(() => _eachBatch());
+          } else if (execution.isDone()) {
+            return BluePromise.resolve();
+          } else {
+            return BluePromise.delay(pollIntervalMs)
+              .then(() => _eachBatch());
+          }
+        });
+    }
+    return _eachBatch()
+      .catch((e: any): void => {
+        execution.cancel();
+        throw e;
+      });
+  }
+
   // #### `function simplifyVertexProperties(obj: any)`
   // Given *obj* which is a javascript object created by asJSON(),
   // return a simpler representation of the object that is more convenient for unit tests.
@@ -289,9 +508,10 @@ module Tinkerpop {
 
   // ### `loadGraphSON(graph: Java.Graph, filename: string)`
   // Loads the graph as GraphSON, and returns promise to the graph (for fluent API).
+  // The file is read through memory-mapped windows; use `StringInputStream.from` to stream GraphSON held in a string.
+  // The file is closed once the load succeeds or fails.
   export function loadGraphSON(graph: Java.Graph, filename: string, callback?: GraphCallback): BluePromise<Java.Graph> {
-    var FileInputStream: Java.FileInputStream.Static = autoImport('FileInputStream');
-    var stream: Java.FileInputStream = new FileInputStream(filename);
+    var stream: Java.InputStream = StringInputStream.fromFile(filename);
     return GraphSONReader.buildP()
       .then((builder: Java.GraphSONReader$Builder): BluePromise<Java.GraphSONReader$Builder> => {
         return _newGraphSONMapper()
@@ -300,64 +520,31 @@ module Tinkerpop {
       .then((builder: Java.GraphSONReader$Builder): BluePromise<Java.GraphSONReader> => builder.createP())
       .then((reader: Java.GraphSONReader): BluePromise<void> => reader.readGraphP(stream, graph))
       .then((): Java.Graph => graph)
+      .finally((): void => stream.close())
       .nodeify(callback);
   }
 
   // ### `loadGraphSONSync(graph: Java.Graph, filename: string)`
   // Loads the graph as GraphSON, and returns the graph (for fluent API).
   export function loadGraphSONSync(graph: Java.Graph, filename: string): Java.Graph {
-    var FileInputStream: Java.FileInputStream.Static = autoImport('FileInputStream');
-    var stream: Java.FileInputStream = new FileInputStream(filename);
-    var builder: Java.GraphSONReader$Builder = GraphSONReader.build();
-    var mapper: Java.GraphSONMapper = _newGraphSONMapperSync();
-    builder.mapper(mapper);
-    var reader: Java.GraphSONReader = builder.create();
-    reader.readGraph(stream, graph);
-    return graph;
-  }
-
-  interface ReadFile {
-    (filename: string, encoding: string, callback: (err: NodeJS.ErrnoException, data: string) => void): void;
+    var stream: Java.InputStream = StringInputStream.fromFile(filename);
+    try {
+      var builder: Java.GraphSONReader$Builder = GraphSONReader.build();
+      var mapper: Java.GraphSONMapper = _newGraphSONMapperSync();
+      builder.mapper(mapper);
+      var reader: Java.GraphSONReader = builder.create();
+      reader.readGraph(stream, graph);
+      return graph;
+    } finally {
+      stream.close();
+    }
   }
 
   // ### `loadPrettyGraphSON(graph: Java.Graph, filename: string)`
   // Loads the graph as GraphSON, and returns promise to the graph (for fluent API).
+  // The file is streamed in Java one vertex at a time, so memory use is bounded by the largest vertex.
   export function loadPrettyGraphSON(graph: Java.Graph, filename: string, callback?: GraphCallback): BluePromise<Java.Graph> {
-
-    // We need to create an input stream and a reader, both of which are created asyncrously in parallel.
-    // It would be nice to use Bluebird.join() perform those two operations, but the declaration for join()
-    // in bluebird.d.ts isn't correct. We instead use .all(), and furthermore we use these two local variables
-    // to commuicate the results of the two async operations to the final join operation.
-    var theStream: Java.InputStream;
-    var theReader: Java.GraphSONReader;
-
-    function getStream(): BluePromise<Java.InputStream> {
-      var readFileP = BluePromise.promisify(<ReadFile>fs.readFile);
-      return readFileP(filename, 'utf8')
-        .then((jsonText: string) => {
-          var jsonObjArray: any[] = JSON.parse(jsonText);
-          var jsonTextArray: string[] = _.map(jsonObjArray, JSON.stringify);
-          return jsonTextArray.join('\n');
-        })
-        .then((uglyText: string) => {
-          var StringInputStream: Java.StringInputStream.Static = autoImport('StringInputStream');
-          theStream = StringInputStream.from(uglyText);
-          return theStream;
-        });
-    }
-
-    function getGraphReader(): BluePromise<Java.GraphSONReader> {
-      return GraphSONReader.buildP()
-        .then((builder: Java.GraphSONReader$Builder): BluePromise<Java.GraphSONReader$Builder> => {
-          return _newGraphSONMapper()
-            .then((mapper: Java.GraphSONMapper): BluePromise<Java.GraphSONReader$Builder> => builder.mapperP(mapper));
-        })
-        .then((builder: Java.GraphSONReader$Builder): BluePromise<Java.GraphSONReader> => builder.createP())
-        .then((reader: Java.GraphSONReader) => { theReader = reader; return theReader; });
-    }
-
-    return BluePromise.all([getStream(), getGraphReader()])
-      .then(() => theReader.readGraphP(theStream, graph))
+    return PrettyGraphSON.loadP(graph, filename)
       .then((): Java.Graph => graph)
       .nodeify(callback);
   }
@@ -365,18 +552,7 @@ module Tinkerpop {
   // ### `loadPrettyGraphSONSync(graph: Java.Graph, filename: string)`
   // Loads the 'pretty' graph as GraphSON, and returns the graph (for fluent API).
   export function loadPrettyGraphSONSync(graph: Java.Graph, filename: string): Java.Graph {
-    var jsonText: string = fs.readFileSync(filename, { encoding: 'utf8' });
-    var jsonObjArray: any[] = JSON.parse(jsonText);
-    var jsonTextArray: string[] = _.map(jsonObjArray, JSON.stringify);
-    var uglyText = jsonTextArray.join('\n');
-
-    var StringInputStream: Java.StringInputStream.Static = autoImport('StringInputStream');
-    var stream: Java.InputStream = StringInputStream.from(uglyText);
-    var builder: Java.GraphSONReader$Builder = GraphSONReader.build();
-    var mapper: Java.GraphSONMapper = _newGraphSONMapperSync();
-    builder.mapper(mapper);
-    var reader: Java.GraphSONReader = builder.create();
-    reader.readGraph(stream, graph);
+    PrettyGraphSON.load(graph, filename);
     return graph;
   }
 
@@ -409,29 +585,12 @@ module Tinkerpop {
     return graph;
   }
 
-  interface WriteFile {
-    (filename: string, data: any, callback: (err: NodeJS.ErrnoException) => void): void;
-  }
-
   // ### `savePrettyGraphSON(graph: Java.Graph, filename: string)`
   // Saves the graph as human-readable, deterministic GraphSON, and returns promise to the graph (for fluent API).
+  // The GraphSON is sorted and indented in Java, spilling to temporary files for graphs too large to sort in memory.
   export
   function savePrettyGraphSON(graph: Java.Graph, filename: string, callback?: GraphCallback): BluePromise<Java.Graph> {
-    var ByteArrayOutputStream: Java.ByteArrayOutputStream.Static = autoImport('ByteArrayOutputStream');
-    var stream: Java.ByteArrayOutputStream = new ByteArrayOutputStream();
-    return GraphSONWriter.buildP()
-      .then((builder: Java.GraphSONWriter$Builder): BluePromise<Java.GraphSONWriter$Builder> => {
-        return _newGraphSONMapper()
-          .then((mapper: Java.GraphSONMapper): BluePromise<Java.GraphSONWriter$Builder> => builder.mapperP(mapper));
-      })
-      .then((builder: Java.GraphSONWriter$Builder): BluePromise<Java.GraphSONWriter> => builder.createP())
-      .then((writer: Java.GraphSONWriter): BluePromise<void> => writer.writeGraphP(stream, graph))
-      .then((): BluePromise<string> => stream.toStringP())
-      .then((ugly: string): BluePromise<any> => {
-        var prettyString: string = _prettyGraphSONString(ugly);
-        var writeFileP = BluePromise.promisify(<WriteFile>fs.writeFile);
-        return writeFileP(filename, prettyString);
-      })
+    return PrettyGraphSON.saveP(graph, filename)
       .then((): Java.Graph => graph)
       .nodeify(callback);
   }
@@ -439,21 +598,41 @@ module Tinkerpop {
   // ### `savePrettyGraphSONSync(graph: Java.Graph, filename: string)`
   // Saves the graph as human-readable, deterministic GraphSON, and returns the graph (for fluent API).
   export function savePrettyGraphSONSync(graph: Java.Graph, filename: string): Java.Graph {
-    // Build the GraphSON in memory in Java.
-    var ByteArrayOutputStream: Java.ByteArrayOutputStream.Static = autoImport('ByteArrayOutputStream');
-    var stream: Java.ByteArrayOutputStream = new ByteArrayOutputStream();
-    var builder: Java.GraphSONWriter$Builder = GraphSONWriter.build();
-    var mapper: Java.GraphSONMapper = _newGraphSONMapperSync();
-    builder.mapper(mapper);
-    var writer: Java.GraphSONWriter = builder.create();
-    writer.writeGraph(stream, graph);
+    PrettyGraphSON.save(graph, filename);
+    return graph;
+  }
 
-    // Beautify the JSON.
-    var uglyString: string = stream.toString();
-    var prettyString: string = _prettyGraphSONString(uglyString);
+  // ## Gryo API
 
-    // Write to the file.
-    fs.writeFileSync(filename, prettyString);
+  // ### `loadGryo(graph: Java.Graph, filename: string)`
+  // Loads a binary Gryo snapshot, compressed or not, and returns promise to the graph (for fluent API).
+  export function loadGryo(graph: Java.Graph, filename: string, callback?: GraphCallback): BluePromise<Java.Graph> {
+    return GryoSnapshot.loadP(graph, filename)
+      .then((): Java.Graph => graph)
+      .nodeify(callback);
+  }
+
+  // ### `loadGryoSync(graph: Java.Graph, filename: string)`
+  // Loads a binary Gryo snapshot, compressed or not, and returns the graph (for fluent API).
+  export function loadGryoSync(graph: Java.Graph, filename: string): Java.Graph {
+    GryoSnapshot.load(graph, filename);
+    return graph;
+  }
+
+  // ### `saveGryo(graph: Java.Graph, filename: string, compress: boolean = false)`
+  // Saves the graph as a binary Gryo snapshot, deflate-compressed if *compress* is true, and returns promise to the graph.
+  // Gryo snapshots are several times smaller than GraphSON and much faster to load.
+  export function saveGryo(graph: Java.Graph, filename: string, compress: boolean = false,
+                           callback?: GraphCallback): BluePromise<Java.Graph> {
+    return GryoSnapshot.saveP(graph, filename, compress)
+      .then((): Java.Graph => graph)
+      .nodeify(callback);
+  }
+
+  // ### `saveGryoSync(graph: Java.Graph, filename: string, compress: boolean = false)`
+  // Saves the graph as a binary Gryo snapshot, deflate-compressed if *compress* is true, and returns the graph.
+  export function saveGryoSync(graph: Java.Graph, filename: string, compress: boolean = false): Java.Graph {
+    GryoSnapshot.save(graph, filename, compress);
     return graph;
   }
 
@@ -532,11 +711,67 @@ module Tinkerpop {
     return _.isString(val) && val.search(closureRegex) > -1;
   };
 
-  // #### `function asJSON(traversal: Java.Traversal)`
+  // #### `function traversalToJson(traversal: Java.Traversal)`
   // Executes a traversal (synchronously!), returning a json object for all of the returned objects.
+  // The whole result is serialized in Java and crosses the bridge as a single string.
   export function traversalToJson(traversal: Java.Traversal): any[] {
-    var array: any[] = traversal.toList().toArray().map((elem: any) => asJSON(elem));
-    return JSON.parse(JSON.stringify(array));
+    return JSON.parse(traversalStringify(traversal));
+  };
+
+  // #### `function traversalStringify(traversal: Java.Traversal)`
+  // Executes a traversal (synchronously!), returning the JSON text that `traversalToJson` would parse.
+  export function traversalStringify(traversal: Java.Traversal): string {
+    return TraversalJson.traversalToJson(traversal);
+  };
+
+  // #### `function traversalToJsonP(traversal: Java.Traversal)`
+  // As `traversalToJson`, but executes the traversal asynchronously.
+  export function traversalToJsonP(traversal: Java.Traversal): BluePromise<any[]> {
+    return TraversalJson.traversalToJsonP(traversal)
+      .then((json: string): any[] => JSON.parse(json));
+  };
+
+  // #### `function projectedTraversalToJson(traversal: Java.Traversal, keys?: string[], includeEdges: boolean = false)`
+  // As `traversalToJson`, but vertices and edges are written as by `projectedVertexToJson` and `projectedEdgeToJson`.
+  export function projectedTraversalToJson(traversal: Java.Traversal, keys?: string[], includeEdges: boolean = false): any[] {
+    return JSON.parse(ElementProjection.traversalToJson(traversal, keys ? strings(keys) : null, includeEdges));
+  };
+
+  // #### `function projectedTraversalToJsonP(traversal: Java.Traversal, keys?: string[], includeEdges: boolean = false)`
+  // As `projectedTraversalToJson`, but executes the traversal asynchronously.
+  export function projectedTraversalToJsonP(traversal: Java.Traversal, keys?: string[],
+                                            includeEdges: boolean = false): BluePromise<any[]> {
+    return ElementProjection.traversalToJsonP(traversal, keys ? strings(keys) : null, includeEdges)
+      .then((json: string): any[] => JSON.parse(json));
+  };
+
+  // #### `function cachedTraversalToJsonP(cache: Java.TraversalResultCache, traversal: Java.Traversal, key?: string)`
+  // As `traversalToJsonP`, but served from *cache* when the same traversal (or *key*, e.g. its Groovy source) was run
+  // since the graph last changed. Writes must go through `cache.traversal(graph)`, or be followed by
+  // `cache.bumpVersion()`, for the cache to see them.
+  export function cachedTraversalToJsonP(cache: Java.TraversalResultCache, traversal: Java.Traversal,
+                                         key?: string): BluePromise<any[]> {
+    var result: BluePromise<string> = key ? cache.toJsonP(key, traversal) : cache.toJsonP(traversal);
+    return result.then((json: string): any[] => JSON.parse(json));
+  };
+
+  // #### `function parallelTraversalToJsonP(graph: Java.Graph, template: Java.Traversal, partitions: number)`
+  // Runs the anonymous traversal *template* (e.g. `__.out().groupCount().by('name')`) over all vertices of *graph*,
+  // split by id into *partitions* that run in parallel in Java. Partial counts, group counts, BulkSets and lists are
+  // merged in Java, and the merged result crosses the bridge as a single JSON string, formatted as `traversalToJson`.
+  export function parallelTraversalToJsonP(graph: Java.Graph, template: Java.Traversal,
+                                           partitions: number): BluePromise<any[]> {
+    return ParallelTraversalRunner.runToJsonP(graph, template, partitions)
+      .then((json: string): any[] => JSON.parse(json));
+  };
+
+  // #### `function traversalProfileP(traversal: Java.Traversal)`
+  // Executes *traversal* with profiling and resolves to a compact summary: total `durationMs`, one entry per step
+  // with its share of the time and traverser counts, and per-lambda invocation counts, time and pass ratios.
+  // Profiling adds overhead, so in production profile a sample of traversals rather than all of them.
+  export function traversalProfileP(traversal: Java.Traversal): BluePromise<any> {
+    return TraversalProfile.profileToJsonP(traversal)
+      .then((json: string): any => JSON.parse(json));
   };
 
   // #### `function asJSON(elem: any)`
@@ -598,104 +833,6 @@ module Tinkerpop {
     return mapper;
   }
 
-  // ### `_smellsLikeAPropertyContainer()`
-  function _smellsLikeAPropertyContainer(elem: any): boolean {
-    return _.isObject(elem) && elem['@class'] === 'java.util.HashMap';
-  }
-
-  // ### `_smellsLikeAnElement()`
-  function _smellsLikeAnElement(elem: any): boolean {
-    return _smellsLikeAPropertyContainer(elem) &&  !_.isUndefined(elem.id);
-  }
-
-  function _smellsLikeArrayOfElements(obj: any): boolean {
-    return _.isArray(obj) && obj[0] === 'java.util.ArrayList' && _.isArray(obj[1]) && _smellsLikeAnElement(obj[1][0]);
-  }
-
-  // ### `_compareIds()`
-  // Compares two Tinkerpop elements (vertex or edge) by their ID.
-  // Tinkerpop allows different datatypes to be used for ID. This method requires that both IDs be of the same
-  // type, and tries to do something reasonable for the various representations we might see from Tinkerpop.
-  function _compareIds(a: any, b: any): number {
-    assert.strictEqual(typeof a, typeof b);
-    if (_.isNumber(a)) {
-      return a - b;
-    } else if (_.isString(a)) {
-      // Even with strings, we prefer numeric sort semantics,
-      // i.e. a shorter string is always less than a longer string.
-      if (a.length === b.length) {
-        return a.localeCompare(b);
-      } else {
-        return a.length - b.length;
-      }
-    } else if (_.isArray(a)) {
-      // handles cases like this: "id": [ "java.lang.Long", 16],
-      assert.strictEqual(a[0], b[0]);
-      assert.strictEqual(a.length, 2);
-      assert.strictEqual(b.length, 2);
-      return _compareIds(a[1], b[1]);
-    } else {
-      dlog('Whatup?', a, b);
-      assert(false, 'Unexpected element id type:' + typeof(a));
-    }
-  }
-
-  // ### `_compareById()`
-  // Compares two elements by their id
-  function _compareById(a: any, b: any): number {
-    assert.strictEqual(typeof a.id, typeof b.id);
-    assert.ok(!_.isUndefined(a.id));
-    return _compareIds(a.id, b.id);
-  }
-
-  // ### `_sortElements()`
-  // Called for each key,obj in a property container, this processes each object that smells like an array of elements
-  function _sortElements(obj: any, key: string): any {
-    if (_smellsLikeArrayOfElements(obj)) {
-      obj[1] = obj[1].sort(_compareById);
-    }
-    return obj;
-  }
-
-  // ### `_sortPropertyContainers()`
-  // Called for each key,obj in an Element, this processes each object that smells like a 'property container',
-  // which includes vertex `properties` hashmaps, and `inE` and `outE` edges.
-  function _sortPropertyContainers(obj: any, key: string): any {
-    if (_smellsLikeAPropertyContainer(obj)) {
-      return _.mapValues(obj, _sortElements);
-    } else {
-      return obj;
-    }
-  }
-
-  // ### `_parseVertex()`
-  // Parse one line of text from a Tinkerpop graphson stream, yielding one vertex.
-  function _parseVertex(line: string): any {
-    var vertex: any = JSON.parse(line);
-    assert.ok(_smellsLikeAnElement(vertex));
-
-    // A vertex is an object, i.e. a key,value map.
-    // We don't sort the keys of the object, leaving that to jsonStableStringify below.
-    // But a vertex values contain `property containers`, each of which may contain embedded arrays of elements.
-    return _.mapValues(vertex, _sortPropertyContainers);
-  }
-
-  // ### `prettyGraphSONString(ugly: string)`
-  // Make a GraphSON string pretty, adding indentation and deterministic format.
-  function _prettyGraphSONString(ugly: string): string {
-    var lines: string[] = ugly.trim().split(require('os').EOL);
-
-    var vertices: any[] = _.map(lines, (line: string) => _parseVertex(line));
-    vertices.sort(_compareById);
-
-    // Compute the stable JSON.
-    var stringifyOpts: jsonStableStringify.Options = {
-      space: 2
-    };
-    var prettyString: string = jsonStableStringify(vertices, stringifyOpts) + '\n';
-    return prettyString;
-  }
-
   // ### `_jsifyCollection(javaCollection: Java.Collection)`
   // Turn a Java Collection into a JavaScript array, recursively calling jsify.
   function _jsifyCollection(javaCollection: Java.Collection): any[] {
@@ -770,7 +907,6 @@ module Tinkerpop {
 
   // ### Non-exported variables
   var _groovyScriptEngineName: string = 'Groovy';
-  var _javaScriptEngineName: string = 'JavaScript';
   var _groovyScriptEngine: Java.GremlinGroovyScriptEngine;
 
 }
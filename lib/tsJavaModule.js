@@ -1,585 +0,0 @@
-// tsJavaModule.ts
-// This file was generated by ts-java.
-/// <reference path="../typings/java/java.d.ts" />
-/// <reference path="../typings/lodash/lodash.d.ts" />
-/// <reference path="../typings/debug/debug.d.ts" />
-require('source-map-support').install();
-var _java = require('java');
-var _ = require('lodash');
-var BluePromise = require('bluebird');
-var path = require('path');
-var debug = require('debug');
-var dlog = debug('tsJavaModule:' + __dirname);
-dlog('imported');
-_java.asyncOptions = {
-    syncSuffix: '',
-    asyncSuffix: 'A',
-    promiseSuffix: 'P',
-    promisify: BluePromise.promisify
-};
-dlog('asyncOptions:', _java.asyncOptions);
-// JVM initialization callback which adds tsjava.classpath to the JVM classpath.
-function beforeJvm() {
-    var moduleJars = ['target/ts-tinkerpop-3.0.1.GA.0.jar', 'target/dependency/commons-configuration-1.10.jar', 'target/dependency/commons-lang-2.6.jar', 'target/dependency/commons-lang3-3.3.1.jar', 'target/dependency/gremlin-core-3.0.1-incubating.jar', 'target/dependency/gremlin-groovy-3.0.1-incubating.jar', 'target/dependency/gremlin-shaded-3.0.1-incubating.jar', 'target/dependency/groovy-2.4.1-indy.jar', 'target/dependency/groovy-2.4.1.jar', 'target/dependency/groovy-console-2.4.1.jar', 'target/dependency/groovy-groovysh-2.4.1-indy.jar', 'target/dependency/groovy-json-2.4.1-indy.jar', 'target/dependency/groovy-jsr223-2.4.1-indy.jar', 'target/dependency/groovy-swing-2.4.1.jar', 'target/dependency/groovy-templates-2.4.1.jar', 'target/dependency/groovy-xml-2.4.1.jar', 'target/dependency/hamcrest-core-1.3.jar', 'target/dependency/hppc-0.7.1.jar', 'target/dependency/ivy-2.3.0.jar', 'target/dependency/jackson-annotations-2.5.0.jar', 'target/dependency/jackson-core-2.5.3.jar', 'target/dependency/jackson-databind-2.5.3.jar', 'target/dependency/javatuples-1.2.jar', 'target/dependency/jbcrypt-0.3m.jar', 'target/dependency/jcabi-log-0.14.jar', 'target/dependency/jcabi-manifests-1.1.jar', 'target/dependency/jcl-over-slf4j-1.7.12.jar', 'target/dependency/jline-2.12.jar', 'target/dependency/junit-4.11.jar', 'target/dependency/log4j-1.2.17.jar', 'target/dependency/slf4j-api-1.7.12.jar', 'target/dependency/slf4j-log4j12-1.7.12.jar', 'target/dependency/snakeyaml-1.15.jar', 'target/dependency/tinkergraph-gremlin-3.0.1-incubating.jar', 'target/ts-tinkerpop-3.0.1.GA.0.jar'];
-    moduleJars.forEach(function (jarPath) {
-        var fullJarPath = path.join(__dirname, '..', jarPath);
-        dlog('Adding to classpath:', fullJarPath);
-        _java.classpath.push(fullJarPath);
-    });
-    return BluePromise.resolve();
-}
-_java.registerClientP(beforeJvm);
-var Java;
-(function (Java) {
-    'use strict';
-    function getJava() {
-        return _java;
-    }
-    Java.getJava = getJava;
-    function ensureJvm() {
-        return _java.ensureJvm();
-    }
-    Java.ensureJvm = ensureJvm;
-    function getClassLoader() {
-        return _java.getClassLoader();
-    }
-    Java.getClassLoader = getClassLoader;
-    // Return the fully qualified class path for a class name.
-    // Returns undefined if the className is ambiguous or not present in the configured classes.
-    function fullyQualifiedName(className) {
-        var shortToLongMap = {
-            'GlobFunction': 'co.redseal.gremlinnode.function.GlobFunction',
-            'GroovyLambda': 'co.redseal.gremlinnode.function.GroovyLambda',
-            'TestClass': 'co.redseal.gremlinnode.testing.TestClass',
-            'StringInputStream': 'co.redseal.util.StringInputStream',
-            'Binding': 'groovy.lang.Binding',
-            'Closure': 'groovy.lang.Closure',
-            'DelegatingMetaClass': 'groovy.lang.DelegatingMetaClass',
-            'GroovyClassLoader': 'groovy.lang.GroovyClassLoader',
-            'GroovyCodeSource': 'groovy.lang.GroovyCodeSource',
-            'GroovyObjectSupport': 'groovy.lang.GroovyObjectSupport',
-            'GroovyResourceLoader': 'groovy.lang.GroovyResourceLoader',
-            'IntRange': 'groovy.lang.IntRange',
-            'MetaBeanProperty': 'groovy.lang.MetaBeanProperty',
-            'MetaClass': 'groovy.lang.MetaClass',
-            'MetaMethod': 'groovy.lang.MetaMethod',
-            'MetaProperty': 'groovy.lang.MetaProperty',
-            'Range': 'groovy.lang.Range',
-            'Reference': 'groovy.lang.Reference',
-            'ByteArrayOutputStream': 'java.io.ByteArrayOutputStream',
-            'FileInputStream': 'java.io.FileInputStream',
-            'FileOutputStream': 'java.io.FileOutputStream',
-            'InputStream': 'java.io.InputStream',
-            'OutputStream': 'java.io.OutputStream',
-            'Boolean': 'java.lang.Boolean',
-            'Class': 'java.lang.Class',
-            'ClassLoader': 'java.lang.ClassLoader',
-            'Double': 'java.lang.Double',
-            'Enum': 'java.lang.Enum',
-            'Float': 'java.lang.Float',
-            'Integer': 'java.lang.Integer',
-            'Iterable': 'java.lang.Iterable',
-            'Long': 'java.lang.Long',
-            'Object': 'java.lang.Object',
-            'Array': 'java.lang.reflect.Array',
-            'Short': 'java.lang.Short',
-            'String': 'java.lang.String',
-            'Charset': 'java.nio.charset.Charset',
-            'StandardCharsets': 'java.nio.charset.StandardCharsets',
-            'AbstractCollection': 'java.util.AbstractCollection',
-            'AbstractList': 'java.util.AbstractList',
-            'AbstractMap': 'java.util.AbstractMap',
-            'AbstractSet': 'java.util.AbstractSet',
-            'ArrayList': 'java.util.ArrayList',
-            'Collection': 'java.util.Collection',
-            'Comparator': 'java.util.Comparator',
-            'BiConsumer': 'java.util.function.BiConsumer',
-            'BiFunction': 'java.util.function.BiFunction',
-            'BinaryOperator': 'java.util.function.BinaryOperator',
-            'BiPredicate': 'java.util.function.BiPredicate',
-            'Consumer': 'java.util.function.Consumer',
-            'Function': 'java.util.function.Function',
-            'Predicate': 'java.util.function.Predicate',
-            'Supplier': 'java.util.function.Supplier',
-            'UnaryOperator': 'java.util.function.UnaryOperator',
-            'HashMap': 'java.util.HashMap',
-            'HashSet': 'java.util.HashSet',
-            'Iterator': 'java.util.Iterator',
-            'LinkedHashMap': 'java.util.LinkedHashMap',
-            'List': 'java.util.List',
-            'ListIterator': 'java.util.ListIterator',
-            'Map': 'java.util.Map',
-            'Map$Entry': 'java.util.Map$Entry',
-            'NoSuchElementException': 'java.util.NoSuchElementException',
-            'Optional': 'java.util.Optional',
-            'Set': 'java.util.Set',
-            'AbstractScriptEngine': 'javax.script.AbstractScriptEngine',
-            'Bindings': 'javax.script.Bindings',
-            'CompiledScript': 'javax.script.CompiledScript',
-            'ScriptContext': 'javax.script.ScriptContext',
-            'ScriptEngine': 'javax.script.ScriptEngine',
-            'ScriptEngineFactory': 'javax.script.ScriptEngineFactory',
-            'GComparator': 'org.apache.tinkerpop.gremlin.groovy.function.GComparator',
-            'GFunction': 'org.apache.tinkerpop.gremlin.groovy.function.GFunction',
-            'GSupplier': 'org.apache.tinkerpop.gremlin.groovy.function.GSupplier',
-            'GUnaryOperator': 'org.apache.tinkerpop.gremlin.groovy.function.GUnaryOperator',
-            'GremlinGroovyScriptEngine': 'org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine',
-            'ClusterCountMapReduce': 'org.apache.tinkerpop.gremlin.process.computer.clustering.peerpressure.ClusterCountMapReduce',
-            'ClusterCountMapReduce$Builder': 'org.apache.tinkerpop.gremlin.process.computer.clustering.peerpressure.ClusterCountMapReduce$Builder',
-            'ClusterPopulationMapReduce': 'org.apache.tinkerpop.gremlin.process.computer.clustering.peerpressure.ClusterPopulationMapReduce',
-            'ClusterPopulationMapReduce$Builder': 'org.apache.tinkerpop.gremlin.process.computer.clustering.peerpressure.ClusterPopulationMapReduce$Builder',
-            'PeerPressureVertexProgram': 'org.apache.tinkerpop.gremlin.process.computer.clustering.peerpressure.PeerPressureVertexProgram',
-            'PeerPressureVertexProgram$Builder': 'org.apache.tinkerpop.gremlin.process.computer.clustering.peerpressure.PeerPressureVertexProgram$Builder',
-            'ComputerResult': 'org.apache.tinkerpop.gremlin.process.computer.ComputerResult',
-            'GraphComputer': 'org.apache.tinkerpop.gremlin.process.computer.GraphComputer',
-            'GraphComputer$Exceptions': 'org.apache.tinkerpop.gremlin.process.computer.GraphComputer$Exceptions',
-            'GraphComputer$Features': 'org.apache.tinkerpop.gremlin.process.computer.GraphComputer$Features',
-            'GraphComputer$Persist': 'org.apache.tinkerpop.gremlin.process.computer.GraphComputer$Persist',
-            'GraphComputer$ResultGraph': 'org.apache.tinkerpop.gremlin.process.computer.GraphComputer$ResultGraph',
-            'KeyValue': 'org.apache.tinkerpop.gremlin.process.computer.KeyValue',
-            'MapReduce': 'org.apache.tinkerpop.gremlin.process.computer.MapReduce',
-            'MapReduce$MapEmitter': 'org.apache.tinkerpop.gremlin.process.computer.MapReduce$MapEmitter',
-            'MapReduce$NullObject': 'org.apache.tinkerpop.gremlin.process.computer.MapReduce$NullObject',
-            'MapReduce$ReduceEmitter': 'org.apache.tinkerpop.gremlin.process.computer.MapReduce$ReduceEmitter',
-            'MapReduce$Stage': 'org.apache.tinkerpop.gremlin.process.computer.MapReduce$Stage',
-            'Memory': 'org.apache.tinkerpop.gremlin.process.computer.Memory',
-            'Memory$Admin': 'org.apache.tinkerpop.gremlin.process.computer.Memory$Admin',
-            'Memory$Exceptions': 'org.apache.tinkerpop.gremlin.process.computer.Memory$Exceptions',
-            'MessageCombiner': 'org.apache.tinkerpop.gremlin.process.computer.MessageCombiner',
-            'MessageScope': 'org.apache.tinkerpop.gremlin.process.computer.MessageScope',
-            'MessageScope$Global': 'org.apache.tinkerpop.gremlin.process.computer.MessageScope$Global',
-            'MessageScope$Local': 'org.apache.tinkerpop.gremlin.process.computer.MessageScope$Local',
-            'MessageScope$Local$ReverseTraversalSupplier': 'org.apache.tinkerpop.gremlin.process.computer.MessageScope$Local$ReverseTraversalSupplier',
-            'Messenger': 'org.apache.tinkerpop.gremlin.process.computer.Messenger',
-            'PageRankMapReduce': 'org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankMapReduce',
-            'PageRankMapReduce$Builder': 'org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankMapReduce$Builder',
-            'PageRankMessageCombiner': 'org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankMessageCombiner',
-            'PageRankVertexProgram': 'org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram',
-            'PageRankVertexProgram$Builder': 'org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram$Builder',
-            'SingleMessenger': 'org.apache.tinkerpop.gremlin.process.computer.traversal.SingleMessenger',
-            'TraversalVertexProgram': 'org.apache.tinkerpop.gremlin.process.computer.traversal.TraversalVertexProgram',
-            'TraversalVertexProgram$Builder': 'org.apache.tinkerpop.gremlin.process.computer.traversal.TraversalVertexProgram$Builder',
-            'TraversalVertexProgramMessageCombiner': 'org.apache.tinkerpop.gremlin.process.computer.traversal.TraversalVertexProgramMessageCombiner',
-            'TraverserExecutor': 'org.apache.tinkerpop.gremlin.process.computer.traversal.TraverserExecutor',
-            'VertexTraversalSideEffects': 'org.apache.tinkerpop.gremlin.process.computer.traversal.VertexTraversalSideEffects',
-            'VertexProgram': 'org.apache.tinkerpop.gremlin.process.computer.VertexProgram',
-            'VertexProgram$Builder': 'org.apache.tinkerpop.gremlin.process.computer.VertexProgram$Builder',
-            'VertexProgram$Features': 'org.apache.tinkerpop.gremlin.process.computer.VertexProgram$Features',
-            'Compare': 'org.apache.tinkerpop.gremlin.process.traversal.Compare',
-            'Contains': 'org.apache.tinkerpop.gremlin.process.traversal.Contains',
-            '__': 'org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__',
-            'DefaultGraphTraversal': 'org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.DefaultGraphTraversal',
-            'EmptyGraphTraversal': 'org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.EmptyGraphTraversal',
-            'GraphTraversal': 'org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal',
-            'GraphTraversal$Admin': 'org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal$Admin',
-            'GraphTraversalSource': 'org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource',
-            'GraphTraversalSource$Builder': 'org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource$Builder',
-            'GraphTraversalSource$GraphTraversalSourceStub': 'org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource$GraphTraversalSourceStub',
-            'ComputerTraversalEngine': 'org.apache.tinkerpop.gremlin.process.traversal.engine.ComputerTraversalEngine',
-            'ComputerTraversalEngine$Builder': 'org.apache.tinkerpop.gremlin.process.traversal.engine.ComputerTraversalEngine$Builder',
-            'ComputerTraversalEngine$ComputerResultStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.engine.ComputerTraversalEngine$ComputerResultStrategy',
-            'StandardTraversalEngine': 'org.apache.tinkerpop.gremlin.process.traversal.engine.StandardTraversalEngine',
-            'StandardTraversalEngine$Builder': 'org.apache.tinkerpop.gremlin.process.traversal.engine.StandardTraversalEngine$Builder',
-            'Operator': 'org.apache.tinkerpop.gremlin.process.traversal.Operator',
-            'Order': 'org.apache.tinkerpop.gremlin.process.traversal.Order',
-            'P': 'org.apache.tinkerpop.gremlin.process.traversal.P',
-            'Path': 'org.apache.tinkerpop.gremlin.process.traversal.Path',
-            'Path$Exceptions': 'org.apache.tinkerpop.gremlin.process.traversal.Path$Exceptions',
-            'Pop': 'org.apache.tinkerpop.gremlin.process.traversal.Pop',
-            'Scope': 'org.apache.tinkerpop.gremlin.process.traversal.Scope',
-            'Step': 'org.apache.tinkerpop.gremlin.process.traversal.Step',
-            'AbstractStep': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep',
-            'BulkSet': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.BulkSet',
-            'CollectingBarrierStep': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.CollectingBarrierStep',
-            'ComputerAwareStep': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.ComputerAwareStep',
-            'ComputerAwareStep$EndStep': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.ComputerAwareStep$EndStep',
-            'ElementFunctionComparator': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.ElementFunctionComparator',
-            'ElementValueComparator': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.ElementValueComparator',
-            'EmptyPath': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyPath',
-            'EmptyStep': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep',
-            'CallbackRegistry': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.event.CallbackRegistry',
-            'ConsoleMutationListener': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.event.ConsoleMutationListener',
-            'Event': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.event.Event',
-            'Event$EdgeAddedEvent': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.event.Event$EdgeAddedEvent',
-            'Event$EdgePropertyChangedEvent': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.event.Event$EdgePropertyChangedEvent',
-            'Event$EdgePropertyRemovedEvent': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.event.Event$EdgePropertyRemovedEvent',
-            'Event$EdgeRemovedEvent': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.event.Event$EdgeRemovedEvent',
-            'Event$ElementPropertyChangedEvent': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.event.Event$ElementPropertyChangedEvent',
-            'Event$ElementPropertyEvent': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.event.Event$ElementPropertyEvent',
-            'Event$VertexAddedEvent': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.event.Event$VertexAddedEvent',
-            'Event$VertexPropertyChangedEvent': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.event.Event$VertexPropertyChangedEvent',
-            'Event$VertexPropertyPropertyChangedEvent': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.event.Event$VertexPropertyPropertyChangedEvent',
-            'Event$VertexPropertyPropertyRemovedEvent': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.event.Event$VertexPropertyPropertyRemovedEvent',
-            'Event$VertexPropertyRemovedEvent': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.event.Event$VertexPropertyRemovedEvent',
-            'Event$VertexRemovedEvent': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.event.Event$VertexRemovedEvent',
-            'EventCallback': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.event.EventCallback',
-            'ListCallbackRegistry': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.event.ListCallbackRegistry',
-            'MutationListener': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.event.MutationListener',
-            'ExpandableStepIterator': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.ExpandableStepIterator',
-            'HasContainer': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer',
-            'ImmutablePath': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.ImmutablePath',
-            'MapHelper': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.MapHelper',
-            'MutablePath': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.MutablePath',
-            'NoOpBarrierStep': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.NoOpBarrierStep',
-            'PathIdentityStep': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.PathIdentityStep',
-            'ReducingBarrierStep': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep',
-            'ReducingBarrierStep$DefaultMapReduce': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep$DefaultMapReduce',
-            'ReducingBarrierStep$FinalGet': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep$FinalGet',
-            'SupplyingBarrierStep': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.SupplyingBarrierStep',
-            'TraversalComparator': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.TraversalComparator',
-            'Tree': 'org.apache.tinkerpop.gremlin.process.traversal.step.util.Tree',
-            'ConjunctionStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.ConjunctionStrategy',
-            'ElementIdStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.ElementIdStrategy',
-            'ElementIdStrategy$Builder': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.ElementIdStrategy$Builder',
-            'EventStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.EventStrategy',
-            'EventStrategy$Builder': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.EventStrategy$Builder',
-            'EventStrategy$DefaultEventQueue': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.EventStrategy$DefaultEventQueue',
-            'EventStrategy$EventQueue': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.EventStrategy$EventQueue',
-            'EventStrategy$EventStrategyCallback': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.EventStrategy$EventStrategyCallback',
-            'EventStrategy$TransactionalEventQueue': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.EventStrategy$TransactionalEventQueue',
-            'PartitionStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.PartitionStrategy',
-            'PartitionStrategy$Builder': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.PartitionStrategy$Builder',
-            'SubgraphStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.SubgraphStrategy',
-            'SubgraphStrategy$Builder': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.SubgraphStrategy$Builder',
-            'EngineDependentStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.EngineDependentStrategy',
-            'LazyBarrierStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.LazyBarrierStrategy',
-            'MatchAlgorithmStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.MatchAlgorithmStrategy',
-            'MatchAlgorithmStrategy$Builder': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.MatchAlgorithmStrategy$Builder',
-            'ProfileStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.ProfileStrategy',
-            'AdjacentToIncidentStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.AdjacentToIncidentStrategy',
-            'DedupBijectionStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.DedupBijectionStrategy',
-            'IdentityRemovalStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.IdentityRemovalStrategy',
-            'IncidentToAdjacentStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.IncidentToAdjacentStrategy',
-            'MatchPredicateStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.MatchPredicateStrategy',
-            'RangeByIsCountStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.RangeByIsCountStrategy',
-            'ComputerVerificationStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.ComputerVerificationStrategy',
-            'LambdaRestrictionStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.LambdaRestrictionStrategy',
-            'ReadOnlyStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.ReadOnlyStrategy',
-            'StandardVerificationStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.StandardVerificationStrategy',
-            'VerificationException': 'org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.VerificationException',
-            'Traversal': 'org.apache.tinkerpop.gremlin.process.traversal.Traversal',
-            'Traversal$Admin': 'org.apache.tinkerpop.gremlin.process.traversal.Traversal$Admin',
-            'Traversal$Exceptions': 'org.apache.tinkerpop.gremlin.process.traversal.Traversal$Exceptions',
-            'TraversalEngine': 'org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine',
-            'TraversalEngine$Builder': 'org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine$Builder',
-            'TraversalEngine$Type': 'org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine$Type',
-            'TraversalSideEffects': 'org.apache.tinkerpop.gremlin.process.traversal.TraversalSideEffects',
-            'TraversalSideEffects$Exceptions': 'org.apache.tinkerpop.gremlin.process.traversal.TraversalSideEffects$Exceptions',
-            'TraversalSource': 'org.apache.tinkerpop.gremlin.process.traversal.TraversalSource',
-            'TraversalSource$Builder': 'org.apache.tinkerpop.gremlin.process.traversal.TraversalSource$Builder',
-            'TraversalStrategies': 'org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies',
-            'TraversalStrategies$GlobalCache': 'org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies$GlobalCache',
-            'TraversalStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy',
-            'TraversalStrategy$DecorationStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy$DecorationStrategy',
-            'TraversalStrategy$FinalizationStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy$FinalizationStrategy',
-            'TraversalStrategy$OptimizationStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy$OptimizationStrategy',
-            'TraversalStrategy$VendorOptimizationStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy$VendorOptimizationStrategy',
-            'TraversalStrategy$VerificationStrategy': 'org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy$VerificationStrategy',
-            'Traverser': 'org.apache.tinkerpop.gremlin.process.traversal.Traverser',
-            'Traverser$Admin': 'org.apache.tinkerpop.gremlin.process.traversal.Traverser$Admin',
-            'TraverserGenerator': 'org.apache.tinkerpop.gremlin.process.traversal.TraverserGenerator',
-            'AndP': 'org.apache.tinkerpop.gremlin.process.traversal.util.AndP',
-            'ConjunctionP': 'org.apache.tinkerpop.gremlin.process.traversal.util.ConjunctionP',
-            'DefaultTraversal': 'org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversal',
-            'DefaultTraversalSideEffects': 'org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalSideEffects',
-            'DefaultTraversalStrategies': 'org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies',
-            'DependantMutableMetrics': 'org.apache.tinkerpop.gremlin.process.traversal.util.DependantMutableMetrics',
-            'EmptyTraversal': 'org.apache.tinkerpop.gremlin.process.traversal.util.EmptyTraversal',
-            'EmptyTraversalSideEffects': 'org.apache.tinkerpop.gremlin.process.traversal.util.EmptyTraversalSideEffects',
-            'EmptyTraversalStrategies': 'org.apache.tinkerpop.gremlin.process.traversal.util.EmptyTraversalStrategies',
-            'FastNoSuchElementException': 'org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException',
-            'ImmutableMetrics': 'org.apache.tinkerpop.gremlin.process.traversal.util.ImmutableMetrics',
-            'Metrics': 'org.apache.tinkerpop.gremlin.process.traversal.util.Metrics',
-            'MutableMetrics': 'org.apache.tinkerpop.gremlin.process.traversal.util.MutableMetrics',
-            'OrP': 'org.apache.tinkerpop.gremlin.process.traversal.util.OrP',
-            'SideEffectHelper': 'org.apache.tinkerpop.gremlin.process.traversal.util.SideEffectHelper',
-            'StandardTraversalMetrics': 'org.apache.tinkerpop.gremlin.process.traversal.util.StandardTraversalMetrics',
-            'StepPosition': 'org.apache.tinkerpop.gremlin.process.traversal.util.StepPosition',
-            'TraversalClassFunction': 'org.apache.tinkerpop.gremlin.process.traversal.util.TraversalClassFunction',
-            'TraversalHelper': 'org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper',
-            'TraversalMatrix': 'org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMatrix',
-            'TraversalMetrics': 'org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics',
-            'TraversalObjectFunction': 'org.apache.tinkerpop.gremlin.process.traversal.util.TraversalObjectFunction',
-            'TraversalRing': 'org.apache.tinkerpop.gremlin.process.traversal.util.TraversalRing',
-            'TraversalScriptFunction': 'org.apache.tinkerpop.gremlin.process.traversal.util.TraversalScriptFunction',
-            'TraversalScriptHelper': 'org.apache.tinkerpop.gremlin.process.traversal.util.TraversalScriptHelper',
-            'TraversalUtil': 'org.apache.tinkerpop.gremlin.process.traversal.util.TraversalUtil',
-            'Direction': 'org.apache.tinkerpop.gremlin.structure.Direction',
-            'Edge': 'org.apache.tinkerpop.gremlin.structure.Edge',
-            'Edge$Exceptions': 'org.apache.tinkerpop.gremlin.structure.Edge$Exceptions',
-            'Element': 'org.apache.tinkerpop.gremlin.structure.Element',
-            'Element$Exceptions': 'org.apache.tinkerpop.gremlin.structure.Element$Exceptions',
-            'Graph': 'org.apache.tinkerpop.gremlin.structure.Graph',
-            'Graph$Exceptions': 'org.apache.tinkerpop.gremlin.structure.Graph$Exceptions',
-            'Graph$Features': 'org.apache.tinkerpop.gremlin.structure.Graph$Features',
-            'Graph$Features$DataTypeFeatures': 'org.apache.tinkerpop.gremlin.structure.Graph$Features$DataTypeFeatures',
-            'Graph$Features$EdgeFeatures': 'org.apache.tinkerpop.gremlin.structure.Graph$Features$EdgeFeatures',
-            'Graph$Features$EdgePropertyFeatures': 'org.apache.tinkerpop.gremlin.structure.Graph$Features$EdgePropertyFeatures',
-            'Graph$Features$ElementFeatures': 'org.apache.tinkerpop.gremlin.structure.Graph$Features$ElementFeatures',
-            'Graph$Features$FeatureSet': 'org.apache.tinkerpop.gremlin.structure.Graph$Features$FeatureSet',
-            'Graph$Features$GraphFeatures': 'org.apache.tinkerpop.gremlin.structure.Graph$Features$GraphFeatures',
-            'Graph$Features$PropertyFeatures': 'org.apache.tinkerpop.gremlin.structure.Graph$Features$PropertyFeatures',
-            'Graph$Features$VariableFeatures': 'org.apache.tinkerpop.gremlin.structure.Graph$Features$VariableFeatures',
-            'Graph$Features$VertexFeatures': 'org.apache.tinkerpop.gremlin.structure.Graph$Features$VertexFeatures',
-            'Graph$Features$VertexPropertyFeatures': 'org.apache.tinkerpop.gremlin.structure.Graph$Features$VertexPropertyFeatures',
-            'Graph$Hidden': 'org.apache.tinkerpop.gremlin.structure.Graph$Hidden',
-            'Graph$OptIn': 'org.apache.tinkerpop.gremlin.structure.Graph$OptIn',
-            'Graph$OptIns': 'org.apache.tinkerpop.gremlin.structure.Graph$OptIns',
-            'Graph$OptOut': 'org.apache.tinkerpop.gremlin.structure.Graph$OptOut',
-            'Graph$OptOuts': 'org.apache.tinkerpop.gremlin.structure.Graph$OptOuts',
-            'Graph$Variables': 'org.apache.tinkerpop.gremlin.structure.Graph$Variables',
-            'Graph$Variables$Exceptions': 'org.apache.tinkerpop.gremlin.structure.Graph$Variables$Exceptions',
-            'AbstractIoRegistry': 'org.apache.tinkerpop.gremlin.structure.io.AbstractIoRegistry',
-            'GraphMigrator': 'org.apache.tinkerpop.gremlin.structure.io.GraphMigrator',
-            'GraphMLIo': 'org.apache.tinkerpop.gremlin.structure.io.graphml.GraphMLIo',
-            'GraphMLIo$Builder': 'org.apache.tinkerpop.gremlin.structure.io.graphml.GraphMLIo$Builder',
-            'GraphMLMapper': 'org.apache.tinkerpop.gremlin.structure.io.graphml.GraphMLMapper',
-            'GraphMLMapper$Builder': 'org.apache.tinkerpop.gremlin.structure.io.graphml.GraphMLMapper$Builder',
-            'GraphMLReader': 'org.apache.tinkerpop.gremlin.structure.io.graphml.GraphMLReader',
-            'GraphMLReader$Builder': 'org.apache.tinkerpop.gremlin.structure.io.graphml.GraphMLReader$Builder',
-            'GraphMLWriter': 'org.apache.tinkerpop.gremlin.structure.io.graphml.GraphMLWriter',
-            'GraphMLWriter$Builder': 'org.apache.tinkerpop.gremlin.structure.io.graphml.GraphMLWriter$Builder',
-            'GraphMLWriterHelper$IndentingXMLStreamWriter': 'org.apache.tinkerpop.gremlin.structure.io.graphml.GraphMLWriterHelper$IndentingXMLStreamWriter',
-            'GraphReader': 'org.apache.tinkerpop.gremlin.structure.io.GraphReader',
-            'GraphReader$ReaderBuilder': 'org.apache.tinkerpop.gremlin.structure.io.GraphReader$ReaderBuilder',
-            'GraphSONIo': 'org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONIo',
-            'GraphSONIo$Builder': 'org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONIo$Builder',
-            'GraphSONMapper': 'org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONMapper',
-            'GraphSONMapper$Builder': 'org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONMapper$Builder',
-            'GraphSONReader': 'org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONReader',
-            'GraphSONReader$Builder': 'org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONReader$Builder',
-            'GraphSONTokens': 'org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONTokens',
-            'GraphSONUtil': 'org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONUtil',
-            'GraphSONVersion': 'org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONVersion',
-            'GraphSONWriter': 'org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONWriter',
-            'GraphSONWriter$Builder': 'org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONWriter$Builder',
-            'LegacyGraphSONReader': 'org.apache.tinkerpop.gremlin.structure.io.graphson.LegacyGraphSONReader',
-            'LegacyGraphSONReader$Builder': 'org.apache.tinkerpop.gremlin.structure.io.graphson.LegacyGraphSONReader$Builder',
-            'LegacyGraphSONReader$GraphSONTokensTP2': 'org.apache.tinkerpop.gremlin.structure.io.graphson.LegacyGraphSONReader$GraphSONTokensTP2',
-            'GraphWriter': 'org.apache.tinkerpop.gremlin.structure.io.GraphWriter',
-            'GraphWriter$WriterBuilder': 'org.apache.tinkerpop.gremlin.structure.io.GraphWriter$WriterBuilder',
-            'GryoIo': 'org.apache.tinkerpop.gremlin.structure.io.gryo.GryoIo',
-            'GryoIo$Builder': 'org.apache.tinkerpop.gremlin.structure.io.gryo.GryoIo$Builder',
-            'GryoMapper': 'org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper',
-            'GryoMapper$Builder': 'org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper$Builder',
-            'GryoPool': 'org.apache.tinkerpop.gremlin.structure.io.gryo.GryoPool',
-            'GryoPool$Type': 'org.apache.tinkerpop.gremlin.structure.io.gryo.GryoPool$Type',
-            'GryoReader': 'org.apache.tinkerpop.gremlin.structure.io.gryo.GryoReader',
-            'GryoReader$Builder': 'org.apache.tinkerpop.gremlin.structure.io.gryo.GryoReader$Builder',
-            'GryoWriter': 'org.apache.tinkerpop.gremlin.structure.io.gryo.GryoWriter',
-            'GryoWriter$Builder': 'org.apache.tinkerpop.gremlin.structure.io.gryo.GryoWriter$Builder',
-            'VertexByteArrayInputStream': 'org.apache.tinkerpop.gremlin.structure.io.gryo.VertexByteArrayInputStream',
-            'VertexTerminator': 'org.apache.tinkerpop.gremlin.structure.io.gryo.VertexTerminator',
-            'Io': 'org.apache.tinkerpop.gremlin.structure.io.Io',
-            'Io$Builder': 'org.apache.tinkerpop.gremlin.structure.io.Io$Builder',
-            'Io$Exceptions': 'org.apache.tinkerpop.gremlin.structure.io.Io$Exceptions',
-            'IoCore': 'org.apache.tinkerpop.gremlin.structure.io.IoCore',
-            'IoRegistry': 'org.apache.tinkerpop.gremlin.structure.io.IoRegistry',
-            'Mapper': 'org.apache.tinkerpop.gremlin.structure.io.Mapper',
-            'Mapper$Builder': 'org.apache.tinkerpop.gremlin.structure.io.Mapper$Builder',
-            'Property': 'org.apache.tinkerpop.gremlin.structure.Property',
-            'Property$Exceptions': 'org.apache.tinkerpop.gremlin.structure.Property$Exceptions',
-            'PropertyType': 'org.apache.tinkerpop.gremlin.structure.PropertyType',
-            'T': 'org.apache.tinkerpop.gremlin.structure.T',
-            'Transaction': 'org.apache.tinkerpop.gremlin.structure.Transaction',
-            'Transaction$CLOSE_BEHAVIOR': 'org.apache.tinkerpop.gremlin.structure.Transaction$CLOSE_BEHAVIOR',
-            'Transaction$Exceptions': 'org.apache.tinkerpop.gremlin.structure.Transaction$Exceptions',
-            'Transaction$READ_WRITE_BEHAVIOR': 'org.apache.tinkerpop.gremlin.structure.Transaction$READ_WRITE_BEHAVIOR',
-            'Transaction$Status': 'org.apache.tinkerpop.gremlin.structure.Transaction$Status',
-            'Transaction$Workload': 'org.apache.tinkerpop.gremlin.structure.Transaction$Workload',
-            'AbstractTransaction': 'org.apache.tinkerpop.gremlin.structure.util.AbstractTransaction',
-            'AbstractTransaction$TransactionException': 'org.apache.tinkerpop.gremlin.structure.util.AbstractTransaction$TransactionException',
-            'Attachable': 'org.apache.tinkerpop.gremlin.structure.util.Attachable',
-            'Attachable$Exceptions': 'org.apache.tinkerpop.gremlin.structure.util.Attachable$Exceptions',
-            'Attachable$Method': 'org.apache.tinkerpop.gremlin.structure.util.Attachable$Method',
-            'Comparators': 'org.apache.tinkerpop.gremlin.structure.util.Comparators',
-            'DetachedEdge': 'org.apache.tinkerpop.gremlin.structure.util.detached.DetachedEdge',
-            'DetachedElement': 'org.apache.tinkerpop.gremlin.structure.util.detached.DetachedElement',
-            'DetachedFactory': 'org.apache.tinkerpop.gremlin.structure.util.detached.DetachedFactory',
-            'DetachedPath': 'org.apache.tinkerpop.gremlin.structure.util.detached.DetachedPath',
-            'DetachedProperty': 'org.apache.tinkerpop.gremlin.structure.util.detached.DetachedProperty',
-            'DetachedVertex': 'org.apache.tinkerpop.gremlin.structure.util.detached.DetachedVertex',
-            'DetachedVertexProperty': 'org.apache.tinkerpop.gremlin.structure.util.detached.DetachedVertexProperty',
-            'ElementHelper': 'org.apache.tinkerpop.gremlin.structure.util.ElementHelper',
-            'FeatureDescriptor': 'org.apache.tinkerpop.gremlin.structure.util.FeatureDescriptor',
-            'GraphFactory': 'org.apache.tinkerpop.gremlin.structure.util.GraphFactory',
-            'GraphFactoryClass': 'org.apache.tinkerpop.gremlin.structure.util.GraphFactoryClass',
-            'GraphVariableHelper': 'org.apache.tinkerpop.gremlin.structure.util.GraphVariableHelper',
-            'Host': 'org.apache.tinkerpop.gremlin.structure.util.Host',
-            'StringFactory': 'org.apache.tinkerpop.gremlin.structure.util.StringFactory',
-            'Vertex': 'org.apache.tinkerpop.gremlin.structure.Vertex',
-            'Vertex$Exceptions': 'org.apache.tinkerpop.gremlin.structure.Vertex$Exceptions',
-            'VertexProperty': 'org.apache.tinkerpop.gremlin.structure.VertexProperty',
-            'VertexProperty$Cardinality': 'org.apache.tinkerpop.gremlin.structure.VertexProperty$Cardinality',
-            'VertexProperty$Exceptions': 'org.apache.tinkerpop.gremlin.structure.VertexProperty$Exceptions',
-            'TinkerGraphComputer': 'org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer',
-            'TinkerGraphComputerView': 'org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerView',
-            'TinkerMapEmitter': 'org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerMapEmitter',
-            'TinkerMemory': 'org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerMemory',
-            'TinkerMessenger': 'org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerMessenger',
-            'TinkerReduceEmitter': 'org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerReduceEmitter',
-            'TinkerWorkerPool': 'org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerWorkerPool',
-            'TinkerEdge': 'org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerEdge',
-            'TinkerElement': 'org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerElement',
-            'TinkerFactory': 'org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory',
-            'TinkerGraph': 'org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph',
-            'TinkerGraph$DefaultIdManager': 'org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph$DefaultIdManager',
-            'TinkerGraph$IdManager': 'org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph$IdManager',
-            'TinkerGraph$TinkerGraphEdgeFeatures': 'org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph$TinkerGraphEdgeFeatures',
-            'TinkerGraph$TinkerGraphFeatures': 'org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph$TinkerGraphFeatures',
-            'TinkerGraph$TinkerGraphGraphFeatures': 'org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph$TinkerGraphGraphFeatures',
-            'TinkerGraph$TinkerGraphVertexFeatures': 'org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph$TinkerGraphVertexFeatures',
-            'TinkerGraph$TinkerGraphVertexPropertyFeatures': 'org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph$TinkerGraphVertexPropertyFeatures',
-            'TinkerGraphVariables': 'org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraphVariables',
-            'TinkerHelper': 'org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper',
-            'TinkerProperty': 'org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerProperty',
-            'TinkerVertex': 'org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex',
-            'TinkerVertexProperty': 'org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertexProperty',
-            'ArrayListSupplier': 'org.apache.tinkerpop.gremlin.util.function.ArrayListSupplier',
-            'BulkSetSupplier': 'org.apache.tinkerpop.gremlin.util.function.BulkSetSupplier',
-            'ChainedComparator': 'org.apache.tinkerpop.gremlin.util.function.ChainedComparator',
-            'ConstantSupplier': 'org.apache.tinkerpop.gremlin.util.function.ConstantSupplier',
-            'FunctionUtils': 'org.apache.tinkerpop.gremlin.util.function.FunctionUtils',
-            'HashMapSupplier': 'org.apache.tinkerpop.gremlin.util.function.HashMapSupplier',
-            'HashSetSupplier': 'org.apache.tinkerpop.gremlin.util.function.HashSetSupplier',
-            'MeanNumberSupplier': 'org.apache.tinkerpop.gremlin.util.function.MeanNumberSupplier',
-            'ScriptEngineLambda': 'org.apache.tinkerpop.gremlin.util.function.ScriptEngineLambda',
-            'ThrowingBiConsumer': 'org.apache.tinkerpop.gremlin.util.function.ThrowingBiConsumer',
-            'ThrowingConsumer': 'org.apache.tinkerpop.gremlin.util.function.ThrowingConsumer',
-            'ThrowingFunction': 'org.apache.tinkerpop.gremlin.util.function.ThrowingFunction',
-            'ThrowingSupplier': 'org.apache.tinkerpop.gremlin.util.function.ThrowingSupplier',
-            'TraversableLambda': 'org.apache.tinkerpop.gremlin.util.function.TraversableLambda',
-            'TreeSupplier': 'org.apache.tinkerpop.gremlin.util.function.TreeSupplier',
-            'TriConsumer': 'org.apache.tinkerpop.gremlin.util.function.TriConsumer',
-            'TriFunction': 'org.apache.tinkerpop.gremlin.util.function.TriFunction',
-            'Gremlin': 'org.apache.tinkerpop.gremlin.util.Gremlin',
-            'ScriptEngineCache': 'org.apache.tinkerpop.gremlin.util.ScriptEngineCache',
-            'Serializer': 'org.apache.tinkerpop.gremlin.util.Serializer',
-            'TimeUtil': 'org.apache.tinkerpop.gremlin.util.TimeUtil',
-            'ClassNode': 'org.codehaus.groovy.ast.ClassNode',
-            'CompilerConfiguration': 'org.codehaus.groovy.control.CompilerConfiguration',
-            'CompilationCustomizer': 'org.codehaus.groovy.control.customizers.CompilationCustomizer',
-            'NullObject': 'org.codehaus.groovy.runtime.NullObject',
-            'Groovysh': 'org.codehaus.groovy.tools.shell.Groovysh',
-            'ManagedReference': 'org.codehaus.groovy.util.ManagedReference',
-            'ReferenceBundle': 'org.codehaus.groovy.util.ReferenceBundle'
-        };
-        return shortToLongMap[className];
-    }
-    Java.fullyQualifiedName = fullyQualifiedName;
-    function importClass(className) {
-        var fullName = fullyQualifiedName(className) || className;
-        return _java.import(fullName);
-    }
-    Java.importClass = importClass;
-    function asInstanceOf(obj, className) {
-        var fullName = fullyQualifiedName(className) || className;
-        if (_java.instanceOf(obj, fullName)) {
-            return obj;
-        }
-        else {
-            throw new Error('asInstanceOf fails, obj is not a ' + fullName);
-        }
-    }
-    Java.asInstanceOf = asInstanceOf;
-    // Returns true if javaObject is an instance of the named class, which may be a short className.
-    // Returns false if javaObject is not an instance of the named class.
-    // Throws an exception if the named class does not exist, or is an ambiguous short name.
-    function instanceOf(javaObject, className) {
-        var fullName = fullyQualifiedName(className) || className;
-        return smellsLikeJavaObject(javaObject) && _java.instanceOf(javaObject, fullName);
-    }
-    Java.instanceOf = instanceOf;
-    function newShort(val) { return _java.newShort(val); }
-    Java.newShort = newShort;
-    function newLong(val) { return _java.newLong(val); }
-    Java.newLong = newLong;
-    function newFloat(val) { return _java.newFloat(val); }
-    Java.newFloat = newFloat;
-    function newDouble(val) { return _java.newDouble(val); }
-    Java.newDouble = newDouble;
-    function newInstanceA(className) {
-        var args = [];
-        for (var _i = 1; _i < arguments.length; _i++) {
-            args[_i - 1] = arguments[_i];
-        }
-        var fullName = fullyQualifiedName(className) || className;
-        args.unshift(fullName);
-        return _java.newInstance.apply(_java, args);
-    }
-    Java.newInstanceA = newInstanceA;
-    function newInstance(className) {
-        var args = [];
-        for (var _i = 1; _i < arguments.length; _i++) {
-            args[_i - 1] = arguments[_i];
-        }
-        var fullName = fullyQualifiedName(className) || className;
-        args.unshift(fullName);
-        return _java.newInstanceSync.apply(_java, args);
-    }
-    Java.newInstance = newInstance;
-    function newInstanceP(className) {
-        var args = [];
-        for (var _i = 1; _i < arguments.length; _i++) {
-            args[_i - 1] = arguments[_i];
-        }
-        var fullName = fullyQualifiedName(className) || className;
-        args.unshift(fullName);
-        return _java.newInstanceP.apply(_java, args);
-    }
-    Java.newInstanceP = newInstanceP;
-    function newArray(className, arg) {
-        var fullName = fullyQualifiedName(className) || className;
-        return _java.newArray(fullName, arg);
-    }
-    Java.newArray = newArray;
-    // ### `function L(n: number)`
-    // Produce a longValue_t literal.
-    function L(n) {
-        return Java.newLong(n).longValue();
-    }
-    Java.L = L;
-    // ### `function isLongValue(e: any)`
-    // Checks whether an object is a longValue_t, which is the representation of Java long primitives.
-    function isLongValue(obj) {
-        return _.isObject(obj) && obj instanceof Number && 'longValue' in obj && _.keys(obj).length === 1;
-    }
-    Java.isLongValue = isLongValue;
-    // #### `function smellsLikeJavaObject(e: any)`
-    // Returns true if the obj 'smells' like a Java object.
-    // This is a light-weight test that will return false when `e` is clearly not a Java object,
-    // but it may have false positives. To be certain, use `isJavaObject(e)` or `instanceOf(e, classname)` instead.
-    function smellsLikeJavaObject(e) {
-        return _.isObject(e) && !_.isArray(e) && !isLongValue(e);
-    }
-    // #### `function isJavaObject(e: any)`
-    // Returns true if the obj is a Java object.
-    // Useful for determining the runtime type of object_t returned by many java methods.
-    function isJavaObject(e) {
-        return smellsLikeJavaObject(e) && _java.instanceOf(e, 'java.lang.Object');
-    }
-    Java.isJavaObject = isJavaObject;
-    // #### `forEach(javaIterator: Java.Iterator, consumer: ConsumeObject)`
-    // Applies *consumer* to each Java.Object returned by the *javaIterator*.
-    // *javaIterator* may be any type that implements java.util.Iterator, including a tinkerpop Traversal.
-    // *consumer* is function that will do some work on a Java.Object asychronously, returning a Promise for its completion.
-    // Returns a promise that is resolved when all objects have been consumed.
-    function forEach(javaIterator, consumer) {
-        function _eachIterator(javaIterator, consumer) {
-            return javaIterator.hasNextP()
-                .then(function (hasNext) {
-                if (!hasNext) {
-                    return BluePromise.resolve();
-                }
-                else {
-                    return javaIterator.nextP()
-                        .then(function (obj) { return consumer(obj); })
-                        .then(function () { return _eachIterator(javaIterator, consumer); });
-                }
-            });
-        }
-        return _eachIterator(javaIterator, consumer);
-    }
-    Java.forEach = forEach;
-})(Java = exports.Java || (exports.Java = {})); // module Java
-//# sourceMappingURL=tsJavaModule.js.map
\ No newline at end of file
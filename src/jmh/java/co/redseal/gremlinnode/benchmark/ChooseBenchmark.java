@@ -0,0 +1,120 @@
+package co.redseal.gremlinnode.benchmark;
+
+import co.redseal.gremlinnode.function.GlobFunction;
+import co.redseal.gremlinnode.function.GroovyLambda;
+import co.redseal.gremlinnode.function.NativeLambda;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import javax.script.ScriptException;
+
+/**
+ * The ChooseTest scenarios over a scaled-up classic graph, with the choice made by each kind of lambda: a dynamic
+ * GroovyLambda, a statically compiled GroovyLambda, a NativeLambda and, as the floor, a plain Java lambda.  Also a
+ * single predicate call, and the cost of creating each kind of lambda from a source it has not seen before.
+ * Use e.g. `-Djmh.args="-p kind=native,groovy"` to compare two kinds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChooseBenchmark {
+
+    private final static String PREDICATE = "{ v -> v.value('name').length() == 5 }";
+    private final static String FUNCTION = "{ v -> v.value('name').length() }";
+    private final static String FILTER = "{ v -> v.value('age') > 30 }";
+
+    @Param({ "groovy", "static", "native", "java" })
+    public String kind;
+
+    @Param({ "1200", "12000" })
+    public int elements;
+
+    private GraphTraversalSource g;
+    private Predicate<Vertex> predicate;
+    private Function<Vertex, Object> function;
+    private Predicate<Vertex> filter;
+    private Vertex marko;
+    private long created = 0;
+
+    @Setup
+    public void setup() throws ScriptException {
+        g = ScaledGraphs.classic(elements).traversal();
+        marko = g.V(1L).next();
+        predicate = lambda(PREDICATE, v -> v.<String>value("name").length() == 5);
+        function = lambda(FUNCTION, v -> v.<String>value("name").length());
+        filter = lambda(FILTER, v -> v.<Integer>value("age") > 30);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T lambda(final String source, final T java) throws ScriptException {
+        switch (kind) {
+        case "groovy":
+            return (T) GroovyLambda.of(source);
+        case "static":
+            return (T) GroovyLambda.compileStatic(source, new String[] { Vertex.class.getName() });
+        case "native":
+            return (T) NativeLambda.compile(source);
+        default:
+            return java;
+        }
+    }
+
+    /**
+     * ChooseTest#simpleChoosePredicateWorks.
+     */
+    @Benchmark
+    public long choosePredicate() {
+        return g.V().choose(predicate, __.out(), __.in()).values("name").count().next();
+    }
+
+    /**
+     * ChooseTest#simpleChooseFunctionWorks.
+     */
+    @Benchmark
+    public long chooseFunction() {
+        return g.V().has("age").choose(function)
+            .option(5, __.in())
+            .option(4, __.out())
+            .option(3, __.both())
+            .values("name").count().next();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean predicateTest() {
+        return filter.test(marko);
+    }
+
+    @Benchmark
+    public GlobFunction create() throws ScriptException {
+        // A new source each time, or the engine's script cache would make this a lookup.
+        final String source = "{ v -> v.value('age') > " + created++ + " }";
+        switch (kind) {
+        case "groovy":
+            return new GroovyLambda(source);
+        case "static":
+            return GroovyLambda.compileStatic(source, new String[] { Vertex.class.getName() });
+        case "native":
+            return NativeLambda.compile(source);
+        default:
+            return null;
+        }
+    }
+}
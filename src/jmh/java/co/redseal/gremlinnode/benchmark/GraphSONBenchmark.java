@@ -0,0 +1,100 @@
+package co.redseal.gremlinnode.benchmark;
+
+import co.redseal.gremlinnode.function.GroovyLambda;
+import co.redseal.gremlinnode.io.ElementProjection;
+import co.redseal.gremlinnode.io.TraversalJson;
+import co.redseal.util.StringInputStream;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONReader;
+import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONWriter;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import javax.script.ScriptException;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * GraphSON read and write, traversal JSON with and without projection, StringInputStream and a lambda-filtered
+ * traversal over scaled-up classic graphs.
+ * Use e.g. `-Djmh.args="-p elements=1000"` to limit the sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphSONBenchmark {
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    public int elements;
+
+    private Graph graph;
+    private String graphSON;
+    private GroovyLambda filter;
+
+    @Setup
+    public void setup() throws IOException, ScriptException {
+        graph = ScaledGraphs.classic(elements);
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        GraphSONWriter.build().create().writeGraph(stream, graph);
+        graphSON = new String(stream.toByteArray(), UTF_8);
+        filter = GroovyLambda.of("{ t -> t.get().label() == 'person' }");
+    }
+
+    @Benchmark
+    public byte[] writeGraph() throws IOException {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        GraphSONWriter.build().create().writeGraph(stream, graph);
+        return stream.toByteArray();
+    }
+
+    @Benchmark
+    public Graph readGraph() throws IOException {
+        final Graph target = TinkerGraph.open();
+        try (final InputStream stream = StringInputStream.from(graphSON)) {
+            GraphSONReader.build().create().readGraph(stream, target);
+        }
+        return target;
+    }
+
+    @Benchmark
+    public long stringInputStreamFrom() throws IOException {
+        final byte[] buffer = new byte[1 << 16];
+        long total = 0;
+        try (final InputStream stream = StringInputStream.from(graphSON)) {
+            for (int count; (count = stream.read(buffer)) != -1; ) {
+                total += count;
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public String traversalToJson() {
+        return TraversalJson.traversalToJson(graph.traversal().V());
+    }
+
+    @Benchmark
+    public String projectedTraversalToJson() {
+        return ElementProjection.traversalToJson(graph.traversal().V(), new String[] { "name" }, false);
+    }
+
+    @Benchmark
+    public Object groovyFilterCount() {
+        return graph.traversal().V().filter(filter).count().next();
+    }
+}
@@ -0,0 +1,166 @@
+package co.redseal.gremlinnode.benchmark;
+
+import co.redseal.gremlinnode.function.GlobFunction;
+import co.redseal.gremlinnode.function.GroovyLambda;
+import co.redseal.gremlinnode.function.JavaScriptLambda;
+import org.apache.tinkerpop.gremlin.util.function.ScriptEngineLambda;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import javax.script.ScriptException;
+
+/**
+ * Cost of a single call through each kind of lambda, and through andThen chains of increasing depth.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LambdaBenchmark {
+
+    private Integer argument;
+
+    private GroovyLambda groovyFunction;
+    private GroovyLambda groovyPredicate;
+    private GroovyLambda staticPredicate;
+    private GroovyLambda staticLongPredicate;
+    private long primitiveArgument;
+    private ScriptEngineLambda scriptEngineLambda;
+    private ScriptEngineLambda javaScriptEngineLambda;
+    private JavaScriptLambda javaScriptLambda;
+    private JavaScriptLambda javaScriptStatementLambda;
+    private Function<Object, Object> javaFunction;
+    private Predicate<Object> javaPredicate;
+    private GlobFunction negated;
+
+    @Setup
+    public void setup() throws ScriptException {
+        argument = 17;
+        groovyFunction = GroovyLambda.of("{ x -> x + 1 }");
+        groovyPredicate = GroovyLambda.of("{ x -> x > 10 }");
+        staticPredicate = GroovyLambda.compileStatic("{ Integer x -> x > 10 }");
+        staticLongPredicate = GroovyLambda.compileStatic("{ long x -> x > 10 }");
+        primitiveArgument = 1017;
+        scriptEngineLambda = new ScriptEngineLambda("Groovy", "a + 1");
+        javaScriptEngineLambda = new ScriptEngineLambda("JavaScript", "a + 1");
+        javaScriptLambda = JavaScriptLambda.of("a + 1");
+        javaScriptStatementLambda = JavaScriptLambda.of("var x = a; x + 1");
+        javaFunction = x -> (Integer) x + 1;
+        javaPredicate = x -> (Integer) x > 10;
+        negated = groovyPredicate.negate();
+    }
+
+    @State(Scope.Thread)
+    public static class Chains {
+
+        @Param({ "1", "2", "4", "8" })
+        public int depth;
+
+        private GlobFunction groovy;
+        private GlobFunction java;
+
+        @Setup
+        public void setup() throws ScriptException {
+            // GroovyLambda stages compose into a fused pipeline; plain Java stages into nested AndThenGlobFunctions.
+            final Function<Object, Object> increment = x -> (Integer) x + 1;
+            groovy = GroovyLambda.of("{ x -> x + 1 }");
+            java = groovy;
+            for (int i = 1; i < depth; i++) {
+                groovy = groovy.andThen(GroovyLambda.of("{ x -> x + 1 }"));
+                java = java.andThen(increment);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object groovyLambdaApply() {
+        return groovyFunction.apply(argument);
+    }
+
+    @Benchmark
+    public boolean groovyLambdaTest() {
+        return groovyPredicate.test(argument);
+    }
+
+    @Benchmark
+    public boolean staticGroovyLambdaTest() {
+        return staticPredicate.test(argument);
+    }
+
+    /**
+     * LongPredicate.test with an argument outside the Long cache, on a dynamic and on a `long`-typed static closure.
+     */
+    @Benchmark
+    public boolean groovyLambdaTestLong() {
+        return groovyPredicate.test(primitiveArgument);
+    }
+
+    @Benchmark
+    public boolean staticGroovyLambdaTestLong() {
+        return staticLongPredicate.test(primitiveArgument);
+    }
+
+    @Benchmark
+    public Object scriptEngineLambdaApply() {
+        return scriptEngineLambda.apply(argument);
+    }
+
+    @Benchmark
+    public Object javaScriptEngineLambdaApply() {
+        return javaScriptEngineLambda.apply(argument);
+    }
+
+    /**
+     * A single expression, called as a compiled function.
+     */
+    @Benchmark
+    public Object javaScriptLambdaApply() {
+        return javaScriptLambda.apply(argument);
+    }
+
+    /**
+     * Statements, evaluated as a compiled script with reused bindings.
+     */
+    @Benchmark
+    public Object javaScriptStatementLambdaApply() {
+        return javaScriptStatementLambda.apply(argument);
+    }
+
+    @Benchmark
+    public Object javaLambdaApply() {
+        return javaFunction.apply(argument);
+    }
+
+    @Benchmark
+    public boolean javaLambdaTest() {
+        return javaPredicate.test(argument);
+    }
+
+    @Benchmark
+    public boolean negateGlobFunctionTest() {
+        return negated.test(argument);
+    }
+
+    @Benchmark
+    public Object groovyAndThenChainApply(final Chains chains) {
+        return chains.groovy.apply(argument);
+    }
+
+    @Benchmark
+    public Object javaAndThenChainApply(final Chains chains) {
+        return chains.java.apply(argument);
+    }
+}
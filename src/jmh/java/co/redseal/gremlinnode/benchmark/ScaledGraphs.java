@@ -0,0 +1,58 @@
+package co.redseal.gremlinnode.benchmark;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * TinkerFactory graphs scaled up to a given number of elements, by adding disjoint copies of the classic graph with
+ * offset ids.
+ */
+public class ScaledGraphs {
+
+    private final static Graph CLASSIC = TinkerFactory.createClassic();
+    private final static int CLASSIC_ELEMENTS = 12;
+    private final static int ID_STRIDE = 100;
+
+    /**
+     * A graph with about the given number of vertices plus edges, i.e. elements / 12 copies of the classic graph.
+     */
+    static public TinkerGraph classic(final int elements) {
+        final TinkerGraph graph = TinkerGraph.open();
+        final int copies = Math.max(1, elements / CLASSIC_ELEMENTS);
+        for (int copy = 0; copy < copies; copy++) {
+            final long offset = (long) copy * ID_STRIDE;
+            CLASSIC.vertices().forEachRemaining(vertex -> addVertex(graph, vertex, offset));
+            CLASSIC.edges().forEachRemaining(edge -> addEdge(graph, edge, offset));
+        }
+        return graph;
+    }
+
+    private static void addVertex(final Graph graph, final Vertex vertex, final long offset) {
+        final List<Object> keyValues = new ArrayList<>();
+        keyValues.add(T.id);
+        keyValues.add(offset + ((Number) vertex.id()).longValue());
+        keyValues.add(T.label);
+        keyValues.add(vertex.label());
+        final Iterator<VertexProperty<Object>> properties = vertex.properties();
+        while (properties.hasNext()) {
+            final VertexProperty<Object> property = properties.next();
+            keyValues.add(property.key());
+            keyValues.add(property.value());
+        }
+        graph.addVertex(keyValues.toArray());
+    }
+
+    private static void addEdge(final Graph graph, final Edge edge, final long offset) {
+        final Vertex out = graph.vertices(offset + ((Number) edge.outVertex().id()).longValue()).next();
+        final Vertex in = graph.vertices(offset + ((Number) edge.inVertex().id()).longValue()).next();
+        out.addEdge(edge.label(), in, T.id, offset + ((Number) edge.id()).longValue(), "weight", edge.value("weight"));
+    }
+}
@@ -12,31 +12,48 @@ abstract class AbstractGlobFunction implements GlobFunction {
     // Force the subclass to create a unique string representation.
     public abstract String toString();
 
+    /**
+     * True if this lambda records its own calls in LambdaMetricsRegistry, because it was created while
+     * LambdaMetricsRegistry.isInstrumentNewClosures was set.
+     */
+    public boolean isInstrumented() {
+        return false;
+    }
+
     // GlobFunction.andThen
     @Override
     public GlobFunction andThen(GlobFunction then) {
-        return new AndThenGlobFunction(this, then);
+        return PipelineGlobFunction.compose(this, then);
     }
 
     // Function.andThen, BiFunction.andThen
     @Override
     public GlobFunction andThen(Function then) {
+        if (then instanceof GlobFunction) {
+            return andThen((GlobFunction) then);
+        }
         return new AndThenGlobFunction(this, then);
     }
 
     // Consumer.andThen
     @Override
     public GlobFunction andThen(Consumer then) {
+        if (then instanceof GlobFunction) {
+            return andThen((GlobFunction) then);
+        }
         return new AndThenGlobFunction(this, then);
     }
 
     // BiConsumer.andThen
     @Override
     public GlobFunction andThen(BiConsumer then) {
+        if (then instanceof GlobFunction) {
+            return andThen((GlobFunction) then);
+        }
         return new AndThenGlobFunction(this, then);
     }
 
-    // Predicate.negate, BiPredicate.negate
+    // Predicate.negate, BiPredicate.negate, LongPredicate.negate, DoublePredicate.negate
     @Override
     public GlobFunction negate() {
         return new NegateGlobFunction(this);
@@ -3,9 +3,13 @@ package co.redseal.gremlinnode.function;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 
 /**
- * Implementation of GlobFunction which implements the andThen composition API.
+ * Implementation of GlobFunction which implements the andThen composition API for plain Java functional interfaces.
+ * Composition with another GlobFunction is handled by PipelineGlobFunction.
  */
 class AndThenGlobFunction extends IdentityGlobFunction {
 
@@ -34,13 +38,6 @@ class AndThenGlobFunction extends IdentityGlobFunction {
         this.functionThen = then;
     }
 
-    public AndThenGlobFunction(final GlobFunction that, final GlobFunction then) {
-        super(that);
-        this.biconsumerThen = then;
-        this.consumerThen = then;
-        this.functionThen = then;
-    }
-
     public String toString() {
         // Use something that looks like the "composition" operation.
         final String then
@@ -75,4 +72,34 @@ class AndThenGlobFunction extends IdentityGlobFunction {
     public Object apply(final Object a, final Object b) {
         return functionThen.apply(that.apply(a, b));
     }
+
+    // ToLongFunction.applyAsLong
+    @Override
+    public long applyAsLong(final Object a) {
+        final Object intermediate = that.apply(a);
+        if (functionThen instanceof ToLongFunction) {
+            return ((ToLongFunction) functionThen).applyAsLong(intermediate);
+        }
+        return ((Number) functionThen.apply(intermediate)).longValue();
+    }
+
+    // ToDoubleFunction.applyAsDouble
+    @Override
+    public double applyAsDouble(final Object a) {
+        final Object intermediate = that.apply(a);
+        if (functionThen instanceof ToDoubleFunction) {
+            return ((ToDoubleFunction) functionThen).applyAsDouble(intermediate);
+        }
+        return ((Number) functionThen.apply(intermediate)).doubleValue();
+    }
+
+    // LongUnaryOperator.applyAsLong
+    @Override
+    public long applyAsLong(final long a) {
+        final long intermediate = that.applyAsLong(a);
+        if (functionThen instanceof LongUnaryOperator) {
+            return ((LongUnaryOperator) functionThen).applyAsLong(intermediate);
+        }
+        return ((Number) functionThen.apply(intermediate)).longValue();
+    }
 }
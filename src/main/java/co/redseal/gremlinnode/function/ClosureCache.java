@@ -0,0 +1,140 @@
+package co.redseal.gremlinnode.function;
+
+import groovy.lang.Closure;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+/**
+ * A size-bounded, least-recently-used cache of compiled Groovy closures, keyed by source text and script engine.
+ *
+ * Compilation happens outside of the cache lock, so two threads racing on the same new source may both compile it;
+ * the first one to finish wins and the other result is discarded.
+ */
+public class ClosureCache {
+
+    public final static int DEFAULT_CAPACITY = 1000;
+
+    private final int capacity;
+    private final LinkedHashMap<Key, Closure> closures;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public ClosureCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ClosureCache(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("ClosureCache capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.closures = new LinkedHashMap<Key, Closure>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Closure> eldest) {
+                if (size() > ClosureCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Return the closure compiled from the given source by the given engine, compiling it on a miss.
+     */
+    public Closure get(final String groovy, final ScriptEngine engine) throws ScriptException {
+        final Key key = new Key(groovy, engine);
+        synchronized (this) {
+            final Closure cached = closures.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        final Closure compiled = (Closure) engine.eval(groovy);
+
+        synchronized (this) {
+            final Closure raced = closures.get(key);
+            if (raced != null) {
+                return raced;
+            }
+            closures.put(key, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Cache a closure compiled elsewhere (e.g. loaded from a ClosureStore) for the given source and engine.
+     */
+    public synchronized void put(final String groovy, final ScriptEngine engine, final Closure closure) {
+        closures.put(new Key(groovy, engine), closure);
+    }
+
+    /**
+     * Drop every cached closure compiled by the given engine.
+     */
+    public synchronized void invalidate(final ScriptEngine engine) {
+        closures.keySet().removeIf(key -> key.engine == engine);
+    }
+
+    public synchronized void clear() {
+        closures.clear();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return closures.size();
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    public synchronized String toString() {
+        return "ClosureCache(size=" + closures.size() + ", capacity=" + capacity
+            + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + ")";
+    }
+
+    // The engine is compared by identity, since two engines with the same imports may still differ in bindings.
+    private final static class Key {
+        private final String groovy;
+        private final ScriptEngine engine;
+
+        Key(final String groovy, final ScriptEngine engine) {
+            this.groovy = groovy;
+            this.engine = engine;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            final Key that = (Key) other;
+            return this.engine == that.engine && this.groovy.equals(that.groovy);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(engine) + groovy.hashCode();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package co.redseal.gremlinnode.function;
+
+import groovy.lang.Binding;
+import groovy.lang.Closure;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.Script;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.Phases;
+import org.codehaus.groovy.control.customizers.ImportCustomizer;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.codehaus.groovy.tools.GroovyClass;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+/**
+ * Compile the source of a Groovy closure as a script whose value is the closure, with the engine's imports, as the
+ * engine itself would compile it, but to class files of its own rather than into the engine's class loader.
+ *
+ * Loading defines the class files in a new ClosureClassLoader and runs the script against the engine's bindings.
+ * Apart from the closure (and objects it hands out), only Groovy's meta-class registry refers to that class loader, so
+ * once the closure is unreachable and ClosureClassLoader.removeMetaClasses has been called its classes can be
+ * unloaded.  Closures compiled this way cannot see classes defined by earlier scripts in the engine.
+ */
+final class ClosureCompiler {
+
+    private ClosureCompiler() {
+    }
+
+    static Map<String, byte[]> compile(final String scriptName, final String groovy, final ScriptEngine engine)
+        throws ScriptException {
+        final CompilerConfiguration configuration = new CompilerConfiguration();
+        configuration.addCompilationCustomizers(importCustomizer(engine));
+        try (final GroovyClassLoader loader = new GroovyClassLoader(ClosureCompiler.class.getClassLoader())) {
+            final CompilationUnit unit = new CompilationUnit(configuration, null, loader);
+            unit.addSource(scriptName + ".groovy", groovy);
+            unit.compile(Phases.CLASS_GENERATION);
+            final Map<String, byte[]> classes = new HashMap<>();
+            for (Object generated : unit.getClasses()) {
+                classes.put(((GroovyClass) generated).getName(), ((GroovyClass) generated).getBytes());
+            }
+            return classes;
+        } catch (CompilationFailedException e) {
+            throw new ScriptException(e.getMessage());
+        } catch (IOException e) {
+            throw new ScriptException(e);
+        }
+    }
+
+    static Closure load(final String scriptName, final Map<String, byte[]> classes, final ScriptEngine engine)
+        throws ScriptException {
+        try {
+            final Class<?> scriptClass = new ClosureClassLoader(classes).loadClass(scriptName);
+            final Binding binding = new Binding(engine.getBindings(ScriptContext.ENGINE_SCOPE));
+            final Script script = InvokerHelper.createScript(scriptClass, binding);
+            final Object closure = script.run();
+            if (!(closure instanceof Closure)) {
+                throw new ScriptException("Not a closure: " + closure);
+            }
+            return (Closure) closure;
+        } catch (ClassNotFoundException e) {
+            throw new ScriptException(e);
+        }
+    }
+
+    // The engine's imports, applied as GremlinGroovyScriptEngine applies them rather than as import statements, which
+    // would make a parameterless closure literal ambiguous.
+    private static ImportCustomizer importCustomizer(final ScriptEngine engine) {
+        final ImportCustomizer customizer = new ImportCustomizer();
+        if (!(engine instanceof GremlinGroovyScriptEngine)) {
+            return customizer;
+        }
+        final Map<String, Set<String>> imports = ((GremlinGroovyScriptEngine) engine).imports();
+        for (String key : new String[] { "imports", "extraImports" }) {
+            for (String name : imports.getOrDefault(key, Collections.emptySet())) {
+                final String imported = StaticClosureCompiler.importName(name);
+                if (imported.endsWith(".*")) {
+                    customizer.addStarImports(imported.substring(0, imported.length() - 2));
+                } else {
+                    customizer.addImports(imported);
+                }
+            }
+        }
+        for (String key : new String[] { "staticImports", "extraStaticImports" }) {
+            for (String name : imports.getOrDefault(key, Collections.emptySet())) {
+                final String imported = StaticClosureCompiler.importName(name);
+                final int dot = imported.lastIndexOf('.');
+                if (imported.endsWith(".*")) {
+                    customizer.addStaticStars(imported.substring(0, dot));
+                } else {
+                    customizer.addStaticImport(imported.substring(0, dot), imported.substring(dot + 1));
+                }
+            }
+        }
+        return customizer;
+    }
+
+    // Defines the classes of one closure.  Everything else comes from the parent.
+    final static class ClosureClassLoader extends ClassLoader {
+        private final Map<String, byte[]> classes;
+        private final List<Class<?>> defined = new ArrayList<>();
+
+        ClosureClassLoader(final Map<String, byte[]> classes) {
+            super(ClosureCompiler.class.getClassLoader());
+            this.classes = classes;
+        }
+
+        int getClassCount() {
+            return classes.size();
+        }
+
+        @Override
+        protected Class<?> findClass(final String name) throws ClassNotFoundException {
+            final byte[] bytes = classes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            final Class<?> definedClass = defineClass(name, bytes, 0, bytes.length);
+            synchronized (defined) {
+                defined.add(definedClass);
+            }
+            return definedClass;
+        }
+
+        // Groovy keeps the meta-class of every class it has called strongly reachable, which would keep this loader
+        // alive forever.  Only call this once the closure is unreachable, or its meta-classes are simply registered
+        // again.
+        void removeMetaClasses() {
+            synchronized (defined) {
+                defined.forEach(InvokerHelper::removeClass);
+            }
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package co.redseal.gremlinnode.function;
+
+import co.redseal.gremlinnode.io.JsonWriter;
+import groovy.lang.Closure;
+import groovy.lang.GroovySystem;
+import org.apache.tinkerpop.gremlin.util.Gremlin;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * An on-disk store of the class files that Groovy generates for closure sources, so that a process can create its
+ * closures without parsing or compiling them.
+ *
+ * Each closure is compiled as a script whose value is the closure, with the engine's imports, as the engine itself
+ * would compile it.  The generated classes are written to `<directory>/<version>/<hash>.classes`, where the
+ * version names the Groovy and TinkerPop releases and the hash covers the imports and the closure source; a store
+ * written by other releases is simply not found.  Loading defines the stored classes in a fresh class loader and runs
+ * the script against the engine's bindings.  Unlike engine.eval, stored closures cannot see classes defined by
+ * earlier scripts in the engine.
+ *
+ * warmUp() loads a whole manifest of closures, compiling and storing any that are missing, and adds them to
+ * GroovyLambda's closure cache so that GroovyLambda.of (and newGroovyClosure) finds them already compiled.
+ */
+public class ClosureStore {
+
+    private final static int MAGIC = 0x434c5331;    // "CLS1"
+
+    private final File directory;
+    private final ScriptEngine engine;
+
+    private long hits = 0;
+    private long misses = 0;
+
+    public ClosureStore(final File directory) {
+        this(directory, GroovyLambda.getDefaultEngine());
+    }
+
+    public ClosureStore(final String directory, final ScriptEngine engine) {
+        this(new File(directory), engine);
+    }
+
+    public ClosureStore(final File directory, final ScriptEngine engine) {
+        this.directory = new File(directory, versionTag());
+        this.engine = engine;
+    }
+
+    /**
+     * The Groovy and TinkerPop releases whose class files this store holds.
+     */
+    static public String versionTag() {
+        return "groovy-" + GroovySystem.getVersion() + "-tinkerpop-" + Gremlin.version();
+    }
+
+    /**
+     * The directory holding the class files for the running Groovy and TinkerPop releases.
+     */
+    public File getVersionDirectory() {
+        return directory;
+    }
+
+    /**
+     * Return the closure for the given source, loading it from the store, or compiling and storing it on a miss.
+     */
+    public Closure get(final String groovy) throws ScriptException {
+        final String source = source(groovy);
+        final String hash = hash(source);
+        final File file = new File(directory, hash + ".classes");
+        Map<String, byte[]> classes = read(file, source);
+        if (classes != null) {
+            synchronized (this) {
+                hits++;
+            }
+        } else {
+            synchronized (this) {
+                misses++;
+            }
+            classes = ClosureCompiler.compile(scriptName(hash), groovy, engine);
+            try {
+                write(file, source, classes);
+            } catch (IOException e) {
+                // The store is only a cache: the closure is still usable, and the next process will compile it.
+            }
+        }
+        return ClosureCompiler.load(scriptName(hash), classes, engine);
+    }
+
+    /**
+     * Load every closure in the list, compiling and storing those that are missing, and add them to GroovyLambda's
+     * closure cache for this store's engine.
+     */
+    public WarmUp warmUp(final String[] sources) throws ScriptException {
+        final long start = System.nanoTime();
+        final long hitsBefore = hits();
+        final ClosureCache cache = GroovyLambda.getClosureCache();
+        for (String groovy : sources) {
+            cache.put(groovy, engine, get(groovy));
+        }
+        final long storeHits = hits() - hitsBefore;
+        return new WarmUp(sources.length, storeHits, sources.length - storeHits, (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * As warmUp(String[]), with the closures read from a manifest file: one closure per line, skipping blank lines and
+     * lines starting with `#`.
+     */
+    public WarmUp warmUp(final File manifest) throws IOException, ScriptException {
+        final List<String> sources = new ArrayList<>();
+        for (String line : Files.readAllLines(manifest.toPath(), UTF_8)) {
+            final String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                sources.add(trimmed);
+            }
+        }
+        return warmUp(sources.toArray(new String[sources.size()]));
+    }
+
+    /**
+     * The number of closures loaded from the store without compiling.
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * The number of closures compiled because the store did not have them.
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized String toString() {
+        return "ClosureStore(" + directory + ", hits=" + hits + ", misses=" + misses + ")";
+    }
+
+    /**
+     * The outcome of one warm-up.
+     */
+    public final static class WarmUp {
+        private final int closures;
+        private final long storeHits;
+        private final long compiled;
+        private final double millis;
+
+        private WarmUp(final int closures, final long storeHits, final long compiled, final double millis) {
+            this.closures = closures;
+            this.storeHits = storeHits;
+            this.compiled = compiled;
+            this.millis = millis;
+        }
+
+        public int getClosureCount() {
+            return closures;
+        }
+
+        public long getStoreHits() {
+            return storeHits;
+        }
+
+        public long getCompiledCount() {
+            return compiled;
+        }
+
+        public double getMillis() {
+            return millis;
+        }
+
+        /**
+         * True if every closure came from the store.
+         */
+        public boolean isStoreHit() {
+            return compiled == 0;
+        }
+
+        public String toJson() {
+            final JsonWriter json = new JsonWriter();
+            json.beginObject();
+            json.name("closures").value(closures);
+            json.name("storeHits").value(storeHits);
+            json.name("compiled").value(compiled);
+            json.name("millis").value(millis);
+            json.name("storeHit").value(isStoreHit());
+            json.endObject();
+            return json.toString();
+        }
+
+        public String toString() {
+            return "WarmUp(closures=" + closures + ", storeHits=" + storeHits + ", compiled=" + compiled
+                + ", millis=" + millis + ")";
+        }
+    }
+
+    private String source(final String groovy) {
+        final StringBuilder source = new StringBuilder();
+        StaticClosureCompiler.appendImports(source, engine);
+        return source.append(groovy).toString();
+    }
+
+    private static String scriptName(final String hash) {
+        return "StoredClosure_" + hash.substring(0, 16);
+    }
+
+    // Null if the file is missing, unreadable or for another source, in which case the closure is compiled again.
+    private static Map<String, byte[]> read(final File file, final String source) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (final DataInputStream in =
+                 new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != MAGIC || !source.equals(new String(readBytes(in), UTF_8))) {
+                return null;
+            }
+            final int count = in.readInt();
+            final Map<String, byte[]> classes = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                classes.put(in.readUTF(), readBytes(in));
+            }
+            return classes;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static byte[] readBytes(final DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    // Written to a temporary file and moved into place, so that concurrent warm-ups never see a partial file.
+    private void write(final File file, final String source, final Map<String, byte[]> classes) throws IOException {
+        Files.createDirectories(directory.toPath());
+        final File temporary = File.createTempFile(file.getName(), ".tmp", directory);
+        try {
+            try (final DataOutputStream out =
+                     new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary.toPath())))) {
+                out.writeInt(MAGIC);
+                final byte[] sourceBytes = source.getBytes(UTF_8);
+                out.writeInt(sourceBytes.length);
+                out.write(sourceBytes);
+                out.writeInt(classes.size());
+                for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().length);
+                    out.write(entry.getValue());
+                }
+            }
+            Files.move(temporary.toPath(), file.toPath(),
+                       StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            temporary.delete();
+        }
+    }
+
+    private static String hash(final String source) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(UTF_8));
+            final StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -6,17 +6,25 @@ import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
+import java.util.function.DoublePredicate;
 import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 import java.util.function.UnaryOperator;
 
 /**
  * Declare a versatile interface that combines many of the java.util.function interfaces.
+ *
+ * The primitive specializations let numeric lambdas be composed and negated without boxing at each layer.
  */
 public interface GlobFunction
     extends Function, UnaryOperator, BiFunction, BinaryOperator, Supplier, Consumer, BiConsumer, TriConsumer
-    , Predicate, BiPredicate {
+    , Predicate, BiPredicate
+    , ToLongFunction, ToDoubleFunction, LongPredicate, DoublePredicate, LongUnaryOperator {
 
     // Function.andThen, BiFunction.andThen
     GlobFunction andThen(Function after);
@@ -24,6 +32,6 @@ public interface GlobFunction
     GlobFunction andThen(BiConsumer after);
     GlobFunction andThen(GlobFunction after);
 
-    // Predicate.negate, BiPredicate.negate
+    // Predicate.negate, BiPredicate.negate, LongPredicate.negate, DoublePredicate.negate
     GlobFunction negate();
 }
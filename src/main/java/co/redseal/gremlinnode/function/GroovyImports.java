@@ -0,0 +1,82 @@
+package co.redseal.gremlinnode.function;
+
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Add imports to a GremlinGroovyScriptEngine in batches.
+ *
+ * Every GremlinGroovyScriptEngine.addImports call resets the engine: its class loader and its cache of compiled
+ * scripts are thrown away, so every script evaluated afterwards is compiled again.  addImports here takes a whole set
+ * of imports, drops those the engine already has, and calls the engine at most once, so that importing packages that
+ * are already imported costs nothing.  When the imports do change, the closures GroovyLambda has cached for the engine
+ * are dropped as well, since a closure's meaning can depend on the imports; otherwise they are kept.
+ *
+ * Imports may be written as in Groovy source, e.g. `import static java.lang.Math.*`, or as bare names, e.g.
+ * `java.util.concurrent.*` or `static java.lang.Math.max`.
+ */
+public class GroovyImports {
+
+    private final static String STATIC_PREFIX = "static ";
+
+    private GroovyImports() {
+    }
+
+    /**
+     * Add to the engine those of the given imports that it does not already have, resetting it only if there are any.
+     * Returns the imports that were added, as `import` statements.
+     */
+    static public String[] addImports(final GremlinGroovyScriptEngine engine, final String[] imports) {
+        synchronized (engine) {
+            final Set<String> existing = getImports(engine);
+            final Set<String> added = new LinkedHashSet<>();
+            for (String name : imports) {
+                final String statement = statement(name);
+                if (statement != null && !existing.contains(statement)) {
+                    added.add(statement);
+                }
+            }
+            if (!added.isEmpty()) {
+                engine.addImports(added);
+                GroovyLambda.getClosureCache().invalidate(engine);
+            }
+            return added.toArray(new String[added.size()]);
+        }
+    }
+
+    /**
+     * Every import the engine applies, default and added, as sorted `import` statements.
+     */
+    static public Set<String> getImports(final GremlinGroovyScriptEngine engine) {
+        final Map<String, Set<String>> imports = engine.imports();
+        final Set<String> statements = new TreeSet<>();
+        for (String key : new String[] { "imports", "extraImports" }) {
+            for (String name : imports.getOrDefault(key, Collections.emptySet())) {
+                statements.add("import " + StaticClosureCompiler.importName(name));
+            }
+        }
+        for (String key : new String[] { "staticImports", "extraStaticImports" }) {
+            for (String name : imports.getOrDefault(key, Collections.emptySet())) {
+                statements.add("import static " + StaticClosureCompiler.importName(name));
+            }
+        }
+        return statements;
+    }
+
+    // The canonical `import` statement for an import in any of the accepted forms, or null if it is blank.
+    static String statement(final String name) {
+        String imported = name.trim().replaceFirst("^import\\s+", "").replaceFirst(";$", "").trim();
+        if (imported.isEmpty()) {
+            return null;
+        }
+        final boolean isStatic = imported.startsWith(STATIC_PREFIX);
+        if (isStatic) {
+            imported = imported.substring(STATIC_PREFIX.length()).trim();
+        }
+        return (isStatic ? "import static " : "import ") + imported.replaceAll("\\s+", "");
+    }
+}
@@ -1,27 +1,112 @@
 package co.redseal.gremlinnode.function;
 
+import co.redseal.gremlinnode.function.LambdaMetrics.Shape;
 import org.apache.tinkerpop.gremlin.util.ScriptEngineCache;
 import groovy.lang.Closure;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 
 /**
  * Create a versatile lambda from a Groovy closure.
  *
+ * Closures evaluated by the script engine (the constructors and `of`) are defined in the engine's class loader, which
+ * keeps their classes loaded for as long as the engine lives.  Lambdas made by `reclaimable` are compiled into a class
+ * loader of their own instead, so that their classes are unloaded once the lambda is closed or unreachable; see
+ * LambdaClassRegistry for the counts.  close() releases any lambda's closure, after which calls fail.
+ *
+ * A lambda created while LambdaMetricsRegistry.isInstrumentNewClosures is set records its calls in the LambdaMetrics
+ * registered under its toString, as InstrumentedGlobFunction would, without changing its type.
+ *
  * Based on code written by Marko A. Rodriguez (http://markorodriguez.com)
  */
-public class GroovyLambda extends AbstractGlobFunction {
+public class GroovyLambda extends AbstractGlobFunction implements AutoCloseable {
 
     private final String groovy;
     private final ScriptEngine engine;
-    private final Closure closure;
+    private final String[] parameterTypes;
+    private final String staticCompilationFailure;
+    private final boolean reclaimable;
+    // Null unless metrics were switched on when the lambda was created.
+    private final LambdaMetrics metrics;
+
+    // Not final, so that close() can release them.
+    private Closure closure;
+    private StaticClosure typed;
+    private ThreadLocal<Closure> perThread;
 
     private final static String GROOVY_SCRIPT_ENGINE_NAME = "Groovy";
 
+    private final static ClosureCache closureCache = new ClosureCache();
+
+    private final static AtomicLong reclaimableCounter = new AtomicLong();
+
     public static ScriptEngine getDefaultEngine() {
         return ScriptEngineCache.get(GROOVY_SCRIPT_ENGINE_NAME);
     }
 
+    /**
+     * The cache of compiled closures shared by the `of` factory methods.
+     */
+    public static ClosureCache getClosureCache() {
+        return closureCache;
+    }
+
+    /**
+     * Create a lambda from a Groovy closure, reusing a previously compiled closure with the same source if possible.
+     */
+    public static GroovyLambda of(final String groovy) throws ScriptException {
+        return of(groovy, getDefaultEngine());
+    }
+
+    public static GroovyLambda of(final String groovy, final ScriptEngine engine) throws ScriptException {
+        return new GroovyLambda(groovy, engine, closureCache.get(groovy, engine));
+    }
+
+    /**
+     * Create a lambda from a Groovy closure compiled with @CompileStatic, with the given types for the closure's
+     * untyped parameters, e.g. "org.apache.tinkerpop.gremlin.structure.Vertex".  Calls bypass Groovy's dynamic
+     * dispatch entirely.  If the closure cannot be compiled statically, e.g. because it fails type checking or refers
+     * to engine bindings, the lambda falls back to a dynamic closure and getStaticCompilationFailure says why.
+     */
+    public static GroovyLambda compileStatic(final String groovy) throws ScriptException {
+        return compileStatic(groovy, getDefaultEngine(), new String[0]);
+    }
+
+    public static GroovyLambda compileStatic(final String groovy, final String[] parameterTypes)
+        throws ScriptException {
+        return compileStatic(groovy, getDefaultEngine(), parameterTypes);
+    }
+
+    public static GroovyLambda compileStatic(final String groovy, final ScriptEngine engine,
+                                             final String[] parameterTypes) throws ScriptException {
+        try {
+            final StaticClosure typed = StaticClosureCompiler.compile(groovy, engine, parameterTypes);
+            return new GroovyLambda(groovy, engine, null, typed, parameterTypes, null);
+        } catch (StaticClosureCompiler.StaticCompilationException e) {
+            return new GroovyLambda(groovy, engine, closureCache.get(groovy, engine), null, parameterTypes,
+                                    e.getMessage());
+        }
+    }
+
+    /**
+     * Create a lambda from a Groovy closure compiled into a class loader of its own, with the engine's imports and
+     * bindings, so that its classes can be unloaded once the lambda is closed or no longer referenced.  Nothing is
+     * cached: each call compiles the source again.  The closure cannot see classes defined by earlier scripts in the
+     * engine.
+     */
+    public static GroovyLambda reclaimable(final String groovy) throws ScriptException {
+        return reclaimable(groovy, getDefaultEngine());
+    }
+
+    public static GroovyLambda reclaimable(final String groovy, final ScriptEngine engine) throws ScriptException {
+        final String scriptName = "ReclaimableClosure" + reclaimableCounter.incrementAndGet();
+        final Closure closure = ClosureCompiler.load(scriptName, ClosureCompiler.compile(scriptName, groovy, engine),
+                                                     engine);
+        LambdaClassRegistry.register(closure);
+        return new GroovyLambda(groovy, engine, closure, null, null, null, true);
+    }
+
     public GroovyLambda(final String groovy) throws ScriptException {
         this(groovy, getDefaultEngine());
     }
@@ -30,57 +115,328 @@ public class GroovyLambda extends AbstractGlobFunction {
         this.groovy = groovy;
         this.engine = engine;
         this.closure = (Closure) this.engine.eval(groovy);
+        this.typed = null;
+        this.parameterTypes = null;
+        this.staticCompilationFailure = null;
+        this.reclaimable = false;
+        this.perThread = null;
+        this.metrics = metricsIfEnabled();
+    }
+
+    private GroovyLambda(final String groovy, final ScriptEngine engine, final Closure closure) {
+        this(groovy, engine, closure, null, null, null);
+    }
+
+    private GroovyLambda(final String groovy, final ScriptEngine engine, final Closure closure,
+                         final StaticClosure typed, final String[] parameterTypes,
+                         final String staticCompilationFailure) {
+        this(groovy, engine, closure, typed, parameterTypes, staticCompilationFailure, false);
+    }
+
+    private GroovyLambda(final String groovy, final ScriptEngine engine, final Closure closure,
+                         final StaticClosure typed, final String[] parameterTypes,
+                         final String staticCompilationFailure, final boolean reclaimable) {
+        this.groovy = groovy;
+        this.engine = engine;
+        this.closure = closure;
+        this.typed = typed;
+        this.parameterTypes = parameterTypes;
+        this.staticCompilationFailure = staticCompilationFailure;
+        this.reclaimable = reclaimable;
+        this.perThread = null;
+        this.metrics = metricsIfEnabled();
+    }
+
+    private GroovyLambda(final GroovyLambda original) {
+        this.groovy = original.groovy;
+        this.engine = original.engine;
+        this.closure = original.closure;
+        this.typed = original.typed;
+        this.parameterTypes = original.parameterTypes;
+        this.staticCompilationFailure = original.staticCompilationFailure;
+        this.reclaimable = original.reclaimable;
+        this.perThread = original.closure == null ? null
+            : ThreadLocal.withInitial(() -> (Closure) original.closure.clone());
+        this.metrics = original.metrics;
+    }
+
+    // After the fields that make up toString have been set.
+    private LambdaMetrics metricsIfEnabled() {
+        return LambdaMetricsRegistry.isInstrumentNewClosures() ? LambdaMetricsRegistry.metricsFor(toString()) : null;
+    }
+
+    /**
+     * Return a lambda that is safe to call from several threads at once.  Each calling thread gets its own clone of
+     * the compiled closure, so delegate, owner and resolve strategy changes made by one thread are not seen by others.
+     * Cloning does not recompile.  A statically compiled lambda holds no closure state and is returned as is.
+     */
+    public GroovyLambda threadSafe() {
+        return isThreadSafe() ? this : new GroovyLambda(this);
+    }
+
+    public boolean isThreadSafe() {
+        return typed != null || perThread != null;
+    }
+
+    /**
+     * True if this lambda was made by `reclaimable`, i.e. its classes are unloaded once it is released.
+     */
+    public boolean isReclaimable() {
+        return reclaimable;
+    }
+
+    public boolean isClosed() {
+        return closure == null && typed == null;
+    }
+
+    /**
+     * Release the closure, so that a reclaimable lambda's classes can be unloaded even while this object is still
+     * referenced, e.g. by a JavaScript proxy awaiting garbage collection.  Later calls throw IllegalStateException.
+     * Closing a lambda made by `threadSafe` releases only that copy.  Close must not race with calls on other threads.
+     */
+    @Override
+    public void close() {
+        if (isClosed()) {
+            return;
+        }
+        closure = null;
+        typed = null;
+        perThread = null;
+        if (reclaimable) {
+            LambdaClassRegistry.closed();
+        }
+    }
+
+    String getGroovy() {
+        return groovy;
+    }
+
+    ScriptEngine getEngine() {
+        return engine;
+    }
+
+    // AbstractGlobFunction.isInstrumented
+    @Override
+    public boolean isInstrumented() {
+        return metrics != null;
+    }
+
+    /**
+     * The metrics this lambda records into, or null if it is not instrumented.
+     */
+    public LambdaMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * True if calls go through the statically compiled path.
+     */
+    public boolean isStaticallyCompiled() {
+        return typed != null;
+    }
+
+    /**
+     * Why compileStatic fell back to a dynamic closure, or null if it did not (or was not asked to).
+     */
+    public String getStaticCompilationFailure() {
+        return staticCompilationFailure;
     }
 
     public String toString() {
+        // Not `typed != null`, so that the identity survives close().
+        if (parameterTypes != null && staticCompilationFailure == null) {
+            final String types = parameterTypes.length == 0 ? "" : " " + String.join(",", parameterTypes);
+            return "GroovyLambda[static" + types + "](" + groovy + ")";
+        }
         return "GroovyLambda(" + groovy + ")";
     }
 
+    private Closure closure() {
+        final Closure current = perThread != null ? perThread.get() : closure;
+        if (current == null) {
+            throw new IllegalStateException("Closed: " + this);
+        }
+        return current;
+    }
+
+    // Every call goes through one of the following, which record it as the given shape if this lambda is
+    // instrumented.  Uninstrumented calls pay only for the null checks.
+
+    private Object call0(final Shape shape) {
+        final long start = metrics == null ? 0 : System.nanoTime();
+        Object result = null;
+        try {
+            result = typed != null ? typed.call0() : closure().call();
+            return result;
+        } catch (final Throwable e) {
+            recordException();
+            throw e;
+        } finally {
+            record(shape, start, result);
+        }
+    }
+
+    private Object call1(final Shape shape, final Object a) {
+        final long start = metrics == null ? 0 : System.nanoTime();
+        Object result = null;
+        try {
+            result = typed != null ? typed.call1(a) : closure().call(a);
+            return result;
+        } catch (final Throwable e) {
+            recordException();
+            throw e;
+        } finally {
+            record(shape, start, result);
+        }
+    }
+
+    private Object call2(final Shape shape, final Object a, final Object b) {
+        final long start = metrics == null ? 0 : System.nanoTime();
+        Object result = null;
+        try {
+            result = typed != null ? typed.call2(a, b) : closure().call(a, b);
+            return result;
+        } catch (final Throwable e) {
+            recordException();
+            throw e;
+        } finally {
+            record(shape, start, result);
+        }
+    }
+
+    private Object call3(final Shape shape, final Object a, final Object b, final Object c) {
+        final long start = metrics == null ? 0 : System.nanoTime();
+        Object result = null;
+        try {
+            result = typed != null ? typed.call3(a, b, c) : closure().call(a, b, c);
+            return result;
+        } catch (final Throwable e) {
+            recordException();
+            throw e;
+        } finally {
+            record(shape, start, result);
+        }
+    }
+
+    // The primitive shapes pass their argument unboxed only to a statically compiled closure that declares its
+    // parameter as `long` or `double`, e.g. `{ long x -> x > 10 }`; see StaticClosure.callLong.  Otherwise they are
+    // conveniences that box the argument like apply.
+
+    private Object callLong(final Shape shape, final long a) {
+        final long start = metrics == null ? 0 : System.nanoTime();
+        Object result = null;
+        try {
+            result = typed != null ? typed.callLong(a) : closure().call(a);
+            return result;
+        } catch (final Throwable e) {
+            recordException();
+            throw e;
+        } finally {
+            record(shape, start, result);
+        }
+    }
+
+    private Object callDouble(final Shape shape, final double a) {
+        final long start = metrics == null ? 0 : System.nanoTime();
+        Object result = null;
+        try {
+            result = typed != null ? typed.callDouble(a) : closure().call(a);
+            return result;
+        } catch (final Throwable e) {
+            recordException();
+            throw e;
+        } finally {
+            record(shape, start, result);
+        }
+    }
+
+    private void recordException() {
+        if (metrics != null) {
+            metrics.recordException();
+        }
+    }
+
+    private void record(final Shape shape, final long start, final Object result) {
+        if (metrics != null) {
+            metrics.recordCall(shape, start, Boolean.TRUE.equals(result));
+        }
+    }
+
     // Function.apply, UnaryOperator.apply
     @Override
     public Object apply(final Object a) {
-        return this.closure.call(a);
+        return call1(Shape.APPLY, a);
     }
 
     // BiFunction.apply, BinaryOperator.apply
     @Override
     public Object apply(final Object a, final Object b) {
-        return this.closure.call(a, b);
+        return call2(Shape.APPLY, a, b);
     }
 
     // Supplier.get
     @Override
     public Object get() {
-        return this.closure.call();
+        return call0(Shape.GET);
     }
 
     // Consumer.accept
     @Override
     public void accept(final Object a) {
-        this.closure.call(a);
+        call1(Shape.ACCEPT, a);
     }
 
     // BiConsumer.accept
     @Override
     public void accept(final Object a, final Object b) {
-        this.closure.call(a, b);
+        call2(Shape.ACCEPT, a, b);
     }
 
     // TriConsumer.accept
     @Override
     public void accept(final Object a, final Object b, final Object c) {
-        this.closure.call(a, b, c);
+        call3(Shape.ACCEPT, a, b, c);
     }
 
     // Predicate.test
     @Override
     public boolean test(final Object a) {
-        return (boolean) this.closure.call(a);
+        return (boolean) call1(Shape.TEST, a);
     }
 
     // BiPredicate.test
     @Override
     public boolean test(final Object a, final Object b) {
-        return (boolean) this.closure.call(a, b);
+        return (boolean) call2(Shape.TEST, a, b);
+    }
+
+    // ToLongFunction.applyAsLong
+    @Override
+    public long applyAsLong(final Object a) {
+        return ((Number) call1(Shape.APPLY, a)).longValue();
+    }
+
+    // ToDoubleFunction.applyAsDouble
+    @Override
+    public double applyAsDouble(final Object a) {
+        return ((Number) call1(Shape.APPLY, a)).doubleValue();
+    }
+
+    // LongUnaryOperator.applyAsLong
+    @Override
+    public long applyAsLong(final long a) {
+        return ((Number) callLong(Shape.APPLY, a)).longValue();
+    }
+
+    // LongPredicate.test
+    @Override
+    public boolean test(final long a) {
+        return (boolean) callLong(Shape.TEST, a);
+    }
+
+    // DoublePredicate.test
+    @Override
+    public boolean test(final double a) {
+        return (boolean) callDouble(Shape.TEST, a);
     }
 }
@@ -58,4 +58,34 @@ abstract class IdentityGlobFunction extends AbstractGlobFunction {
     public boolean test(final Object a, final Object b) {
         return that.test(a, b);
     }
+
+    // ToLongFunction.applyAsLong
+    @Override
+    public long applyAsLong(final Object a) {
+        return that.applyAsLong(a);
+    }
+
+    // ToDoubleFunction.applyAsDouble
+    @Override
+    public double applyAsDouble(final Object a) {
+        return that.applyAsDouble(a);
+    }
+
+    // LongUnaryOperator.applyAsLong
+    @Override
+    public long applyAsLong(final long a) {
+        return that.applyAsLong(a);
+    }
+
+    // LongPredicate.test
+    @Override
+    public boolean test(final long a) {
+        return that.test(a);
+    }
+
+    // DoublePredicate.test
+    @Override
+    public boolean test(final double a) {
+        return that.test(a);
+    }
 }
@@ -0,0 +1,242 @@
+package co.redseal.gremlinnode.function;
+
+import co.redseal.gremlinnode.function.LambdaMetrics.Shape;
+
+/**
+ * Decorator of GlobFunction which records invocation counts, latencies, exceptions and predicate results in the
+ * LambdaMetrics registered under the wrapped lambda's toString.
+ */
+public class InstrumentedGlobFunction extends IdentityGlobFunction {
+
+    private final LambdaMetrics metrics;
+
+    public InstrumentedGlobFunction(final GlobFunction that) {
+        this(that, LambdaMetricsRegistry.metricsFor(that.toString()));
+    }
+
+    /**
+     * Record into the given metrics rather than the registered ones.
+     */
+    public InstrumentedGlobFunction(final GlobFunction that, final LambdaMetrics metrics) {
+        super(that);
+        this.metrics = metrics;
+    }
+
+    /**
+     * Wrap the lambda, unless it is already instrumented, either by this class or, having been created while the
+     * global switch was on, by itself.
+     */
+    static public GlobFunction instrument(final GlobFunction lambda) {
+        if (lambda instanceof InstrumentedGlobFunction
+            || lambda instanceof AbstractGlobFunction && ((AbstractGlobFunction) lambda).isInstrumented()) {
+            return lambda;
+        }
+        return new InstrumentedGlobFunction(lambda);
+    }
+
+    /**
+     * Wrap the lambda if LambdaMetricsRegistry.isInstrumentNewClosures, otherwise return it as is.
+     */
+    static public GlobFunction instrumentIfEnabled(final GlobFunction lambda) {
+        return LambdaMetricsRegistry.isInstrumentNewClosures() ? instrument(lambda) : lambda;
+    }
+
+    public LambdaMetrics getMetrics() {
+        return metrics;
+    }
+
+    public String toString() {
+        // Instrumentation does not change what the lambda does, so it keeps the identity of the lambda it wraps.
+        return that.toString();
+    }
+
+    // Function.apply, UnaryOperator.apply
+    @Override
+    public Object apply(final Object a) {
+        final long start = System.nanoTime();
+        try {
+            return that.apply(a);
+        } catch (final Throwable e) {
+            metrics.recordException();
+            throw e;
+        } finally {
+            metrics.record(Shape.APPLY, System.nanoTime() - start);
+        }
+    }
+
+    // BiFunction.apply, BinaryOperator.apply
+    @Override
+    public Object apply(final Object a, final Object b) {
+        final long start = System.nanoTime();
+        try {
+            return that.apply(a, b);
+        } catch (final Throwable e) {
+            metrics.recordException();
+            throw e;
+        } finally {
+            metrics.record(Shape.APPLY, System.nanoTime() - start);
+        }
+    }
+
+    // Supplier.get
+    @Override
+    public Object get() {
+        final long start = System.nanoTime();
+        try {
+            return that.get();
+        } catch (final Throwable e) {
+            metrics.recordException();
+            throw e;
+        } finally {
+            metrics.record(Shape.GET, System.nanoTime() - start);
+        }
+    }
+
+    // Consumer.accept
+    @Override
+    public void accept(final Object a) {
+        final long start = System.nanoTime();
+        try {
+            that.accept(a);
+        } catch (final Throwable e) {
+            metrics.recordException();
+            throw e;
+        } finally {
+            metrics.record(Shape.ACCEPT, System.nanoTime() - start);
+        }
+    }
+
+    // BiConsumer.accept
+    @Override
+    public void accept(final Object a, final Object b) {
+        final long start = System.nanoTime();
+        try {
+            that.accept(a, b);
+        } catch (final Throwable e) {
+            metrics.recordException();
+            throw e;
+        } finally {
+            metrics.record(Shape.ACCEPT, System.nanoTime() - start);
+        }
+    }
+
+    // TriConsumer.accept
+    @Override
+    public void accept(final Object a, final Object b, final Object c) {
+        final long start = System.nanoTime();
+        try {
+            that.accept(a, b, c);
+        } catch (final Throwable e) {
+            metrics.recordException();
+            throw e;
+        } finally {
+            metrics.record(Shape.ACCEPT, System.nanoTime() - start);
+        }
+    }
+
+    // Predicate.test
+    @Override
+    public boolean test(final Object a) {
+        final long start = System.nanoTime();
+        boolean result = false;
+        try {
+            result = that.test(a);
+            return result;
+        } catch (final Throwable e) {
+            metrics.recordException();
+            throw e;
+        } finally {
+            metrics.recordTest(result, System.nanoTime() - start);
+        }
+    }
+
+    // BiPredicate.test
+    @Override
+    public boolean test(final Object a, final Object b) {
+        final long start = System.nanoTime();
+        boolean result = false;
+        try {
+            result = that.test(a, b);
+            return result;
+        } catch (final Throwable e) {
+            metrics.recordException();
+            throw e;
+        } finally {
+            metrics.recordTest(result, System.nanoTime() - start);
+        }
+    }
+
+    // ToLongFunction.applyAsLong
+    @Override
+    public long applyAsLong(final Object a) {
+        final long start = System.nanoTime();
+        try {
+            return that.applyAsLong(a);
+        } catch (final Throwable e) {
+            metrics.recordException();
+            throw e;
+        } finally {
+            metrics.record(Shape.APPLY, System.nanoTime() - start);
+        }
+    }
+
+    // ToDoubleFunction.applyAsDouble
+    @Override
+    public double applyAsDouble(final Object a) {
+        final long start = System.nanoTime();
+        try {
+            return that.applyAsDouble(a);
+        } catch (final Throwable e) {
+            metrics.recordException();
+            throw e;
+        } finally {
+            metrics.record(Shape.APPLY, System.nanoTime() - start);
+        }
+    }
+
+    // LongUnaryOperator.applyAsLong
+    @Override
+    public long applyAsLong(final long a) {
+        final long start = System.nanoTime();
+        try {
+            return that.applyAsLong(a);
+        } catch (final Throwable e) {
+            metrics.recordException();
+            throw e;
+        } finally {
+            metrics.record(Shape.APPLY, System.nanoTime() - start);
+        }
+    }
+
+    // LongPredicate.test
+    @Override
+    public boolean test(final long a) {
+        final long start = System.nanoTime();
+        boolean result = false;
+        try {
+            result = that.test(a);
+            return result;
+        } catch (final Throwable e) {
+            metrics.recordException();
+            throw e;
+        } finally {
+            metrics.recordTest(result, System.nanoTime() - start);
+        }
+    }
+
+    // DoublePredicate.test
+    @Override
+    public boolean test(final double a) {
+        final long start = System.nanoTime();
+        boolean result = false;
+        try {
+            result = that.test(a);
+            return result;
+        } catch (final Throwable e) {
+            metrics.recordException();
+            throw e;
+        } finally {
+            metrics.recordTest(result, System.nanoTime() - start);
+        }
+    }
+}
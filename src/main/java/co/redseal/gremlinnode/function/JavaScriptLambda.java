@@ -0,0 +1,329 @@
+package co.redseal.gremlinnode.function;
+
+import co.redseal.gremlinnode.function.LambdaMetrics.Shape;
+import jdk.nashorn.api.scripting.JSObject;
+import jdk.nashorn.api.scripting.NashornScriptEngine;
+import jdk.nashorn.api.scripting.ScriptObjectMirror;
+import org.apache.tinkerpop.gremlin.util.ScriptEngineCache;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+/**
+ * Create a versatile lambda from a JavaScript fragment with the implicit parameters a, b and c, as for TinkerPop's
+ * ScriptEngineLambda, e.g. `a.get().value("name") == "lop"`.
+ *
+ * ScriptEngineLambda evaluates its text with fresh bindings on every call, so the engine parses the text and builds a
+ * new global scope each time.  A JavaScriptLambda instead compiles its text once, caching it by source and engine, and
+ * calls it with bindings that each thread creates once per engine and then reuses.  With Nashorn a fragment that is a
+ * single expression is compiled as the body of a `function (a, b, c)`, and calls invoke that function directly;
+ * other fragments, e.g. ones with statements, and other engines evaluate the compiled script with a, b and c bound.
+ *
+ * Because the bindings are reused, globals that a fragment assigns persist on the calling thread and are visible to
+ * other fragments called on that thread.  Threads never share bindings.
+ *
+ * As for GroovyLambda, a lambda created while LambdaMetricsRegistry.isInstrumentNewClosures is set records its calls.
+ */
+public class JavaScriptLambda extends AbstractGlobFunction {
+
+    public final static int CACHE_CAPACITY = 1000;
+
+    private final static String JAVASCRIPT_SCRIPT_ENGINE_NAME = "JavaScript";
+    private final static String A = "a";
+    private final static String B = "b";
+    private final static String C = "c";
+
+    private final static LinkedHashMap<Key, Compiled> cache = new LinkedHashMap<Key, Compiled>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, Compiled> eldest) {
+            return size() > CACHE_CAPACITY;
+        }
+    };
+
+    private final static ThreadLocal<Map<ScriptEngine, Bindings>> threadBindings =
+        ThreadLocal.withInitial(IdentityHashMap::new);
+
+    private final String javascript;
+    private final ScriptEngine engine;
+    private final Compiled compiled;
+    // Null unless metrics were switched on when the lambda was created.
+    private final LambdaMetrics metrics;
+
+    public static ScriptEngine getDefaultEngine() {
+        return ScriptEngineCache.get(JAVASCRIPT_SCRIPT_ENGINE_NAME);
+    }
+
+    /**
+     * Create a lambda from a JavaScript fragment, reusing a previously compiled fragment with the same source if
+     * possible.  Syntax errors are thrown here rather than on the first call.
+     */
+    public static JavaScriptLambda of(final String javascript) throws ScriptException {
+        return of(javascript, getDefaultEngine());
+    }
+
+    public static JavaScriptLambda of(final String javascript, final ScriptEngine engine) throws ScriptException {
+        final Key key = new Key(javascript, engine);
+        synchronized (cache) {
+            final Compiled cached = cache.get(key);
+            if (cached != null) {
+                return new JavaScriptLambda(javascript, engine, cached);
+            }
+        }
+
+        // As in ClosureCache, compile outside of the lock and let the first of two racing threads win.
+        final Compiled compiled = Compiled.compile(javascript, engine);
+
+        synchronized (cache) {
+            final Compiled raced = cache.putIfAbsent(key, compiled);
+            return new JavaScriptLambda(javascript, engine, raced != null ? raced : compiled);
+        }
+    }
+
+    public static int getCacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public static void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private JavaScriptLambda(final String javascript, final ScriptEngine engine, final Compiled compiled) {
+        this.javascript = javascript;
+        this.engine = engine;
+        this.compiled = compiled;
+        this.metrics = LambdaMetricsRegistry.isInstrumentNewClosures()
+            ? LambdaMetricsRegistry.metricsFor(toString()) : null;
+    }
+
+    /**
+     * Whether calls invoke a compiled function, rather than evaluate a compiled script with a, b and c bound.
+     */
+    public boolean isFunction() {
+        return compiled.function != null;
+    }
+
+    // AbstractGlobFunction.isInstrumented
+    @Override
+    public boolean isInstrumented() {
+        return metrics != null;
+    }
+
+    /**
+     * The metrics this lambda records into, or null if it is not instrumented.
+     */
+    public LambdaMetrics getMetrics() {
+        return metrics;
+    }
+
+    public String toString() {
+        return "JavaScriptLambda(" + javascript + ")";
+    }
+
+    // Call the fragment, recording the call as the given shape if this lambda is instrumented.
+    private Object call(final Shape shape, final Object a, final Object b, final Object c) {
+        final long start = metrics == null ? 0 : System.nanoTime();
+        Object result = null;
+        try {
+            result = call(a, b, c);
+            return result;
+        } catch (final Throwable e) {
+            if (metrics != null) {
+                metrics.recordException();
+            }
+            throw e;
+        } finally {
+            if (metrics != null) {
+                metrics.recordCall(shape, start, truth(result));
+            }
+        }
+    }
+
+    private Object call(final Object a, final Object b, final Object c) {
+        final Bindings bindings = threadBindings.get().computeIfAbsent(engine, ScriptEngine::createBindings);
+        try {
+            if (compiled.function != null) {
+                JSObject function = compiled.functions.get();
+                if (function == null) {
+                    function = (JSObject) compiled.function.eval(bindings);
+                    compiled.functions.set(function);
+                }
+                final Object result = function.call(null, a, b, c);
+                return ScriptObjectMirror.isUndefined(result) ? null : result;
+            }
+
+            // Restore the outer values afterwards, in case this call is nested inside another on the same thread.
+            final Object outerA = bindings.put(A, a);
+            final Object outerB = bindings.put(B, b);
+            final Object outerC = bindings.put(C, c);
+            try {
+                return compiled.script.eval(bindings);
+            } finally {
+                bindings.put(A, outerA);
+                bindings.put(B, outerB);
+                bindings.put(C, outerC);
+            }
+        } catch (ScriptException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    // JavaScript truth: false, null, undefined, 0, NaN and "" are false.
+    private static boolean truth(final Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof Number) {
+            final double number = ((Number) value).doubleValue();
+            return number != 0 && !Double.isNaN(number);
+        }
+        if (value instanceof CharSequence) {
+            return ((CharSequence) value).length() > 0;
+        }
+        return true;
+    }
+
+    // Function.apply, UnaryOperator.apply
+    @Override
+    public Object apply(final Object a) {
+        return call(Shape.APPLY, a, null, null);
+    }
+
+    // BiFunction.apply, BinaryOperator.apply
+    @Override
+    public Object apply(final Object a, final Object b) {
+        return call(Shape.APPLY, a, b, null);
+    }
+
+    // Supplier.get
+    @Override
+    public Object get() {
+        return call(Shape.GET, null, null, null);
+    }
+
+    // Consumer.accept
+    @Override
+    public void accept(final Object a) {
+        call(Shape.ACCEPT, a, null, null);
+    }
+
+    // BiConsumer.accept
+    @Override
+    public void accept(final Object a, final Object b) {
+        call(Shape.ACCEPT, a, b, null);
+    }
+
+    // TriConsumer.accept
+    @Override
+    public void accept(final Object a, final Object b, final Object c) {
+        call(Shape.ACCEPT, a, b, c);
+    }
+
+    // Predicate.test
+    @Override
+    public boolean test(final Object a) {
+        return truth(call(Shape.TEST, a, null, null));
+    }
+
+    // BiPredicate.test
+    @Override
+    public boolean test(final Object a, final Object b) {
+        return truth(call(Shape.TEST, a, b, null));
+    }
+
+    // ToLongFunction.applyAsLong
+    @Override
+    public long applyAsLong(final Object a) {
+        return ((Number) call(Shape.APPLY, a, null, null)).longValue();
+    }
+
+    // ToDoubleFunction.applyAsDouble
+    @Override
+    public double applyAsDouble(final Object a) {
+        return ((Number) call(Shape.APPLY, a, null, null)).doubleValue();
+    }
+
+    // LongUnaryOperator.applyAsLong
+    @Override
+    public long applyAsLong(final long a) {
+        return ((Number) call(Shape.APPLY, a, null, null)).longValue();
+    }
+
+    // LongPredicate.test
+    @Override
+    public boolean test(final long a) {
+        return truth(call(Shape.TEST, a, null, null));
+    }
+
+    // DoublePredicate.test
+    @Override
+    public boolean test(final double a) {
+        return truth(call(Shape.TEST, a, null, null));
+    }
+
+    // A fragment compiled by one engine, shared by every lambda with the same source and engine.
+    private final static class Compiled {
+        private final CompiledScript function;
+        private final CompiledScript script;
+        // The function object, defined once in each calling thread's bindings.
+        private final ThreadLocal<JSObject> functions = new ThreadLocal<>();
+
+        private Compiled(final CompiledScript function, final CompiledScript script) {
+            this.function = function;
+            this.script = script;
+        }
+
+        private static Compiled compile(final String javascript, final ScriptEngine engine) throws ScriptException {
+            if (!(engine instanceof Compilable)) {
+                throw new ScriptException("Script engine cannot compile: " + engine.getClass().getName());
+            }
+            final Compilable compiler = (Compilable) engine;
+            if (engine instanceof NashornScriptEngine) {
+                // The newlines keep a trailing line comment from swallowing the closing parentheses.
+                final String function = "(function (a, b, c) {\nreturn (" + javascript + "\n);\n})";
+                try {
+                    return new Compiled(compiler.compile(function), null);
+                } catch (ScriptException e) {
+                    // Not a single expression; evaluate it as a script instead.
+                }
+            }
+            return new Compiled(null, compiler.compile(javascript));
+        }
+    }
+
+    // The engine is compared by identity, as in ClosureCache.
+    private final static class Key {
+        private final String javascript;
+        private final ScriptEngine engine;
+
+        private Key(final String javascript, final ScriptEngine engine) {
+            this.javascript = javascript;
+            this.engine = engine;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            final Key that = (Key) other;
+            return engine == that.engine && javascript.equals(that.javascript);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * javascript.hashCode() + System.identityHashCode(engine);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package co.redseal.gremlinnode.function;
+
+import co.redseal.gremlinnode.io.JsonWriter;
+import groovy.lang.Closure;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the closures and class loaders of reclaimable GroovyLambdas, so that their classes can be unloaded, and
+ * counts how many lambda classes are still loaded and how many have been unloaded.
+ *
+ * Each reclaimable closure is tracked through a weak reference.  Once the garbage collector finds the closure
+ * unreachable, i.e. every lambda sharing it has been closed or dropped, the registry removes its classes from Groovy's
+ * meta-class registry, the last thing holding its class loader.  The loader itself is tracked through a phantom
+ * reference and counted as unloaded once it has been collected.  This housekeeping happens whenever a reclaimable
+ * lambda is created and whenever the counts are read, so a process that stops creating lambdas should read the counts
+ * now and then to let the last ones go.
+ */
+public class LambdaClassRegistry {
+
+    private final static ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    private final static Set<Reference<?>> tracked = ConcurrentHashMap.newKeySet();
+
+    private final static AtomicLong created = new AtomicLong();
+    private final static AtomicLong closed = new AtomicLong();
+    private final static AtomicLong released = new AtomicLong();
+    private final static AtomicLong unloaded = new AtomicLong();
+    private final static AtomicLong liveClasses = new AtomicLong();
+    private final static AtomicLong unloadedClasses = new AtomicLong();
+
+    private LambdaClassRegistry() {
+    }
+
+    static void register(final Closure closure) {
+        expunge();
+        final ClosureCompiler.ClosureClassLoader loader =
+            (ClosureCompiler.ClosureClassLoader) closure.getClass().getClassLoader();
+        tracked.add(new TrackedClosure(closure, loader));
+        tracked.add(new TrackedLoader(loader));
+        created.incrementAndGet();
+        liveClasses.addAndGet(loader.getClassCount());
+    }
+
+    static void closed() {
+        closed.incrementAndGet();
+    }
+
+    /**
+     * The number of reclaimable lambdas created.
+     */
+    static public long getCreatedCount() {
+        return created.get();
+    }
+
+    /**
+     * The number of reclaimable lambdas released by close().
+     */
+    static public long getClosedCount() {
+        return closed.get();
+    }
+
+    /**
+     * The number of reclaimable closures found unreachable, whose classes are now waiting to be unloaded.
+     */
+    static public long getReleasedCount() {
+        expunge();
+        return released.get();
+    }
+
+    /**
+     * The number of reclaimable lambdas whose classes are still loaded, whether closed or not.
+     */
+    static public long getLiveCount() {
+        expunge();
+        return created.get() - unloaded.get();
+    }
+
+    /**
+     * The number of classes compiled for the reclaimable lambdas that are still loaded.
+     */
+    static public long getLiveClassCount() {
+        expunge();
+        return liveClasses.get();
+    }
+
+    /**
+     * The number of reclaimable lambdas whose classes have been unloaded.
+     */
+    static public long getUnloadedCount() {
+        expunge();
+        return unloaded.get();
+    }
+
+    /**
+     * The number of classes compiled for the reclaimable lambdas that have been unloaded.
+     */
+    static public long getUnloadedClassCount() {
+        expunge();
+        return unloadedClasses.get();
+    }
+
+    static public String snapshotJson() {
+        expunge();
+        final JsonWriter json = new JsonWriter();
+        json.beginObject();
+        json.name("created").value(created.get());
+        json.name("closed").value(closed.get());
+        json.name("released").value(released.get());
+        json.name("live").value(created.get() - unloaded.get());
+        json.name("liveClasses").value(liveClasses.get());
+        json.name("unloaded").value(unloaded.get());
+        json.name("unloadedClasses").value(unloadedClasses.get());
+        json.endObject();
+        return json.toString();
+    }
+
+    private static void expunge() {
+        Reference<?> reference;
+        while ((reference = queue.poll()) != null) {
+            if (!tracked.remove(reference)) {
+                continue;
+            }
+            if (reference instanceof TrackedClosure) {
+                final ClosureCompiler.ClosureClassLoader loader = ((TrackedClosure) reference).loader.get();
+                if (loader != null) {
+                    loader.removeMetaClasses();
+                }
+                released.incrementAndGet();
+            } else {
+                final int classCount = ((TrackedLoader) reference).classCount;
+                unloaded.incrementAndGet();
+                unloadedClasses.addAndGet(classCount);
+                liveClasses.addAndGet(-classCount);
+            }
+        }
+    }
+
+    // The references themselves are held in `tracked` until they are enqueued, and compare by identity.
+    private final static class TrackedClosure extends WeakReference<Object> {
+        private final WeakReference<ClosureCompiler.ClosureClassLoader> loader;
+
+        TrackedClosure(final Closure closure, final ClosureCompiler.ClosureClassLoader loader) {
+            super(closure, queue);
+            this.loader = new WeakReference<>(loader);
+        }
+    }
+
+    private final static class TrackedLoader extends PhantomReference<Object> {
+        private final int classCount;
+
+        TrackedLoader(final ClosureCompiler.ClosureClassLoader loader) {
+            super(loader, queue);
+            this.classCount = loader.getClassCount();
+        }
+    }
+}
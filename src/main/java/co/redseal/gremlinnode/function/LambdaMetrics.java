@@ -0,0 +1,186 @@
+package co.redseal.gremlinnode.function;
+
+import co.redseal.gremlinnode.io.JsonWriter;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Invocation metrics for one lambda, identified by its toString.  Updated by InstrumentedGlobFunction.
+ *
+ * All counters are striped LongAdders, so concurrent updates do not contend.  Latencies are recorded in a histogram
+ * of power-of-two nanosecond buckets: bucket i counts calls that took less than 2^i ns (and at least 2^(i-1) ns).
+ * Snapshots are not atomic across counters.
+ */
+public class LambdaMetrics {
+
+    /**
+     * The functional shapes that are counted separately.  The primitive specializations count with their boxed
+     * counterparts, e.g. applyAsLong as APPLY and test(long) as TEST.
+     */
+    public enum Shape { APPLY, TEST, ACCEPT, GET }
+
+    private final static int BUCKETS = 64;
+
+    private final String identity;
+    private final LongAdder[] calls = newAdders(Shape.values().length);
+    private final LongAdder exceptions = new LongAdder();
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder[] histogram = newAdders(BUCKETS);
+
+    /**
+     * Create metrics outside of LambdaMetricsRegistry, e.g. to measure a single traversal.
+     */
+    public LambdaMetrics(final String identity) {
+        this.identity = identity;
+    }
+
+    private static LongAdder[] newAdders(final int count) {
+        final LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    void record(final Shape shape, final long nanos) {
+        calls[shape.ordinal()].increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        histogram[bucket(nanos)].increment();
+    }
+
+    void recordTest(final boolean result, final long nanos) {
+        if (result) {
+            passed.increment();
+        }
+        record(Shape.TEST, nanos);
+    }
+
+    // A call that started at the given System.nanoTime() and, if it was a predicate, passed or not.
+    void recordCall(final Shape shape, final long startNanos, final boolean passed) {
+        if (shape == Shape.TEST) {
+            recordTest(passed, System.nanoTime() - startNanos);
+        } else {
+            record(shape, System.nanoTime() - startNanos);
+        }
+    }
+
+    void recordException() {
+        exceptions.increment();
+    }
+
+    private static int bucket(final long nanos) {
+        return nanos <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    public String getIdentity() {
+        return identity;
+    }
+
+    public long getCalls(final Shape shape) {
+        return calls[shape.ordinal()].sum();
+    }
+
+    public long getInvocations() {
+        long sum = 0;
+        for (LongAdder adder : calls) {
+            sum += adder.sum();
+        }
+        return sum;
+    }
+
+    public long getExceptions() {
+        return exceptions.sum();
+    }
+
+    public long getPassed() {
+        return passed.sum();
+    }
+
+    /**
+     * The fraction of predicate calls that returned true, or NaN if there have been none.
+     */
+    public double getPassRatio() {
+        final long tests = getCalls(Shape.TEST);
+        return tests == 0 ? Double.NaN : (double) getPassed() / tests;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * An upper bound on the given percentile (0 to 100) of call latencies, from the histogram.
+     */
+    public long getPercentileNanos(final double percentile) {
+        final long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram[i].sum();
+            total += counts[i];
+        }
+        final double rank = total * percentile / 100;
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (counts[i] > 0 && seen >= rank) {
+                return 1L << i;
+            }
+        }
+        return 0;
+    }
+
+    public void reset() {
+        for (LongAdder adder : calls) {
+            adder.reset();
+        }
+        for (LongAdder adder : histogram) {
+            adder.reset();
+        }
+        exceptions.reset();
+        passed.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    public String toJson() {
+        final JsonWriter json = new JsonWriter();
+        writeJson(json);
+        return json.toString();
+    }
+
+    void writeJson(final JsonWriter json) {
+        final long invocations = getInvocations();
+        json.beginObject();
+        json.name("invocations").value(invocations);
+        for (Shape shape : Shape.values()) {
+            json.name(shape.name().toLowerCase()).value(getCalls(shape));
+        }
+        json.name("exceptions").value(getExceptions());
+        json.name("passed").value(getPassed());
+        json.name("passRatio").value(getPassRatio());
+        json.name("latencyNanos").beginObject();
+        json.name("total").value(getTotalNanos());
+        json.name("mean").value(invocations == 0 ? Double.NaN : (double) getTotalNanos() / invocations);
+        json.name("max").value(getMaxNanos());
+        json.name("p50").value(getPercentileNanos(50));
+        json.name("p99").value(getPercentileNanos(99));
+        // Keyed by the exclusive upper bound of each non-empty bucket.
+        json.name("histogram").beginObject();
+        for (int i = 0; i < BUCKETS; i++) {
+            final long count = histogram[i].sum();
+            if (count > 0) {
+                json.name(Long.toString(1L << i)).value(count);
+            }
+        }
+        json.endObject();
+        json.endObject();
+        json.endObject();
+    }
+}
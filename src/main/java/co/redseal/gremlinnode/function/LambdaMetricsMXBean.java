@@ -0,0 +1,21 @@
+package co.redseal.gremlinnode.function;
+
+/**
+ * JMX view of LambdaMetricsRegistry, registered as co.redseal.gremlinnode:type=LambdaMetrics.
+ */
+public interface LambdaMetricsMXBean {
+
+    int getLambdaCount();
+
+    long getInvocations();
+
+    long getExceptions();
+
+    String getSnapshotJson();
+
+    boolean isInstrumentNewClosures();
+
+    void setInstrumentNewClosures(boolean instrument);
+
+    void reset();
+}
@@ -0,0 +1,117 @@
+package co.redseal.gremlinnode.function;
+
+import co.redseal.gremlinnode.io.JsonWriter;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The metrics of every instrumented lambda, keyed by the lambda's toString.  Lambdas with the same identity, e.g.
+ * two GroovyLambdas with the same source, share one LambdaMetrics.
+ *
+ * The registry is also visible over JMX as co.redseal.gremlinnode:type=LambdaMetrics, and holds the global switch
+ * that decides whether new GroovyLambdas record their calls and whether instrumentIfEnabled wraps lambdas.
+ */
+public class LambdaMetricsRegistry {
+
+    public final static String OBJECT_NAME = "co.redseal.gremlinnode:type=LambdaMetrics";
+
+    private final static ConcurrentHashMap<String, LambdaMetrics> metrics = new ConcurrentHashMap<>();
+
+    private static volatile boolean instrumentNewClosures = false;
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MXBean(), new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            // Already registered, e.g. by a copy of this class in another class loader.  Metrics are still
+            // available through snapshotJson.
+        }
+    }
+
+    static LambdaMetrics metricsFor(final String identity) {
+        return metrics.computeIfAbsent(identity, LambdaMetrics::new);
+    }
+
+    /**
+     * The metrics of the lambda with the given identity, or null if it has not been instrumented.
+     */
+    static public LambdaMetrics get(final String identity) {
+        return metrics.get(identity);
+    }
+
+    static public boolean isInstrumentNewClosures() {
+        return instrumentNewClosures;
+    }
+
+    /**
+     * Turn on or off the recording of metrics by GroovyLambdas created afterwards, e.g. by newGroovyClosure in
+     * ts-tinkerpop.ts, and the wrapping of lambdas by InstrumentedGlobFunction.instrumentIfEnabled.  Lambdas created
+     * earlier are not affected.
+     */
+    static public void setInstrumentNewClosures(final boolean instrument) {
+        instrumentNewClosures = instrument;
+    }
+
+    /**
+     * Every lambda's metrics as one JSON object keyed by lambda identity, in identity order.
+     */
+    static public String snapshotJson() {
+        final JsonWriter json = new JsonWriter();
+        json.beginObject();
+        for (Map.Entry<String, LambdaMetrics> entry : new TreeMap<>(metrics).entrySet()) {
+            json.name(entry.getKey());
+            entry.getValue().writeJson(json);
+        }
+        json.endObject();
+        return json.toString();
+    }
+
+    /**
+     * Zero the metrics of every lambda, keeping the lambdas registered.
+     */
+    static public void reset() {
+        metrics.values().forEach(LambdaMetrics::reset);
+    }
+
+    /**
+     * Forget every lambda.  Instrumented lambdas that are still in use keep updating their own, now unregistered,
+     * metrics.
+     */
+    static public void clear() {
+        metrics.clear();
+    }
+
+    private final static class MXBean implements LambdaMetricsMXBean {
+        public int getLambdaCount() {
+            return metrics.size();
+        }
+
+        public long getInvocations() {
+            return metrics.values().stream().mapToLong(LambdaMetrics::getInvocations).sum();
+        }
+
+        public long getExceptions() {
+            return metrics.values().stream().mapToLong(LambdaMetrics::getExceptions).sum();
+        }
+
+        public String getSnapshotJson() {
+            return snapshotJson();
+        }
+
+        public boolean isInstrumentNewClosures() {
+            return instrumentNewClosures;
+        }
+
+        public void setInstrumentNewClosures(final boolean instrument) {
+            instrumentNewClosures = instrument;
+        }
+
+        public void reset() {
+            LambdaMetricsRegistry.reset();
+        }
+    }
+}
@@ -0,0 +1,517 @@
+package co.redseal.gremlinnode.function;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A node of a compiled NativeLambda expression.  Each node evaluates its children and combines them with plain Java;
+ * there is no reflection or dynamic dispatch beyond the virtual call to each child.
+ *
+ * Values follow Groovy where that is cheap: `==` compares numbers by value, truth is Groovy truth, and arithmetic on
+ * two Integers yields an Integer.  Integer division yields a Double rather than a BigDecimal.
+ */
+abstract class NativeExpression {
+
+    abstract Object eval(Object p0, Object p1, Object p2);
+
+    boolean test(final Object p0, final Object p1, final Object p2) {
+        return truth(eval(p0, p1, p2));
+    }
+
+    // Groovy truth.
+    static boolean truth(final Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof Number) {
+            return isIntegral((Number) value) ? ((Number) value).longValue() != 0 : ((Number) value).doubleValue() != 0;
+        }
+        if (value instanceof CharSequence) {
+            return ((CharSequence) value).length() > 0;
+        }
+        if (value instanceof Collection) {
+            return !((Collection) value).isEmpty();
+        }
+        if (value instanceof Map) {
+            return !((Map) value).isEmpty();
+        }
+        return true;
+    }
+
+    private static boolean isIntegral(final Number number) {
+        return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte;
+    }
+
+    private static boolean isInt(final Number number) {
+        return number instanceof Integer || number instanceof Short || number instanceof Byte;
+    }
+
+    // Element methods also accept the traverser holding the element, as filter and choose pass.
+    private static Object unwrap(final Object value) {
+        return value instanceof Traverser ? ((Traverser) value).get() : value;
+    }
+
+    // Tests for an element first, the common case, since a failed interface check is the slow one.
+    private static Element element(final Object value, final String method) {
+        if (value instanceof Element) {
+            return (Element) value;
+        }
+        final Object unwrapped = unwrap(value);
+        if (!(unwrapped instanceof Element)) {
+            throw new IllegalArgumentException(method + " needs a vertex or edge, not " + unwrapped);
+        }
+        return (Element) unwrapped;
+    }
+
+    final static class Literal extends NativeExpression {
+        private final Object value;
+
+        Literal(final Object value) {
+            this.value = value;
+        }
+
+        @Override
+        Object eval(final Object p0, final Object p1, final Object p2) {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return value instanceof String ? "'" + value + "'" : String.valueOf(value);
+        }
+    }
+
+    final static class Parameter extends NativeExpression {
+        private final int index;
+        private final String name;
+
+        Parameter(final int index, final String name) {
+            this.index = index;
+            this.name = name;
+        }
+
+        @Override
+        Object eval(final Object p0, final Object p1, final Object p2) {
+            return index == 0 ? p0 : index == 1 ? p1 : p2;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * `value(key)` or `property(key)` with a literal key, by far the most common call, without the dispatch of Call.
+     */
+    final static class PropertyValue extends NativeExpression {
+        private final NativeExpression receiver;
+        private final String key;
+        private final String method;
+
+        PropertyValue(final NativeExpression receiver, final String key, final String method) {
+            this.receiver = receiver;
+            this.key = key;
+            this.method = method;
+        }
+
+        @Override
+        Object eval(final Object p0, final Object p1, final Object p2) {
+            final Property<Object> property = element(receiver.eval(p0, p1, p2), method).property(key);
+            return property.isPresent() ? property.value() : null;
+        }
+
+        @Override
+        public String toString() {
+            return receiver + "." + method + "('" + key + "')";
+        }
+    }
+
+    /**
+     * A call of one of the supported methods, e.g. `v.label()` or `s.length()`.
+     */
+    final static class Call extends NativeExpression {
+        enum Method {
+            GET(0), VALUE(1), PROPERTY(1), LABEL(0), ID(0), LENGTH(0), SIZE(0), TO_STRING(0), TO_UPPER_CASE(0),
+            TO_LOWER_CASE(0), CONTAINS(1), STARTS_WITH(1), ENDS_WITH(1);
+
+            final int arity;
+            private final String groovyName;
+
+            Method(final int arity) {
+                this.arity = arity;
+                final String[] words = name().toLowerCase().split("_");
+                final StringBuilder name = new StringBuilder(words[0]);
+                for (int i = 1; i < words.length; i++) {
+                    name.append(Character.toUpperCase(words[i].charAt(0))).append(words[i].substring(1));
+                }
+                this.groovyName = name.toString();
+            }
+
+            String groovyName() {
+                return groovyName;
+            }
+        }
+
+        private final NativeExpression receiver;
+        private final Method method;
+        private final NativeExpression argument;
+
+        private Call(final NativeExpression receiver, final Method method, final NativeExpression argument) {
+            this.receiver = receiver;
+            this.method = method;
+            this.argument = argument;
+        }
+
+        static NativeExpression of(final NativeExpression receiver, final Method method,
+                                   final NativeExpression argument) {
+            if ((method == Method.VALUE || method == Method.PROPERTY)
+                && argument instanceof Literal && ((Literal) argument).value instanceof String) {
+                return new PropertyValue(receiver, (String) ((Literal) argument).value, method.groovyName());
+            }
+            return new Call(receiver, method, argument);
+        }
+
+        @Override
+        Object eval(final Object p0, final Object p1, final Object p2) {
+            final Object target = receiver.eval(p0, p1, p2);
+            switch (method) {
+            case GET:
+                return unwrap(target);
+            case VALUE:
+            case PROPERTY: {
+                final Property<Object> property =
+                    element(target, method.groovyName()).property(String.valueOf(argument.eval(p0, p1, p2)));
+                return property.isPresent() ? property.value() : null;
+            }
+            case LABEL:
+                return element(target, "label").label();
+            case ID:
+                return element(target, "id").id();
+            case LENGTH:
+            case SIZE: {
+                final Object value = unwrap(target);
+                if (value instanceof CharSequence) {
+                    return ((CharSequence) value).length();
+                }
+                if (value instanceof Collection) {
+                    return ((Collection) value).size();
+                }
+                if (value instanceof Map) {
+                    return ((Map) value).size();
+                }
+                throw new IllegalArgumentException(method.groovyName() + "() needs a string or collection, not "
+                                                   + value);
+            }
+            case TO_STRING:
+                return String.valueOf(unwrap(target));
+            case TO_UPPER_CASE:
+                return string(target).toUpperCase();
+            case TO_LOWER_CASE:
+                return string(target).toLowerCase();
+            case CONTAINS: {
+                final Object value = unwrap(target);
+                final Object what = argument.eval(p0, p1, p2);
+                if (value instanceof Collection) {
+                    return ((Collection) value).contains(what);
+                }
+                return string(value).contains(String.valueOf(what));
+            }
+            case STARTS_WITH:
+                return string(target).startsWith(String.valueOf(argument.eval(p0, p1, p2)));
+            case ENDS_WITH:
+                return string(target).endsWith(String.valueOf(argument.eval(p0, p1, p2)));
+            default:
+                throw new IllegalStateException(method.toString());
+            }
+        }
+
+        private String string(final Object target) {
+            final Object value = unwrap(target);
+            if (value == null) {
+                throw new NullPointerException("Cannot call " + method.groovyName() + "() on null: " + receiver);
+            }
+            return value.toString();
+        }
+
+        @Override
+        public String toString() {
+            return receiver + "." + method.groovyName() + "(" + (argument == null ? "" : argument) + ")";
+        }
+    }
+
+    final static class Not extends NativeExpression {
+        private final NativeExpression operand;
+
+        Not(final NativeExpression operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        Object eval(final Object p0, final Object p1, final Object p2) {
+            return !operand.test(p0, p1, p2);
+        }
+
+        @Override
+        boolean test(final Object p0, final Object p1, final Object p2) {
+            return !operand.test(p0, p1, p2);
+        }
+
+        @Override
+        public String toString() {
+            return "!" + operand;
+        }
+    }
+
+    final static class Negate extends NativeExpression {
+        private final NativeExpression operand;
+
+        Negate(final NativeExpression operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        Object eval(final Object p0, final Object p1, final Object p2) {
+            final Object value = operand.eval(p0, p1, p2);
+            if (!(value instanceof Number)) {
+                throw new IllegalArgumentException("Cannot negate " + value);
+            }
+            final Number number = (Number) value;
+            if (isInt(number)) {
+                return -number.intValue();
+            }
+            return isIntegral(number) ? (Object) (-number.longValue()) : (Object) (-number.doubleValue());
+        }
+
+        @Override
+        public String toString() {
+            return "-" + operand;
+        }
+    }
+
+    /**
+     * `&&` and `||`, which evaluate their right operand only when needed.
+     */
+    final static class Logical extends NativeExpression {
+        private final boolean and;
+        private final NativeExpression left;
+        private final NativeExpression right;
+
+        Logical(final boolean and, final NativeExpression left, final NativeExpression right) {
+            this.and = and;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Object eval(final Object p0, final Object p1, final Object p2) {
+            return test(p0, p1, p2);
+        }
+
+        @Override
+        boolean test(final Object p0, final Object p1, final Object p2) {
+            return and ? left.test(p0, p1, p2) && right.test(p0, p1, p2)
+                : left.test(p0, p1, p2) || right.test(p0, p1, p2);
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + (and ? " && " : " || ") + right + ")";
+        }
+    }
+
+    final static class Conditional extends NativeExpression {
+        private final NativeExpression condition;
+        private final NativeExpression then;
+        private final NativeExpression otherwise;
+
+        Conditional(final NativeExpression condition, final NativeExpression then, final NativeExpression otherwise) {
+            this.condition = condition;
+            this.then = then;
+            this.otherwise = otherwise;
+        }
+
+        @Override
+        Object eval(final Object p0, final Object p1, final Object p2) {
+            return condition.test(p0, p1, p2) ? then.eval(p0, p1, p2) : otherwise.eval(p0, p1, p2);
+        }
+
+        @Override
+        public String toString() {
+            return "(" + condition + " ? " + then + " : " + otherwise + ")";
+        }
+    }
+
+    /**
+     * `==`, `!=`, `<`, `<=`, `>` and `>=`.  Numbers compare by value whatever their types.  Ordering comparisons
+     * involving null are false.
+     */
+    final static class Compare extends NativeExpression {
+        enum Operator {
+            EQ("=="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">=");
+
+            final String symbol;
+
+            Operator(final String symbol) {
+                this.symbol = symbol;
+            }
+        }
+
+        private final Operator operator;
+        private final NativeExpression left;
+        private final NativeExpression right;
+
+        Compare(final Operator operator, final NativeExpression left, final NativeExpression right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Object eval(final Object p0, final Object p1, final Object p2) {
+            return test(p0, p1, p2);
+        }
+
+        @Override
+        boolean test(final Object p0, final Object p1, final Object p2) {
+            final Object a = left.eval(p0, p1, p2);
+            final Object b = right.eval(p0, p1, p2);
+            switch (operator) {
+            case EQ:
+                return equal(a, b);
+            case NE:
+                return !equal(a, b);
+            default:
+                if (a == null || b == null) {
+                    return false;
+                }
+                final int order = compare(a, b);
+                switch (operator) {
+                case LT:
+                    return order < 0;
+                case LE:
+                    return order <= 0;
+                case GT:
+                    return order > 0;
+                default:
+                    return order >= 0;
+                }
+            }
+        }
+
+        private static boolean equal(final Object a, final Object b) {
+            if (a instanceof Number && b instanceof Number) {
+                return compareNumbers((Number) a, (Number) b) == 0;
+            }
+            return Objects.equals(a, b);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static int compare(final Object a, final Object b) {
+            if (a instanceof Number && b instanceof Number) {
+                return compareNumbers((Number) a, (Number) b);
+            }
+            if (a instanceof Comparable && a.getClass().isInstance(b)) {
+                return ((Comparable<Object>) a).compareTo(b);
+            }
+            throw new IllegalArgumentException("Cannot compare " + a + " with " + b);
+        }
+
+        private static int compareNumbers(final Number a, final Number b) {
+            if (isIntegral(a) && isIntegral(b)) {
+                return Long.compare(a.longValue(), b.longValue());
+            }
+            return Double.compare(a.doubleValue(), b.doubleValue());
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " " + operator.symbol + " " + right + ")";
+        }
+    }
+
+    /**
+     * `+`, `-`, `*`, `/` and `%`.  Two Integers give an Integer, integers a Long, and anything else a Double, except
+     * that `/` always gives a Double.  `+` concatenates when either operand is a string.
+     */
+    final static class Arithmetic extends NativeExpression {
+        private final char operator;
+        private final NativeExpression left;
+        private final NativeExpression right;
+
+        Arithmetic(final char operator, final NativeExpression left, final NativeExpression right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Object eval(final Object p0, final Object p1, final Object p2) {
+            final Object a = left.eval(p0, p1, p2);
+            final Object b = right.eval(p0, p1, p2);
+            if (operator == '+' && (a instanceof CharSequence || b instanceof CharSequence)) {
+                return String.valueOf(a) + b;
+            }
+            if (!(a instanceof Number) || !(b instanceof Number)) {
+                throw new IllegalArgumentException("Cannot apply " + operator + " to " + a + " and " + b);
+            }
+            final Number x = (Number) a;
+            final Number y = (Number) b;
+            if (operator == '/') {
+                return x.doubleValue() / y.doubleValue();
+            }
+            if (isInt(x) && isInt(y)) {
+                final int i = x.intValue();
+                final int j = y.intValue();
+                switch (operator) {
+                case '+':
+                    return i + j;
+                case '-':
+                    return i - j;
+                case '*':
+                    return i * j;
+                default:
+                    return i % j;
+                }
+            }
+            if (isIntegral(x) && isIntegral(y)) {
+                final long i = x.longValue();
+                final long j = y.longValue();
+                switch (operator) {
+                case '+':
+                    return i + j;
+                case '-':
+                    return i - j;
+                case '*':
+                    return i * j;
+                default:
+                    return i % j;
+                }
+            }
+            final double i = x.doubleValue();
+            final double j = y.doubleValue();
+            switch (operator) {
+            case '+':
+                return i + j;
+            case '-':
+                return i - j;
+            case '*':
+                return i * j;
+            default:
+                return i % j;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " " + operator + " " + right + ")";
+        }
+    }
+}
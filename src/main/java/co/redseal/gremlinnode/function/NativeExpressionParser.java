@@ -0,0 +1,340 @@
+package co.redseal.gremlinnode.function;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.script.ScriptException;
+
+/**
+ * Parse a NativeLambda expression into a tree of NativeExpressions, by recursive descent over Groovy's operator
+ * precedence:
+ *
+ *     lambda      := '{' body '}' | body
+ *     body        := [ [ name { ',' name } ] '->' ] conditional
+ *     conditional := or [ '?' conditional ':' conditional ]
+ *     or          := and { '||' and }
+ *     and         := equality { '&&' equality }
+ *     equality    := relational { ( '==' | '!=' ) relational }
+ *     relational  := additive { ( '<' | '<=' | '>' | '>=' ) additive }
+ *     additive    := term { ( '+' | '-' ) term }
+ *     term        := unary { ( '*' | '/' | '%' ) unary }
+ *     unary       := ( '!' | '-' ) unary | postfix
+ *     postfix     := primary { '.' method '(' [ conditional ] ')' }
+ *     primary     := number | string | 'true' | 'false' | 'null' | name | '(' conditional ')'
+ *
+ * A body without a parameter list has the single parameter `it`.
+ */
+class NativeExpressionParser {
+
+    private final static String IMPLICIT_PARAMETER = "it";
+    private final static int MAX_PARAMETERS = 3;
+
+    private final String source;
+    private final List<String> parameters = new ArrayList<>();
+    private int position = 0;
+
+    private NativeExpressionParser(final String source) {
+        this.source = source;
+    }
+
+    static NativeExpression parse(final String source) throws ScriptException {
+        return new NativeExpressionParser(source).lambda();
+    }
+
+    private NativeExpression lambda() throws ScriptException {
+        final boolean braced = accept("{");
+        parameters();
+        final NativeExpression body = conditional();
+        if (braced) {
+            expect("}");
+        }
+        skipWhitespace();
+        if (position < source.length()) {
+            throw error("Unexpected '" + source.charAt(position) + "'");
+        }
+        return body;
+    }
+
+    // Reads an explicit parameter list if there is one, and otherwise declares `it`.
+    private void parameters() throws ScriptException {
+        final int start = position;
+        final List<String> names = new ArrayList<>();
+        String name = identifier();
+        while (name != null) {
+            names.add(name);
+            if (!accept(",")) {
+                break;
+            }
+            name = identifier();
+        }
+        if (accept("->")) {
+            if (names.size() > MAX_PARAMETERS) {
+                throw error("Lambdas of more than " + MAX_PARAMETERS + " parameters are not supported");
+            }
+            parameters.addAll(names);
+        } else {
+            position = start;
+            parameters.add(IMPLICIT_PARAMETER);
+        }
+    }
+
+    private NativeExpression conditional() throws ScriptException {
+        final NativeExpression condition = or();
+        if (!accept("?")) {
+            return condition;
+        }
+        final NativeExpression then = conditional();
+        expect(":");
+        return new NativeExpression.Conditional(condition, then, conditional());
+    }
+
+    private NativeExpression or() throws ScriptException {
+        NativeExpression left = and();
+        while (accept("||")) {
+            left = new NativeExpression.Logical(false, left, and());
+        }
+        return left;
+    }
+
+    private NativeExpression and() throws ScriptException {
+        NativeExpression left = equality();
+        while (accept("&&")) {
+            left = new NativeExpression.Logical(true, left, equality());
+        }
+        return left;
+    }
+
+    private NativeExpression equality() throws ScriptException {
+        NativeExpression left = relational();
+        while (true) {
+            if (accept("==")) {
+                left = new NativeExpression.Compare(NativeExpression.Compare.Operator.EQ, left, relational());
+            } else if (accept("!=")) {
+                left = new NativeExpression.Compare(NativeExpression.Compare.Operator.NE, left, relational());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private NativeExpression relational() throws ScriptException {
+        NativeExpression left = additive();
+        while (true) {
+            // Two-character operators first, so that `<=` is not read as `<`.
+            if (accept("<=")) {
+                left = new NativeExpression.Compare(NativeExpression.Compare.Operator.LE, left, additive());
+            } else if (accept(">=")) {
+                left = new NativeExpression.Compare(NativeExpression.Compare.Operator.GE, left, additive());
+            } else if (accept("<")) {
+                left = new NativeExpression.Compare(NativeExpression.Compare.Operator.LT, left, additive());
+            } else if (accept(">")) {
+                left = new NativeExpression.Compare(NativeExpression.Compare.Operator.GT, left, additive());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private NativeExpression additive() throws ScriptException {
+        NativeExpression left = term();
+        while (true) {
+            if (peek("->")) {
+                return left;
+            } else if (accept("+")) {
+                left = new NativeExpression.Arithmetic('+', left, term());
+            } else if (accept("-")) {
+                left = new NativeExpression.Arithmetic('-', left, term());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private NativeExpression term() throws ScriptException {
+        NativeExpression left = unary();
+        while (true) {
+            if (accept("*")) {
+                left = new NativeExpression.Arithmetic('*', left, unary());
+            } else if (accept("/")) {
+                left = new NativeExpression.Arithmetic('/', left, unary());
+            } else if (accept("%")) {
+                left = new NativeExpression.Arithmetic('%', left, unary());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private NativeExpression unary() throws ScriptException {
+        if (!peek("!=") && accept("!")) {
+            return new NativeExpression.Not(unary());
+        }
+        if (accept("-")) {
+            return new NativeExpression.Negate(unary());
+        }
+        return postfix();
+    }
+
+    private NativeExpression postfix() throws ScriptException {
+        NativeExpression receiver = primary();
+        while (accept(".")) {
+            final int start = position;
+            final String name = identifier();
+            final NativeExpression.Call.Method method = method(name);
+            if (method == null) {
+                position = start;
+                throw error("Unsupported method '" + name + "'");
+            }
+            expect("(");
+            final NativeExpression argument = method.arity == 0 ? null : conditional();
+            expect(")");
+            receiver = NativeExpression.Call.of(receiver, method, argument);
+        }
+        return receiver;
+    }
+
+    private NativeExpression primary() throws ScriptException {
+        skipWhitespace();
+        if (position >= source.length()) {
+            throw error("Unexpected end of expression");
+        }
+        final char c = source.charAt(position);
+        if (accept("(")) {
+            final NativeExpression inner = conditional();
+            expect(")");
+            return inner;
+        }
+        if (c == '\'' || c == '"') {
+            return new NativeExpression.Literal(string(c));
+        }
+        if (Character.isDigit(c)) {
+            return new NativeExpression.Literal(number());
+        }
+        final int start = position;
+        final String name = identifier();
+        if (name == null) {
+            throw error("Unexpected '" + c + "'");
+        }
+        switch (name) {
+        case "true":
+            return new NativeExpression.Literal(Boolean.TRUE);
+        case "false":
+            return new NativeExpression.Literal(Boolean.FALSE);
+        case "null":
+            return new NativeExpression.Literal(null);
+        default:
+            final int index = parameters.indexOf(name);
+            if (index < 0) {
+                position = start;
+                throw error("Unknown name '" + name + "'");
+            }
+            return new NativeExpression.Parameter(index, name);
+        }
+    }
+
+    private static NativeExpression.Call.Method method(final String name) {
+        for (NativeExpression.Call.Method method : NativeExpression.Call.Method.values()) {
+            if (method.groovyName().equals(name)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private String string(final char quote) throws ScriptException {
+        final StringBuilder value = new StringBuilder();
+        position++;
+        while (position < source.length()) {
+            final char c = source.charAt(position++);
+            if (c == quote) {
+                return value.toString();
+            }
+            if (c == '\\' && position < source.length()) {
+                final char escaped = source.charAt(position++);
+                value.append(escaped == 'n' ? '\n' : escaped == 't' ? '\t' : escaped);
+            } else {
+                value.append(c);
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    // An Integer if it fits, else a Long; a Double if it has a fraction or exponent.
+    private Number number() throws ScriptException {
+        final int start = position;
+        while (position < source.length() && Character.isDigit(source.charAt(position))) {
+            position++;
+        }
+        boolean decimal = false;
+        if (position + 1 < source.length() && source.charAt(position) == '.'
+            && Character.isDigit(source.charAt(position + 1))) {
+            decimal = true;
+            position++;
+            while (position < source.length() && Character.isDigit(source.charAt(position))) {
+                position++;
+            }
+        }
+        if (position < source.length() && (source.charAt(position) == 'e' || source.charAt(position) == 'E')) {
+            decimal = true;
+            position++;
+            if (position < source.length() && (source.charAt(position) == '+' || source.charAt(position) == '-')) {
+                position++;
+            }
+            while (position < source.length() && Character.isDigit(source.charAt(position))) {
+                position++;
+            }
+        }
+        final String text = source.substring(start, position);
+        try {
+            if (decimal) {
+                return Double.valueOf(text);
+            }
+            final long value = Long.parseLong(text);
+            return value == (int) value ? (Number) (int) value : (Number) value;
+        } catch (NumberFormatException e) {
+            position = start;
+            throw error("Bad number '" + text + "'");
+        }
+    }
+
+    private String identifier() {
+        skipWhitespace();
+        final int start = position;
+        if (position < source.length() && Character.isJavaIdentifierStart(source.charAt(position))) {
+            position++;
+            while (position < source.length() && Character.isJavaIdentifierPart(source.charAt(position))) {
+                position++;
+            }
+        }
+        return position > start ? source.substring(start, position) : null;
+    }
+
+    private boolean peek(final String token) {
+        skipWhitespace();
+        return source.startsWith(token, position);
+    }
+
+    private boolean accept(final String token) {
+        if (peek(token)) {
+            position += token.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(final String token) throws ScriptException {
+        if (!accept(token)) {
+            throw error("Expected '" + token + "'");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+            position++;
+        }
+    }
+
+    private ScriptException error(final String message) {
+        skipWhitespace();
+        return new ScriptException(message + " at column " + (position + 1) + " of: " + source);
+    }
+}
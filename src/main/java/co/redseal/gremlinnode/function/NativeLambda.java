@@ -0,0 +1,180 @@
+package co.redseal.gremlinnode.function;
+
+import co.redseal.gremlinnode.function.LambdaMetrics.Shape;
+import javax.script.ScriptException;
+
+/**
+ * A versatile lambda compiled from a small expression language into a tree of plain Java objects, for the trivial
+ * closures that make up most filters, choices and projections, e.g. `{ v -> v.value('age') > 30 }`,
+ * `{ it.label() == 'person' }` or `it.value('name').length()`.  Nothing is compiled by Groovy and calls do no dynamic
+ * dispatch, so a NativeLambda is both cheap to create and cheap to call.
+ *
+ * The language is a subset of Groovy: literals (numbers, quoted strings, true, false, null), up to three parameters,
+ * `!`, unary `-`, `* / %`, `+ -`, `< <= > >=`, `== !=`, `&&`, `||`, `?:` and parentheses, and these methods:
+ *
+ * - on vertices and edges: value(key) and property(key), both giving the property value or null, label() and id();
+ * - on strings and collections: length(), size(), contains(x);
+ * - on strings: toUpperCase(), toLowerCase(), startsWith(s), endsWith(s); on anything: toString();
+ * - on traversers: get().  The other methods unwrap a traverser themselves, so `it.value('age')` works in filter.
+ *
+ * Anything else is rejected when the lambda is created, with a ScriptException as for a Groovy syntax error.  A
+ * NativeLambda holds no mutable state and is safe to call from several threads at once.
+ *
+ * As for GroovyLambda, a lambda created while LambdaMetricsRegistry.isInstrumentNewClosures is set records its calls.
+ */
+public class NativeLambda extends AbstractGlobFunction {
+
+    private final String expression;
+    private final NativeExpression root;
+    // Null unless metrics were switched on when the lambda was created.
+    private final LambdaMetrics metrics;
+
+    private NativeLambda(final String expression, final NativeExpression root) {
+        this.expression = expression;
+        this.root = root;
+        this.metrics = LambdaMetricsRegistry.isInstrumentNewClosures()
+            ? LambdaMetricsRegistry.metricsFor(toString()) : null;
+    }
+
+    static public NativeLambda compile(final String expression) throws ScriptException {
+        return new NativeLambda(expression, NativeExpressionParser.parse(expression));
+    }
+
+    /**
+     * The parsed expression, fully parenthesized, e.g. `(it.value('age') > 30)`.
+     */
+    public String getParsed() {
+        return root.toString();
+    }
+
+    // AbstractGlobFunction.isInstrumented
+    @Override
+    public boolean isInstrumented() {
+        return metrics != null;
+    }
+
+    /**
+     * The metrics this lambda records into, or null if it is not instrumented.
+     */
+    public LambdaMetrics getMetrics() {
+        return metrics;
+    }
+
+    public String toString() {
+        return "NativeLambda(" + expression + ")";
+    }
+
+    // Evaluate the expression, recording the call as the given shape if this lambda is instrumented.
+    private Object eval(final Shape shape, final Object a, final Object b, final Object c) {
+        final long start = metrics == null ? 0 : System.nanoTime();
+        try {
+            return root.eval(a, b, c);
+        } catch (final Throwable e) {
+            if (metrics != null) {
+                metrics.recordException();
+            }
+            throw e;
+        } finally {
+            if (metrics != null) {
+                metrics.recordCall(shape, start, false);
+            }
+        }
+    }
+
+    // Test the expression, recording the call if this lambda is instrumented.
+    private boolean check(final Object a, final Object b, final Object c) {
+        final long start = metrics == null ? 0 : System.nanoTime();
+        boolean result = false;
+        try {
+            result = root.test(a, b, c);
+            return result;
+        } catch (final Throwable e) {
+            if (metrics != null) {
+                metrics.recordException();
+            }
+            throw e;
+        } finally {
+            if (metrics != null) {
+                metrics.recordCall(Shape.TEST, start, result);
+            }
+        }
+    }
+
+    // Function.apply, UnaryOperator.apply
+    @Override
+    public Object apply(final Object a) {
+        return eval(Shape.APPLY, a, null, null);
+    }
+
+    // BiFunction.apply, BinaryOperator.apply
+    @Override
+    public Object apply(final Object a, final Object b) {
+        return eval(Shape.APPLY, a, b, null);
+    }
+
+    // Supplier.get
+    @Override
+    public Object get() {
+        return eval(Shape.GET, null, null, null);
+    }
+
+    // Consumer.accept
+    @Override
+    public void accept(final Object a) {
+        eval(Shape.ACCEPT, a, null, null);
+    }
+
+    // BiConsumer.accept
+    @Override
+    public void accept(final Object a, final Object b) {
+        eval(Shape.ACCEPT, a, b, null);
+    }
+
+    // TriConsumer.accept
+    @Override
+    public void accept(final Object a, final Object b, final Object c) {
+        eval(Shape.ACCEPT, a, b, c);
+    }
+
+    // Predicate.test
+    @Override
+    public boolean test(final Object a) {
+        return check(a, null, null);
+    }
+
+    // BiPredicate.test
+    @Override
+    public boolean test(final Object a, final Object b) {
+        return check(a, b, null);
+    }
+
+    // ToLongFunction.applyAsLong
+    @Override
+    public long applyAsLong(final Object a) {
+        return ((Number) eval(Shape.APPLY, a, null, null)).longValue();
+    }
+
+    // ToDoubleFunction.applyAsDouble
+    @Override
+    public double applyAsDouble(final Object a) {
+        return ((Number) eval(Shape.APPLY, a, null, null)).doubleValue();
+    }
+
+    // LongUnaryOperator.applyAsLong
+    @Override
+    public long applyAsLong(final long a) {
+        return ((Number) eval(Shape.APPLY, a, null, null)).longValue();
+    }
+
+    // LongPredicate.test
+    @Override
+    public boolean test(final long a) {
+        return check(a, null, null);
+    }
+
+    // DoublePredicate.test
+    @Override
+    public boolean test(final double a) {
+        return check(a, null, null);
+    }
+}
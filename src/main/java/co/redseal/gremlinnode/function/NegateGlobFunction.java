@@ -26,4 +26,16 @@ class NegateGlobFunction extends IdentityGlobFunction {
         return ! that.test(a, b);
     }
 
+    // LongPredicate.test
+    @Override
+    public boolean test(final long a) {
+        return ! that.test(a);
+    }
+
+    // DoublePredicate.test
+    @Override
+    public boolean test(final double a) {
+        return ! that.test(a);
+    }
+
 }
@@ -0,0 +1,199 @@
+package co.redseal.gremlinnode.function;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+/**
+ * Implementation of GlobFunction for a chain of GlobFunctions composed with andThen, flattened into a single array of
+ * stages so that a call is one loop rather than one nested AndThenGlobFunction per stage.
+ *
+ * When every stage is a dynamic GroovyLambda from the same engine, the stages are also fused into one closure with
+ * Groovy's `>>` operator, which then serves all of the Function shapes.  Fusion happens on the first Function-shape
+ * call, so building a chain with andThen compiles nothing and only the finished chain is ever compiled.  The fused
+ * closure is compiled through GroovyLambda.of, so it is cached by its composed source, which corresponds one-to-one
+ * with the composed toString.  Reclaimable and closed stages are never fused, since the fused closure would live in
+ * the engine's class loader.  Consumers still run each stage in turn, since `>>` would feed the result of one stage to
+ * the next.  The fused closure is thread-safe if any of the stages is.
+ */
+class PipelineGlobFunction extends IdentityGlobFunction {
+
+    private final GlobFunction[] stages;
+    // Set before fusionAttempted, so that a thread seeing fusionAttempted also sees the result.
+    private volatile GroovyLambda fused = null;
+    private volatile boolean fusionAttempted = false;
+
+    private PipelineGlobFunction(final GlobFunction[] stages) {
+        super(stages[0]);
+        this.stages = stages;
+    }
+
+    /**
+     * Compose two GlobFunctions, flattening either side if it is already a pipeline.
+     */
+    static GlobFunction compose(final GlobFunction first, final GlobFunction then) {
+        final List<GlobFunction> stages = new ArrayList<>();
+        addStages(stages, first);
+        addStages(stages, then);
+        return new PipelineGlobFunction(stages.toArray(new GlobFunction[stages.size()]));
+    }
+
+    private static void addStages(final List<GlobFunction> stages, final GlobFunction function) {
+        if (function instanceof PipelineGlobFunction) {
+            for (GlobFunction stage : ((PipelineGlobFunction) function).stages) {
+                stages.add(stage);
+            }
+        } else {
+            stages.add(function);
+        }
+    }
+
+    // Returns null if the stages cannot be fused.
+    private static GroovyLambda fuse(final GlobFunction[] stages) {
+        final ScriptEngine engine = stages[0] instanceof GroovyLambda ? ((GroovyLambda) stages[0]).getEngine() : null;
+        final StringBuilder source = new StringBuilder();
+        boolean threadSafe = false;
+        for (GlobFunction stage : stages) {
+            if (!(stage instanceof GroovyLambda)) {
+                return null;
+            }
+            final GroovyLambda lambda = (GroovyLambda) stage;
+            if (lambda.isStaticallyCompiled() || lambda.isReclaimable() || lambda.isClosed()
+                || lambda.getEngine() != engine) {
+                return null;
+            }
+            threadSafe |= lambda.isThreadSafe();
+            source.append(source.length() == 0 ? "(" : " >> (").append(lambda.getGroovy()).append(")");
+        }
+        try {
+            final GroovyLambda composed = GroovyLambda.of(source.toString(), engine);
+            return threadSafe ? composed.threadSafe() : composed;
+        } catch (ScriptException e) {
+            return null;
+        }
+    }
+
+    // The fused closure, fusing the stages on the first call; null if they cannot be fused.
+    private GroovyLambda fused() {
+        if (!fusionAttempted) {
+            synchronized (this) {
+                if (!fusionAttempted) {
+                    fused = fuse(stages);
+                    fusionAttempted = true;
+                }
+            }
+        }
+        return fused;
+    }
+
+    /**
+     * The number of stages in the pipeline.
+     */
+    int size() {
+        return stages.length;
+    }
+
+    /**
+     * True if the Function shapes are served by a single fused Groovy closure.  Always false before the first
+     * Function-shape call.
+     */
+    boolean isFused() {
+        return fused != null;
+    }
+
+    public String toString() {
+        // Use something that looks like the "composition" operation, as AndThenGlobFunction does.
+        final StringBuilder string = new StringBuilder(stages[0].toString());
+        for (int i = 1; i < stages.length; i++) {
+            string.append(" then ").append(stages[i].toString());
+        }
+        return string.toString();
+    }
+
+    // BiConsumer.accept
+    @Override
+    public void accept(final Object a, final Object b) {
+        for (GlobFunction stage : stages) {
+            stage.accept(a, b);
+        }
+    }
+
+    // Consumer.accept
+    @Override
+    public void accept(final Object a) {
+        for (GlobFunction stage : stages) {
+            stage.accept(a);
+        }
+    }
+
+    // Function.apply, UnaryOperator.apply
+    @Override
+    public Object apply(final Object a) {
+        final GroovyLambda closure = fused();
+        if (closure != null) {
+            return closure.apply(a);
+        }
+        Object result = stages[0].apply(a);
+        for (int i = 1; i < stages.length; i++) {
+            result = stages[i].apply(result);
+        }
+        return result;
+    }
+
+    // BiFunction.apply, BinaryOperator.apply
+    @Override
+    public Object apply(final Object a, final Object b) {
+        final GroovyLambda closure = fused();
+        if (closure != null) {
+            return closure.apply(a, b);
+        }
+        Object result = stages[0].apply(a, b);
+        for (int i = 1; i < stages.length; i++) {
+            result = stages[i].apply(result);
+        }
+        return result;
+    }
+
+    // ToLongFunction.applyAsLong
+    @Override
+    public long applyAsLong(final Object a) {
+        final GroovyLambda closure = fused();
+        if (closure != null) {
+            return closure.applyAsLong(a);
+        }
+        return stages[stages.length - 1].applyAsLong(applyAllButLast(a));
+    }
+
+    // ToDoubleFunction.applyAsDouble
+    @Override
+    public double applyAsDouble(final Object a) {
+        final GroovyLambda closure = fused();
+        if (closure != null) {
+            return closure.applyAsDouble(a);
+        }
+        return stages[stages.length - 1].applyAsDouble(applyAllButLast(a));
+    }
+
+    // LongUnaryOperator.applyAsLong
+    @Override
+    public long applyAsLong(final long a) {
+        final GroovyLambda closure = fused();
+        if (closure != null) {
+            return closure.applyAsLong(a);
+        }
+        long result = a;
+        for (GlobFunction stage : stages) {
+            result = stage.applyAsLong(result);
+        }
+        return result;
+    }
+
+    private Object applyAllButLast(final Object a) {
+        Object result = a;
+        for (int i = 0; i < stages.length - 1; i++) {
+            result = stages[i].apply(result);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,42 @@
+package co.redseal.gremlinnode.function;
+
+/**
+ * The direct call path into a statically compiled Groovy closure.
+ *
+ * StaticClosureCompiler generates a class implementing this interface, overriding only the arities the closure
+ * accepts.  Calls go straight to the compiled code, without metaclass dispatch or an argument array.
+ */
+public interface StaticClosure {
+
+    default Object call0() {
+        throw new UnsupportedOperationException("Statically compiled closure does not accept 0 arguments");
+    }
+
+    default Object call1(final Object a) {
+        throw new UnsupportedOperationException("Statically compiled closure does not accept 1 argument");
+    }
+
+    default Object call2(final Object a, final Object b) {
+        throw new UnsupportedOperationException("Statically compiled closure does not accept 2 arguments");
+    }
+
+    default Object call3(final Object a, final Object b, final Object c) {
+        throw new UnsupportedOperationException("Statically compiled closure does not accept 3 arguments");
+    }
+
+    /**
+     * Call with one primitive argument.  Overridden, without boxing the argument, when the closure declares its one
+     * parameter as `long`.
+     */
+    default Object callLong(final long a) {
+        return call1(a);
+    }
+
+    /**
+     * Call with one primitive argument.  Overridden, without boxing the argument, when the closure declares its one
+     * parameter as `double`.
+     */
+    default Object callDouble(final double a) {
+        return call1(a);
+    }
+}
@@ -0,0 +1,201 @@
+package co.redseal.gremlinnode.function;
+
+import groovy.lang.GroovyClassLoader;
+import org.codehaus.groovy.control.CompilationFailedException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.script.ScriptEngine;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
+
+/**
+ * Compile the source of a Groovy closure as the body of a method of a @CompileStatic class, so that it can be called
+ * through StaticClosure rather than Closure.call.
+ *
+ * Given `{ v -> v.value('age') }` and the parameter type `Vertex`, the generated class looks like:
+ *
+ *     @groovy.transform.CompileStatic
+ *     class StaticClosure1 implements co.redseal.gremlinnode.function.StaticClosure {
+ *         Object call1(Object p0) { doCall((Vertex) p0) }
+ *         Object doCall(Vertex v) { v.value('age') }
+ *     }
+ *
+ * Parameters typed in the closure source keep their types; untyped parameters take the declared types in order, or
+ * Object when none is declared.  A single parameter of type `long` or `double` also gets `callLong(long p0)` or
+ * `callDouble(double p0)`, which pass the primitive to doCall without boxing it.  The engine's imports are copied
+ * into the generated source when the engine is a GremlinGroovyScriptEngine.  Closures that refer to engine bindings
+ * cannot be statically compiled.
+ */
+class StaticClosureCompiler {
+
+    private final static AtomicLong classCounter = new AtomicLong();
+
+    // The StaticClosure method that takes each primitive parameter type unboxed.
+    private final static Map<String, String> PRIMITIVE_CALLS = new HashMap<>();
+    static {
+        PRIMITIVE_CALLS.put("long", "callLong");
+        PRIMITIVE_CALLS.put("double", "callDouble");
+    }
+
+    private final static String IMPLICIT_PARAMETER = "it";
+
+    /**
+     * Thrown when the closure source cannot be compiled statically.  The message says why.
+     */
+    static class StaticCompilationException extends Exception {
+        StaticCompilationException(final String message) {
+            super(message);
+        }
+    }
+
+    static StaticClosure compile(final String groovy, final ScriptEngine engine, final String[] parameterTypes)
+        throws StaticCompilationException {
+        final String source = generate(groovy, engine, parameterTypes);
+        try (final GroovyClassLoader loader = new GroovyClassLoader(StaticClosureCompiler.class.getClassLoader())) {
+            final Class<?> compiled = loader.parseClass(source);
+            return (StaticClosure) compiled.newInstance();
+        } catch (CompilationFailedException e) {
+            throw new StaticCompilationException(e.getMessage());
+        } catch (ReflectiveOperationException | IOException e) {
+            throw new StaticCompilationException(e.toString());
+        }
+    }
+
+    static String generate(final String groovy, final ScriptEngine engine, final String[] parameterTypes)
+        throws StaticCompilationException {
+        final String trimmed = groovy.trim();
+        if (!trimmed.startsWith("{") || !trimmed.endsWith("}")) {
+            throw new StaticCompilationException("Not a closure literal: " + groovy);
+        }
+        final String inner = trimmed.substring(1, trimmed.length() - 1);
+        final int arrow = findParameterArrow(inner);
+
+        final List<String[]> parameters = new ArrayList<>();
+        final boolean implicit = arrow < 0;
+        if (implicit) {
+            parameters.add(new String[] { declaredType(parameterTypes, 0), IMPLICIT_PARAMETER });
+        } else {
+            final String parameterList = inner.substring(0, arrow).trim();
+            if (!parameterList.isEmpty()) {
+                for (String parameter : splitParameters(parameterList)) {
+                    parameters.add(parseParameter(parameter, parameterTypes, parameters.size()));
+                }
+            }
+        }
+        if (parameters.size() > 3) {
+            throw new StaticCompilationException("Closures of more than 3 parameters are not supported");
+        }
+        final String body = implicit ? inner : inner.substring(arrow + 2);
+
+        final String className = "StaticClosure" + classCounter.incrementAndGet();
+        final StringBuilder source = new StringBuilder();
+        appendImports(source, engine);
+        source.append("@groovy.transform.CompileStatic\n");
+        source.append("class ").append(className).append(" implements ")
+            .append(StaticClosure.class.getName()).append(" {\n");
+        if (implicit) {
+            // Like a Groovy closure, `{ it }` may be called with no arguments, in which case `it` is null.
+            source.append("    Object call0() { doCall(null) }\n");
+        }
+        source.append("    Object call").append(parameters.size()).append("(");
+        for (int i = 0; i < parameters.size(); i++) {
+            source.append(i == 0 ? "" : ", ").append("Object p").append(i);
+        }
+        source.append(") { doCall(");
+        for (int i = 0; i < parameters.size(); i++) {
+            source.append(i == 0 ? "" : ", ").append("(").append(parameters.get(i)[0]).append(") p").append(i);
+        }
+        source.append(") }\n");
+        if (parameters.size() == 1 && PRIMITIVE_CALLS.containsKey(parameters.get(0)[0])) {
+            final String type = parameters.get(0)[0];
+            source.append("    Object ").append(PRIMITIVE_CALLS.get(type)).append("(").append(type)
+                .append(" p0) { doCall(p0) }\n");
+        }
+        source.append("    Object doCall(");
+        for (int i = 0; i < parameters.size(); i++) {
+            source.append(i == 0 ? "" : ", ").append(parameters.get(i)[0]).append(" ").append(parameters.get(i)[1]);
+        }
+        source.append(") {\n").append(body).append("\n    }\n}\n");
+        return source.toString();
+    }
+
+    private static String declaredType(final String[] parameterTypes, final int index) {
+        return parameterTypes != null && index < parameterTypes.length && parameterTypes[index] != null
+            ? parameterTypes[index] : "Object";
+    }
+
+    // The index of the `->` separating the parameter list from the body, or -1 if the closure has an implicit
+    // parameter.  The parameter list cannot contain braces, quotes or parentheses.
+    private static int findParameterArrow(final String inner) {
+        for (int i = 0; i < inner.length() - 1; i++) {
+            final char c = inner.charAt(i);
+            if (c == '-' && inner.charAt(i + 1) == '>') {
+                return i;
+            }
+            if (c == '{' || c == '(' || c == ';' || c == '\'' || c == '"') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    // Split on commas that are not inside generic type arguments.
+    private static List<String> splitParameters(final String parameterList) {
+        final List<String> parameters = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < parameterList.length(); i++) {
+            final char c = parameterList.charAt(i);
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                parameters.add(parameterList.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        parameters.add(parameterList.substring(start).trim());
+        return parameters;
+    }
+
+    private static String[] parseParameter(final String parameter, final String[] parameterTypes, final int index)
+        throws StaticCompilationException {
+        if (parameter.contains("=")) {
+            throw new StaticCompilationException("Default parameter values are not supported: " + parameter);
+        }
+        final int split = parameter.lastIndexOf(' ');
+        if (split < 0) {
+            return new String[] { declaredType(parameterTypes, index), parameter };
+        }
+        final String type = parameter.substring(0, split).replaceFirst("^final\\s+", "").trim();
+        return new String[] { type.isEmpty() || type.equals("def") ? declaredType(parameterTypes, index) : type,
+                              parameter.substring(split + 1) };
+    }
+
+    static void appendImports(final StringBuilder source, final ScriptEngine engine) {
+        if (!(engine instanceof GremlinGroovyScriptEngine)) {
+            return;
+        }
+        final Map<String, Set<String>> imports = ((GremlinGroovyScriptEngine) engine).imports();
+        for (String key : new String[] { "imports", "extraImports" }) {
+            for (String name : imports.getOrDefault(key, Collections.emptySet())) {
+                source.append("import ").append(importName(name)).append("\n");
+            }
+        }
+        for (String key : new String[] { "staticImports", "extraStaticImports" }) {
+            for (String name : imports.getOrDefault(key, Collections.emptySet())) {
+                source.append("import static ").append(importName(name)).append("\n");
+            }
+        }
+    }
+
+    static String importName(final String name) {
+        return name.trim().replaceFirst("^import\\s+(static\\s+)?", "").replaceFirst(";$", "");
+    }
+}
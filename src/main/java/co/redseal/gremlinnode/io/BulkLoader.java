@@ -0,0 +1,270 @@
+package co.redseal.gremlinnode.io;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Build vertices and edges from columnar input, so that a Javascript caller makes a handful of bridge calls per
+ * batch of elements rather than several per element.
+ *
+ * Each batch is a primitive long[] of ids, a String[] of labels (null for the default label, or a single label
+ * shared by the whole batch), plus one array per property key.  Batches are staged, then built in tight loops by
+ * load(), which also builds any declared indexes once at the end rather than updating them element by element:
+ *
+ *     loader.vertices(ids, labels).property("name", names).property("age", ages);
+ *     loader.edges(null, new String[] { "knows" }, outIds, inIds).property("weight", weights);
+ *     loader.createVertexIndex("name").load();
+ */
+public class BulkLoader {
+
+    private final Graph graph;
+    private final List<Batch> batches = new ArrayList<>();
+    private final Set<String> vertexIndexes = new LinkedHashSet<>();
+    private final Set<String> edgeIndexes = new LinkedHashSet<>();
+
+    private long vertexCount = 0;
+    private long edgeCount = 0;
+
+    public BulkLoader(final Graph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Stage a batch of vertices.
+     */
+    public Batch vertices(final long[] ids, final String[] labels) {
+        final Batch batch = new Batch(ids.length, ids, labels, null, null);
+        batches.add(batch);
+        return batch;
+    }
+
+    /**
+     * Stage a batch of edges from outIds[i] to inIds[i].  The ids may be null to let the graph assign them.
+     */
+    public Batch edges(final long[] ids, final String[] labels, final long[] outIds, final long[] inIds) {
+        if (outIds.length != inIds.length) {
+            throw new IllegalArgumentException("Edges need as many in vertex ids as out vertex ids: "
+                                               + inIds.length + " != " + outIds.length);
+        }
+        final Batch batch = new Batch(outIds.length, ids, labels, outIds, inIds);
+        batches.add(batch);
+        return batch;
+    }
+
+    /**
+     * Declare an index on a vertex property key, to be built once load() has added every element.
+     */
+    public BulkLoader createVertexIndex(final String key) {
+        tinkerGraph();
+        vertexIndexes.add(key);
+        return this;
+    }
+
+    /**
+     * Declare an index on an edge property key, to be built once load() has added every element.
+     */
+    public BulkLoader createEdgeIndex(final String key) {
+        tinkerGraph();
+        edgeIndexes.add(key);
+        return this;
+    }
+
+    /**
+     * Build every staged batch in order, then the declared indexes.  Staged batches are discarded, so the loader
+     * may be reused for more.
+     */
+    public Graph load() {
+        // An existing index would be updated per element, so drop it and rebuild it at the end instead.
+        for (String key : vertexIndexes) {
+            if (tinkerGraph().getIndexedKeys(Vertex.class).contains(key)) {
+                tinkerGraph().dropIndex(key, Vertex.class);
+            }
+        }
+        for (String key : edgeIndexes) {
+            if (tinkerGraph().getIndexedKeys(Edge.class).contains(key)) {
+                tinkerGraph().dropIndex(key, Edge.class);
+            }
+        }
+        try {
+            for (Batch batch : batches) {
+                if (batch.isEdges()) {
+                    edgeCount += batch.loadEdges();
+                } else {
+                    vertexCount += batch.loadVertices();
+                }
+            }
+        } finally {
+            batches.clear();
+            for (String key : vertexIndexes) {
+                tinkerGraph().createIndex(key, Vertex.class);
+            }
+            for (String key : edgeIndexes) {
+                tinkerGraph().createIndex(key, Edge.class);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * The number of vertices added by load() so far.
+     */
+    public long getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * The number of edges added by load() so far.
+     */
+    public long getEdgeCount() {
+        return edgeCount;
+    }
+
+    private TinkerGraph tinkerGraph() {
+        if (!(graph instanceof TinkerGraph)) {
+            throw new UnsupportedOperationException("BulkLoader can only build indexes on a TinkerGraph");
+        }
+        return (TinkerGraph) graph;
+    }
+
+    /**
+     * One staged batch of vertices or edges and its property columns.
+     */
+    public class Batch {
+        private final int size;
+        private final long[] ids;
+        private final String[] labels;
+        private final long[] outIds;
+        private final long[] inIds;
+        private final Map<String, Object> columns = new LinkedHashMap<>();
+
+        private Batch(final int size, final long[] ids, final String[] labels, final long[] outIds,
+                      final long[] inIds) {
+            this.size = size;
+            this.ids = ids;
+            this.labels = labels;
+            this.outIds = outIds;
+            this.inIds = inIds;
+            if (labels == null && isEdges()) {
+                throw new IllegalArgumentException("Edges need labels");
+            }
+            if (labels != null && labels.length != 1) {
+                checkLength("labels", labels.length);
+            }
+            if (ids != null) {
+                checkLength("ids", ids.length);
+            }
+        }
+
+        public Batch property(final String key, final long[] values) {
+            return column(key, values, values.length);
+        }
+
+        public Batch property(final String key, final double[] values) {
+            return column(key, values, values.length);
+        }
+
+        /**
+         * A null value leaves the property unset on that element.
+         */
+        public Batch property(final String key, final String[] values) {
+            return column(key, values, values.length);
+        }
+
+        /**
+         * The number of elements in the batch.
+         */
+        public int size() {
+            return size;
+        }
+
+        private boolean isEdges() {
+            return outIds != null;
+        }
+
+        private Batch column(final String key, final Object values, final int length) {
+            checkLength("property " + key, length);
+            columns.put(key, values);
+            return this;
+        }
+
+        private void checkLength(final String what, final int length) {
+            if (length != size) {
+                throw new IllegalArgumentException("Batch has " + size + " elements but " + length + " " + what);
+            }
+        }
+
+        private String label(final int i) {
+            return labels.length == 1 ? labels[0] : labels[i];
+        }
+
+        // T.id and T.label, then every property column, for element i.
+        private Object[] keyValues(final int i, final boolean withLabel) {
+            final List<Object> keyValues = new ArrayList<>(4 + 2 * columns.size());
+            if (ids != null) {
+                keyValues.add(T.id);
+                keyValues.add(ids[i]);
+            }
+            if (withLabel && labels != null && label(i) != null) {
+                keyValues.add(T.label);
+                keyValues.add(label(i));
+            }
+            for (Map.Entry<String, Object> column : columns.entrySet()) {
+                final Object value = value(column.getValue(), i);
+                if (value != null) {
+                    keyValues.add(column.getKey());
+                    keyValues.add(value);
+                }
+            }
+            return keyValues.toArray();
+        }
+
+        private int loadVertices() {
+            for (int i = 0; i < size; i++) {
+                graph.addVertex(keyValues(i, true));
+            }
+            return size;
+        }
+
+        private int loadEdges() {
+            // Edges are usually grouped by their out vertex, so remember the last one.
+            long lastOutId = 0;
+            Vertex lastOut = null;
+            for (int i = 0; i < size; i++) {
+                if (lastOut == null || outIds[i] != lastOutId) {
+                    lastOutId = outIds[i];
+                    lastOut = vertex(lastOutId);
+                }
+                lastOut.addEdge(label(i), vertex(inIds[i]), keyValues(i, false));
+            }
+            return size;
+        }
+
+        private Vertex vertex(final long id) {
+            final Iterator<Vertex> vertices = graph.vertices(id);
+            if (!vertices.hasNext()) {
+                throw new IllegalStateException("No vertex with id " + id);
+            }
+            return vertices.next();
+        }
+    }
+
+    private static Object value(final Object column, final int i) {
+        if (column instanceof long[]) {
+            return ((long[]) column)[i];
+        } else if (column instanceof double[]) {
+            return ((double[]) column)[i];
+        } else {
+            return ((String[]) column)[i];
+        }
+    }
+}
@@ -0,0 +1,628 @@
+package co.redseal.gremlinnode.io;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.AddPropertyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.event.Event;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.event.MutationListener;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.KryoException;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+import org.apache.tinkerpop.shaded.kryo.io.Output;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Persist a graph incrementally, as a base Gryo snapshot plus an append-only journal of the mutations made since.
+ *
+ * The journal is a MutationListener: traversals from traversal(graph) report every vertex and edge addition and
+ * removal and every property change, which is appended to the current journal segment as a compact Gryo-encoded
+ * record.  flush() makes the appended records durable, so periodic persistence costs O(changes), not O(graph).
+ * Mutations made directly through the structure API (e.g. graph.addVertex) do not raise events and are not
+ * journaled.
+ *
+ * The directory holds snapshot-N.kryo, the graph as of the end of segment N, and journal-M.log segments.  compact()
+ * starts a new segment and, in the background, folds the older segments into a new snapshot.  open(graph) recovers
+ * by loading the latest snapshot and replaying the segments after it; a record torn by a crash at the end of a
+ * segment is ignored.
+ */
+public class ChangeJournal implements MutationListener, Closeable {
+
+    private final static int BUFFER_SIZE = 1 << 16;
+
+    private final static Pattern SNAPSHOT = Pattern.compile("snapshot-(\\d+)\\.kryo");
+    private final static Pattern SEGMENT = Pattern.compile("journal-(\\d+)\\.log");
+
+    // Record types.
+    private final static byte ADD_VERTEX = 1;
+    private final static byte REMOVE_VERTEX = 2;
+    private final static byte ADD_EDGE = 3;
+    private final static byte REMOVE_EDGE = 4;
+    private final static byte SET_VERTEX_PROPERTY = 5;
+    private final static byte REMOVE_VERTEX_PROPERTY = 6;
+    private final static byte SET_EDGE_PROPERTY = 7;
+    private final static byte REMOVE_EDGE_PROPERTY = 8;
+    private final static byte SET_META_PROPERTY = 9;
+    private final static byte REMOVE_META_PROPERTY = 10;
+
+    private final File directory;
+    private final Supplier<Graph> emptyGraph;
+    private final Kryo kryo = newKryo();
+    private final Output scratch = new Output(256, -1);
+    private final ThreadLocal<AddPropertyStep<?>> currentPropertyStep = new ThreadLocal<>();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "ChangeJournal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private long sequence = 0;
+    private FileChannel channel = null;
+    private Output output = null;
+    private long appended = 0;
+
+    public ChangeJournal(final File directory) {
+        this(directory, TinkerGraph::open);
+    }
+
+    /**
+     * The emptyGraph supplier provides the scratch graphs that compaction loads snapshots into.  It should be
+     * configured like the journaled graph, e.g. with the same default vertex property cardinality.
+     */
+    public ChangeJournal(final File directory, final Supplier<Graph> emptyGraph) {
+        this.directory = directory;
+        this.emptyGraph = emptyGraph;
+    }
+
+    /**
+     * Start journaling the graph.  If the directory already holds a snapshot or journal, the graph must be empty and
+     * is recovered from them.  Otherwise the current contents of the graph become the base snapshot.
+     */
+    public synchronized Graph open(final Graph graph) throws IOException {
+        if (output != null) {
+            throw new IllegalStateException("Change journal is already open");
+        }
+        Files.createDirectories(directory.toPath());
+        final TreeMap<Long, File> snapshots = list(SNAPSHOT);
+        final TreeMap<Long, File> segments = list(SEGMENT);
+        if (!snapshots.isEmpty() || !segments.isEmpty()) {
+            if (graph.vertices().hasNext()) {
+                throw new IllegalStateException("Recovering from " + directory + " requires an empty graph");
+            }
+            sequence = restore(graph, snapshots, segments, Long.MAX_VALUE);
+        } else if (graph.vertices().hasNext()) {
+            writeSnapshot(graph, 0);
+        }
+        startSegment(sequence + 1);
+        return graph;
+    }
+
+    /**
+     * A traversal source whose mutations are journaled.
+     */
+    public GraphTraversalSource traversal(final Graph graph) {
+        return GraphTraversalSource.build().with(strategy()).create(graph);
+    }
+
+    /**
+     * A strategy that reports mutations to this journal, for callers building their own traversal sources.
+     */
+    public TraversalStrategy strategy() {
+        return new JournalStrategy();
+    }
+
+    /**
+     * Write buffered records to the current segment and force them to disk.
+     */
+    public synchronized void flush() throws IOException {
+        ensureOpen();
+        try {
+            output.flush();
+        } catch (KryoException e) {
+            throw new IOException(e);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * The number of records appended since open.
+     */
+    public synchronized long getAppendedCount() {
+        return appended;
+    }
+
+    /**
+     * Start a new journal segment, then fold the latest snapshot and every older segment into a new snapshot on a
+     * background thread.  Journaling continues into the new segment meanwhile.
+     */
+    public CompletableFuture<Void> compact() throws IOException {
+        final long through;
+        synchronized (this) {
+            ensureOpen();
+            through = sequence;
+            closeSegment();
+            startSegment(through + 1);
+        }
+        return CompletableFuture.runAsync(() -> {
+            try {
+                compactThrough(through);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, compactor);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (output != null) {
+            closeSegment();
+        }
+        compactor.shutdown();
+    }
+
+    /**
+     * Apply the records of one journal segment to the graph, returning the number of records applied.
+     * The stream is not closed.
+     */
+    static public long replay(final Graph graph, final InputStream stream) throws IOException {
+        final Kryo kryo = newKryo();
+        final Input input = new Input(stream, BUFFER_SIZE);
+        long count = 0;
+        while (!input.eof()) {
+            final byte[] bytes;
+            try {
+                bytes = input.readBytes(input.readVarInt(true));
+            } catch (KryoException e) {
+                // A record torn by a crash while it was being appended.
+                break;
+            }
+            final Runnable record;
+            try {
+                record = read(kryo, new Input(bytes), graph);
+            } catch (KryoException | ClassCastException e) {
+                throw new IOException("Corrupt change journal record " + count, e);
+            }
+            record.run();
+            count++;
+        }
+        return count;
+    }
+
+    // MutationListener.vertexAdded
+    @Override
+    public void vertexAdded(final Vertex vertex) {
+        append(out -> {
+            out.writeByte(ADD_VERTEX);
+            writeObject(out, vertex.id());
+            out.writeString(vertex.label());
+            final List<VertexProperty<Object>> properties = new ArrayList<>();
+            vertex.properties().forEachRemaining(properties::add);
+            out.writeVarInt(properties.size(), true);
+            for (VertexProperty<Object> property : properties) {
+                out.writeString(property.key());
+                writeObject(out, property.value());
+                writeKeyValues(out, property.properties());
+            }
+        });
+    }
+
+    // MutationListener.vertexRemoved
+    @Override
+    public void vertexRemoved(final Vertex vertex) {
+        append(out -> {
+            out.writeByte(REMOVE_VERTEX);
+            writeObject(out, vertex.id());
+        });
+    }
+
+    // MutationListener.vertexPropertyChanged
+    @Override
+    public void vertexPropertyChanged(final Vertex vertex, final Property oldValue, final Object setValue,
+                                      final Object... vertexPropertyKeyValues) {
+        final String key = propertyKey(oldValue);
+        final AddPropertyStep<?> step = currentPropertyStep.get();
+        final VertexProperty.Cardinality cardinality = step != null ? cardinality(step) : null;
+        append(out -> {
+            out.writeByte(SET_VERTEX_PROPERTY);
+            writeObject(out, vertex.id());
+            out.writeString(key);
+            out.writeByte(cardinality == null ? -1 : cardinality.ordinal());
+            writeObject(out, setValue);
+            writeObject(out, new ArrayList<>(Arrays.asList(vertexPropertyKeyValues)));
+        });
+    }
+
+    // MutationListener.vertexPropertyRemoved
+    @Override
+    public void vertexPropertyRemoved(final VertexProperty vertexProperty) {
+        append(out -> {
+            out.writeByte(REMOVE_VERTEX_PROPERTY);
+            writeObject(out, vertexProperty.element().id());
+            out.writeString(vertexProperty.key());
+            writeObject(out, vertexProperty.value());
+        });
+    }
+
+    // MutationListener.edgeAdded
+    @Override
+    public void edgeAdded(final Edge edge) {
+        append(out -> {
+            out.writeByte(ADD_EDGE);
+            writeObject(out, edge.id());
+            out.writeString(edge.label());
+            writeObject(out, edge.outVertex().id());
+            writeObject(out, edge.inVertex().id());
+            writeKeyValues(out, edge.properties());
+        });
+    }
+
+    // MutationListener.edgeRemoved
+    @Override
+    public void edgeRemoved(final Edge edge) {
+        append(out -> {
+            out.writeByte(REMOVE_EDGE);
+            writeObject(out, edge.id());
+        });
+    }
+
+    // MutationListener.edgePropertyChanged
+    @Override
+    public void edgePropertyChanged(final Edge edge, final Property oldValue, final Object setValue) {
+        final String key = propertyKey(oldValue);
+        append(out -> {
+            out.writeByte(SET_EDGE_PROPERTY);
+            writeObject(out, edge.id());
+            out.writeString(key);
+            writeObject(out, setValue);
+        });
+    }
+
+    // MutationListener.edgePropertyRemoved
+    @Override
+    public void edgePropertyRemoved(final Edge edge, final Property property) {
+        append(out -> {
+            out.writeByte(REMOVE_EDGE_PROPERTY);
+            writeObject(out, edge.id());
+            out.writeString(property.key());
+        });
+    }
+
+    // MutationListener.vertexPropertyPropertyChanged
+    @Override
+    public void vertexPropertyPropertyChanged(final VertexProperty element, final Property oldValue,
+                                              final Object setValue) {
+        final String key = propertyKey(oldValue);
+        append(out -> {
+            out.writeByte(SET_META_PROPERTY);
+            writeObject(out, element.element().id());
+            out.writeString(element.key());
+            writeObject(out, element.value());
+            out.writeString(key);
+            writeObject(out, setValue);
+        });
+    }
+
+    // MutationListener.vertexPropertyPropertyRemoved
+    @Override
+    public void vertexPropertyPropertyRemoved(final VertexProperty element, final Property property) {
+        append(out -> {
+            out.writeByte(REMOVE_META_PROPERTY);
+            writeObject(out, element.element().id());
+            out.writeString(element.key());
+            writeObject(out, element.value());
+            out.writeString(property.key());
+        });
+    }
+
+    // Like EventStrategy, but remembers which AddPropertyStep raised a property event.  In this version of TinkerPop
+    // the event does not carry the key of a newly added vertex property, nor the cardinality.
+    private final class JournalStrategy extends AbstractTraversalStrategy<TraversalStrategy.DecorationStrategy>
+        implements TraversalStrategy.DecorationStrategy {
+
+        // TraversalStrategy.apply
+        @Override
+        @SuppressWarnings("unchecked")
+        public void apply(final Traversal.Admin<?, ?> traversal) {
+            for (Mutating step : TraversalHelper.getStepsOfAssignableClass(Mutating.class, traversal)) {
+                final AddPropertyStep<?> property = step instanceof AddPropertyStep ? (AddPropertyStep<?>) step : null;
+                step.getMutatingCallbackRegistry().addCallback(event -> {
+                    currentPropertyStep.set(property);
+                    try {
+                        final MutationListener listener = ChangeJournal.this;
+                        ((Event) event).fireEvent(Collections.singletonList(listener).iterator());
+                    } finally {
+                        currentPropertyStep.remove();
+                    }
+                });
+            }
+        }
+    }
+
+    // The event only names the key if the property already existed, so take it from the step when we can.
+    private String propertyKey(final Property oldValue) {
+        final AddPropertyStep<?> step = currentPropertyStep.get();
+        if (step != null) {
+            return step.getKey();
+        } else if (oldValue != null && oldValue.isPresent()) {
+            return oldValue.key();
+        }
+        throw new IllegalStateException("Cannot journal a new property without ChangeJournal.strategy()");
+    }
+
+    // The step only applies its cardinality when one was given explicitly; otherwise the graph's default applies.
+    // Journal the effective cardinality, since the graph a snapshot is loaded into may have a different default.
+    private static VertexProperty.Cardinality cardinality(final AddPropertyStep<?> step) {
+        if (step.isAsVertex()) {
+            return step.getCardinality();
+        }
+        final Optional<Graph> graph = step.getTraversal().getGraph();
+        return graph.isPresent() ? graph.get().features().vertex().getCardinality(step.getKey()) : null;
+    }
+
+    private interface RecordWriter {
+        void write(Output output);
+    }
+
+    // Each record is length-prefixed, so replay can tell a torn record from a corrupt one.
+    private synchronized void append(final RecordWriter record) {
+        ensureOpen();
+        try {
+            scratch.clear();
+            record.write(scratch);
+            output.writeVarInt(scratch.position(), true);
+            output.writeBytes(scratch.getBuffer(), 0, scratch.position());
+        } catch (KryoException e) {
+            throw new UncheckedIOException(new IOException("Could not append to change journal", e));
+        }
+        appended++;
+    }
+
+    private void writeObject(final Output out, final Object object) {
+        kryo.writeClassAndObject(out, object);
+    }
+
+    private void writeKeyValues(final Output out, final Iterator<? extends Property<Object>> properties) {
+        final List<Object> keyValues = new ArrayList<>();
+        properties.forEachRemaining(property -> {
+            keyValues.add(property.key());
+            keyValues.add(property.value());
+        });
+        writeObject(out, keyValues);
+    }
+
+    // Read one whole record before touching the graph, so a torn record changes nothing.
+    private static Runnable read(final Kryo kryo, final Input in, final Graph graph) {
+        final byte type = in.readByte();
+        switch (type) {
+            case ADD_VERTEX: {
+                final Object id = kryo.readClassAndObject(in);
+                final String label = in.readString();
+                final int count = in.readVarInt(true);
+                final List<Object[]> properties = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    final String key = in.readString();
+                    final Object value = kryo.readClassAndObject(in);
+                    properties.add(new Object[] { key, value, readKeyValues(kryo, in) });
+                }
+                return () -> {
+                    final Vertex vertex = graph.addVertex(T.id, id, T.label, label);
+                    for (Object[] property : properties) {
+                        vertex.property(VertexProperty.Cardinality.list, (String) property[0], property[1],
+                                        (Object[]) property[2]);
+                    }
+                };
+            }
+            case REMOVE_VERTEX: {
+                final Object id = kryo.readClassAndObject(in);
+                return () -> ifPresent(graph.vertices(id), Vertex::remove);
+            }
+            case ADD_EDGE: {
+                final Object id = kryo.readClassAndObject(in);
+                final String label = in.readString();
+                final Object outId = kryo.readClassAndObject(in);
+                final Object inId = kryo.readClassAndObject(in);
+                final Object[] keyValues = readKeyValues(kryo, in);
+                return () -> {
+                    final Vertex inVertex = graph.vertices(inId).next();
+                    final Edge edge = graph.vertices(outId).next().addEdge(label, inVertex, T.id, id);
+                    for (int i = 0; i < keyValues.length; i += 2) {
+                        edge.property((String) keyValues[i], keyValues[i + 1]);
+                    }
+                };
+            }
+            case REMOVE_EDGE: {
+                final Object id = kryo.readClassAndObject(in);
+                return () -> ifPresent(graph.edges(id), Edge::remove);
+            }
+            case SET_VERTEX_PROPERTY: {
+                final Object id = kryo.readClassAndObject(in);
+                final String key = in.readString();
+                final byte ordinal = in.readByte();
+                final VertexProperty.Cardinality cardinality =
+                    ordinal < 0 ? null : VertexProperty.Cardinality.values()[ordinal];
+                final Object value = kryo.readClassAndObject(in);
+                final Object[] keyValues = readKeyValues(kryo, in);
+                return () -> ifPresent(graph.vertices(id), vertex -> {
+                    if (cardinality == null) {
+                        vertex.property(key, value, keyValues);
+                    } else {
+                        vertex.property(cardinality, key, value, keyValues);
+                    }
+                });
+            }
+            case REMOVE_VERTEX_PROPERTY: {
+                final Object id = kryo.readClassAndObject(in);
+                final String key = in.readString();
+                final Object value = kryo.readClassAndObject(in);
+                return () -> forEachMatching(graph, id, key, value, VertexProperty::remove);
+            }
+            case SET_EDGE_PROPERTY: {
+                final Object id = kryo.readClassAndObject(in);
+                final String key = in.readString();
+                final Object value = kryo.readClassAndObject(in);
+                return () -> ifPresent(graph.edges(id), edge -> edge.property(key, value));
+            }
+            case REMOVE_EDGE_PROPERTY: {
+                final Object id = kryo.readClassAndObject(in);
+                final String key = in.readString();
+                return () -> ifPresent(graph.edges(id), edge -> edge.property(key).remove());
+            }
+            case SET_META_PROPERTY: {
+                final Object id = kryo.readClassAndObject(in);
+                final String propertyKey = in.readString();
+                final Object propertyValue = kryo.readClassAndObject(in);
+                final String key = in.readString();
+                final Object value = kryo.readClassAndObject(in);
+                return () -> forEachMatching(graph, id, propertyKey, propertyValue, p -> p.property(key, value));
+            }
+            case REMOVE_META_PROPERTY: {
+                final Object id = kryo.readClassAndObject(in);
+                final String propertyKey = in.readString();
+                final Object propertyValue = kryo.readClassAndObject(in);
+                final String key = in.readString();
+                return () -> forEachMatching(graph, id, propertyKey, propertyValue, p -> p.property(key).remove());
+            }
+            default:
+                throw new KryoException("Unknown change journal record type " + type);
+        }
+    }
+
+    private static Object[] readKeyValues(final Kryo kryo, final Input in) {
+        return ((List<?>) kryo.readClassAndObject(in)).toArray();
+    }
+
+    // Removals of elements that are already gone are not errors, e.g. the edges of a removed vertex.
+    private static <E> void ifPresent(final Iterator<E> elements, final Consumer<E> action) {
+        if (elements.hasNext()) {
+            action.accept(elements.next());
+        }
+    }
+
+    // Vertex properties have no stable ids across snapshots, so they are identified by vertex, key and value.
+    private static void forEachMatching(final Graph graph, final Object vertexId, final String key, final Object value,
+                                        final Consumer<VertexProperty<Object>> action) {
+        ifPresent(graph.vertices(vertexId), vertex -> vertex.<Object>properties(key).forEachRemaining(property -> {
+            if (Objects.equals(property.value(), value)) {
+                action.accept(property);
+            }
+        }));
+    }
+
+    private static Kryo newKryo() {
+        return GryoMapper.build().create().createMapper();
+    }
+
+    private void ensureOpen() {
+        if (output == null) {
+            throw new IllegalStateException("Change journal is not open");
+        }
+    }
+
+    private void startSegment(final long next) throws IOException {
+        final File file = new File(directory, String.format("journal-%019d.log", next));
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        output = new Output(Channels.newOutputStream(channel), BUFFER_SIZE);
+        sequence = next;
+    }
+
+    private void closeSegment() throws IOException {
+        try {
+            output.close();
+        } catch (KryoException e) {
+            throw new IOException(e);
+        } finally {
+            output = null;
+            channel = null;
+        }
+    }
+
+    private void compactThrough(final long through) throws IOException {
+        final Graph graph = emptyGraph.get();
+        final TreeMap<Long, File> snapshots = list(SNAPSHOT);
+        final TreeMap<Long, File> segments = list(SEGMENT);
+        restore(graph, snapshots, segments, through);
+        writeSnapshot(graph, through);
+        for (File file : snapshots.headMap(through).values()) {
+            Files.delete(file.toPath());
+        }
+        for (File file : segments.headMap(through, true).values()) {
+            Files.delete(file.toPath());
+        }
+    }
+
+    // Load the latest snapshot and replay the segments after it, up to and including through.
+    // Returns the sequence number of the last snapshot or segment applied.
+    private long restore(final Graph graph, final TreeMap<Long, File> snapshots, final TreeMap<Long, File> segments,
+                         final long through) throws IOException {
+        long last = 0;
+        if (!snapshots.isEmpty()) {
+            last = snapshots.lastKey();
+            GryoSnapshot.load(graph, snapshots.lastEntry().getValue().getPath());
+        }
+        for (File segment : segments.subMap(last, false, through, true).values()) {
+            try (final InputStream stream = new BufferedInputStream(Files.newInputStream(segment.toPath()))) {
+                replay(graph, stream);
+            }
+        }
+        return segments.isEmpty() ? last : Math.max(last, segments.lastKey());
+    }
+
+    // Written to a temporary file and moved into place, so a crash never leaves a partial snapshot.
+    private void writeSnapshot(final Graph graph, final long through) throws IOException {
+        final File snapshot = new File(directory, String.format("snapshot-%019d.kryo", through));
+        final File temporary = new File(directory, snapshot.getName() + ".tmp");
+        GryoSnapshot.save(graph, temporary.getPath());
+        Files.move(temporary.toPath(), snapshot.toPath(),
+                   StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private TreeMap<Long, File> list(final Pattern pattern) {
+        final TreeMap<Long, File> files = new TreeMap<>();
+        final File[] children = directory.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                final Matcher matcher = pattern.matcher(child.getName());
+                if (matcher.matches()) {
+                    files.put(Long.parseLong(matcher.group(1)), child);
+                }
+            }
+        }
+        return files;
+    }
+}
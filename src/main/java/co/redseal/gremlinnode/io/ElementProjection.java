@@ -0,0 +1,208 @@
+package co.redseal.gremlinnode.io;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write vertices and edges straight to JSON, with only the projected property keys and without going through the
+ * GraphSON writer.
+ *
+ * Vertex properties take the shape that `simplifyVertexProperties` in ts-tinkerpop.ts gives them: a key maps to its
+ * single value, or to an array of values for a multi-property, and meta-properties are dropped.  Adjacent edges are
+ * written only when asked for, as `outE` and `inE` objects keyed by edge label:
+ *
+ *     {"id":1,"label":"person","properties":{"name":"marko"},
+ *      "outE":{"knows":[{"id":7,"inV":2,"properties":{"weight":0.5}}]},"inE":{}}
+ *
+ * Edges keep their GraphSON shape ({id, label, type, inVLabel, outVLabel, inV, outV, properties}), with the same
+ * projection applied to their properties.  As in GraphSON parsed by Javascript, every number becomes a double.
+ */
+public class ElementProjection {
+
+    private final String[] keys;
+    private final boolean includeEdges;
+
+    /**
+     * Project onto *keys*, or onto every property key if *keys* is null.
+     */
+    public ElementProjection(final String[] keys, final boolean includeEdges) {
+        this.keys = keys;
+        this.includeEdges = includeEdges;
+    }
+
+    public String[] getKeys() {
+        return keys;
+    }
+
+    public boolean isIncludingEdges() {
+        return includeEdges;
+    }
+
+    /**
+     * Convert one vertex to JSON.
+     */
+    static public String vertexToJson(final Vertex vertex, final String[] keys, final boolean includeEdges) {
+        final JsonWriter json = new JsonWriter();
+        new ElementProjection(keys, includeEdges).write(json, vertex);
+        return json.toString();
+    }
+
+    /**
+     * Convert one edge to JSON.
+     */
+    static public String edgeToJson(final Edge edge, final String[] keys) {
+        final JsonWriter json = new JsonWriter();
+        new ElementProjection(keys, false).write(json, edge);
+        return json.toString();
+    }
+
+    /**
+     * Drain the traversal, returning a JSON array of its results as TraversalJson.traversalToJson does, except that
+     * vertices and edges are projected.
+     */
+    static public String traversalToJson(final Traversal traversal, final String[] keys, final boolean includeEdges) {
+        return TraversalJson.traversalToJson(traversal, new ElementProjection(keys, includeEdges));
+    }
+
+    void write(final JsonWriter json, final Element element) {
+        if (element instanceof Vertex) {
+            writeVertex(json, (Vertex) element);
+        } else {
+            writeEdge(json, (Edge) element);
+        }
+    }
+
+    private void writeVertex(final JsonWriter json, final Vertex vertex) {
+        json.beginObject();
+        json.name("id");
+        writeValue(json, vertex.id());
+        json.name("label").value(vertex.label());
+
+        final LinkedHashMap<String, List<Object>> values = new LinkedHashMap<>();
+        final Iterator<? extends Property<Object>> properties = properties(vertex);
+        while (properties.hasNext()) {
+            final Property<Object> property = properties.next();
+            values.computeIfAbsent(property.key(), key -> new ArrayList<>(1)).add(property.value());
+        }
+        json.name("properties").beginObject();
+        for (Map.Entry<String, List<Object>> entry : JsonWriter.orderKeys(values.entrySet())) {
+            json.name(entry.getKey());
+            final List<Object> list = entry.getValue();
+            writeValue(json, list.size() == 1 ? list.get(0) : list);
+        }
+        json.endObject();
+
+        if (includeEdges) {
+            json.name("outE");
+            writeAdjacent(json, vertex, Direction.OUT);
+            json.name("inE");
+            writeAdjacent(json, vertex, Direction.IN);
+        }
+        json.endObject();
+    }
+
+    private void writeAdjacent(final JsonWriter json, final Vertex vertex, final Direction direction) {
+        final LinkedHashMap<String, List<Edge>> byLabel = new LinkedHashMap<>();
+        vertex.edges(direction).forEachRemaining(edge -> {
+            byLabel.computeIfAbsent(edge.label(), label -> new ArrayList<>()).add(edge);
+        });
+        final String otherName = direction == Direction.OUT ? "inV" : "outV";
+        json.beginObject();
+        for (Map.Entry<String, List<Edge>> entry : JsonWriter.orderKeys(byLabel.entrySet())) {
+            json.name(entry.getKey()).beginArray();
+            for (Edge edge : entry.getValue()) {
+                json.beginObject();
+                json.name("id");
+                writeValue(json, edge.id());
+                json.name(otherName);
+                writeValue(json, (direction == Direction.OUT ? edge.inVertex() : edge.outVertex()).id());
+                writeEdgeProperties(json, edge);
+                json.endObject();
+            }
+            json.endArray();
+        }
+        json.endObject();
+    }
+
+    private void writeEdge(final JsonWriter json, final Edge edge) {
+        final Vertex inV = edge.inVertex();
+        final Vertex outV = edge.outVertex();
+        json.beginObject();
+        json.name("id");
+        writeValue(json, edge.id());
+        json.name("label").value(edge.label());
+        json.name("type").value("edge");
+        json.name("inVLabel").value(inV.label());
+        json.name("outVLabel").value(outV.label());
+        json.name("inV");
+        writeValue(json, inV.id());
+        json.name("outV");
+        writeValue(json, outV.id());
+        writeEdgeProperties(json, edge);
+        json.endObject();
+    }
+
+    private void writeEdgeProperties(final JsonWriter json, final Edge edge) {
+        final LinkedHashMap<String, Object> values = new LinkedHashMap<>();
+        final Iterator<? extends Property<Object>> properties = properties(edge);
+        while (properties.hasNext()) {
+            final Property<Object> property = properties.next();
+            values.put(property.key(), property.value());
+        }
+        json.name("properties").beginObject();
+        for (Map.Entry<String, Object> entry : JsonWriter.orderKeys(values.entrySet())) {
+            json.name(entry.getKey());
+            writeValue(json, entry.getValue());
+        }
+        json.endObject();
+    }
+
+    // Element.properties() with no keys means every key, so an empty projection must not reach it.
+    private <V> Iterator<? extends Property<V>> properties(final Element element) {
+        if (keys != null && keys.length == 0) {
+            return Collections.emptyIterator();
+        }
+        return keys == null ? element.properties() : element.properties(keys);
+    }
+
+    // A property value or id as it would look after JSON.parse of its GraphSON.
+    private static void writeValue(final JsonWriter json, final Object value) {
+        if (value == null) {
+            json.nullValue();
+        } else if (value instanceof Number) {
+            json.value(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            json.value((boolean) (Boolean) value);
+        } else if (value instanceof Collection) {
+            json.beginArray();
+            for (Object element : (Collection) value) {
+                writeValue(json, element);
+            }
+            json.endArray();
+        } else if (value instanceof Map) {
+            final LinkedHashMap<String, Object> members = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                members.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+            json.beginObject();
+            for (Map.Entry<String, Object> member : JsonWriter.orderKeys(members.entrySet())) {
+                json.name(member.getKey());
+                writeValue(json, member.getValue());
+            }
+            json.endObject();
+        } else {
+            json.value(value.toString());
+        }
+    }
+}
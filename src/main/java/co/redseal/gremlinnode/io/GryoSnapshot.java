@@ -0,0 +1,94 @@
+package co.redseal.gremlinnode.io;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoReader;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoWriter;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Load and save binary Gryo snapshots of a graph, optionally deflate-compressed.
+ *
+ * Gryo is several times smaller than GraphSON with embedded types and much cheaper to parse.  Compressed snapshots
+ * are written in gzip format, and load recognizes them by their magic number, so callers need not remember which
+ * kind of snapshot a file holds.
+ */
+public class GryoSnapshot {
+
+    private final static int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Load a Gryo snapshot file, compressed or not, into the graph.
+     */
+    static public Graph load(final Graph graph, final String filename) throws IOException {
+        final FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+        try (final InputStream stream = new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE)) {
+            return load(graph, stream);
+        }
+    }
+
+    /**
+     * Load a Gryo snapshot, compressed or not, from the stream into the graph.  The stream is not closed.
+     */
+    static public Graph load(final Graph graph, final InputStream stream) throws IOException {
+        final PushbackInputStream source = new PushbackInputStream(stream, 2);
+        final InputStream input = isCompressed(source) ? new GZIPInputStream(source, BUFFER_SIZE) : source;
+        GryoReader.build().create().readGraph(input, graph);
+        return graph;
+    }
+
+    /**
+     * Save the graph to a file as an uncompressed Gryo snapshot.
+     */
+    static public Graph save(final Graph graph, final String filename) throws IOException {
+        return save(graph, filename, false);
+    }
+
+    /**
+     * Save the graph to a file as a Gryo snapshot, deflate-compressed if compress is true.
+     */
+    static public Graph save(final Graph graph, final String filename, final boolean compress) throws IOException {
+        try (final OutputStream file = PrettyGraphSON.createFile(filename)) {
+            save(graph, file, compress);
+        }
+        return graph;
+    }
+
+    /**
+     * Write the graph to the stream as a Gryo snapshot.  The stream is flushed but not closed.
+     */
+    static public Graph save(final Graph graph, final OutputStream stream, final boolean compress) throws IOException {
+        if (compress) {
+            final GZIPOutputStream deflater = new GZIPOutputStream(stream, BUFFER_SIZE);
+            GryoWriter.build().create().writeGraph(deflater, graph);
+            deflater.finish();
+        } else {
+            GryoWriter.build().create().writeGraph(stream, graph);
+        }
+        stream.flush();
+        return graph;
+    }
+
+    // Peek at the first two bytes for the gzip magic number.  Gryo always starts with its own header, "gio".
+    private static boolean isCompressed(final PushbackInputStream stream) throws IOException {
+        final int first = stream.read();
+        if (first == -1) {
+            return false;
+        }
+        final int second = stream.read();
+        if (second != -1) {
+            stream.unread(second);
+        }
+        stream.unread(first);
+        return second != -1 && (first | (second << 8)) == GZIPInputStream.GZIP_MAGIC;
+    }
+}
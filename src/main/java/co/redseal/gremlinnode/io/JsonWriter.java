@@ -0,0 +1,275 @@
+package co.redseal.gremlinnode.io;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal streaming JSON writer whose output is byte-for-byte what Javascript would produce.
+ *
+ * Numbers are formatted the way Javascript's Number.prototype.toString formats them, strings are escaped the way
+ * JSON.stringify escapes them, and object keys that look like array indices are emitted first in ascending order,
+ * just as JSON.stringify orders the keys of a plain object.
+ *
+ * When constructed with a non-empty indentation string the output mimics json-stable-stringify's `space` option,
+ * including its rendering of empty arrays and objects.
+ */
+public class JsonWriter {
+
+    private final StringBuilder out;
+    private final String space;
+
+    // One entry per open container: the number of members written so far.
+    private final List<int[]> counts = new ArrayList<>();
+    private boolean afterName = false;
+
+    public JsonWriter() {
+        this(new StringBuilder(), "");
+    }
+
+    public JsonWriter(final String space) {
+        this(new StringBuilder(), space);
+    }
+
+    public JsonWriter(final StringBuilder out, final String space) {
+        this.out = out;
+        this.space = space;
+    }
+
+    public JsonWriter beginArray() {
+        beforeValue();
+        out.append('[');
+        counts.add(new int[1]);
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        counts.remove(counts.size() - 1);
+        closeIndent();
+        out.append(']');
+        return this;
+    }
+
+    public JsonWriter beginObject() {
+        beforeValue();
+        out.append('{');
+        counts.add(new int[1]);
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        counts.remove(counts.size() - 1);
+        closeIndent();
+        out.append('}');
+        return this;
+    }
+
+    public JsonWriter name(final String name) {
+        beforeMember();
+        appendString(name);
+        out.append(space.isEmpty() ? ":" : ": ");
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(final String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        appendString(value);
+        return this;
+    }
+
+    public JsonWriter value(final boolean value) {
+        beforeValue();
+        out.append(value);
+        return this;
+    }
+
+    public JsonWriter value(final double value) {
+        beforeValue();
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            out.append("null");
+        } else {
+            out.append(formatNumber(value));
+        }
+        return this;
+    }
+
+    public JsonWriter nullValue() {
+        beforeValue();
+        out.append("null");
+        return this;
+    }
+
+    /**
+     * Append text that is already valid JSON, e.g. a previously serialized result.
+     */
+    public JsonWriter rawValue(final CharSequence json) {
+        beforeValue();
+        out.append(json);
+        return this;
+    }
+
+    public StringBuilder builder() {
+        return out;
+    }
+
+    public String toString() {
+        return out.toString();
+    }
+
+    /**
+     * Order object keys the way a Javascript engine enumerates them: array-index keys ascending, then the rest in
+     * insertion order.
+     */
+    public static <V> List<Map.Entry<String, V>> orderKeys(final Iterable<Map.Entry<String, V>> entries) {
+        final List<Map.Entry<String, V>> indices = new ArrayList<>();
+        final List<Map.Entry<String, V>> others = new ArrayList<>();
+        for (Map.Entry<String, V> entry : entries) {
+            (isArrayIndex(entry.getKey()) ? indices : others).add(entry);
+        }
+        if (indices.isEmpty()) {
+            return others;
+        }
+        indices.sort((a, b) -> Long.compare(Long.parseLong(a.getKey()), Long.parseLong(b.getKey())));
+        indices.addAll(others);
+        return indices;
+    }
+
+    static boolean isArrayIndex(final String key) {
+        final int length = key.length();
+        if (length == 0 || length > 10 || (length > 1 && key.charAt(0) == '0')) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            final char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return Long.parseLong(key) < 0xFFFFFFFFL;
+    }
+
+    /**
+     * Format a double exactly as Javascript's Number.prototype.toString does.
+     */
+    public static String formatNumber(final double value) {
+        if (value == 0) {
+            return "0";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 9007199254740992.0) {
+            return Long.toString((long) value);
+        }
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "Infinity" : "-Infinity";
+        }
+
+        final BigDecimal decimal = new BigDecimal(Double.toString(Math.abs(value))).stripTrailingZeros();
+        final String digits = decimal.unscaledValue().toString();
+        final int k = digits.length();
+        final int n = k - decimal.scale();
+
+        final StringBuilder sb = new StringBuilder();
+        if (value < 0) {
+            sb.append('-');
+        }
+        if (k <= n && n <= 21) {
+            sb.append(digits);
+            for (int i = 0; i < n - k; i++) {
+                sb.append('0');
+            }
+        } else if (0 < n && n <= 21) {
+            sb.append(digits, 0, n).append('.').append(digits, n, k);
+        } else if (-6 < n && n <= 0) {
+            sb.append("0.");
+            for (int i = 0; i < -n; i++) {
+                sb.append('0');
+            }
+            sb.append(digits);
+        } else {
+            final int e = n - 1;
+            sb.append(digits.charAt(0));
+            if (k > 1) {
+                sb.append('.').append(digits, 1, k);
+            }
+            sb.append('e').append(e < 0 ? '-' : '+').append(Math.abs(e));
+        }
+        return sb.toString();
+    }
+
+    private void beforeMember() {
+        final int[] count = counts.get(counts.size() - 1);
+        if (count[0]++ > 0) {
+            out.append(',');
+        }
+        newline(counts.size());
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+        } else if (!counts.isEmpty()) {
+            beforeMember();
+        }
+    }
+
+    private void closeIndent() {
+        newline(counts.size());
+    }
+
+    private void newline(final int level) {
+        if (!space.isEmpty()) {
+            out.append('\n');
+            for (int i = 0; i < level; i++) {
+                out.append(space);
+            }
+        }
+    }
+
+    private void appendString(final String s) {
+        out.append('"');
+        final int length = s.length();
+        for (int i = 0; i < length; i++) {
+            final char c = s.charAt(i);
+            switch (c) {
+            case '"': out.append("\\\""); break;
+            case '\\': out.append("\\\\"); break;
+            case '\b': out.append("\\b"); break;
+            case '\f': out.append("\\f"); break;
+            case '\n': out.append("\\n"); break;
+            case '\r': out.append("\\r"); break;
+            case '\t': out.append("\\t"); break;
+            default:
+                if (c < 0x20) {
+                    appendUnicodeEscape(c);
+                } else if (Character.isHighSurrogate(c)) {
+                    if (i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                        out.append(c).append(s.charAt(++i));
+                    } else {
+                        appendUnicodeEscape(c);
+                    }
+                } else if (Character.isLowSurrogate(c)) {
+                    appendUnicodeEscape(c);
+                } else {
+                    out.append(c);
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    private void appendUnicodeEscape(final char c) {
+        final String hex = Integer.toHexString(c);
+        out.append("\\u");
+        for (int i = hex.length(); i < 4; i++) {
+            out.append('0');
+        }
+        out.append(hex);
+    }
+}
@@ -0,0 +1,74 @@
+package co.redseal.gremlinnode.io;
+
+import co.redseal.util.MappedFileInputStream;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONMapper;
+import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONReader;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Load and save "pretty" GraphSON: a single indented JSON array of vertices with embedded types, as produced by
+ * savePrettyGraphSON in ts-tinkerpop.ts.
+ */
+public class PrettyGraphSON {
+
+    private final static int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Create a GraphSONMapper that preserves types.
+     */
+    static public GraphSONMapper newMapper() {
+        return GraphSONMapper.build().embedTypes(true).create();
+    }
+
+    /**
+     * Load a pretty GraphSON file into the graph, streaming one vertex at a time.
+     */
+    static public Graph load(final Graph graph, final String filename) throws IOException {
+        try (final InputStream stream = new PrettyGraphSONInputStream(openFile(filename))) {
+            return load(graph, stream);
+        }
+    }
+
+    /**
+     * Load line-delimited GraphSON from the stream into the graph.  The stream is not closed.
+     * Use StringInputStream.from or StringInputStream.fromFile to stream from a String or a file with bounded memory.
+     */
+    static public Graph load(final Graph graph, final InputStream stream) throws IOException {
+        final GraphSONReader reader = GraphSONReader.build().mapper(newMapper()).create();
+        reader.readGraph(stream, graph);
+        return graph;
+    }
+
+    /**
+     * Save the graph to a file as pretty GraphSON, sorting in memory up to the default budget and spilling beyond it.
+     */
+    static public Graph save(final Graph graph, final String filename) throws IOException {
+        return save(graph, filename, new PrettyGraphSONWriter());
+    }
+
+    static public Graph save(final Graph graph, final String filename, final PrettyGraphSONWriter writer)
+        throws IOException {
+        try (final OutputStream stream = createFile(filename)) {
+            writer.writeGraph(stream, graph);
+        }
+        return graph;
+    }
+
+    static InputStream openFile(final String filename) throws IOException {
+        return new MappedFileInputStream(filename);
+    }
+
+    static OutputStream createFile(final String filename) throws IOException {
+        final FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.WRITE,
+                                                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        return new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,94 @@
+package co.redseal.gremlinnode.io;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Present "pretty" GraphSON, i.e. a single JSON array of vertices, as the line-delimited GraphSON that
+ * GraphSONReader expects.
+ *
+ * Vertices are parsed from the underlying stream one at a time as the reader asks for more input, so at most one
+ * vertex is held in memory here regardless of the size of the file.
+ */
+public class PrettyGraphSONInputStream extends InputStream {
+
+    private final static byte[] EMPTY = new byte[0];
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final InputStream source;
+    private final JsonParser parser;
+
+    private byte[] line = EMPTY;
+    private int position = 0;
+    private boolean exhausted = false;
+
+    public PrettyGraphSONInputStream(final InputStream source) throws IOException {
+        this.source = source;
+        this.parser = new JsonFactory(mapper).createParser(source);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Pretty GraphSON must be a JSON array of vertices");
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return line[position++] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        final int count = Math.min(length, line.length - position);
+        System.arraycopy(line, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return line.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+        source.close();
+    }
+
+    // Make sure there is at least one unread byte, parsing the next vertex if necessary.
+    // Returns false at the end of the array.
+    private boolean fill() throws IOException {
+        while (position == line.length) {
+            if (exhausted) {
+                return false;
+            }
+            final JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY || token == null) {
+                exhausted = true;
+                line = EMPTY;
+                position = 0;
+                return false;
+            }
+            final JsonNode vertex = mapper.readTree(parser);
+            final byte[] json = mapper.writeValueAsBytes(vertex);
+            line = new byte[json.length + 1];
+            System.arraycopy(json, 0, line, 0, json.length);
+            line[json.length] = '\n';
+            position = 0;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,355 @@
+package co.redseal.gremlinnode.io;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONWriter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Write a graph as "pretty" GraphSON: an indented JSON array of vertices with sorted keys, sorted adjacency lists
+ * and vertices sorted by id.  The output is identical to what savePrettyGraphSON in ts-tinkerpop.ts produced with
+ * json-stable-stringify.
+ *
+ * Each vertex is canonicalized and rendered as soon as it is read from the graph.  Rendered vertices are buffered up
+ * to a memory budget; beyond that, sorted runs are spilled to temporary files and merged at the end.
+ */
+public class PrettyGraphSONWriter {
+
+    public final static long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+    private final static String SPACE = "  ";
+    private final static String HASH_MAP = "java.util.HashMap";
+    private final static String ARRAY_LIST = "java.util.ArrayList";
+
+    // Javascript's localeCompare is used for same-length string ids; a US collator is the closest Java equivalent.
+    private final static Collator collator = Collator.getInstance(Locale.US);
+
+    private final long memoryBudget;
+    private final File spillDirectory;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final GraphSONWriter graphSONWriter = GraphSONWriter.build().mapper(PrettyGraphSON.newMapper()).create();
+
+    private int spillCount = 0;
+
+    public PrettyGraphSONWriter() {
+        this(DEFAULT_MEMORY_BUDGET);
+    }
+
+    public PrettyGraphSONWriter(final long memoryBudget) {
+        this(memoryBudget, new File(System.getProperty("java.io.tmpdir")));
+    }
+
+    public PrettyGraphSONWriter(final long memoryBudget, final File spillDirectory) {
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * The number of sorted runs spilled to disk by the most recent writeGraph.
+     */
+    public int getSpillCount() {
+        return spillCount;
+    }
+
+    /**
+     * Write the whole graph to the stream.  The stream is flushed but not closed.
+     */
+    public void writeGraph(final OutputStream outputStream, final Graph graph) throws IOException {
+        spillCount = 0;
+        final List<File> runs = new ArrayList<>();
+        // The spilled runs being merged, closed here in case writing fails before they are read to the end.
+        final List<FileRun> open = new ArrayList<>();
+        try {
+            final List<Rendered> buffer = new ArrayList<>();
+            long buffered = 0;
+            final Iterator<Vertex> vertices = graph.vertices();
+            while (vertices.hasNext()) {
+                final Rendered rendered = render(vertices.next());
+                buffer.add(rendered);
+                buffered += rendered.size();
+                if (buffered > memoryBudget) {
+                    runs.add(spill(buffer));
+                    buffer.clear();
+                    buffered = 0;
+                }
+            }
+            buffer.sort(RENDERED_ORDER);
+
+            final Writer writer = new OutputStreamWriter(outputStream, UTF_8);
+            writer.write('[');
+            boolean first = true;
+            final Iterator<Rendered> sorted = runs.isEmpty() ? buffer.iterator() : merge(runs, buffer, open);
+            while (sorted.hasNext()) {
+                if (!first) {
+                    writer.write(',');
+                }
+                first = false;
+                writer.write('\n');
+                writer.write(SPACE);
+                writer.write(sorted.next().text);
+            }
+            writer.write("\n]\n");
+            writer.flush();
+        } finally {
+            for (FileRun run : open) {
+                try {
+                    run.close();
+                } catch (IOException e) {
+                    // The run was only read; the file is deleted below regardless.
+                }
+            }
+            for (File run : runs) {
+                run.delete();
+            }
+        }
+    }
+
+    // One vertex, canonicalized and rendered at the indentation of an element of the top-level array.
+    private Rendered render(final Vertex vertex) throws IOException {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        graphSONWriter.writeVertex(stream, vertex, Direction.BOTH);
+        final JsonNode node = mapper.readTree(stream.toByteArray());
+        if (!smellsLikeAnElement(node)) {
+            throw new IOException("GraphSONWriter produced something other than a vertex: " + node);
+        }
+        sortPropertyContainers(node);
+
+        final JsonWriter json = new JsonWriter(SPACE);
+        writeStable(json, node);
+        return new Rendered(node.get("id"), json.toString().replace("\n", "\n" + SPACE));
+    }
+
+    // Mirrors _sortPropertyContainers/_sortElements in ts-tinkerpop.ts.
+    private static void sortPropertyContainers(final JsonNode vertex) {
+        for (JsonNode container : vertex) {
+            if (smellsLikeAPropertyContainer(container)) {
+                for (JsonNode value : container) {
+                    if (smellsLikeArrayOfElements(value)) {
+                        final ArrayNode elements = (ArrayNode) value.get(1);
+                        final List<JsonNode> sorted = new ArrayList<>();
+                        elements.forEach(sorted::add);
+                        sorted.sort(PrettyGraphSONWriter::compareById);
+                        elements.removeAll();
+                        elements.addAll(sorted);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean smellsLikeAPropertyContainer(final JsonNode node) {
+        return node.isObject() && node.has("@class") && HASH_MAP.equals(node.get("@class").asText(null));
+    }
+
+    private static boolean smellsLikeAnElement(final JsonNode node) {
+        return smellsLikeAPropertyContainer(node) && node.has("id");
+    }
+
+    private static boolean smellsLikeArrayOfElements(final JsonNode node) {
+        return node.isArray() && node.size() > 1
+            && node.get(0).isTextual() && ARRAY_LIST.equals(node.get(0).asText())
+            && node.get(1).isArray() && node.get(1).size() > 0 && smellsLikeAnElement(node.get(1).get(0));
+    }
+
+    static int compareById(final JsonNode a, final JsonNode b) {
+        return compareIds(a.get("id"), b.get("id"));
+    }
+
+    // Mirrors _compareIds in ts-tinkerpop.ts.
+    static int compareIds(final JsonNode a, final JsonNode b) {
+        if (a.isNumber() && b.isNumber()) {
+            final double difference = a.asDouble() - b.asDouble();
+            return difference < 0 ? -1 : difference > 0 ? 1 : 0;
+        } else if (a.isTextual() && b.isTextual()) {
+            // Even with strings, we prefer numeric sort semantics, i.e. a shorter string is always less.
+            final String as = a.asText();
+            final String bs = b.asText();
+            return as.length() == bs.length() ? collator.compare(as, bs) : as.length() - bs.length();
+        } else if (a.isArray() && b.isArray() && a.size() == 2 && b.size() == 2 && a.get(0).equals(b.get(0))) {
+            // Handles typed ids like: "id": [ "java.lang.Long", 16 ]
+            return compareIds(a.get(1), b.get(1));
+        } else {
+            throw new IllegalArgumentException("Unexpected element ids: " + a + ", " + b);
+        }
+    }
+
+    // Mirrors json-stable-stringify: object keys sorted, every number a Javascript double.
+    private static void writeStable(final JsonWriter json, final JsonNode node) {
+        if (node.isObject()) {
+            final TreeMap<String, JsonNode> fields = new TreeMap<>();
+            node.fields().forEachRemaining(field -> fields.put(field.getKey(), field.getValue()));
+            json.beginObject();
+            for (Map.Entry<String, JsonNode> field : fields.entrySet()) {
+                json.name(field.getKey());
+                writeStable(json, field.getValue());
+            }
+            json.endObject();
+        } else if (node.isArray()) {
+            json.beginArray();
+            for (JsonNode element : node) {
+                writeStable(json, element);
+            }
+            json.endArray();
+        } else if (node.isNumber()) {
+            json.value(node.asDouble());
+        } else if (node.isBoolean()) {
+            json.value(node.asBoolean());
+        } else if (node.isNull()) {
+            json.nullValue();
+        } else {
+            json.value(node.asText());
+        }
+    }
+
+    private File spill(final List<Rendered> buffer) throws IOException {
+        buffer.sort(RENDERED_ORDER);
+        final File run = File.createTempFile("pretty-graphson-", ".run", spillDirectory);
+        run.deleteOnExit();
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run)))) {
+            for (Rendered rendered : buffer) {
+                writeBytes(out, mapper.writeValueAsBytes(rendered.id));
+                writeBytes(out, rendered.text.getBytes(UTF_8));
+            }
+        }
+        spillCount++;
+        return run;
+    }
+
+    private static void writeBytes(final DataOutputStream out, final byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // Merge the spilled runs with the final in-memory buffer, adding each run opened to the given list.
+    private Iterator<Rendered> merge(final List<File> runs, final List<Rendered> buffer, final List<FileRun> open)
+        throws IOException {
+        final PriorityQueue<Run> heads = new PriorityQueue<>((x, y) -> RENDERED_ORDER.compare(x.head, y.head));
+        for (File file : runs) {
+            final FileRun run = new FileRun(file);
+            open.add(run);
+            if (run.advance()) {
+                heads.add(run);
+            }
+        }
+        final Run memory = new MemoryRun(buffer.iterator());
+        if (memory.advance()) {
+            heads.add(memory);
+        }
+
+        return new Iterator<Rendered>() {
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            public Rendered next() {
+                final Run run = heads.poll();
+                final Rendered head = run.head;
+                try {
+                    if (run.advance()) {
+                        heads.add(run);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return head;
+            }
+        };
+    }
+
+    private final static Comparator<Rendered> RENDERED_ORDER = (x, y) -> compareIds(x.id, y.id);
+
+    private final static class Rendered {
+        final JsonNode id;
+        final String text;
+
+        Rendered(final JsonNode id, final String text) {
+            this.id = id;
+            this.text = text;
+        }
+
+        long size() {
+            return 2L * text.length() + 64;
+        }
+    }
+
+    private abstract static class Run {
+        Rendered head;
+
+        // Move to the next element, returning false (and closing) when there are none.
+        abstract boolean advance() throws IOException;
+    }
+
+    private final static class MemoryRun extends Run {
+        private final Iterator<Rendered> iterator;
+
+        MemoryRun(final Iterator<Rendered> iterator) {
+            this.iterator = iterator;
+        }
+
+        boolean advance() {
+            head = iterator.hasNext() ? iterator.next() : null;
+            return head != null;
+        }
+    }
+
+    private final class FileRun extends Run implements Closeable {
+        private final DataInputStream in;
+
+        FileRun(final File file) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        }
+
+        boolean advance() throws IOException {
+            final byte[] id;
+            try {
+                id = readBytes();
+            } catch (EOFException e) {
+                in.close();
+                head = null;
+                return false;
+            }
+            head = new Rendered(mapper.readTree(id), new String(readBytes(), UTF_8));
+            return true;
+        }
+
+        // Closeable.close
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private byte[] readBytes() throws IOException {
+            final byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return bytes;
+        }
+    }
+}
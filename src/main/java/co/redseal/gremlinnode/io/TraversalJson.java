@@ -0,0 +1,255 @@
+package co.redseal.gremlinnode.io;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.BulkSet;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONMapper;
+import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONWriter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Export the results of a traversal as JSON in a single call.
+ *
+ * The output is identical to what `traversalToJson` in ts-tinkerpop.ts produces by walking the results across the
+ * node-java bridge:
+ * - Long values become strings (as jsify does with longValue_t), other numbers stay numbers.
+ * - List, Set and arrays become arrays; Map becomes an object; Map.Entry becomes {key, value}.
+ * - BulkSet becomes an array of {key, count}; Path becomes an array of {object, labels} with sorted labels.
+ * - Vertex and Edge are written with the default GraphSONWriter, or by an ElementProjection if one is given;
+ *   nested traversals are drained.
+ * - Anything else becomes {javaClass, toString}.
+ */
+public class TraversalJson {
+
+    private final GraphSONWriter graphSONWriter = GraphSONWriter.build().create();
+    private final ObjectMapper mapper = GraphSONMapper.build().create().createMapper();
+    private final JsonWriter json;
+    private final ElementProjection projection;
+
+    private TraversalJson(final JsonWriter json, final ElementProjection projection) {
+        this.json = json;
+        this.projection = projection;
+    }
+
+    /**
+     * Drain the traversal, returning a JSON array of its results.
+     */
+    static public String traversalToJson(final Traversal traversal) {
+        return traversalToJson(traversal, null);
+    }
+
+    /**
+     * As traversalToJson, but vertices and edges are written by *projection* (if not null) rather than as GraphSON.
+     */
+    static public String traversalToJson(final Traversal traversal, final ElementProjection projection) {
+        final JsonWriter json = new JsonWriter();
+        new TraversalJson(json, projection).writeTraversal(traversal);
+        return json.toString();
+    }
+
+    /**
+     * As traversalToJson, but returns UTF-8 encoded bytes.
+     */
+    static public byte[] traversalToJsonBytes(final Traversal traversal) {
+        return traversalToJson(traversal).getBytes(UTF_8);
+    }
+
+    /**
+     * Convert any single object to its JSON representation, following the same rules as asJSON.
+     */
+    static public String asJson(final Object object) {
+        final JsonWriter json = new JsonWriter();
+        new TraversalJson(json, null).write(object);
+        return json.toString();
+    }
+
+    private void writeTraversal(final Traversal traversal) {
+        json.beginArray();
+        while (traversal.hasNext()) {
+            write(traversal.next());
+        }
+        json.endArray();
+    }
+
+    private void write(final Object object) {
+        if (object == null) {
+            json.nullValue();
+        } else if (object instanceof String || object instanceof Character) {
+            json.value(object.toString());
+        } else if (object instanceof Boolean) {
+            json.value((boolean) (Boolean) object);
+        } else if (object instanceof Long) {
+            json.value(object.toString());
+        } else if (isJavascriptNumber(object)) {
+            json.value(((Number) object).doubleValue());
+        } else if (object.getClass().isArray()) {
+            json.beginArray();
+            final int length = Array.getLength(object);
+            for (int i = 0; i < length; i++) {
+                write(Array.get(object, i));
+            }
+            json.endArray();
+        } else if (object instanceof List) {
+            writeCollection((List) object);
+        } else if (object instanceof Map) {
+            writeMap((Map<?, ?>) object);
+        } else if (object instanceof Map.Entry) {
+            final Map.Entry entry = (Map.Entry) object;
+            json.beginObject();
+            json.name("key");
+            write(entry.getKey());
+            json.name("value");
+            write(entry.getValue());
+            json.endObject();
+        } else if (object instanceof BulkSet) {
+            writeBulkSet((BulkSet) object);
+        } else if (object instanceof Set) {
+            writeCollection((Set) object);
+        } else if (object instanceof Path) {
+            writePath((Path) object);
+        } else if ((object instanceof Vertex || object instanceof Edge) && projection != null) {
+            projection.write(json, (Element) object);
+        } else if (object instanceof Vertex) {
+            writeGraphSON(object);
+        } else if (object instanceof Edge) {
+            writeGraphSON(object);
+        } else if (object instanceof Traversal) {
+            writeTraversal((Traversal) object);
+        } else {
+            json.beginObject();
+            json.name("javaClass").value(object.getClass().getName());
+            json.name("toString").value(object.toString());
+            json.endObject();
+        }
+    }
+
+    private void writeCollection(final Collection collection) {
+        json.beginArray();
+        for (Object element : collection) {
+            write(element);
+        }
+        json.endArray();
+    }
+
+    private void writeMap(final Map<?, ?> map) {
+        // Javascript converts every key to a string, so distinct Java keys may collide.  The last one wins, but keeps
+        // the position of the first.
+        final LinkedHashMap<String, Object> members = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            members.put(keyString(entry.getKey()), entry.getValue());
+        }
+        json.beginObject();
+        for (Map.Entry<String, Object> member : JsonWriter.orderKeys(members.entrySet())) {
+            json.name(member.getKey());
+            write(member.getValue());
+        }
+        json.endObject();
+    }
+
+    private void writeBulkSet(final BulkSet bulkSet) {
+        json.beginArray();
+        final Iterator it = bulkSet.iterator();
+        while (it.hasNext()) {
+            final Object key = it.next();
+            json.beginObject();
+            json.name("key");
+            write(key);
+            json.name("count").value(Long.toString(bulkSet.get(key)));
+            json.endObject();
+        }
+        json.endArray();
+    }
+
+    private void writePath(final Path path) {
+        final List<Object> objects = path.objects();
+        final List<Set<String>> labels = path.labels();
+        json.beginArray();
+        for (int i = 0; i < objects.size(); i++) {
+            final List<String> sorted = new ArrayList<>(labels.get(i));
+            sorted.sort(null);
+            json.beginObject();
+            json.name("object");
+            write(objects.get(i));
+            json.name("labels");
+            writeCollection(sorted);
+            json.endObject();
+        }
+        json.endArray();
+    }
+
+    private void writeGraphSON(final Object element) {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try {
+            if (element instanceof Vertex) {
+                graphSONWriter.writeVertex(stream, (Vertex) element);
+            } else {
+                graphSONWriter.writeEdge(stream, (Edge) element);
+            }
+            writeNode(mapper.readTree(stream.toByteArray()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Re-emit a parsed GraphSON tree as Javascript would after JSON.parse: all numbers are doubles and integer-like
+    // keys move to the front.
+    private void writeNode(final JsonNode node) {
+        if (node.isObject()) {
+            final List<Map.Entry<String, JsonNode>> fields = new ArrayList<>();
+            node.fields().forEachRemaining(fields::add);
+            json.beginObject();
+            for (Map.Entry<String, JsonNode> field : JsonWriter.orderKeys(fields)) {
+                json.name(field.getKey());
+                writeNode(field.getValue());
+            }
+            json.endObject();
+        } else if (node.isArray()) {
+            json.beginArray();
+            for (JsonNode element : node) {
+                writeNode(element);
+            }
+            json.endArray();
+        } else if (node.isNumber()) {
+            json.value(node.asDouble());
+        } else if (node.isBoolean()) {
+            json.value(node.asBoolean());
+        } else if (node.isNull()) {
+            json.nullValue();
+        } else {
+            json.value(node.asText());
+        }
+    }
+
+    // The string a Javascript object key would get for a Java map key returned through node-java.
+    private static String keyString(final Object key) {
+        if (key instanceof Long) {
+            return JsonWriter.formatNumber(((Long) key).doubleValue());
+        } else if (isJavascriptNumber(key)) {
+            return JsonWriter.formatNumber(((Number) key).doubleValue());
+        } else {
+            return String.valueOf(key);
+        }
+    }
+
+    // node-java converts these boxed types to Javascript numbers.
+    private static boolean isJavascriptNumber(final Object object) {
+        return object instanceof Integer || object instanceof Double || object instanceof Float
+            || object instanceof Short || object instanceof Byte;
+    }
+}
@@ -0,0 +1,230 @@
+package co.redseal.gremlinnode.traversal;
+
+import co.redseal.gremlinnode.io.TraversalJson;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.DedupGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TailGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MaxGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MeanGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MinGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectCapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.AggregateStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.BulkSet;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.CollectingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.SupplyingBarrierStep;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Run an anonymous traversal template, e.g. `__.out("created").groupCount().by("name")`, in parallel over a graph.
+ *
+ * The start vertices are sorted by id and split into contiguous id ranges, one per partition.  Each partition runs
+ * its own copy of the template from its vertices in a ForkJoinPool, and the partial results are merged:
+ * - If the template ends in a reducing step (count, sum, max, min, fold, groupCount, group) or a cap, each partition
+ *   yields one value and these are combined: numbers are added (or compared, for max and min), maps are merged
+ *   key by key, BulkSets are merged with their bulks and other collections are concatenated.
+ * - Otherwise the partitions' results are concatenated in id order.
+ *
+ * The template must give the same answer when applied to a partition of the start vertices, so steps like inject
+ * happen once per partition.  Steps that see every traverser at once cannot be merged this way and are rejected with
+ * an IllegalArgumentException: dedup, order, sample, limit, range and tail, a reducing step or cap anywhere but at
+ * the end, and mean even there.  The same goes for these steps inside a global child traversal, such as a union or
+ * choose branch, but not inside a local one such as local(...) or a by(...) modulator.  Lambdas in the template are
+ * called from several threads; use GroovyLambda.threadSafe for closures that change their own state.
+ */
+public class ParallelTraversalRunner {
+
+    private final Graph graph;
+    private final int partitions;
+    private final ForkJoinPool pool;
+
+    public ParallelTraversalRunner(final Graph graph, final int partitions) {
+        this(graph, partitions, ForkJoinPool.commonPool());
+    }
+
+    public ParallelTraversalRunner(final Graph graph, final int partitions, final ForkJoinPool pool) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("ParallelTraversalRunner needs at least one partition: " + partitions);
+        }
+        this.graph = graph;
+        this.partitions = partitions;
+        this.pool = pool;
+    }
+
+    /**
+     * Run the template over the whole graph with the given number of partitions, returning the merged results.
+     */
+    static public List<Object> run(final Graph graph, final Traversal template, final int partitions) {
+        return new ParallelTraversalRunner(graph, partitions).run(template);
+    }
+
+    /**
+     * As run, but returns the merged results as JSON following the rules of TraversalJson, so that the results
+     * cross the node-java bridge in a single call.
+     */
+    static public String runToJson(final Graph graph, final Traversal template, final int partitions) {
+        return TraversalJson.asJson(run(graph, template, partitions));
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public List<Object> run(final Traversal template) {
+        final Traversal.Admin<?, ?> admin = template.asAdmin();
+        if (!admin.getSteps().isEmpty() && admin.getSteps().get(0) instanceof GraphStep) {
+            throw new IllegalArgumentException("Template must be an anonymous traversal, not start with V() or E(): "
+                                               + template);
+        }
+        final Step<?, ?> last = admin.getEndStep();
+        if (last instanceof MeanGlobalStep) {
+            throw new IllegalArgumentException("mean() cannot be merged across partitions: " + template);
+        }
+        checkMergeable(admin, true, template);
+
+        final List<Object[]> ranges = partition();
+        final List<ForkJoinTask<List<Object>>> tasks = new ArrayList<>();
+        for (Object[] ids : ranges) {
+            tasks.add(pool.submit(() -> drain(template, ids)));
+        }
+
+        final boolean reducing = last instanceof ReducingBarrierStep || last instanceof SideEffectCapStep;
+        final List<Object> merged = new ArrayList<>();
+        for (ForkJoinTask<List<Object>> task : tasks) {
+            final List<Object> partial = task.join();
+            if (reducing && !merged.isEmpty() && !partial.isEmpty()) {
+                merged.set(0, merge(merged.get(0), partial.get(0), last));
+            } else {
+                merged.addAll(partial);
+            }
+        }
+        return merged;
+    }
+
+    // Reject steps whose results depend on seeing every traverser, in the template and its global children.
+    private static void checkMergeable(final Traversal.Admin<?, ?> traversal, final boolean top,
+                                       final Traversal template) {
+        final List<Step> steps = traversal.getSteps();
+        for (int i = 0; i < steps.size(); i++) {
+            final Step<?, ?> step = steps.get(i);
+            final boolean last = top && i == steps.size() - 1;
+            final boolean unmergeable = step instanceof DedupGlobalStep || step instanceof RangeGlobalStep
+                || step instanceof TailGlobalStep
+                || (step instanceof SupplyingBarrierStep && !(step instanceof SideEffectCapStep))
+                || (step instanceof CollectingBarrierStep && !(step instanceof AggregateStep))
+                || ((step instanceof ReducingBarrierStep || step instanceof SideEffectCapStep) && !last);
+            if (unmergeable) {
+                throw new IllegalArgumentException(step + " cannot be merged across partitions: " + template);
+            }
+            if (step instanceof TraversalParent) {
+                for (Traversal.Admin<?, ?> child : ((TraversalParent) step).getGlobalChildren()) {
+                    checkMergeable(child, false, template);
+                }
+            }
+        }
+    }
+
+    /**
+     * The vertex ids of each partition, in ascending id order.  There are never more partitions than vertices, and
+     * an empty graph has one empty partition.
+     */
+    List<Object[]> partition() {
+        final List<Object> ids = new ArrayList<>();
+        graph.vertices().forEachRemaining(vertex -> ids.add(vertex.id()));
+        ids.sort(ID_ORDER);
+
+        final List<Object[]> ranges = new ArrayList<>();
+        if (ids.isEmpty()) {
+            ranges.add(new Object[0]);
+            return ranges;
+        }
+        final int count = Math.min(partitions, ids.size());
+        for (int i = 0; i < count; i++) {
+            final int from = (int) ((long) ids.size() * i / count);
+            final int to = (int) ((long) ids.size() * (i + 1) / count);
+            ranges.add(ids.subList(from, to).toArray());
+        }
+        return ranges;
+    }
+
+    // Run a copy of the template starting from the given vertices.
+    private List<Object> drain(final Traversal template, final Object[] ids) {
+        final Traversal.Admin<?, ?> copy = template.asAdmin().clone();
+        // An empty id array would mean every vertex; that only happens for an empty graph.
+        // The appended steps change the end type, so the start traversal is not a Traversal<Vertex, Vertex>.
+        final Traversal.Admin<Vertex, ?> start = (Traversal.Admin) graph.traversal().V(ids).asAdmin();
+        start.setSideEffects(copy.getSideEffects());
+        for (Step step : new ArrayList<>(copy.getSteps())) {
+            start.addStep(step);
+        }
+        final List<Object> results = new ArrayList<>();
+        while (start.hasNext()) {
+            results.add(start.next());
+        }
+        return results;
+    }
+
+    static Object merge(final Object a, final Object b, final Step<?, ?> last) {
+        if (a instanceof Number && b instanceof Number) {
+            final Number x = (Number) a;
+            final Number y = (Number) b;
+            if (last instanceof MaxGlobalStep) {
+                return x.doubleValue() >= y.doubleValue() ? x : y;
+            } else if (last instanceof MinGlobalStep) {
+                return x.doubleValue() <= y.doubleValue() ? x : y;
+            } else if (isIntegral(x) && isIntegral(y)) {
+                return x instanceof Integer && y instanceof Integer
+                    ? (Object) (x.intValue() + y.intValue()) : (Object) (x.longValue() + y.longValue());
+            } else {
+                return x.doubleValue() + y.doubleValue();
+            }
+        } else if (a instanceof Map && b instanceof Map) {
+            final Map<Object, Object> map = new HashMap<>((Map<?, ?>) a);
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) b).entrySet()) {
+                map.merge(entry.getKey(), entry.getValue(), (x, y) -> merge(x, y, last));
+            }
+            return map;
+        } else if (a instanceof BulkSet && b instanceof BulkSet) {
+            final BulkSet<Object> bulkSet = new BulkSet<>();
+            ((BulkSet<Object>) a).forEach((Object value, Long bulk) -> bulkSet.add(value, bulk));
+            ((BulkSet<Object>) b).forEach((Object value, Long bulk) -> bulkSet.add(value, bulk));
+            return bulkSet;
+        } else if (a instanceof Collection && b instanceof Collection) {
+            final List<Object> list = new ArrayList<>((Collection<?>) a);
+            list.addAll((Collection<?>) b);
+            return list;
+        } else if (a == null ? b == null : a.equals(b)) {
+            return a;
+        }
+        throw new IllegalStateException("Cannot merge partial results " + a + " and " + b);
+    }
+
+    private static boolean isIntegral(final Number number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte;
+    }
+
+    // Numeric ids in numeric order, then everything else by string value.
+    private final static Comparator<Object> ID_ORDER = (a, b) -> {
+        if (a instanceof Number && b instanceof Number) {
+            return Double.compare(((Number) a).doubleValue(), ((Number) b).doubleValue());
+        } else if (a instanceof Number) {
+            return -1;
+        } else if (b instanceof Number) {
+            return 1;
+        }
+        return a.toString().compareTo(b.toString());
+    };
+}
@@ -0,0 +1,132 @@
+package co.redseal.gremlinnode.traversal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Drain any Iterator (including a Traversal) in batches, so that a Javascript consumer makes one bridge call per
+ * batch rather than two (hasNext and next) per element.
+ *
+ * With prefetch enabled, the next batch is drained on a background thread while the caller processes the current
+ * one.  The wrapped iterator is only ever touched by one thread at a time.
+ */
+public class TraversalBatcher implements AutoCloseable {
+
+    public final static int DEFAULT_BATCH_SIZE = 1000;
+
+    private final static ExecutorService prefetcher = Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "TraversalBatcher-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Iterator iterator;
+    private final int batchSize;
+    private final boolean prefetch;
+
+    // The batch that the next call to nextBatch() will return, if already drained.
+    private List<Object> peeked;
+
+    // A batch being drained in the background.
+    private Future<List<Object>> pending;
+
+    public TraversalBatcher(final Iterator iterator) {
+        this(iterator, DEFAULT_BATCH_SIZE, false);
+    }
+
+    public TraversalBatcher(final Iterator iterator, final int batchSize) {
+        this(iterator, batchSize, false);
+    }
+
+    public TraversalBatcher(final Iterator iterator, final int batchSize, final boolean prefetch) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("TraversalBatcher batch size must be positive: " + batchSize);
+        }
+        this.iterator = iterator;
+        this.batchSize = batchSize;
+        this.prefetch = prefetch;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public boolean isPrefetching() {
+        return prefetch;
+    }
+
+    /**
+     * Returns true if another call to nextBatch() will return at least one element.
+     */
+    public synchronized boolean hasNext() {
+        return !peek().isEmpty();
+    }
+
+    /**
+     * Returns up to batchSize elements.  An empty list means the iterator is exhausted.
+     */
+    public synchronized List<Object> nextBatch() {
+        final List<Object> batch = peek();
+        peeked = null;
+        if (prefetch && batch.size() == batchSize) {
+            pending = prefetcher.submit(this::drain);
+        }
+        return batch;
+    }
+
+    /**
+     * As nextBatch(), but as an array, which node-java converts to a Javascript array in one step.
+     */
+    public Object[] nextArray() {
+        return nextBatch().toArray();
+    }
+
+    /**
+     * Abandon any batch being prefetched.
+     */
+    @Override
+    public synchronized void close() {
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+        peeked = new ArrayList<>(0);
+    }
+
+    private List<Object> peek() {
+        if (peeked == null) {
+            if (pending != null) {
+                try {
+                    peeked = pending.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for prefetched batch", e);
+                } catch (ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new IllegalStateException(cause);
+                } finally {
+                    pending = null;
+                }
+            } else {
+                peeked = drain();
+            }
+        }
+        return peeked;
+    }
+
+    private List<Object> drain() {
+        final List<Object> batch = new ArrayList<>(batchSize);
+        while (batch.size() < batchSize && iterator.hasNext()) {
+            batch.add(iterator.next());
+        }
+        return batch;
+    }
+}
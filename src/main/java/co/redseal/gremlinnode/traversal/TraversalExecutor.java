@@ -0,0 +1,395 @@
+package co.redseal.gremlinnode.traversal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Run traversals (or any Iterator) on a dedicated, bounded pool of Java threads, rather than on the libuv threads
+ * that node-java uses for its asynchronous calls, so that long traversals cannot starve other bridge calls.
+ *
+ * submit() returns an Execution at once.  Its results are buffered in a bounded queue, which the caller drains with
+ * cheap, non-blocking poll() calls; a full queue stalls the traversal until the caller catches up.  An execution can
+ * be cancelled, and may have a timeout.  Both take effect between results, since traversal steps in this version of
+ * TinkerPop do not check for interruption.
+ */
+public class TraversalExecutor implements AutoCloseable {
+
+    public final static int DEFAULT_QUEUE_CAPACITY = 1000;
+    public final static int DEFAULT_MAX_WAITING = 1000;
+
+    // Stands in for null results, which a BlockingQueue cannot hold.
+    private final static Object NULL = new Object();
+
+    // How often a worker blocked on a full queue checks for cancellation and timeout.
+    private final static long OFFER_SLICE_MILLIS = 10;
+
+    private final ThreadPoolExecutor pool;
+    private final int queueCapacity;
+
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong cancelledCount = new AtomicLong();
+    private final AtomicLong timedOutCount = new AtomicLong();
+    private final AtomicLong startedCount = new AtomicLong();
+    private final AtomicLong totalQueueWaitNanos = new AtomicLong();
+    private final AtomicLong finishedCount = new AtomicLong();
+    private final AtomicLong totalRunNanos = new AtomicLong();
+
+    public TraversalExecutor() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_WAITING);
+    }
+
+    public TraversalExecutor(final int threads) {
+        this(threads, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_WAITING);
+    }
+
+    /**
+     * @param threads the number of traversals that may run at once
+     * @param queueCapacity the number of results each execution buffers before its traversal stalls
+     * @param maxWaiting the number of submitted traversals that may wait for a thread before submit() rejects more
+     */
+    public TraversalExecutor(final int threads, final int queueCapacity, final int maxWaiting) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("TraversalExecutor threads must be positive: " + threads);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("TraversalExecutor queue capacity must be positive: " + queueCapacity);
+        }
+        if (maxWaiting < 1) {
+            throw new IllegalArgumentException("TraversalExecutor max waiting must be positive: " + maxWaiting);
+        }
+        this.queueCapacity = queueCapacity;
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                                           new LinkedBlockingQueue<>(maxWaiting), runnable -> {
+            final Thread thread = new Thread(runnable, "TraversalExecutor-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start draining the iterator on the pool, with no timeout.
+     *
+     * @throws RejectedExecutionException if maxWaiting executions are already waiting for a thread
+     */
+    public Execution submit(final Iterator iterator) {
+        return submit(iterator, 0);
+    }
+
+    /**
+     * Start draining the iterator on the pool.  If it has not finished timeoutMillis after submission (or 0 for no
+     * timeout), it is stopped and poll() reports a TimeoutException once the buffered results are drained.
+     *
+     * @throws RejectedExecutionException if maxWaiting executions are already waiting for a thread
+     */
+    public Execution submit(final Iterator iterator, final long timeoutMillis) {
+        final Execution execution = new Execution(iterator, timeoutMillis);
+        execution.future = pool.submit(execution::run);
+        submittedCount.incrementAndGet();
+        return execution;
+    }
+
+    public int getThreads() {
+        return pool.getMaximumPoolSize();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * The number of executions running now.
+     */
+    public int getActiveCount() {
+        return pool.getActiveCount();
+    }
+
+    /**
+     * The number of executions waiting for a thread.
+     */
+    public int getWaitingCount() {
+        return pool.getQueue().size();
+    }
+
+    public long getSubmittedCount() {
+        return submittedCount.get();
+    }
+
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public long getCancelledCount() {
+        return cancelledCount.get();
+    }
+
+    public long getTimedOutCount() {
+        return timedOutCount.get();
+    }
+
+    /**
+     * The mean time from submission until an execution got a thread.
+     */
+    public double getAverageQueueWaitMillis() {
+        final long count = startedCount.get();
+        return count == 0 ? 0 : totalQueueWaitNanos.get() / 1e6 / count;
+    }
+
+    /**
+     * The mean time from getting a thread to finishing, including any time stalled on a full result queue.
+     */
+    public double getAverageRunMillis() {
+        final long count = finishedCount.get();
+        return count == 0 ? 0 : totalRunNanos.get() / 1e6 / count;
+    }
+
+    /**
+     * Stop every execution and the pool's threads.
+     */
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    public String toString() {
+        return "TraversalExecutor(threads=" + getThreads() + ", active=" + getActiveCount()
+            + ", waiting=" + getWaitingCount() + ", submitted=" + submittedCount.get()
+            + ", completed=" + completedCount.get() + ", failed=" + failedCount.get()
+            + ", cancelled=" + cancelledCount.get() + ", timedOut=" + timedOutCount.get()
+            + ", averageQueueWaitMillis=" + getAverageQueueWaitMillis()
+            + ", averageRunMillis=" + getAverageRunMillis() + ")";
+    }
+
+    /**
+     * One submitted traversal and its buffered results.
+     */
+    public class Execution {
+        private final Iterator iterator;
+        private final long submittedNanos = System.nanoTime();
+        private final long deadlineNanos;
+        private final BlockingQueue<Object> results = new ArrayBlockingQueue<>(queueCapacity);
+
+        private volatile Future<?> future;
+        private volatile boolean finished = false;
+        private volatile boolean cancelled = false;
+        private volatile Throwable failure = null;
+        private volatile boolean failureReported = false;
+        private volatile long startedNanos = 0;
+        private volatile long finishedNanos = 0;
+        private final AtomicLong produced = new AtomicLong();
+
+        // Set once the outcome (completed, failed, cancelled or timed out) has been counted.
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Execution(final Iterator iterator, final long timeoutMillis) {
+            this.iterator = iterator;
+            this.deadlineNanos = timeoutMillis > 0 ? submittedNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0;
+        }
+
+        /**
+         * Take up to max buffered results without waiting.  An empty array means none are buffered yet, or, if
+         * isDone(), that there will be no more.  Once the results are drained, a traversal that failed or timed out
+         * throws its exception here.
+         */
+        public Object[] poll(final int max) {
+            return poll(max, 0);
+        }
+
+        /**
+         * As poll(max), but waits up to waitMillis for the first result.  This blocks the calling thread, so from
+         * Javascript prefer poll(max) on a timer over a waiting pollP.
+         */
+        public Object[] poll(final int max, final long waitMillis) {
+            if (max < 1) {
+                throw new IllegalArgumentException("Poll size must be positive: " + max);
+            }
+            // Read finished before draining: results are queued before finished is set, so none can be missed.
+            boolean wasFinished = finished;
+            final List<Object> batch = new ArrayList<>(Math.min(max, queueCapacity));
+            try {
+                final Object first = waitMillis > 0 ? results.poll(waitMillis, TimeUnit.MILLISECONDS)
+                    : results.poll();
+                if (first != null) {
+                    batch.add(first);
+                    results.drainTo(batch, max - 1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while polling for results", e);
+            }
+            if (batch.isEmpty()) {
+                if (!wasFinished && !cancelled && isPastDeadline()) {
+                    timeOut();
+                    wasFinished = finished;
+                }
+                if (wasFinished && failure != null) {
+                    failureReported = true;
+                    if (failure instanceof RuntimeException) {
+                        throw (RuntimeException) failure;
+                    }
+                    throw new IllegalStateException(failure);
+                }
+            }
+            final Object[] array = batch.toArray();
+            for (int i = 0; i < array.length; i++) {
+                if (array[i] == NULL) {
+                    array[i] = null;
+                }
+            }
+            return array;
+        }
+
+        /**
+         * True once every result has been polled (and any failure thrown by poll), or the execution was cancelled.
+         */
+        public boolean isDone() {
+            return cancelled || (finished && results.isEmpty() && (failure == null || failureReported));
+        }
+
+        /**
+         * Stop the traversal and discard its buffered results.  Returns false if it had already finished.
+         */
+        public boolean cancel() {
+            if (!settled.compareAndSet(false, true)) {
+                return false;
+            }
+            cancelled = true;
+            cancelledCount.incrementAndGet();
+            future.cancel(true);
+            results.clear();
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * The number of results buffered and not yet polled.
+         */
+        public int getQueueDepth() {
+            return results.size();
+        }
+
+        /**
+         * The number of results produced by the traversal so far.
+         */
+        public long getResultCount() {
+            return produced.get();
+        }
+
+        /**
+         * The time from submission until a thread picked the execution up, or until now if none has yet.
+         */
+        public double getQueueWaitMillis() {
+            final long start = startedNanos;
+            return ((start == 0 ? System.nanoTime() : start) - submittedNanos) / 1e6;
+        }
+
+        /**
+         * The time since a thread picked the execution up until it finished (or until now), or 0 if not started.
+         */
+        public double getRunMillis() {
+            final long start = startedNanos;
+            if (start == 0) {
+                return 0;
+            }
+            final long end = finishedNanos;
+            return ((end == 0 ? System.nanoTime() : end) - start) / 1e6;
+        }
+
+        private void run() {
+            startedNanos = System.nanoTime();
+            startedCount.incrementAndGet();
+            totalQueueWaitNanos.addAndGet(startedNanos - submittedNanos);
+            try {
+                checkStopping();
+                while (iterator.hasNext()) {
+                    final Object next = iterator.next();
+                    offer(next == null ? NULL : next);
+                    checkStopping();
+                }
+            } catch (InterruptedException e) {
+                // Cancelled, or the pool is shutting down.
+                if (settled.compareAndSet(false, true)) {
+                    cancelled = true;
+                    cancelledCount.incrementAndGet();
+                }
+            } catch (Throwable t) {
+                // Keep a timeout already reported by poll() rather than whatever the interrupted traversal threw.
+                if (failure == null) {
+                    failure = t;
+                }
+            } finally {
+                finishedNanos = System.nanoTime();
+                finishedCount.incrementAndGet();
+                totalRunNanos.addAndGet(finishedNanos - startedNanos);
+                if (settled.compareAndSet(false, true)) {
+                    if (failure instanceof TimeoutException) {
+                        timedOutCount.incrementAndGet();
+                    } else if (failure != null) {
+                        failedCount.incrementAndGet();
+                    } else {
+                        completedCount.incrementAndGet();
+                    }
+                }
+                finished = true;
+            }
+        }
+
+        private void checkStopping() throws InterruptedException, TimeoutException {
+            if (cancelled || Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+            if (isPastDeadline()) {
+                throw timeoutException();
+            }
+        }
+
+        private void offer(final Object result) throws InterruptedException, TimeoutException {
+            while (!results.offer(result, OFFER_SLICE_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkStopping();
+            }
+            produced.incrementAndGet();
+        }
+
+        private boolean isPastDeadline() {
+            return deadlineNanos != 0 && System.nanoTime() - deadlineNanos > 0;
+        }
+
+        // Called by poll() when the traversal is past its deadline but stuck inside a step: stop the worker now and
+        // report the timeout without waiting for it.
+        private void timeOut() {
+            if (!settled.compareAndSet(false, true)) {
+                return;
+            }
+            failure = timeoutException();
+            timedOutCount.incrementAndGet();
+            future.cancel(true);
+            finished = true;
+        }
+
+        private TimeoutException timeoutException() {
+            return new TimeoutException("Traversal timed out after "
+                                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submittedNanos) + "ms");
+        }
+    }
+}
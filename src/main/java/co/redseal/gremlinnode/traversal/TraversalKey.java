@@ -0,0 +1,163 @@
+package co.redseal.gremlinnode.traversal;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Render an unexecuted traversal in a canonical, typed form, like the bytecode of later TinkerPop versions: each step's
+ * class followed by the values of the fields its class declares, each value with its own class, so that `has("age",
+ * 29)` and `has("age", "29")`, `V(1)` and `V("1")`, or `option(5, ...)` and `option("5", ...)` differ.
+ *
+ * TinkerPop 3.0.1 has neither bytecode nor public accessors for every step argument (e.g. constant(), inject() and
+ * option() keys), so the fields are read reflectively, without depending on their names.  The fields of AbstractStep,
+ * which link a step into its traversal and hold its traversers, are skipped, as are static and transient fields.
+ * Nested traversals are rendered recursively, elements by their class and id, and values TinkerPop does not define
+ * (e.g. lambdas) by their class and toString().  A field that cannot be read is an IllegalStateException, so an
+ * incompatible TinkerPop fails loudly instead of producing colliding keys.
+ */
+final class TraversalKey {
+
+    private final static String TINKERPOP_PACKAGE = "org.apache.tinkerpop.";
+
+    private final static ClassValue<List<Field>> fields = new ClassValue<List<Field>>() {
+        @Override
+        protected List<Field> computeValue(final Class<?> type) {
+            final List<Field> declared = new ArrayList<>();
+            for (Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())
+                    && !field.isSynthetic()) {
+                    try {
+                        field.setAccessible(true);
+                    } catch (RuntimeException e) {
+                        throw new IllegalStateException("Cannot read " + field + " for a traversal key", e);
+                    }
+                    declared.add(field);
+                }
+            }
+            declared.sort(Comparator.comparing(Field::getName));
+            return declared;
+        }
+    };
+
+    private final StringBuilder key = new StringBuilder();
+    // Objects being rendered, to cut cycles such as a step referring back to its parent.
+    private final Map<Object, Boolean> rendering = new IdentityHashMap<>();
+
+    private TraversalKey() {
+    }
+
+    static String of(final Traversal traversal) {
+        final TraversalKey key = new TraversalKey();
+        key.traversal(traversal.asAdmin());
+        return key.key.toString();
+    }
+
+    private void traversal(final Traversal.Admin<?, ?> traversal) {
+        key.append('[');
+        String separator = "";
+        for (Step<?, ?> step : traversal.getSteps()) {
+            key.append(separator);
+            separator = ",";
+            // Steps elsewhere in a traversal are rendered by their own position, not through a field.
+            rendering.put(step, Boolean.TRUE);
+            fields(step, AbstractStep.class);
+            rendering.remove(step);
+        }
+        key.append(']');
+    }
+
+    // The class of the object, then the fields declared by it and its superclasses below the given one.
+    private void fields(final Object object, final Class<?> stop) {
+        key.append(object.getClass().getName()).append('(');
+        String separator = "";
+        for (Class<?> type = object.getClass(); type != null && type != stop && type != Object.class;
+             type = type.getSuperclass()) {
+            for (Field field : fields.get(type)) {
+                key.append(separator).append(field.getName()).append('=');
+                separator = ",";
+                try {
+                    value(field.get(object));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Cannot read " + field + " for a traversal key", e);
+                }
+            }
+        }
+        key.append(')');
+    }
+
+    private void value(final Object value) {
+        if (value == null) {
+            key.append("null");
+        } else if (value instanceof String) {
+            key.append('\'').append(((String) value).replace("\\", "\\\\").replace("'", "\\'")).append('\'');
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof Character
+                   || value instanceof Enum) {
+            key.append(value.getClass().getName()).append(':').append(value);
+        } else if (value instanceof Class) {
+            key.append("class:").append(((Class) value).getName());
+        } else if (value instanceof Traversal && !rendering.containsKey(value)) {
+            // Before Iterator, which every traversal is.
+            rendering.put(value, Boolean.TRUE);
+            traversal(((Traversal) value).asAdmin());
+            rendering.remove(value);
+        } else if (rendering.containsKey(value) || value instanceof Step || value instanceof Iterator
+                   || value instanceof Graph) {
+            // A link to another step, an iterator over values rendered through another field, or the graph.
+            key.append(value.getClass().getName());
+        } else if (value instanceof Element) {
+            key.append(value.getClass().getName()).append('#');
+            value(((Element) value).id());
+        } else if (value.getClass().isArray()) {
+            key.append('[');
+            for (int i = 0; i < Array.getLength(value); i++) {
+                key.append(i == 0 ? "" : ",");
+                value(Array.get(value, i));
+            }
+            key.append(']');
+        } else if (value instanceof Map) {
+            rendering.put(value, Boolean.TRUE);
+            key.append(value.getClass().getName()).append('{');
+            String separator = "";
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                key.append(separator);
+                separator = ",";
+                value(entry.getKey());
+                key.append('=');
+                value(entry.getValue());
+            }
+            key.append('}');
+            rendering.remove(value);
+        } else if (value instanceof Collection) {
+            rendering.put(value, Boolean.TRUE);
+            key.append(value.getClass().getName()).append('[');
+            String separator = "";
+            for (Object element : (Collection<?>) value) {
+                key.append(separator);
+                separator = ",";
+                value(element);
+            }
+            key.append(']');
+            rendering.remove(value);
+        } else if (value.getClass().getName().startsWith(TINKERPOP_PACKAGE)) {
+            // e.g. P and HasContainer, whose toString() drops the class of their value.
+            rendering.put(value, Boolean.TRUE);
+            fields(value, Object.class);
+            rendering.remove(value);
+        } else {
+            key.append(value.getClass().getName()).append(':').append(value);
+        }
+    }
+}
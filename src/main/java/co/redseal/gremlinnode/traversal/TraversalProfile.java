@@ -0,0 +1,188 @@
+package co.redseal.gremlinnode.traversal;
+
+import co.redseal.gremlinnode.function.GlobFunction;
+import co.redseal.gremlinnode.function.InstrumentedGlobFunction;
+import co.redseal.gremlinnode.function.LambdaMetrics;
+import co.redseal.gremlinnode.io.JsonWriter;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.LambdaHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.util.Metrics;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Run a traversal with profile() and summarize the TraversalMetrics as compact JSON, so that node callers get the
+ * whole profile in one bridge call:
+ *
+ *     {"durationMs": 1.5,
+ *      "steps": [{"name": "TinkerGraphStep([],vertex)", "durationMs": 0.2, "percentDuration": 13.3,
+ *                 "traversers": 6, "elements": 6, "nested": [...]}, ...],
+ *      "lambdas": {"GroovyLambda({ x -> true })": {"invocations": 6, "durationMs": 0.9, "percentDuration": 60,
+ *                                                  "exceptions": 0, "passRatio": 1}}}
+ *
+ * Before the traversal runs, every GlobFunction held by one of its steps (directly, or wrapped in one of
+ * TinkerPop's Traverser adapters) is replaced by an InstrumentedGlobFunction recording into metrics private to this
+ * profile, so the time spent inside each lambda is reported separately from the time of the step that calls it.
+ * The traversal is consumed.
+ *
+ * TinkerPop 3.0.1 offers no public way to replace a step's lambda, so the fields are found and replaced
+ * reflectively.  Rather than profile with lambdas silently missing, an incompatible TinkerPop fails loudly: a field
+ * that cannot be read or replaced, or a LambdaHolder step in which no lambda field is found, is an
+ * IllegalStateException thrown before the traversal runs.  Step timings come from the public profile() metrics
+ * alone.
+ */
+public class TraversalProfile {
+
+    private final static String LAMBDA_ADAPTER_PACKAGE = "org.apache.tinkerpop.gremlin.process.traversal.lambda";
+
+    private final Map<String, LambdaMetrics> lambdas = new LinkedHashMap<>();
+
+    private TraversalProfile() {
+    }
+
+    /**
+     * Profile the traversal, which must not have been iterated, returning the JSON summary.
+     */
+    static public String profileToJson(final Traversal traversal) {
+        if (!(traversal instanceof GraphTraversal)) {
+            throw new IllegalArgumentException("Only a GraphTraversal can be profiled: " + traversal);
+        }
+        final TraversalProfile profile = new TraversalProfile();
+        profile.instrument(traversal.asAdmin());
+        final TraversalMetrics metrics =
+            (TraversalMetrics) ((GraphTraversal) traversal).profile().cap(TraversalMetrics.METRICS_KEY).next();
+        return profile.toJson(metrics);
+    }
+
+    private void instrument(final Traversal.Admin<?, ?> traversal) {
+        for (Step<?, ?> step : traversal.getSteps()) {
+            if (!instrumentFields(step, true) && step instanceof LambdaHolder) {
+                throw new IllegalStateException("No lambda field found in " + step.getClass().getName()
+                                                + "; this TinkerPop version cannot be profiled: " + step);
+            }
+            if (step instanceof TraversalParent) {
+                for (Traversal.Admin<?, ?> child : ((TraversalParent) step).getGlobalChildren()) {
+                    instrument(child);
+                }
+                for (Traversal.Admin<?, ?> child : ((TraversalParent) step).getLocalChildren()) {
+                    instrument(child);
+                }
+            }
+        }
+    }
+
+    // Replace the GlobFunctions held in the object's fields, looking one level into TinkerPop's lambda adapters
+    // such as PredicateTraverser.  Returns whether any field held a lambda, instrumented or not.
+    private boolean instrumentFields(final Object holder, final boolean lookIntoAdapters) {
+        boolean found = false;
+        for (Class<?> type = holder.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                    final Object value = field.get(holder);
+                    if (value instanceof GlobFunction && !(value instanceof InstrumentedGlobFunction)) {
+                        final Object instrumented =
+                            new InstrumentedGlobFunction((GlobFunction) value, metricsFor(value));
+                        field.set(holder, instrumented);
+                        if (field.get(holder) != instrumented) {
+                            throw new IllegalStateException("Cannot replace " + field + " to profile " + value);
+                        }
+                        found = true;
+                    } else if (lookIntoAdapters && value != null
+                               && value.getClass().getName().startsWith(LAMBDA_ADAPTER_PACKAGE)) {
+                        found |= instrumentFields(value, false);
+                    } else {
+                        found |= isLambda(value);
+                    }
+                } catch (IllegalAccessException | SecurityException e) {
+                    throw new IllegalStateException("Cannot instrument " + field + " of " + holder, e);
+                }
+            }
+        }
+        return found;
+    }
+
+    private static boolean isLambda(final Object value) {
+        return value instanceof Function || value instanceof BiFunction || value instanceof Predicate
+            || value instanceof BiPredicate || value instanceof Consumer || value instanceof BiConsumer
+            || value instanceof Supplier || value instanceof Comparator;
+    }
+
+    private LambdaMetrics metricsFor(final Object lambda) {
+        return lambdas.computeIfAbsent(lambda.toString(), LambdaMetrics::new);
+    }
+
+    private String toJson(final TraversalMetrics metrics) {
+        final long totalNanos = metrics.getDuration(TimeUnit.NANOSECONDS);
+        final JsonWriter json = new JsonWriter();
+        json.beginObject();
+        json.name("durationMs").value(totalNanos / 1e6);
+        json.name("steps");
+        writeSteps(json, metrics.getMetrics());
+        json.name("lambdas").beginObject();
+        for (Map.Entry<String, LambdaMetrics> entry : lambdas.entrySet()) {
+            final LambdaMetrics lambda = entry.getValue();
+            json.name(entry.getKey()).beginObject();
+            json.name("invocations").value(lambda.getInvocations());
+            json.name("durationMs").value(lambda.getTotalNanos() / 1e6);
+            json.name("percentDuration").value(totalNanos == 0 ? 0 : 100.0 * lambda.getTotalNanos() / totalNanos);
+            json.name("exceptions").value(lambda.getExceptions());
+            json.name("passRatio").value(lambda.getPassRatio());
+            json.endObject();
+        }
+        json.endObject();
+        json.endObject();
+        return json.toString();
+    }
+
+    private static void writeSteps(final JsonWriter json, final Iterable<? extends Metrics> steps) {
+        json.beginArray();
+        for (Metrics step : steps) {
+            json.beginObject();
+            json.name("name").value(step.getName());
+            json.name("durationMs").value(step.getDuration(TimeUnit.NANOSECONDS) / 1e6);
+            final Object percent = step.getAnnotation(TraversalMetrics.PERCENT_DURATION_KEY);
+            json.name("percentDuration");
+            if (percent instanceof Number) {
+                json.value(((Number) percent).doubleValue());
+            } else {
+                json.nullValue();
+            }
+            writeCount(json, "traversers", step.getCount(TraversalMetrics.TRAVERSER_COUNT_ID));
+            writeCount(json, "elements", step.getCount(TraversalMetrics.ELEMENT_COUNT_ID));
+            if (!step.getNested().isEmpty()) {
+                json.name("nested");
+                writeSteps(json, step.getNested());
+            }
+            json.endObject();
+        }
+        json.endArray();
+    }
+
+    private static void writeCount(final JsonWriter json, final String name, final Long count) {
+        json.name(name);
+        if (count == null) {
+            json.nullValue();
+        } else {
+            json.value(count);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package co.redseal.gremlinnode.traversal;
+
+import co.redseal.gremlinnode.io.TraversalJson;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A size- and age-bounded, least-recently-used cache of traversal results, serialized as by
+ * TraversalJson.traversalToJson.  A hit returns the JSON text without executing the traversal.
+ *
+ * Entries are keyed by a canonical form of the traversal: its steps with their typed arguments (see canonicalKey), or
+ * a caller-supplied key such as the Groovy source it was built from.  Each entry also records the graph version it
+ * was computed at, and is only returned while that version is current.  The version is bumped by every mutating step
+ * of a traversal that uses strategy() (e.g. one from traversal(graph)), and by bumpVersion() for changes made any
+ * other way.  Use one cache per graph.
+ *
+ * Traversals are executed outside of the cache lock, so two threads missing on the same key may both execute it.
+ */
+public class TraversalResultCache {
+
+    public final static int DEFAULT_CAPACITY = 1000;
+    public final static long DEFAULT_TTL_MILLIS = 60000;
+
+    private final int capacity;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final AtomicLong version = new AtomicLong();
+    private final LinkedHashMap<String, Entry> entries;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long expirations = 0;
+
+    public TraversalResultCache() {
+        this(DEFAULT_CAPACITY, DEFAULT_TTL_MILLIS);
+    }
+
+    public TraversalResultCache(final int capacity, final long ttlMillis) {
+        this(capacity, ttlMillis, System::currentTimeMillis);
+    }
+
+    TraversalResultCache(final int capacity, final long ttlMillis, final LongSupplier clock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("TraversalResultCache capacity must be positive: " + capacity);
+        }
+        if (ttlMillis < 1) {
+            throw new IllegalArgumentException("TraversalResultCache TTL must be positive: " + ttlMillis);
+        }
+        this.capacity = capacity;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                if (size() > TraversalResultCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Return the results of the traversal as JSON, keyed by its canonical form.
+     */
+    public String toJson(final Traversal traversal) {
+        return toJson(canonicalKey(traversal), traversal);
+    }
+
+    /**
+     * Return the results of the traversal as JSON, keyed by the given canonical form (e.g. its Groovy source).  The
+     * traversal is only executed on a miss.  Traversals that mutate the graph are always executed, never cached, and
+     * bump the version.
+     */
+    public String toJson(final String key, final Traversal traversal) {
+        if (TraversalHelper.hasStepOfAssignableClassRecursively(Mutating.class, traversal.asAdmin())) {
+            try {
+                return TraversalJson.traversalToJson(traversal);
+            } finally {
+                bumpVersion();
+            }
+        }
+        // Take the version before executing, so that a write racing with execution leaves the entry stale.
+        final long computedAt = version.get();
+        synchronized (this) {
+            final Entry cached = entries.get(key);
+            if (cached != null) {
+                if (cached.version == computedAt && clock.getAsLong() - cached.created < ttlMillis) {
+                    hits++;
+                    return cached.json;
+                }
+                if (cached.version == computedAt) {
+                    expirations++;
+                }
+                entries.remove(key);
+            }
+            misses++;
+        }
+
+        final String json = TraversalJson.traversalToJson(traversal);
+
+        synchronized (this) {
+            if (version.get() == computedAt) {
+                entries.put(key, new Entry(json, computedAt, clock.getAsLong()));
+            }
+        }
+        return json;
+    }
+
+    /**
+     * The canonical form of a traversal that has not been executed yet: the class of each step and its arguments,
+     * each with its own class, so that e.g. `has("age", 29)` and `has("age", "29")` differ.  Lambdas only produce the
+     * same key if their toString() matches, as a GroovyLambda's does for the same source.
+     */
+    static public String canonicalKey(final Traversal traversal) {
+        return TraversalKey.of(traversal);
+    }
+
+    /**
+     * A traversal source whose mutations bump the graph version.
+     */
+    public GraphTraversalSource traversal(final Graph graph) {
+        return GraphTraversalSource.build().with(strategy()).create(graph);
+    }
+
+    /**
+     * A strategy that bumps the graph version on every mutation, for callers building their own traversal sources.
+     */
+    public TraversalStrategy strategy() {
+        return new VersionStrategy();
+    }
+
+    /**
+     * Mark every cached result as stale, e.g. after changing the graph without going through strategy().
+     */
+    public long bumpVersion() {
+        return version.incrementAndGet();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Drop the result cached under the given key.  Returns true if there was one.
+     */
+    public synchronized boolean invalidate(final String key) {
+        return entries.remove(key) != null;
+    }
+
+    /**
+     * Drop the result cached for the given (unexecuted) traversal.  Returns true if there was one.
+     */
+    public boolean invalidate(final Traversal traversal) {
+        return invalidate(canonicalKey(traversal));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long ttlMillis() {
+        return ttlMillis;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    public synchronized long expirations() {
+        return expirations;
+    }
+
+    public synchronized String toString() {
+        return "TraversalResultCache(size=" + entries.size() + ", capacity=" + capacity + ", ttlMillis=" + ttlMillis
+            + ", version=" + version.get() + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions
+            + ", expirations=" + expirations + ")";
+    }
+
+    // Bump the version from the mutation callback of every Mutating step, including those in nested traversals.
+    private final class VersionStrategy extends AbstractTraversalStrategy<TraversalStrategy.DecorationStrategy>
+        implements TraversalStrategy.DecorationStrategy {
+
+        // TraversalStrategy.apply
+        @Override
+        @SuppressWarnings("unchecked")
+        public void apply(final Traversal.Admin<?, ?> traversal) {
+            for (Mutating step : TraversalHelper.getStepsOfAssignableClassRecursively(Mutating.class, traversal)) {
+                step.getMutatingCallbackRegistry().addCallback(event -> version.incrementAndGet());
+            }
+        }
+    }
+
+    private final static class Entry {
+        private final String json;
+        private final long version;
+        private final long created;
+
+        Entry(final String json, final long version, final long created) {
+            this.json = json;
+            this.version = version;
+            this.created = created;
+        }
+    }
+}
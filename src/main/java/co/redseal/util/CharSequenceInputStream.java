@@ -0,0 +1,101 @@
+package co.redseal.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * An InputStream over the encoded bytes of a CharSequence.
+ *
+ * The characters are encoded lazily, one fixed-size chunk at a time, so reading a very large String costs one chunk
+ * of memory rather than a full copy of its bytes.  Malformed input (e.g. a lone surrogate) is replaced, as
+ * String.getBytes does.
+ */
+public class CharSequenceInputStream extends InputStream {
+
+    public final static int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+    // Large enough for the longest encoding of a single code point in any standard charset.
+    private final static int MINIMUM_CHUNK_SIZE = 16;
+
+    private final CharBuffer source;
+    private final CharsetEncoder encoder;
+    private final ByteBuffer chunk;
+
+    private boolean endOfInput = false;
+    private boolean flushed = false;
+
+    public CharSequenceInputStream(final CharSequence source) {
+        this(source, UTF_8, DEFAULT_CHUNK_SIZE);
+    }
+
+    public CharSequenceInputStream(final CharSequence source, final Charset charset, final int chunkSize) {
+        if (chunkSize < MINIMUM_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunk size must be at least " + MINIMUM_CHUNK_SIZE + ": " + chunkSize);
+        }
+        this.source = CharBuffer.wrap(source);
+        this.encoder = charset.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.chunk = ByteBuffer.allocate(chunkSize);
+        this.chunk.flip();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return chunk.get() & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+        if (offset < 0 || length < 0 || length > buffer.length - offset) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (length == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        final int count = Math.min(length, chunk.remaining());
+        chunk.get(buffer, offset, count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return chunk.remaining();
+    }
+
+    // Make sure there is at least one unread byte, encoding the next chunk if necessary.
+    // Returns false once every character has been encoded and read.
+    private boolean fill() throws IOException {
+        while (!chunk.hasRemaining()) {
+            if (flushed) {
+                return false;
+            }
+            chunk.clear();
+            if (!endOfInput) {
+                final CoderResult result = encoder.encode(source, chunk, true);
+                if (result.isError()) {
+                    result.throwException();
+                }
+                endOfInput = result.isUnderflow();
+            }
+            if (endOfInput) {
+                flushed = encoder.flush(chunk).isUnderflow();
+            }
+            chunk.flip();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,114 @@
+package co.redseal.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An InputStream over a file, read through a sliding window of memory-mapped pages.
+ *
+ * Bytes are copied straight from the page cache into the caller's buffer, with no intermediate heap buffer, and only
+ * one window is mapped at a time so files larger than 2GB work too.  A window that has been read past is left for
+ * the garbage collector to unmap, since Java 8 has no portable way to unmap it eagerly.
+ */
+public class MappedFileInputStream extends InputStream {
+
+    public final static long DEFAULT_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long windowSize;
+
+    private MappedByteBuffer window = null;
+    private long position = 0;
+    private boolean closed = false;
+
+    public MappedFileInputStream(final String filename) throws IOException {
+        this(Paths.get(filename), DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedFileInputStream(final Path path, final long windowSize) throws IOException {
+        if (windowSize <= 0 || windowSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Window size must be positive and at most 2GB: " + windowSize);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        position++;
+        return window.get() & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+        if (offset < 0 || length < 0 || length > buffer.length - offset) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (length == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        final int count = Math.min(length, window.remaining());
+        window.get(buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public long skip(final long count) throws IOException {
+        ensureOpen();
+        final long skipped = Math.max(0, Math.min(count, size - position));
+        if (window != null && skipped <= window.remaining()) {
+            window.position(window.position() + (int) skipped);
+        } else {
+            window = null;
+        }
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureOpen();
+        return (int) Math.min(Integer.MAX_VALUE, size - position);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        window = null;
+        channel.close();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    // Make sure there is at least one unread byte, mapping the next window if necessary.
+    // Returns false at the end of the file.
+    private boolean fill() throws IOException {
+        ensureOpen();
+        if (window != null && window.hasRemaining()) {
+            return true;
+        }
+        if (position >= size) {
+            return false;
+        }
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, size - position));
+        return true;
+    }
+}
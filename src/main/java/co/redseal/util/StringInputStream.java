@@ -1,16 +1,23 @@
 package co.redseal.util;
 
-import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import static java.nio.charset.StandardCharsets.UTF_8;
 
 public class StringInputStream {
 
   /**
    * Create an InputStream that reads from a String.
    * This is awkward to do from Javascript, so we provide this utility function.
+   * The String is encoded as UTF-8 lazily, in chunks, so no full copy of its bytes is made.
    */
   static public InputStream from(final String source) {
-    return new ByteArrayInputStream(source.getBytes(UTF_8));
+    return new CharSequenceInputStream(source);
+  }
+
+  /**
+   * Create an InputStream that reads a file through memory-mapped windows.
+   */
+  static public InputStream fromFile(final String filename) throws IOException {
+    return new MappedFileInputStream(filename);
   }
 }
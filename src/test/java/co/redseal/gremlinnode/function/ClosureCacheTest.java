@@ -0,0 +1,83 @@
+package co.redseal.gremlinnode.function;
+
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
+import groovy.lang.Closure;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ClosureCacheTest {
+
+    @Test
+    public void repeatedSourceIsCompiledOnce() {
+        try {
+            final ScriptEngine engine = new GremlinGroovyScriptEngine();
+            final ClosureCache cache = new ClosureCache(10);
+            final Closure first = cache.get("{ x -> x + 1 }", engine);
+            final Closure second = cache.get("{ x -> x + 1 }", engine);
+            assertSame(first, second);
+            assertEquals(1, cache.misses());
+            assertEquals(1, cache.hits());
+            assertEquals(1, cache.size());
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void enginesDoNotShareClosures() {
+        try {
+            final ClosureCache cache = new ClosureCache(10);
+            final Closure first = cache.get("{ x -> x + 1 }", new GremlinGroovyScriptEngine());
+            final Closure second = cache.get("{ x -> x + 1 }", new GremlinGroovyScriptEngine());
+            assertNotSame(first, second);
+            assertEquals(2, cache.misses());
+            assertEquals(0, cache.hits());
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void leastRecentlyUsedIsEvicted() {
+        try {
+            final ScriptEngine engine = new GremlinGroovyScriptEngine();
+            final ClosureCache cache = new ClosureCache(2);
+            final Closure one = cache.get("{ -> 1 }", engine);
+            cache.get("{ -> 2 }", engine);
+            cache.get("{ -> 1 }", engine);      // touch 1, so 2 is now eldest
+            cache.get("{ -> 3 }", engine);      // evicts 2
+            assertEquals(1, cache.evictions());
+            assertEquals(2, cache.size());
+            assertSame(one, cache.get("{ -> 1 }", engine));
+            cache.get("{ -> 2 }", engine);
+            assertEquals(4, cache.misses());
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void factoryUsesSharedCache() {
+        try {
+            final ScriptEngine engine = new GremlinGroovyScriptEngine();
+            final long hits = GroovyLambda.getClosureCache().hits();
+            final GroovyLambda first = GroovyLambda.of("{ x -> x * 3 }", engine);
+            final GroovyLambda second = GroovyLambda.of("{ x -> x * 3 }", engine);
+            assertEquals(hits + 1, GroovyLambda.getClosureCache().hits());
+            assertEquals(first.toString(), second.toString());
+            assertEquals(12, second.apply(4));
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+}
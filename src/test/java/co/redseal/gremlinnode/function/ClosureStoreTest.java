@@ -0,0 +1,135 @@
+package co.redseal.gremlinnode.function;
+
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ClosureStoreTest {
+
+    private final static String[] SOURCES = {
+        "{ x -> x + 1 }",
+        "{ a, b -> a * b }",
+        "{ s -> s.toString().toUpperCase() }",
+        "{ -> T.id }",
+    };
+
+    private File directory;
+    private ScriptEngine engine;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("closures").toFile();
+        engine = new GremlinGroovyScriptEngine();
+    }
+
+    @After
+    public void deleteDirectory() {
+        final File versions = new File(directory, ClosureStore.versionTag());
+        final File[] files = versions.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        versions.delete();
+        directory.delete();
+    }
+
+    @Test
+    public void secondWarmUpLoadsFromTheStore() throws ScriptException {
+        final ClosureStore.WarmUp first = new ClosureStore(directory, engine).warmUp(SOURCES);
+        assertEquals(4, first.getClosureCount());
+        assertEquals(4, first.getCompiledCount());
+        assertFalse(first.isStoreHit());
+        assertEquals(4, new ClosureStore(directory, engine).getVersionDirectory().list().length);
+
+        final ClosureStore store = new ClosureStore(directory, engine);
+        final ClosureStore.WarmUp second = store.warmUp(SOURCES);
+        assertTrue(second.isStoreHit());
+        assertEquals(4, second.getStoreHits());
+        assertEquals(0, store.misses());
+        assertTrue(second.toJson(), second.toJson().contains("\"storeHit\":true"));
+    }
+
+    @Test
+    public void storedClosuresBehaveLikeCompiledOnes() throws ScriptException {
+        new ClosureStore(directory, engine).warmUp(SOURCES);
+        final ClosureStore store = new ClosureStore(directory, engine);
+        assertEquals(5, store.get(SOURCES[0]).call(4));
+        assertEquals(12, store.get(SOURCES[1]).call(3, 4));
+        assertEquals("ABC", store.get(SOURCES[2]).call("abc"));
+        // Resolved through the engine's default imports.
+        assertEquals(T.id, store.get(SOURCES[3]).call());
+        assertEquals(4, store.hits());
+    }
+
+    @Test
+    public void storedClosuresSeeEngineBindings() throws ScriptException {
+        engine.put("factor", 3);
+        new ClosureStore(directory, engine).get("{ x -> x * factor }");
+        final ClosureStore store = new ClosureStore(directory, engine);
+        assertEquals(12, store.get("{ x -> x * factor }").call(4));
+        assertEquals(1, store.hits());
+    }
+
+    @Test
+    public void warmUpFillsTheClosureCache() throws ScriptException {
+        final String source = "{ x -> x * 7 }";
+        new ClosureStore(directory, engine).warmUp(new String[] { source });
+        final long misses = GroovyLambda.getClosureCache().misses();
+        final GroovyLambda lambda = GroovyLambda.of(source, engine);
+        assertEquals(misses, GroovyLambda.getClosureCache().misses());
+        assertEquals(14, lambda.apply(2));
+    }
+
+    @Test
+    public void damagedEntriesAreCompiledAgain() throws ScriptException, IOException {
+        new ClosureStore(directory, engine).get(SOURCES[0]);
+        final File stored = new ClosureStore(directory, engine).getVersionDirectory().listFiles()[0];
+        try (final RandomAccessFile file = new RandomAccessFile(stored, "rw")) {
+            file.setLength(file.length() / 2);
+        }
+        final ClosureStore store = new ClosureStore(directory, engine);
+        assertEquals(2, store.get(SOURCES[0]).call(1));
+        assertEquals(1, store.misses());
+        assertEquals(2, new ClosureStore(directory, engine).get(SOURCES[0]).call(1));
+    }
+
+    @Test
+    public void manifestSkipsBlankLinesAndComments() throws ScriptException, IOException {
+        final File manifest = new File(directory, "closures.txt");
+        try {
+            Files.write(manifest.toPath(), Arrays.asList("# startup closures", "", "  { x -> x + 1 }  ", "{ -> 2 }"),
+                        UTF_8);
+            final ClosureStore.WarmUp warmUp = new ClosureStore(directory, engine).warmUp(manifest);
+            assertEquals(2, warmUp.getClosureCount());
+        } finally {
+            manifest.delete();
+        }
+    }
+
+    @Test(expected = ScriptException.class)
+    public void syntaxErrorsAreScriptExceptions() throws ScriptException {
+        new ClosureStore(directory, engine).get("{ x -> x + }");
+    }
+
+    @Test(expected = ScriptException.class)
+    public void nonClosuresAreRejected() throws ScriptException {
+        new ClosureStore(directory, engine).get("1 + 1");
+    }
+}
@@ -0,0 +1,85 @@
+package co.redseal.gremlinnode.function;
+
+import co.redseal.gremlinnode.testing.TestClass;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.script.ScriptException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GroovyImportsTest {
+
+    private final static String TEST_CLASS = "co.redseal.gremlinnode.testing.TestClass";
+
+    private GremlinGroovyScriptEngine engine;
+
+    @Before
+    public void createEngine() {
+        engine = new GremlinGroovyScriptEngine();
+    }
+
+    // The class of a script the engine has compiled before is only the same if the engine has not been reset since.
+    private Class<?> scriptClass() throws ScriptException {
+        return engine.eval("{ -> 'unchanged' }").getClass();
+    }
+
+    @Test
+    public void statementsAreCanonical() {
+        assertEquals("import java.util.*", GroovyImports.statement("java.util.*"));
+        assertEquals("import java.util.*", GroovyImports.statement("  import java.util.*;"));
+        assertEquals("import static java.lang.Math.max", GroovyImports.statement("static java.lang.Math.max"));
+        assertEquals("import static java.lang.Math.*", GroovyImports.statement("import static java.lang.Math.*"));
+        assertNull(GroovyImports.statement("  "));
+    }
+
+    @Test
+    public void batchIsAddedInOneCall() throws ScriptException {
+        try {
+            GroovyLambda.of("{ -> new TestClass() }", engine);
+            fail("TestClass should not be imported yet");
+        } catch (ScriptException e) {
+            assertTrue(e.toString(), e.toString().contains("unable to resolve class TestClass"));
+        }
+        final String[] added = GroovyImports.addImports(engine, new String[] {
+            TEST_CLASS, "import " + TEST_CLASS + ";", "static java.lang.Math.max", "" });
+        assertArrayEquals(new String[] { "import " + TEST_CLASS, "import static java.lang.Math.max" }, added);
+        assertTrue(GroovyLambda.of("{ -> new TestClass() }", engine).get() instanceof TestClass);
+        assertEquals(3, GroovyLambda.of("{ -> max(2, 3) }", engine).get());
+        assertTrue(GroovyImports.getImports(engine).contains("import " + TEST_CLASS));
+    }
+
+    @Test
+    public void unchangedImportsKeepTheEngineAndCompiledClosures() throws ScriptException {
+        GroovyImports.addImports(engine, new String[] { TEST_CLASS });
+        final Class<?> script = scriptClass();
+        final ClosureCache cache = GroovyLambda.getClosureCache();
+        final Object closure = cache.get("{ -> new TestClass() }", engine);
+
+        // Already imported, either by us or by default.
+        final String[] added = GroovyImports.addImports(engine, new String[] {
+            TEST_CLASS, "org.apache.tinkerpop.gremlin.process.traversal.*",
+            "import static org.apache.tinkerpop.gremlin.process.traversal.P.*" });
+        assertEquals(0, added.length);
+        assertSame(script, scriptClass());
+        assertSame(closure, cache.get("{ -> new TestClass() }", engine));
+    }
+
+    @Test
+    public void changedImportsResetTheEngineOnce() throws ScriptException {
+        final Class<?> script = scriptClass();
+        final ClosureCache cache = GroovyLambda.getClosureCache();
+        final Object closure = cache.get("{ -> 1 }", engine);
+        assertEquals(2, GroovyImports.addImports(engine, new String[] { TEST_CLASS, "java.util.concurrent.*" }).length);
+        assertNotSame(script, scriptClass());
+        assertNotSame(closure, cache.get("{ -> 1 }", engine));
+        assertTrue(GroovyLambda.of("{ -> new ConcurrentHashMap() }", engine).get() != null);
+    }
+}
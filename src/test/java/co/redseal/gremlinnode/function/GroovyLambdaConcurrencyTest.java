@@ -0,0 +1,94 @@
+package co.redseal.gremlinnode.function;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import javax.script.ScriptException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GroovyLambdaConcurrencyTest {
+
+    private final static int THREADS = 8;
+    private final static int CALLS = 200000;
+
+    // The closure points its delegate at its argument and reads size() through it, so a closure shared between
+    // threads can see another thread's delegate.
+    private final static String DELEGATING_CLOSURE =
+        "{ x -> delegate = x; resolveStrategy = Closure.DELEGATE_ONLY; size() }";
+
+    @Test
+    public void threadSafeLambdaIsCorrectUnderContention() throws Exception {
+        final GroovyLambda lambda = new GroovyLambda(DELEGATING_CLOSURE).threadSafe();
+        final List<List<Integer>> inputs = new ArrayList<>();
+        for (int size = 0; size < 16; size++) {
+            inputs.add(Collections.nCopies(size, size));
+        }
+
+        final AtomicLong wrong = new AtomicLong();
+        final ForkJoinPool pool = new ForkJoinPool(THREADS);
+        try {
+            pool.submit(() -> IntStream.range(0, CALLS).parallel().forEach(i -> {
+                final List<Integer> input = inputs.get(i % inputs.size());
+                if (!Integer.valueOf(input.size()).equals(lambda.apply(input))) {
+                    wrong.incrementAndGet();
+                }
+            })).get(5, TimeUnit.MINUTES);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(0, wrong.get());
+    }
+
+    @Test
+    public void threadSafeSharesCompiledClosure() {
+        try {
+            final GroovyLambda lambda = GroovyLambda.of("{ x -> x + 1 }");
+            final long misses = GroovyLambda.getClosureCache().misses();
+            final GroovyLambda safe = lambda.threadSafe();
+            assertFalse(lambda.isThreadSafe());
+            assertTrue(safe.isThreadSafe());
+            assertSame(safe, safe.threadSafe());
+            assertEquals(2, safe.apply(1));
+            assertEquals(misses, GroovyLambda.getClosureCache().misses());
+            assertEquals(lambda.toString(), safe.toString());
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void staticallyCompiledLambdaIsAlreadyThreadSafe() {
+        try {
+            final GroovyLambda lambda = GroovyLambda.compileStatic("{ Integer x -> x + 1 }");
+            assertTrue(lambda.isThreadSafe());
+            assertSame(lambda, lambda.threadSafe());
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void fusedPipelineOfThreadSafeStagesIsThreadSafe() throws Exception {
+        final GlobFunction combined = GroovyLambda.of("{ x -> x * 2 }").threadSafe()
+            .andThen(GroovyLambda.of("{ x -> x + 1 }"));
+        final ForkJoinPool pool = new ForkJoinPool(THREADS);
+        try {
+            final long sum = pool.submit(() -> IntStream.range(0, 10000).parallel()
+                                         .mapToLong(i -> combined.applyAsLong((Object) i)).sum()).get();
+            assertEquals(2L * (9999L * 10000 / 2) + 10000, sum);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
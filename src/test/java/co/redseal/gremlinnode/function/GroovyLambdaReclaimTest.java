@@ -0,0 +1,152 @@
+package co.redseal.gremlinnode.function;
+
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GroovyLambdaReclaimTest {
+
+    private ScriptEngine engine;
+
+    @Before
+    public void createEngine() {
+        engine = new GremlinGroovyScriptEngine();
+    }
+
+    // Collect garbage until the condition holds, or give up after a few seconds.
+    private static boolean collectUntil(final BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            System.gc();
+            Thread.sleep(20);
+        }
+        return condition.getAsBoolean();
+    }
+
+    private static long metaspaceUsed() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getName().equals("Metaspace")) {
+                used += pool.getUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+    @Test
+    public void reclaimableBehavesLikeEvaluated() throws ScriptException {
+        engine.put("factor", 3);
+        final GroovyLambda lambda = GroovyLambda.reclaimable("{ x -> x * factor }", engine);
+        assertTrue(lambda.isReclaimable());
+        assertEquals(12, lambda.apply(4));
+        assertEquals(T.id, GroovyLambda.reclaimable("{ -> T.id }", engine).get());
+        assertTrue(GroovyLambda.reclaimable("{ a, b -> a < b }", engine).test(1, 2));
+        assertFalse(GroovyLambda.of("{ x -> x }", engine).isReclaimable());
+    }
+
+    @Test
+    public void closedLambdaRejectsCalls() throws ScriptException {
+        final long closed = LambdaClassRegistry.getClosedCount();
+        final GroovyLambda lambda = GroovyLambda.reclaimable("{ x -> x + 1 }", engine);
+        final String identity = lambda.toString();
+        lambda.close();
+        lambda.close();
+        assertTrue(lambda.isClosed());
+        assertEquals(closed + 1, LambdaClassRegistry.getClosedCount());
+        assertEquals(identity, lambda.toString());
+        try {
+            lambda.apply(1);
+            fail("Expected a closed lambda to reject calls");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("{ x -> x + 1 }"));
+        }
+    }
+
+    @Test
+    public void closingACopyKeepsTheOriginal() throws ScriptException {
+        final GroovyLambda lambda = GroovyLambda.reclaimable("{ x -> x + 1 }", engine);
+        final GroovyLambda copy = lambda.threadSafe();
+        copy.close();
+        assertEquals(2, lambda.apply(1));
+    }
+
+    @Test
+    public void closedStaticLambdaRejectsCalls() throws ScriptException {
+        final GroovyLambda lambda = GroovyLambda.compileStatic("{ String s -> s.length() }", engine, new String[0]);
+        assertTrue(lambda.isStaticallyCompiled());
+        lambda.close();
+        try {
+            lambda.apply("abc");
+            fail("Expected a closed lambda to reject calls");
+        } catch (IllegalStateException e) {
+            assertTrue(lambda.isClosed());
+        }
+    }
+
+    @Test
+    public void closedLambdaClassesAreUnloaded() throws ScriptException, InterruptedException {
+        final long unloaded = LambdaClassRegistry.getUnloadedCount();
+        final long created = LambdaClassRegistry.getCreatedCount();
+        // Kept reachable, as a JavaScript proxy would keep it, but closed.
+        final GroovyLambda[] lambdas = new GroovyLambda[20];
+        for (int i = 0; i < lambdas.length; i++) {
+            lambdas[i] = GroovyLambda.reclaimable("{ x -> x + " + i + " }", engine);
+            assertEquals(i + 1, lambdas[i].apply(1));
+            lambdas[i].close();
+        }
+        assertEquals(created + lambdas.length, LambdaClassRegistry.getCreatedCount());
+        assertTrue(LambdaClassRegistry.snapshotJson(),
+                   collectUntil(() -> LambdaClassRegistry.getUnloadedCount() >= unloaded + lambdas.length));
+        assertTrue(LambdaClassRegistry.getUnloadedClassCount() >= 2 * lambdas.length);
+        assertTrue(LambdaClassRegistry.snapshotJson(), LambdaClassRegistry.snapshotJson().contains("\"unloaded\":"));
+    }
+
+    @Test
+    public void unreachableLambdaClassesAreUnloaded() throws ScriptException, InterruptedException {
+        final long unloaded = LambdaClassRegistry.getUnloadedCount();
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, GroovyLambda.reclaimable("{ -> " + i + " }", engine).get());
+        }
+        assertTrue(LambdaClassRegistry.snapshotJson(),
+                   collectUntil(() -> LambdaClassRegistry.getUnloadedCount() >= unloaded + 20));
+    }
+
+    @Test
+    public void metaspaceStaysFlat() throws ScriptException, InterruptedException {
+        final int rounds = 5;
+        final int lambdasPerRound = 100;
+        final long[] used = new long[rounds];
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < lambdasPerRound; i++) {
+                final String groovy = "{ v -> v.toString() + '" + round + "-" + i + "' }";
+                try (final GroovyLambda lambda = GroovyLambda.reclaimable(groovy, engine)) {
+                    lambda.apply(i);
+                }
+            }
+            collectUntil(() -> LambdaClassRegistry.getLiveCount() < 10);
+            used[round] = metaspaceUsed();
+        }
+        // The first rounds pay for Groovy's own classes; later rounds should unload what they load.  Keeping the
+        // lambdas instead adds about 1MB of metaspace per round.
+        final long growth = used[rounds - 1] - used[rounds - 3];
+        assertTrue("Metaspace grew by " + growth / 1024 + "KB over the last two rounds; after each round (KB): "
+                   + Arrays.toString(Arrays.stream(used).map(u -> u / 1024).toArray()) + " "
+                   + LambdaClassRegistry.snapshotJson(),
+                   growth < 512 * 1024);
+    }
+}
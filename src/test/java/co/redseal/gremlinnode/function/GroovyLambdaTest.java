@@ -2,13 +2,19 @@ package co.redseal.gremlinnode.function;
 
 import co.redseal.gremlinnode.testing.TestClass;
 import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
 import org.apache.tinkerpop.gremlin.util.function.TriConsumer;
 import groovy.lang.Closure;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import javax.script.Bindings;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
@@ -397,6 +403,177 @@ public class GroovyLambdaTest {
         }
     }
 
+    // ToLongFunction.applyAsLong, ToDoubleFunction.applyAsDouble
+
+    @Test
+    public void primitiveFunctionsWork() {
+        try {
+            final GroovyLambda lambda = new GroovyLambda("{ x -> x.length() }");
+            assertEquals(5L, lambda.applyAsLong("hello"));
+            assertEquals(5.0, lambda.applyAsDouble("hello"), 0.0);
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void primitiveFunctionAndThenWorks() {
+        try {
+            final GroovyLambda original = new GroovyLambda("{ x -> x + 2 }");
+            final GroovyLambda then = new GroovyLambda("{ x -> x * 10 }");
+            final GlobFunction combined = original.andThen(then);
+            assertEquals(70L, combined.applyAsLong(5));
+            assertEquals(75.0, combined.applyAsDouble(5.5), 0.0);
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    // LongUnaryOperator.applyAsLong
+
+    @Test
+    public void longUnaryOperatorAndThenWorks() {
+        try {
+            final GroovyLambda original = new GroovyLambda("{ x -> x + 2 }");
+            final GlobFunction combined = original.andThen((Function) x -> ((Long) x) * 10);
+            assertEquals(7L, original.applyAsLong(5L));
+            assertEquals(70L, combined.applyAsLong(5L));
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    // LongPredicate.test, DoublePredicate.test, and their negation
+
+    @Test
+    public void primitivePredicatesWork() {
+        try {
+            final GroovyLambda lambda = new GroovyLambda("{ x -> x < 100 }");
+            assertTrue(lambda.test(99L));
+            assertFalse(lambda.test(100L));
+            assertTrue(lambda.test(99.5));
+            assertFalse(lambda.test(100.5));
+
+            final GlobFunction negate = lambda.negate();
+            assertFalse(negate.test(99L));
+            assertTrue(negate.test(100L));
+            assertFalse(negate.test(99.5));
+            assertTrue(negate.test(100.5));
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    // Statically compiled closures
+
+    @Test
+    public void compileStaticUsesDeclaredParameterTypes() {
+        try {
+            final Vertex marko = TinkerFactory.createClassic().traversal().V(1).next();
+            final GroovyLambda lambda = GroovyLambda.compileStatic(
+                "{ v -> (v.value('age') as int) > 20 }", newEngine(), new String[] { "Vertex" });
+            assertTrue(lambda.getStaticCompilationFailure(), lambda.isStaticallyCompiled());
+            assertTrue(lambda.test(marko));
+            assertEquals("GroovyLambda[static Vertex]({ v -> (v.value('age') as int) > 20 })", lambda.toString());
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void compileStaticSupportsEveryArity() {
+        try {
+            assertEquals(42, GroovyLambda.compileStatic("{ -> 42 }").get());
+            assertEquals(7L, GroovyLambda.compileStatic("{ long x -> x + 2 }").applyAsLong(5L));
+            assertEquals("ab", GroovyLambda.compileStatic("{ a, b -> a + b }", new String[] { "String", "String" })
+                         .apply("a", "b"));
+            assertTrue(GroovyLambda.compileStatic("{ it == null }").get() == Boolean.TRUE);
+
+            final List<Object> seen = new ArrayList<>();
+            final TriConsumer consumer = GroovyLambda.compileStatic(
+                "{ List l, b, c -> l.add(b); l.add(c) }");
+            consumer.accept(seen, 1, 2);
+            assertEquals(Arrays.asList(1, 2), seen);
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void compileStaticPassesPrimitivesUnboxed() {
+        try {
+            final String source = StaticClosureCompiler.generate("{ long x -> x > 10 }", null, new String[0]);
+            assertTrue(source, source.contains("Object callLong(long p0) { doCall(p0) }"));
+            assertFalse(source, source.contains("callDouble"));
+            assertTrue(StaticClosureCompiler.generate("{ x -> x > 0.5 }", null, new String[] { "double" })
+                       .contains("Object callDouble(double p0) { doCall(p0) }"));
+
+            final GroovyLambda longs = GroovyLambda.compileStatic("{ long x -> x > 10 }");
+            assertTrue(longs.isStaticallyCompiled());
+            assertTrue(longs.test(11L));
+            assertFalse(longs.test(10L));
+            assertTrue(longs.test(11.5));
+            final GroovyLambda doubles = GroovyLambda.compileStatic("{ double x -> x > 0.5 }");
+            assertTrue(doubles.test(0.75));
+            assertFalse(doubles.test(0L));
+            assertEquals(12L, GroovyLambda.compileStatic("{ long x -> x * 2 }").applyAsLong(6L));
+        }
+        catch (ScriptException | StaticClosureCompiler.StaticCompilationException e) {
+            assertTrue(e.toString(), false);
+        }
+    }
+
+    @Test
+    public void compileStaticFallsBackWhenTypeCheckingFails() {
+        try {
+            // Without a declared type, `x.foo()` cannot be resolved statically.
+            final GroovyLambda lambda = GroovyLambda.compileStatic("{ x -> x.toUpperCase() }");
+            assertFalse(lambda.isStaticallyCompiled());
+            assertTrue(lambda.getStaticCompilationFailure(),
+                       lambda.getStaticCompilationFailure().contains("toUpperCase"));
+            assertEquals("ABC", lambda.apply("abc"));
+            assertEquals("GroovyLambda({ x -> x.toUpperCase() })", lambda.toString());
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void compileStaticFallsBackForEngineBindings() {
+        try {
+            final ScriptEngine engine = newEngine();
+            final Set<Object> set = new HashSet<>();
+            engine.put("seen", set);
+            final GroovyLambda lambda = GroovyLambda.compileStatic("{ x -> seen.add(x) }", engine, new String[0]);
+            assertFalse(lambda.isStaticallyCompiled());
+            assertTrue(lambda.getStaticCompilationFailure() != null);
+            lambda.accept("a");
+            assertTrue(set.contains("a"));
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void dynamicLambdaHasNoStaticCompilationFailure() {
+        try {
+            final GroovyLambda lambda = new GroovyLambda("{ x -> x }");
+            assertFalse(lambda.isStaticallyCompiled());
+            assertEquals(null, lambda.getStaticCompilationFailure());
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
     // Utilities
 
     private GremlinGroovyScriptEngine newEngine() {
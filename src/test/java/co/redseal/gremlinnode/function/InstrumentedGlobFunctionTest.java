@@ -0,0 +1,177 @@
+package co.redseal.gremlinnode.function;
+
+import co.redseal.gremlinnode.function.LambdaMetrics.Shape;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.script.ScriptException;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class InstrumentedGlobFunctionTest {
+
+    @After
+    public void resetRegistry() {
+        LambdaMetricsRegistry.setInstrumentNewClosures(false);
+        LambdaMetricsRegistry.clear();
+    }
+
+    @Test
+    public void countsEachShape() {
+        try {
+            final GroovyLambda lambda = GroovyLambda.of("{ x -> x }");
+            final GlobFunction instrumented = InstrumentedGlobFunction.instrument(lambda);
+            instrumented.apply(1);
+            instrumented.applyAsLong(2L);
+            instrumented.accept(3);
+            instrumented.test(true);
+            instrumented.test(false);
+            instrumented.test(true);
+
+            final LambdaMetrics metrics = LambdaMetricsRegistry.get(lambda.toString());
+            assertEquals(2, metrics.getCalls(Shape.APPLY));
+            assertEquals(1, metrics.getCalls(Shape.ACCEPT));
+            assertEquals(3, metrics.getCalls(Shape.TEST));
+            assertEquals(0, metrics.getCalls(Shape.GET));
+            assertEquals(6, metrics.getInvocations());
+            assertEquals(2.0 / 3, metrics.getPassRatio(), 1e-9);
+            assertTrue(metrics.getTotalNanos() > 0);
+            assertTrue(metrics.getPercentileNanos(50) <= metrics.getPercentileNanos(99));
+            assertTrue(metrics.getMaxNanos() <= metrics.getPercentileNanos(100));
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void countsExceptionsAndRethrows() {
+        try {
+            final GlobFunction instrumented = InstrumentedGlobFunction.instrument(
+                GroovyLambda.of("{ x -> throw new IllegalStateException('boom') }"));
+            try {
+                instrumented.apply(1);
+                assertTrue("expected an exception", false);
+            } catch (IllegalStateException e) {
+                assertEquals("boom", e.getMessage());
+            }
+            final LambdaMetrics metrics = ((InstrumentedGlobFunction) instrumented).getMetrics();
+            assertEquals(1, metrics.getExceptions());
+            assertEquals(1, metrics.getCalls(Shape.APPLY));
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void lambdasWithTheSameIdentityShareMetrics() {
+        try {
+            final GlobFunction first = InstrumentedGlobFunction.instrument(GroovyLambda.of("{ -> 1 }"));
+            final GlobFunction second = InstrumentedGlobFunction.instrument(new GroovyLambda("{ -> 1 }"));
+            first.get();
+            second.get();
+            assertSame(((InstrumentedGlobFunction) first).getMetrics(),
+                       ((InstrumentedGlobFunction) second).getMetrics());
+            assertEquals(2, LambdaMetricsRegistry.get("GroovyLambda({ -> 1 })").getCalls(Shape.GET));
+            assertEquals("GroovyLambda({ -> 1 })", first.toString());
+            assertSame(first, InstrumentedGlobFunction.instrument(first));
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void globalSwitchControlsInstrumentIfEnabled() {
+        try {
+            final GroovyLambda lambda = GroovyLambda.of("{ x -> x }");
+            assertSame(lambda, InstrumentedGlobFunction.instrumentIfEnabled(lambda));
+            LambdaMetricsRegistry.setInstrumentNewClosures(true);
+            assertTrue(InstrumentedGlobFunction.instrumentIfEnabled(lambda) instanceof InstrumentedGlobFunction);
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void groovyLambdasCreatedWhileSwitchedOnRecordThemselves() {
+        try {
+            final GroovyLambda before = GroovyLambda.of("{ x -> x > 1 }");
+            LambdaMetricsRegistry.setInstrumentNewClosures(true);
+            final GroovyLambda lambda = GroovyLambda.of("{ x -> x > 1 }");
+            final GroovyLambda typed = GroovyLambda.compileStatic("{ long x -> x > 1 }");
+            final GroovyLambda failing = GroovyLambda.of("{ x -> x.noSuchMethod() }");
+            LambdaMetricsRegistry.setInstrumentNewClosures(false);
+
+            assertFalse(before.isInstrumented());
+            assertTrue(lambda.isInstrumented());
+            assertSame(lambda, InstrumentedGlobFunction.instrument(lambda));
+            before.test(2);
+            lambda.test(2);
+            lambda.test(0);
+            lambda.threadSafe().apply(3);
+            final LambdaMetrics metrics = LambdaMetricsRegistry.get(lambda.toString());
+            assertSame(metrics, lambda.getMetrics());
+            assertEquals(2, metrics.getCalls(Shape.TEST));
+            assertEquals(1, metrics.getCalls(Shape.APPLY));
+            assertEquals(1, metrics.getPassed());
+
+            assertTrue(typed.test(5L));
+            assertEquals(1, typed.getMetrics().getPassed());
+            try {
+                failing.apply(1);
+                assertTrue("Expected a MissingMethodException", false);
+            } catch (RuntimeException e) {
+                assertEquals(1, failing.getMetrics().getExceptions());
+                assertEquals(1, failing.getMetrics().getInvocations());
+            }
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void snapshotIsOneJsonDocument() throws IOException {
+        try {
+            final GlobFunction instrumented = InstrumentedGlobFunction.instrument(GroovyLambda.of("{ x -> x > 1 }"));
+            instrumented.test(2);
+            instrumented.test(0);
+            final JsonNode snapshot = new ObjectMapper().readTree(LambdaMetricsRegistry.snapshotJson());
+            final JsonNode metrics = snapshot.get("GroovyLambda({ x -> x > 1 })");
+            assertEquals(2, metrics.get("invocations").asLong());
+            assertEquals(2, metrics.get("test").asLong());
+            assertEquals(0.5, metrics.get("passRatio").asDouble(), 1e-9);
+            assertEquals(0, metrics.get("exceptions").asLong());
+            assertTrue(metrics.get("latencyNanos").get("histogram").size() > 0);
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void registryIsVisibleOverJmx() throws Exception {
+        final GlobFunction instrumented = InstrumentedGlobFunction.instrument(GroovyLambda.of("{ -> 'jmx' }"));
+        instrumented.get();
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = new ObjectName(LambdaMetricsRegistry.OBJECT_NAME);
+        assertEquals(1L, server.getAttribute(name, "Invocations"));
+        assertTrue(((String) server.getAttribute(name, "SnapshotJson")).contains("GroovyLambda({ -> 'jmx' })"));
+
+        assertFalse(LambdaMetricsRegistry.isInstrumentNewClosures());
+        server.setAttribute(name, new Attribute("InstrumentNewClosures", true));
+        assertTrue(LambdaMetricsRegistry.isInstrumentNewClosures());
+    }
+}
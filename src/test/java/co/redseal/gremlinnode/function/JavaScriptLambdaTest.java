@@ -0,0 +1,158 @@
+package co.redseal.gremlinnode.function;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.apache.tinkerpop.gremlin.util.function.ScriptEngineLambda;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.script.ScriptException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JavaScriptLambdaTest {
+
+    @Test
+    public void everyShapeMatchesScriptEngineLambda() throws ScriptException {
+        final String javascript = "a == null ? 'none' : b == null ? a * 2 : c == null ? a + b : a + b + c";
+        final JavaScriptLambda lambda = JavaScriptLambda.of(javascript);
+        assertTrue(lambda.isFunction());
+        assertEquals(new ScriptEngineLambda("JavaScript", "a * 2").apply(3), lambda.apply(3));
+        assertEquals("none", lambda.get());
+        assertEquals(7, ((Number) lambda.apply(3, 4)).intValue());
+        assertEquals(10L, lambda.applyAsLong(5));
+        assertEquals(10L, lambda.applyAsLong(5L));
+        assertEquals(10.0, lambda.applyAsDouble(5), 0.0);
+
+        final JavaScriptLambda predicate = JavaScriptLambda.of("a > 10");
+        assertTrue(predicate.test(11));
+        assertFalse(predicate.test(10L));
+        assertTrue(predicate.test(10.5));
+        assertTrue(JavaScriptLambda.of("a < b").test(1, 2));
+        assertFalse(JavaScriptLambda.of("a").test(""));
+        assertTrue(predicate.negate().test(3));
+
+        final List<Object> seen = new ArrayList<>();
+        JavaScriptLambda.of("a.add(b)").accept(seen, "x");
+        JavaScriptLambda.of("a.add(b + c)").accept(seen, "y", "z");
+        JavaScriptLambda.of("a.add('w')").accept(seen);
+        assertEquals(Arrays.asList("x", "yz", "w"), seen);
+    }
+
+    @Test
+    public void worksInTraversals() throws ScriptException {
+        final Graph graph = TinkerFactory.createClassic();
+        final List<Vertex> lop = graph.traversal().V().filter(JavaScriptLambda.of("a.get().value('name') == 'lop'"))
+            .toList();
+        assertEquals(1, lop.size());
+        assertEquals(3, lop.get(0).id());
+        final List<Object> names = graph.traversal().V().has("age")
+            .map(JavaScriptLambda.of("a.get().value('name').toUpperCase()")).toList();
+        Collections.sort(names, (x, y) -> x.toString().compareTo(y.toString()));
+        assertEquals(Arrays.asList("JOSH", "MARKO", "PETER", "VADAS"), names);
+    }
+
+    @Test
+    public void compiledOncePerSource() throws ScriptException {
+        JavaScriptLambda.clearCache();
+        final JavaScriptLambda first = JavaScriptLambda.of("a + 1");
+        final JavaScriptLambda second = JavaScriptLambda.of("a + 1");
+        JavaScriptLambda.of("a + 2");
+        assertEquals(2, JavaScriptLambda.getCacheSize());
+        assertEquals(first.apply(1), second.apply(1));
+        assertEquals("JavaScriptLambda(a + 1)", second.toString());
+    }
+
+    @Test
+    public void statementsAreEvaluatedAsScripts() throws ScriptException {
+        final JavaScriptLambda lambda = JavaScriptLambda.of("var x = a * 2; x + 1");
+        assertFalse(lambda.isFunction());
+        assertEquals(7, ((Number) lambda.apply(3)).intValue());
+        assertEquals(new ScriptEngineLambda("JavaScript", "var x = a * 2; x + 1").apply(3), lambda.apply(3));
+
+        // A trailing comment must not hide the end of the function.
+        final JavaScriptLambda commented = JavaScriptLambda.of("a + 1 // plus one");
+        assertTrue(commented.isFunction());
+        assertEquals(3, ((Number) commented.apply(2)).intValue());
+        assertNull(JavaScriptLambda.of("undefined").get());
+    }
+
+    @Test
+    public void nestedScriptCallsKeepTheirParameters() throws ScriptException {
+        final JavaScriptLambda inner = JavaScriptLambda.of("var y = a; y * 10");
+        final JavaScriptLambda outer = JavaScriptLambda.of("var z = b.apply(7); a + z");
+        assertFalse(outer.isFunction());
+        assertEquals(71, ((Number) outer.apply(1, inner)).intValue());
+    }
+
+    @Test
+    public void recordsMetricsWhenCreatedWhileSwitchedOn() throws ScriptException {
+        LambdaMetricsRegistry.setInstrumentNewClosures(true);
+        final JavaScriptLambda lambda;
+        try {
+            lambda = JavaScriptLambda.of("a > 1 && 'yes'");
+        } finally {
+            LambdaMetricsRegistry.setInstrumentNewClosures(false);
+        }
+        try {
+            assertTrue(lambda.isInstrumented());
+            assertFalse(JavaScriptLambda.of("a > 1 && 'yes'").isInstrumented());
+            assertSame(lambda, InstrumentedGlobFunction.instrument(lambda));
+            assertTrue(lambda.test(2));
+            assertFalse(lambda.test(0));
+            assertEquals("yes", lambda.apply(3));
+            final LambdaMetrics metrics = LambdaMetricsRegistry.get(lambda.toString());
+            assertSame(metrics, lambda.getMetrics());
+            assertEquals(3, metrics.getInvocations());
+            // Passing is JavaScript truth, not Boolean.TRUE.
+            assertEquals(1, metrics.getPassed());
+        } finally {
+            LambdaMetricsRegistry.clear();
+        }
+    }
+
+    @Test
+    public void syntaxErrorsAreThrownOnCreation() {
+        try {
+            JavaScriptLambda.of("a +* 1");
+            fail("Expected a ScriptException");
+        } catch (ScriptException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Expected"));
+        }
+    }
+
+    @Test
+    public void threadsDoNotShareGlobals() throws Exception {
+        final JavaScriptLambda counter = JavaScriptLambda.of("n = (typeof n == 'undefined' ? 0 : n) + a");
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Object>> totals = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                totals.add(executor.submit(() -> {
+                    Object total = null;
+                    for (int i = 0; i < 1000; i++) {
+                        total = counter.apply(1);
+                    }
+                    return total;
+                }));
+            }
+            for (Future<Object> total : totals) {
+                assertEquals(1000, ((Number) total.get()).intValue());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertSame(JavaScriptLambda.getDefaultEngine(), JavaScriptLambda.getDefaultEngine());
+    }
+}
@@ -0,0 +1,143 @@
+package co.redseal.gremlinnode.function;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import javax.script.ScriptException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class NativeLambdaTest {
+
+    private Graph graph;
+    private Vertex marko;
+    private Vertex lop;
+
+    @Before
+    public void initGraph() {
+        graph = TinkerFactory.createClassic();
+        marko = graph.vertices(1).next();
+        lop = graph.vertices(3).next();
+    }
+
+    private static Object eval(final String expression, final Object... arguments) throws ScriptException {
+        final NativeLambda lambda = NativeLambda.compile(expression);
+        switch (arguments.length) {
+        case 0:
+            return lambda.get();
+        case 1:
+            return lambda.apply(arguments[0]);
+        default:
+            return lambda.apply(arguments[0], arguments[1]);
+        }
+    }
+
+    @Test
+    public void closureAndBareFormsAreAccepted() throws ScriptException {
+        assertEquals(true, eval("{ v -> v.value('age') > 28 }", marko));
+        assertEquals(true, eval("{ it.value('age') > 28 }", marko));
+        assertEquals(true, eval("it.value('age') > 28", marko));
+        assertEquals(7, eval("{ a, b -> a + b }", 3, 4));
+        assertEquals(1, eval("{ -> 1 }"));
+    }
+
+    @Test
+    public void elementMethods() throws ScriptException {
+        assertEquals("marko", eval("{ v -> v.value('name') }", marko));
+        assertEquals("vertex", eval("{ v -> v.label() }", marko));
+        assertEquals(1, eval("{ v -> v.id() }", marko));
+        assertNull(eval("{ v -> v.property('age') }", lop));
+        assertEquals(5, eval("{ v -> v.value('name').length() }", marko));
+        // filter passes traversers.
+        assertEquals(marko, graph.traversal().V()
+                     .filter(NativeLambda.compile("{ t -> t.get().value('name').toUpperCase() == 'MARKO' }")).next());
+        assertEquals(lop, graph.traversal().V().filter(NativeLambda.compile("it.value('lang') == 'java'")).next());
+    }
+
+    @Test
+    public void numbersFollowGroovy() throws ScriptException {
+        assertEquals(Integer.class, eval("2 * 3 + 1").getClass());
+        assertEquals(7L, eval("{ x -> x + 1 }", 6L));
+        assertEquals(2.5, eval("5 / 2"));
+        assertEquals(1, eval("7 % 3"));
+        assertEquals(-4, eval("-(1 + 3)"));
+        assertEquals(true, eval("{ x -> x == 3 }", 3L));
+        assertEquals(true, eval("{ x -> x < 3.5 }", 3));
+        assertEquals("a1", eval("'a' + 1"));
+    }
+
+    @Test
+    public void logicFollowsGroovyTruth() throws ScriptException {
+        final NativeLambda adult = NativeLambda.compile("{ v -> v.label() == 'vertex' && v.value('age') >= 30 }");
+        final List<Object> names = graph.traversal().V().filter(adult).values("name").toList();
+        assertEquals(Arrays.asList("josh", "peter"), names);
+        assertTrue(NativeLambda.compile("!it").test(""));
+        assertFalse(NativeLambda.compile("it || 0").test(null));
+        assertFalse(NativeLambda.compile("{ v -> v.value('age') > 30 }").test(lop));
+        assertEquals("old", eval("{ v -> v.value('age') > 30 ? 'old' : 'young' }", graph.vertices(6).next()));
+        assertEquals(true, eval("{ s -> s.startsWith('ma') && !s.endsWith('x') && s.contains('rk') }", "marko"));
+    }
+
+    @Test
+    public void parsedTreeIsShown() throws ScriptException {
+        assertEquals("((it.value('age') > 30) || (it.label() != 'person'))",
+                     NativeLambda.compile("it.value('age') > 30 || it.label() != 'person'").getParsed());
+        assertEquals("NativeLambda({ x -> x })", NativeLambda.compile("{ x -> x }").toString());
+    }
+
+    @Test
+    public void unsupportedSyntaxIsRejected() {
+        for (String expression : new String[] { "{ v -> v.outE() }", "{ v -> w }", "{ x -> x + }", "'open",
+                                                "{ x -> x", "a, b, c, d -> a", "x = 1" }) {
+            try {
+                NativeLambda.compile(expression);
+                fail("Expected a ScriptException for " + expression);
+            } catch (ScriptException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains(expression));
+            }
+        }
+    }
+
+    @Test
+    public void composesLikeOtherLambdas() throws ScriptException {
+        final GlobFunction length = NativeLambda.compile("{ v -> v.value('name').length() }");
+        assertEquals(10, length.andThen(NativeLambda.compile("{ n -> n * 2 }")).apply(marko));
+        assertFalse(NativeLambda.compile("{ v -> v.value('name') == 'marko' }").negate().test(marko));
+        assertEquals(5, graph.traversal().V(1).map(length).next());
+    }
+
+    @Test
+    public void recordsMetricsWhenCreatedWhileSwitchedOn() throws ScriptException {
+        LambdaMetricsRegistry.setInstrumentNewClosures(true);
+        final NativeLambda lambda;
+        try {
+            lambda = NativeLambda.compile("{ v -> v.value('age') > 30 }");
+        } finally {
+            LambdaMetricsRegistry.setInstrumentNewClosures(false);
+        }
+        try {
+            assertTrue(lambda.isInstrumented());
+            assertFalse(NativeLambda.compile("{ v -> v.value('age') > 30 }").isInstrumented());
+            assertSame(lambda, InstrumentedGlobFunction.instrument(lambda));
+            assertFalse(lambda.test(marko));
+            assertEquals(false, lambda.apply(marko));
+            final LambdaMetrics metrics = LambdaMetricsRegistry.get(lambda.toString());
+            assertSame(metrics, lambda.getMetrics());
+            assertEquals(1, metrics.getCalls(LambdaMetrics.Shape.TEST));
+            assertEquals(1, metrics.getCalls(LambdaMetrics.Shape.APPLY));
+            assertEquals(0, metrics.getPassed());
+        } finally {
+            LambdaMetricsRegistry.clear();
+        }
+    }
+}
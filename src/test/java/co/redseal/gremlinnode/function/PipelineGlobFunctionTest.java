@@ -0,0 +1,175 @@
+package co.redseal.gremlinnode.function;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PipelineGlobFunctionTest {
+
+    @Test
+    public void chainsFlattenIntoOnePipeline() {
+        try {
+            GlobFunction combined = GroovyLambda.of("{ x -> x + 1 }");
+            for (int i = 0; i < 5; i++) {
+                combined = combined.andThen(GroovyLambda.of("{ x -> x * 2 }"));
+            }
+            assertTrue(combined instanceof PipelineGlobFunction);
+            final PipelineGlobFunction pipeline = (PipelineGlobFunction) combined;
+            assertEquals(6, pipeline.size());
+            assertFalse(pipeline.isFused());
+            assertEquals((3 + 1) * 32, combined.apply(3));
+            assertTrue(pipeline.isFused());
+            assertEquals((3L + 1) * 32, combined.applyAsLong(3L));
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void composingPipelinesFlattensBothSides() {
+        try {
+            final GlobFunction left = GroovyLambda.of("{ x -> x + 1 }").andThen(GroovyLambda.of("{ x -> x + 2 }"));
+            final GlobFunction right = GroovyLambda.of("{ x -> x * 3 }").andThen(GroovyLambda.of("{ x -> x * 4 }"));
+            final GlobFunction combined = left.andThen(right);
+            assertEquals(4, ((PipelineGlobFunction) combined).size());
+            assertEquals((1 + 1 + 2) * 3 * 4, combined.apply(1));
+            assertEquals("GroovyLambda({ x -> x + 1 }) then GroovyLambda({ x -> x + 2 }) then "
+                         + "GroovyLambda({ x -> x * 3 }) then GroovyLambda({ x -> x * 4 })", combined.toString());
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void fusedClosureIsCachedByComposedSource() {
+        try {
+            final ClosureCache cache = GroovyLambda.getClosureCache();
+            GroovyLambda.of("{ x -> x - 1 }").andThen(GroovyLambda.of("{ x -> x * 7 }")).apply(1);
+            final long hits = cache.hits();
+            final GlobFunction again = GroovyLambda.of("{ x -> x - 1 }").andThen(GroovyLambda.of("{ x -> x * 7 }"));
+            assertEquals(14, again.apply(3));
+            // Both stages and the fused closure come from the cache.
+            assertEquals(hits + 3, cache.hits());
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void buildingAChainCompilesNothing() {
+        try {
+            final ClosureCache cache = GroovyLambda.getClosureCache();
+            final List<GroovyLambda> stages = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                stages.add(GroovyLambda.of("{ x -> x + " + (1000 + i) + " }"));
+            }
+            final long misses = cache.misses();
+            GlobFunction combined = stages.get(0);
+            for (int i = 1; i < stages.size(); i++) {
+                combined = combined.andThen(stages.get(i));
+            }
+            assertEquals(misses, cache.misses());
+            // Consumers and predicates do not need the fused closure either.
+            combined.accept(1);
+            assertEquals(misses, cache.misses());
+            assertEquals(1 + 8 * 1000 + 28, combined.apply(1));
+            assertEquals(misses + 1, cache.misses());
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void reclaimableAndClosedStagesAreNotFused() {
+        try {
+            final GroovyLambda reclaimable = GroovyLambda.reclaimable("{ x -> x * 3 }");
+            final GlobFunction withReclaimable = GroovyLambda.of("{ x -> x + 1 }").andThen(reclaimable);
+            assertEquals(9, withReclaimable.apply(2));
+            assertFalse(((PipelineGlobFunction) withReclaimable).isFused());
+
+            final GroovyLambda closed = new GroovyLambda("{ x -> x * 5 }");
+            final GlobFunction withClosed = GroovyLambda.of("{ x -> x + 1 }").andThen(closed);
+            closed.close();
+            try {
+                withClosed.apply(2);
+                fail("Expected the closed stage to refuse the call");
+            } catch (IllegalStateException e) {
+                assertFalse(((PipelineGlobFunction) withClosed).isFused());
+            }
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void consumersRunEveryStageOnTheSameArgument() {
+        try {
+            final ScriptEngine engine = new GremlinGroovyScriptEngine();
+            final List<Object> seen = new ArrayList<>();
+            engine.put("seen", seen);
+            final GlobFunction combined = new GroovyLambda("{ x -> seen.add(x) }", engine)
+                .andThen(new GroovyLambda("{ x -> seen.add(x * 10) }", engine))
+                .andThen(new GroovyLambda("{ x -> seen.add(x * 100) }", engine));
+            combined.accept(2);
+            assertEquals(Arrays.asList(2, 20, 200), seen);
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void mixedStagesAreNotFused() {
+        try {
+            final GlobFunction negated = GroovyLambda.of("{ x -> x > 2 }").negate();
+            final GlobFunction combined = GroovyLambda.of("{ x -> x + 1 }").andThen(negated);
+            assertFalse(((PipelineGlobFunction) combined).isFused());
+            // NegateGlobFunction only negates predicates, so apply passes the comparison through.
+            assertEquals(true, combined.apply(2));
+            assertEquals(false, combined.apply(1));
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void globFunctionPassedAsFunctionStillFlattens() {
+        try {
+            final GroovyLambda then = GroovyLambda.of("{ x -> x * 10 }");
+            final GlobFunction combined = GroovyLambda.of("{ x -> x + 2 }").andThen((Function) then);
+            assertTrue(combined instanceof PipelineGlobFunction);
+            assertEquals(70, combined.apply(5));
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void plainFunctionsStillCompose() {
+        try {
+            final GlobFunction combined = GroovyLambda.of("{ x -> x + 2 }").andThen((Function) x -> "" + x);
+            assertFalse(combined instanceof PipelineGlobFunction);
+            assertEquals("7", combined.apply(5));
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+}
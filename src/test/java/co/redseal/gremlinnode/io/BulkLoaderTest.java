@@ -0,0 +1,119 @@
+package co.redseal.gremlinnode.io;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BulkLoaderTest {
+
+    // The "modern" toy graph, as columns.
+    private static BulkLoader loadModern(final TinkerGraph graph) {
+        final BulkLoader loader = new BulkLoader(graph);
+        loader.vertices(new long[] { 1, 2, 4, 6 }, new String[] { "person" })
+            .property("name", new String[] { "marko", "vadas", "josh", "peter" })
+            .property("age", new long[] { 29, 27, 32, 35 });
+        loader.vertices(new long[] { 3, 5 }, new String[] { "software" })
+            .property("name", new String[] { "lop", "ripple" })
+            .property("lang", new String[] { "java", "java" });
+        loader.edges(new long[] { 7, 8, 9, 10, 11, 12 },
+                     new String[] { "knows", "knows", "created", "created", "created", "created" },
+                     new long[] { 1, 1, 1, 4, 4, 6 },
+                     new long[] { 2, 4, 3, 5, 3, 3 })
+            .property("weight", new double[] { 0.5, 1.0, 0.4, 1.0, 0.4, 0.2 });
+        loader.load();
+        return loader;
+    }
+
+    @Test
+    public void loadsTheModernGraph() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final BulkLoader loader = loadModern(graph);
+        assertEquals(6, loader.getVertexCount());
+        assertEquals(6, loader.getEdgeCount());
+
+        final GraphTraversalSource g = graph.traversal();
+        final List<Object> known = g.V().has("name", "marko").out("knows").values("name").toList();
+        assertEquals(new HashSet<>(Arrays.asList("vadas", "josh")), new HashSet<>(known));
+        assertEquals(29L, g.V(1L).values("age").next());
+        assertEquals(0.2, g.E(12L).values("weight").next());
+        assertEquals("software", g.V(5L).label().next());
+        assertEquals(2L, g.V().has("lang", "java").count().next().longValue());
+    }
+
+    @Test
+    public void buildsDeclaredIndexes() {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.createIndex("name", Vertex.class);
+        final BulkLoader loader = new BulkLoader(graph).createVertexIndex("name").createEdgeIndex("weight");
+        loader.vertices(new long[] { 1, 2 }, null).property("name", new String[] { "a", "b" });
+        loader.edges(null, new String[] { "next" }, new long[] { 1 }, new long[] { 2 })
+            .property("weight", new double[] { 1.5 });
+        loader.load();
+        assertTrue(graph.getIndexedKeys(Vertex.class).contains("name"));
+        assertTrue(graph.getIndexedKeys(Edge.class).contains("weight"));
+        assertEquals(1L, graph.traversal().V(2L).in("next").count().next().longValue());
+        assertEquals("vertex", graph.traversal().V(1L).label().next());
+    }
+
+    @Test
+    public void nullStringsLeavePropertiesUnset() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final BulkLoader loader = new BulkLoader(graph);
+        loader.vertices(new long[] { 1, 2 }, null).property("nick", new String[] { "x", null });
+        loader.load();
+        assertTrue(graph.vertices(1L).next().property("nick").isPresent());
+        assertFalse(graph.vertices(2L).next().property("nick").isPresent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMismatchedColumns() {
+        new BulkLoader(TinkerGraph.open()).vertices(new long[] { 1, 2 }, null).property("age", new long[] { 1 });
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsEdgesToMissingVertices() {
+        final BulkLoader loader = new BulkLoader(TinkerGraph.open());
+        loader.edges(null, new String[] { "e" }, new long[] { 1 }, new long[] { 2 });
+        loader.load();
+    }
+
+    @Test
+    public void loadsManyEdgesInOneCall() {
+        final int vertices = 10000;
+        final int edges = 100000;
+        final long[] ids = new long[vertices];
+        for (int i = 0; i < vertices; i++) {
+            ids[i] = i;
+        }
+        final long[] outIds = new long[edges];
+        final long[] inIds = new long[edges];
+        final double[] weights = new double[edges];
+        for (int i = 0; i < edges; i++) {
+            outIds[i] = i / 10;
+            inIds[i] = (i * 31) % vertices;
+            weights[i] = i;
+        }
+        final Graph graph = TinkerGraph.open();
+        final BulkLoader loader = new BulkLoader(graph);
+        loader.vertices(ids, new String[] { "node" });
+        loader.edges(null, new String[] { "link" }, outIds, inIds).property("weight", weights);
+        loader.load();
+
+        assertEquals((long) edges, graph.traversal().E().count().next().longValue());
+        final List<Long> out = (List) graph.traversal().V(0L).out().id().toList();
+        assertEquals(10, out.size());
+        assertEquals(Arrays.asList(0L, 31L, 62L), out.stream().sorted().limit(3).collect(Collectors.toList()));
+    }
+}
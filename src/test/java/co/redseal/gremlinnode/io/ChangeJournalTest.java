@@ -0,0 +1,182 @@
+package co.redseal.gremlinnode.io;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChangeJournalTest {
+
+    private File directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("journal").toFile();
+    }
+
+    @After
+    public void deleteDirectory() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    // Vertex property ids are not preserved by replay, so compare graphs by everything else.
+    private static List<String> describe(final Graph graph) {
+        final List<String> lines = new ArrayList<>();
+        graph.vertices().forEachRemaining(vertex -> {
+            final TreeSet<String> properties = new TreeSet<>();
+            vertex.properties().forEachRemaining(property -> {
+                final TreeSet<String> meta = new TreeSet<>();
+                property.properties().forEachRemaining(p -> meta.add(p.toString()));
+                properties.add(property.key() + "=" + property.value() + meta);
+            });
+            lines.add(vertex + " " + vertex.label() + " " + properties);
+        });
+        graph.edges().forEachRemaining(edge -> {
+            final TreeSet<String> properties = new TreeSet<>();
+            edge.properties().forEachRemaining(p -> properties.add(p.toString()));
+            lines.add(edge + " " + properties);
+        });
+        Collections.sort(lines);
+        return lines;
+    }
+
+    private static void mutate(final GraphTraversalSource g) {
+        g.addV(T.id, 100, T.label, "person", "name", "zed", "age", 3).iterate();
+        g.V(2).as("b").in("knows").addOutE("knows", "b", "weight", 0.1).iterate();
+        g.V(1).property("name", "marko2").iterate();
+        g.V(1).property("nick", "mark", "since", 2000).iterate();
+        g.V(1).properties("nick").property("since", 2001).iterate();
+        g.V(1).properties("nick").property("until", 2002).iterate();
+        g.V(1).properties("nick").properties("until").drop().iterate();
+        g.E(7).property("weight", 0.9).iterate();
+        g.V(1).properties("age").drop().iterate();
+        g.E(9).properties("weight").drop().iterate();
+        g.E(8).drop().iterate();
+        g.V(6).drop().iterate();
+        g.V(4).property(VertexProperty.Cardinality.list, "skill", "java").iterate();
+        g.V(4).property(VertexProperty.Cardinality.list, "skill", "groovy").iterate();
+    }
+
+    // Multi-properties only survive a snapshot if the graph loading it has list cardinality.
+    private static Graph openListGraph() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.CONFIG_DEFAULT_VERTEX_PROPERTY_CARDINALITY, "list");
+        return TinkerGraph.open(conf);
+    }
+
+    private List<String> names() {
+        return Arrays.stream(directory.list()).sorted().collect(Collectors.toList());
+    }
+
+    @Test
+    public void recoversSnapshotPlusJournal() throws IOException {
+        final Graph graph = TinkerFactory.createModern();
+        try (final ChangeJournal journal = new ChangeJournal(directory)) {
+            journal.open(graph);
+            mutate(journal.traversal(graph));
+            assertEquals(14, journal.getAppendedCount());
+            journal.flush();
+        }
+        assertEquals(Arrays.asList("journal-0000000000000000001.log", "snapshot-0000000000000000000.kryo"), names());
+
+        try (final ChangeJournal journal = new ChangeJournal(directory)) {
+            final Graph recovered = journal.open(TinkerGraph.open());
+            assertEquals(describe(graph), describe(recovered));
+            assertFalse(recovered.vertices(6).hasNext());
+            assertEquals("marko2", recovered.vertices(1).next().value("name"));
+            assertEquals(2, recovered.traversal().V(4).properties("skill").count().next().intValue());
+        }
+    }
+
+    @Test
+    public void compactionFoldsJournalIntoSnapshot() throws Exception {
+        final Graph graph = TinkerFactory.createModern();
+        try (final ChangeJournal journal = new ChangeJournal(directory, ChangeJournalTest::openListGraph)) {
+            journal.open(graph);
+            final GraphTraversalSource g = journal.traversal(graph);
+            mutate(g);
+            journal.compact().get();
+            assertEquals(Arrays.asList("journal-0000000000000000002.log", "snapshot-0000000000000000001.kryo"),
+                         names());
+
+            g.addV(T.id, 200, "name", "after").iterate();
+            journal.flush();
+        }
+
+        try (final ChangeJournal journal = new ChangeJournal(directory)) {
+            final Graph recovered = journal.open(openListGraph());
+            assertEquals(describe(graph), describe(recovered));
+            assertTrue(recovered.vertices(200).hasNext());
+        }
+    }
+
+    @Test
+    public void journalIsMuchSmallerThanSnapshot() throws IOException {
+        final Graph graph = TinkerFactory.createModern();
+        try (final ChangeJournal journal = new ChangeJournal(directory)) {
+            journal.open(graph);
+            journal.traversal(graph).V(1).property("age", 30).iterate();
+        }
+        final File segment = new File(directory, "journal-0000000000000000001.log");
+        final File snapshot = new File(directory, "snapshot-0000000000000000000.kryo");
+        assertTrue(segment.length() + " vs " + snapshot.length(), segment.length() * 10 < snapshot.length());
+    }
+
+    @Test
+    public void tornTailIsIgnored() throws IOException {
+        final Graph graph = TinkerGraph.open();
+        try (final ChangeJournal journal = new ChangeJournal(directory)) {
+            journal.open(graph);
+            final GraphTraversalSource g = journal.traversal(graph);
+            g.addV(T.id, 1, "name", "one").iterate();
+            g.addV(T.id, 2, "name", "two").iterate();
+        }
+        final File segment = new File(directory, "journal-0000000000000000001.log");
+        try (final RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.setLength(file.length() - 1);
+        }
+
+        final Graph replayed = TinkerGraph.open();
+        try (final InputStream stream = Files.newInputStream(segment.toPath())) {
+            assertEquals(1, ChangeJournal.replay(replayed, stream));
+        }
+        assertTrue(replayed.vertices(1).hasNext());
+        assertFalse(replayed.vertices(2).hasNext());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void recoveryRequiresAnEmptyGraph() throws IOException {
+        try (final ChangeJournal journal = new ChangeJournal(directory)) {
+            journal.open(TinkerFactory.createModern());
+        }
+        try (final ChangeJournal journal = new ChangeJournal(directory)) {
+            journal.open(TinkerFactory.createModern());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package co.redseal.gremlinnode.io;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ElementProjectionTest {
+
+    private GraphTraversalSource g;
+
+    @Before
+    public void initGraph() {
+        g = TinkerFactory.createClassic().traversal();
+    }
+
+    @Test
+    public void vertexHasSimplifiedProperties() {
+        assertEquals("{\"id\":1,\"label\":\"vertex\",\"properties\":{\"name\":\"marko\",\"age\":29}}",
+                     ElementProjection.vertexToJson(g.V(1).next(), null, false));
+    }
+
+    @Test
+    public void onlyProjectedKeysAreWritten() {
+        final Vertex marko = g.V(1).next();
+        assertEquals("{\"id\":1,\"label\":\"vertex\",\"properties\":{\"age\":29}}",
+                     ElementProjection.vertexToJson(marko, new String[] { "age", "missing" }, false));
+        assertEquals("{\"id\":1,\"label\":\"vertex\",\"properties\":{}}",
+                     ElementProjection.vertexToJson(marko, new String[0], false));
+    }
+
+    @Test
+    public void multiPropertiesBecomeArraysAndMetaPropertiesAreDropped() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.CONFIG_DEFAULT_VERTEX_PROPERTY_CARDINALITY, "list");
+        final Vertex vertex = TinkerGraph.open(conf).addVertex(T.id, 5L, "nick", "a", "nick", "b", "name", "x");
+        vertex.property("name").property("since", 2001);
+        assertEquals("{\"id\":5,\"label\":\"vertex\",\"properties\":{\"nick\":[\"a\",\"b\"],\"name\":\"x\"}}",
+                     ElementProjection.vertexToJson(vertex, null, false));
+    }
+
+    @Test
+    public void adjacentEdgesOnlyWhenAsked() {
+        assertEquals("{\"id\":1,\"label\":\"vertex\",\"properties\":{\"name\":\"marko\"},"
+                     + "\"outE\":{\"created\":[{\"id\":9,\"inV\":3,\"properties\":{}}],"
+                     + "\"knows\":[{\"id\":7,\"inV\":2,\"properties\":{}},{\"id\":8,\"inV\":4,\"properties\":{}}]},"
+                     + "\"inE\":{}}",
+                     ElementProjection.vertexToJson(g.V(1).next(), new String[] { "name" }, true));
+        assertEquals("{\"id\":2,\"label\":\"vertex\",\"properties\":{},"
+                     + "\"outE\":{},\"inE\":{\"knows\":[{\"id\":7,\"outV\":1,\"properties\":{\"weight\":0.5}}]}}",
+                     ElementProjection.vertexToJson(g.V(2).next(), new String[] { "weight" }, true));
+    }
+
+    @Test
+    public void edgeKeepsGraphSONShape() {
+        assertEquals(TraversalJson.traversalToJson(g.E(7)),
+                     ElementProjection.traversalToJson(g.E(7), null, false));
+        assertEquals("{\"id\":7,\"label\":\"knows\",\"type\":\"edge\",\"inVLabel\":\"vertex\",\"outVLabel\":\"vertex\","
+                     + "\"inV\":2,\"outV\":1,\"properties\":{}}",
+                     ElementProjection.edgeToJson(g.E(7).next(), new String[0]));
+    }
+
+    @Test
+    public void otherResultsAreWrittenAsByTraversalJson() {
+        assertEquals("[{\"a\":{\"id\":1,\"label\":\"vertex\",\"properties\":{\"age\":29}},\"b\":\"marko\"}]",
+                     ElementProjection.traversalToJson(g.V(1).as("a").values("name").as("b").select("a", "b"),
+                                                       new String[] { "age" }, false));
+    }
+
+    @Test
+    public void muchSmallerThanGraphSON() {
+        final TinkerGraph graph = TinkerGraph.open();
+        for (int i = 0; i < 10000; i++) {
+            graph.addVertex(T.id, i, "name", "v" + i, "age", i % 100, "city", "city" + (i % 50), "score", i * 0.5);
+        }
+        final String full = TraversalJson.traversalToJson(graph.traversal().V());
+        final String projected = ElementProjection.traversalToJson(graph.traversal().V(), new String[] { "name" },
+                                                                   false);
+        assertTrue(projected.length() + " vs " + full.length(), projected.length() * 3 < full.length());
+    }
+}
@@ -0,0 +1,83 @@
+package co.redseal.gremlinnode.io;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GryoSnapshotTest {
+
+    // Pretty GraphSON is deterministic, so it makes a convenient fingerprint of a whole graph.
+    private static String fingerprint(final Graph graph) throws IOException {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        new PrettyGraphSONWriter().writeGraph(stream, graph);
+        return stream.toString("UTF-8");
+    }
+
+    private static Graph roundTripGryo(final Graph graph, final boolean compress) throws IOException {
+        final File file = File.createTempFile("classic", ".kryo");
+        try {
+            GryoSnapshot.save(graph, file.getPath(), compress);
+            return GryoSnapshot.load(TinkerGraph.open(), file.getPath());
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static Graph roundTripGraphSON(final Graph graph) throws IOException {
+        final File file = File.createTempFile("classic", ".json");
+        try {
+            PrettyGraphSON.save(graph, file.getPath());
+            return PrettyGraphSON.load(TinkerGraph.open(), file.getPath());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void roundTripIsAsFaithfulAsGraphSON() throws IOException {
+        final Graph classic = TinkerFactory.createClassic();
+        final String expected = fingerprint(classic);
+        assertEquals(expected, fingerprint(roundTripGraphSON(classic)));
+        assertEquals(expected, fingerprint(roundTripGryo(classic, false)));
+    }
+
+    @Test
+    public void compressedRoundTrip() throws IOException {
+        final Graph classic = TinkerFactory.createClassic();
+        assertEquals(fingerprint(classic), fingerprint(roundTripGryo(classic, true)));
+    }
+
+    @Test
+    public void loadDetectsCompression() throws IOException {
+        final Graph modern = TinkerFactory.createModern();
+        final ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        GryoSnapshot.save(modern, plain, false);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        GryoSnapshot.save(modern, compressed, true);
+
+        for (ByteArrayOutputStream snapshot : new ByteArrayOutputStream[] { plain, compressed }) {
+            final Graph loaded =
+                GryoSnapshot.load(TinkerGraph.open(), new ByteArrayInputStream(snapshot.toByteArray()));
+            assertEquals(fingerprint(modern), fingerprint(loaded));
+        }
+    }
+
+    @Test
+    public void smallerThanGraphSON() throws IOException {
+        final Graph modern = TinkerFactory.createModern();
+        final ByteArrayOutputStream graphSON = new ByteArrayOutputStream();
+        new PrettyGraphSONWriter().writeGraph(graphSON, modern);
+        final ByteArrayOutputStream gryo = new ByteArrayOutputStream();
+        GryoSnapshot.save(modern, gryo, false);
+        assertTrue(gryo.size() + " vs " + graphSON.size(), gryo.size() * 3 < graphSON.size());
+    }
+}
@@ -0,0 +1,143 @@
+package co.redseal.gremlinnode.io;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PrettyGraphSONTest {
+
+    private final static String THE_CREW = "test/data/thecrew.json";
+
+    @Test
+    public void prettyArrayBecomesOneLinePerVertex() throws IOException {
+        final String pretty = "[\n  {\n    \"id\": 1,\n    \"label\": \"vertex\"\n  },\n  {\n    \"id\": 2\n  }\n]\n";
+        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(
+                 new PrettyGraphSONInputStream(new ByteArrayInputStream(pretty.getBytes(UTF_8))), UTF_8))) {
+            final List<String> lines = reader.lines().collect(Collectors.toList());
+            assertEquals(2, lines.size());
+            assertEquals("{\"id\":1,\"label\":\"vertex\"}", lines.get(0));
+            assertEquals("{\"id\":2}", lines.get(1));
+        }
+    }
+
+    @Test
+    public void emptyArrayHasNoVertices() throws IOException {
+        try (final PrettyGraphSONInputStream stream =
+                 new PrettyGraphSONInputStream(new ByteArrayInputStream("[ ]".getBytes(UTF_8)))) {
+            assertEquals(-1, stream.read());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsNonArray() throws IOException {
+        new PrettyGraphSONInputStream(new ByteArrayInputStream("{}".getBytes(UTF_8)));
+    }
+
+    @Test
+    public void loadsTheCrew() throws IOException {
+        // TheCrew has multi-properties, so the target graph needs list cardinality to hold them.
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.CONFIG_DEFAULT_VERTEX_PROPERTY_CARDINALITY, "list");
+        final Graph graph = PrettyGraphSON.load(TinkerGraph.open(conf), THE_CREW);
+        final GraphTraversalSource loaded = graph.traversal();
+        final GraphTraversalSource expected = TinkerFactory.createTheCrew().traversal();
+        assertEquals(expected.V().count().next(), loaded.V().count().next());
+        assertEquals(expected.E().count().next(), loaded.E().count().next());
+        assertEquals(expected.V().properties("location").count().next(),
+                     loaded.V().properties("location").count().next());
+        assertTrue(loaded.V().has("name", "marko").out("develops").has("name", "gremlin").hasNext());
+    }
+
+    @Test
+    public void savesTheCrewIdenticalToGoldenFile() throws IOException {
+        final File file = File.createTempFile("thecrew", ".json");
+        try {
+            PrettyGraphSON.save(TinkerFactory.createTheCrew(), file.getPath());
+            assertEquals(new String(Files.readAllBytes(Paths.get(THE_CREW)), UTF_8),
+                         new String(Files.readAllBytes(file.toPath()), UTF_8));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void spillingToDiskGivesTheSameOutput() throws IOException {
+        final Graph graph = TinkerFactory.createTheCrew();
+        final ByteArrayOutputStream inMemory = new ByteArrayOutputStream();
+        new PrettyGraphSONWriter().writeGraph(inMemory, graph);
+
+        // A budget of one byte spills every vertex to its own run.
+        final PrettyGraphSONWriter spilling = new PrettyGraphSONWriter(1);
+        final ByteArrayOutputStream merged = new ByteArrayOutputStream();
+        spilling.writeGraph(merged, graph);
+        assertEquals(graph.traversal().V().count().next().intValue(), spilling.getSpillCount());
+        assertEquals(inMemory.toString("UTF-8"), merged.toString("UTF-8"));
+    }
+
+    @Test
+    public void failingToWriteClosesAndDeletesTheSpilledRuns() throws IOException {
+        final Graph graph = TinkerGraph.open();
+        final char[] padding = new char[200];
+        Arrays.fill(padding, 'x');
+        for (int i = 0; i < 100; i++) {
+            graph.addVertex("name", "v" + i, "padding", new String(padding));
+        }
+        final Path spillDirectory = Files.createTempDirectory("pretty-graphson-test");
+        try {
+            final OutputStream failing = new OutputStream() {
+                @Override
+                public void write(final int b) throws IOException {
+                    throw new IOException("disk full");
+                }
+            };
+            try {
+                new PrettyGraphSONWriter(1, spillDirectory.toFile()).writeGraph(failing, graph);
+                fail("Expected the write to fail");
+            } catch (IOException e) {
+                assertEquals("disk full", e.getMessage());
+            }
+            try (final Stream<Path> left = Files.list(spillDirectory)) {
+                assertEquals(0, left.count());
+            }
+            final Path fds = Paths.get("/proc/self/fd");
+            Assume.assumeTrue(Files.isDirectory(fds));
+            try (final Stream<Path> open = Files.list(fds)) {
+                final List<String> leaked = open.map(fd -> {
+                    try {
+                        return Files.readSymbolicLink(fd).toString();
+                    } catch (IOException e) {
+                        return "";
+                    }
+                }).filter(target -> target.startsWith(spillDirectory.toString())).collect(Collectors.toList());
+                assertEquals(0, leaked.size());
+            }
+        } finally {
+            Files.delete(spillDirectory);
+        }
+    }
+}
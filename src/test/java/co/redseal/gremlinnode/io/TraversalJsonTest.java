@@ -0,0 +1,114 @@
+package co.redseal.gremlinnode.io;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that TraversalJson produces the same JSON as traversalToJson in ts-tinkerpop.ts.
+ */
+public class TraversalJsonTest {
+
+    private GraphTraversalSource g;
+
+    @Before
+    public void initGraph() {
+        g = TinkerFactory.createClassic().traversal();
+    }
+
+    @Test
+    public void scalars() {
+        assertEquals("[\"marko\"]", TraversalJson.traversalToJson(g.V(1).values("name")));
+        assertEquals("[29]", TraversalJson.traversalToJson(g.V(1).values("age")));
+        // Edge weights are floats, which node-java widens to double.
+        assertEquals("[0.4000000059604645]", TraversalJson.traversalToJson(g.E(9).values("weight")));
+        assertEquals("[\"6\"]", TraversalJson.traversalToJson(g.V().count()));
+    }
+
+    @Test
+    public void vertex() {
+        assertEquals("[{\"id\":1,\"label\":\"vertex\",\"properties\":"
+                     + "{\"name\":[{\"id\":0,\"value\":\"marko\"}],\"age\":[{\"id\":2,\"value\":29}]}}]",
+                     TraversalJson.traversalToJson(g.V(1)));
+    }
+
+    @Test
+    public void edge() {
+        assertEquals("[{\"id\":7,\"label\":\"knows\",\"type\":\"edge\",\"inVLabel\":\"vertex\","
+                     + "\"outVLabel\":\"vertex\",\"inV\":2,\"outV\":1,\"properties\":{\"weight\":0.5}}]",
+                     TraversalJson.traversalToJson(g.E(7)));
+    }
+
+    @Test
+    public void mapWithNumericKeysOrdersThemFirst() {
+        final Map<Object, Object> map = new LinkedHashMap<>();
+        map.put("b", 1);
+        map.put(10L, 2);
+        map.put("a", 3);
+        map.put(2, 4);
+        assertEquals("{\"2\":4,\"10\":2,\"b\":1,\"a\":3}", TraversalJson.asJson(map));
+    }
+
+    @Test
+    public void mapEntry() {
+        assertEquals("{\"key\":\"x\",\"value\":\"5\"}",
+                     TraversalJson.asJson(new AbstractMap.SimpleEntry<>("x", 5L)));
+    }
+
+    @Test
+    public void bulkSet() {
+        // The BulkSet iterator repeats each key by its bulk, just as it does when jsify walks it.
+        assertEquals("[[{\"key\":\"lop\",\"count\":\"2\"},{\"key\":\"lop\",\"count\":\"2\"},"
+                     + "{\"key\":\"ripple\",\"count\":\"1\"}]]",
+                     TraversalJson.traversalToJson(g.V(1, 4).out("created").values("name")
+                                                   .order().aggregate("x").cap("x")));
+    }
+
+    @Test
+    public void pathLabelsAreSorted() {
+        assertEquals("[[{\"object\":\"marko\",\"labels\":[\"a\"]},{\"object\":\"lop\",\"labels\":[\"b\",\"c\"]}]]",
+                     TraversalJson.traversalToJson(g.V(1).as("a").out("created").as("c", "b")
+                                                   .path().by("name")));
+    }
+
+    @Test
+    public void unknownObjectsFallBackToClassAndString() {
+        assertEquals("{\"javaClass\":\"java.lang.StringBuilder\",\"toString\":\"sb\"}",
+                     TraversalJson.asJson(new StringBuilder("sb")));
+    }
+
+    @Test
+    public void arraysAndNulls() {
+        assertEquals("[1,null,\"x\"]", TraversalJson.asJson(Arrays.asList(1, null, "x")));
+        assertEquals("[\"1\",\"2\"]", TraversalJson.asJson(new long[] { 1L, 2L }));
+    }
+
+    @Test
+    public void bytesAreUtf8() {
+        assertEquals("[\"marko\"]", new String(TraversalJson.traversalToJsonBytes(g.V(1).values("name")), UTF_8));
+    }
+
+    @Test
+    public void numbersAreFormattedLikeJavascript() {
+        assertEquals("1e+21", JsonWriter.formatNumber(1e21));
+        assertEquals("100000000000000000000", JsonWriter.formatNumber(1e20));
+        assertEquals("1e-7", JsonWriter.formatNumber(1e-7));
+        assertEquals("0.000025", JsonWriter.formatNumber(2.5e-5));
+        assertEquals("0.1", JsonWriter.formatNumber(0.1));
+        assertEquals("-1.5", JsonWriter.formatNumber(-1.5));
+    }
+
+    @Test
+    public void stringsAreEscapedLikeJsonStringify() {
+        assertEquals("[\"a\\\"b\\\\c\\n\\u0001\"]", TraversalJson.asJson(new String[] { "a\"b\\c\n\u0001" }));
+    }
+}
@@ -1,6 +1,7 @@
 package co.redseal.gremlinnode.traversal;
 
 import co.redseal.gremlinnode.function.GroovyLambda;
+import co.redseal.gremlinnode.function.NativeLambda;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
@@ -165,4 +166,57 @@ public class ChooseTest {
         assertEquals(Long.valueOf(1), counts.get("lop"));
         assertEquals(Long.valueOf(1), counts.get("ripple"));
     }
+
+    /**
+     * As #simpleChoosePredicateWorks, with a NativeLambda predicate.
+     */
+    @Test
+    public void nativeChoosePredicateWorks() throws ScriptException {
+        final Traversal<Vertex, String> traversal =
+            graph.traversal()
+            .V()
+            .choose(NativeLambda.compile("{ v -> v.value('name').length() == 5 }"),
+                    __.out(),
+                    __.in())
+            .values("name");
+
+        Map<String, Long> counts = new HashMap<>();
+        int counter = 0;
+        while (traversal.hasNext()) {
+            MapHelper.incr(counts, traversal.next(), 1l);
+            counter++;
+        }
+        assertEquals(9, counter);
+        assertEquals(5, counts.size());
+        assertEquals(Long.valueOf(3), counts.get("josh"));
+        assertEquals(Long.valueOf(2), counts.get("lop"));
+        assertEquals(Long.valueOf(2), counts.get("marko"));
+    }
+
+    /**
+     * As #groovyChooseFunctionWorks, with a NativeLambda function.  The Integer lengths match the Integer options.
+     */
+    @Test
+    public void nativeChooseFunctionWorks() throws ScriptException {
+        final Traversal<Vertex, String> traversal =
+            graph.traversal()
+            .V()
+            .has("age")
+            .choose(NativeLambda.compile("{ vertex -> vertex.value('name').length() }"))
+            .option(5, __.in())
+            .option(4, __.out())
+            .option(3, __.both())
+            .values("name");
+
+        Map<String, Long> counts = new HashMap<>();
+        int counter = 0;
+        while (traversal.hasNext()) {
+            MapHelper.incr(counts, traversal.next(), 1l);
+            counter++;
+        }
+        assertEquals(3, counter);
+        assertEquals(Long.valueOf(1), counts.get("marko"));
+        assertEquals(Long.valueOf(1), counts.get("lop"));
+        assertEquals(Long.valueOf(1), counts.get("ripple"));
+    }
 }
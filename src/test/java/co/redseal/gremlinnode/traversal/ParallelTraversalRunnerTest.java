@@ -0,0 +1,163 @@
+package co.redseal.gremlinnode.traversal;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.BulkSet;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelTraversalRunnerTest {
+
+    private Graph graph;
+    private GraphTraversalSource g;
+
+    @Before
+    public void initGraph() {
+        graph = TinkerFactory.createClassic();
+        g = graph.traversal();
+    }
+
+    @Test
+    public void partitionsAreContiguousIdRanges() {
+        final List<Object[]> ranges = new ParallelTraversalRunner(graph, 4).partition();
+        assertEquals(4, ranges.size());
+        assertArrayEquals(new Object[] { 1 }, ranges.get(0));
+        assertArrayEquals(new Object[] { 2, 3 }, ranges.get(1));
+        assertArrayEquals(new Object[] { 4 }, ranges.get(2));
+        assertArrayEquals(new Object[] { 5, 6 }, ranges.get(3));
+    }
+
+    @Test
+    public void neverMorePartitionsThanVertices() {
+        assertEquals(6, new ParallelTraversalRunner(graph, 32).partition().size());
+        assertEquals(1, new ParallelTraversalRunner(TinkerGraph.open(), 32).partition().size());
+    }
+
+    @Test
+    public void countsAreSummed() {
+        final List<Object> result = ParallelTraversalRunner.run(graph, __.out().count(), 3);
+        assertEquals(Arrays.asList(g.V().out().count().next()), result);
+    }
+
+    @Test
+    public void groupCountsAreMerged() {
+        final List<Object> result = ParallelTraversalRunner.run(graph, __.out().groupCount().by("name"), 4);
+        assertEquals(1, result.size());
+        assertEquals(g.V().out().groupCount().by("name").next(), result.get(0));
+        assertEquals(Long.valueOf(3), ((Map) result.get(0)).get("lop"));
+    }
+
+    @Test
+    public void bulkSetsAreMerged() {
+        final List<Object> result =
+            ParallelTraversalRunner.run(graph, __.out().values("name").aggregate("x").cap("x"), 4);
+        assertEquals(1, result.size());
+        final BulkSet<Object> bulkSet = (BulkSet<Object>) result.get(0);
+        assertEquals(6, bulkSet.longSize());
+        assertEquals(3, bulkSet.get("lop"));
+    }
+
+    @Test
+    public void listsAreConcatenatedInIdOrder() {
+        final List<Object> result = ParallelTraversalRunner.run(graph, __.values("name"), 3);
+        assertEquals(Arrays.asList("marko", "vadas", "lop", "josh", "ripple", "peter"), result);
+
+        final List<Object> folded = ParallelTraversalRunner.run(graph, __.values("age").fold(), 3);
+        assertEquals(1, folded.size());
+        assertEquals(Arrays.asList(29, 27, 32, 35), folded.get(0));
+    }
+
+    @Test
+    public void maxAndSumAreMerged() {
+        assertEquals(Arrays.asList(35), ParallelTraversalRunner.run(graph, __.values("age").max(), 4));
+        assertEquals(Arrays.asList(27), ParallelTraversalRunner.run(graph, __.values("age").min(), 4));
+        assertEquals(g.V().values("age").sum().next(),
+                     ParallelTraversalRunner.run(graph, __.values("age").sum(), 4).get(0));
+    }
+
+    @Test
+    public void chooseMatchesSequentialTraversal() {
+        // In this version of TinkerPop, choose with a lambda predicate takes the false branch for every vertex; the
+        // point here is only that running it in partitions gives the same answer as running it on one thread.
+        final List<Object> result = ParallelTraversalRunner.run(
+            graph, __.choose(v -> ((Vertex) v).label().equals("person"), __.values("age"), __.values("lang")), 4);
+        assertEquals(g.V().choose(v -> v.label().equals("person"), __.values("age"), __.values("lang")).toList(),
+                     result);
+    }
+
+    @Test
+    public void runToJsonReturnsMergedJson() {
+        assertEquals("[\"6\"]", ParallelTraversalRunner.runToJson(graph, __.outE().count(), 4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMean() {
+        ParallelTraversalRunner.run(graph, __.values("age").mean(), 2);
+    }
+
+    private void assertRejected(final Traversal template) {
+        try {
+            ParallelTraversalRunner.run(graph, template, 3);
+            fail("Expected " + template + " to be rejected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("cannot be merged across partitions"));
+        }
+    }
+
+    @Test
+    public void rejectsDedup() {
+        assertRejected(__.out().dedup());
+    }
+
+    @Test
+    public void rejectsOrder() {
+        assertRejected(__.values("name").order());
+    }
+
+    @Test
+    public void rejectsLimitRangeAndTail() {
+        assertRejected(__.out().limit(1));
+        assertRejected(__.out().range(1, 2));
+        assertRejected(__.out().tail(1));
+    }
+
+    @Test
+    public void rejectsSample() {
+        assertRejected(__.out().sample(2));
+    }
+
+    @Test
+    public void rejectsReducingStepsBeforeTheEnd() {
+        assertRejected(__.out().count().is(P.gt(1)));
+        assertRejected(__.out().values("name").aggregate("x").cap("x").unfold());
+    }
+
+    @Test
+    public void rejectsUnmergeableStepsInGlobalChildren() {
+        assertRejected(__.union(__.out().dedup(), __.in()));
+        assertRejected(__.repeat(__.out().limit(1)).times(2));
+    }
+
+    @Test
+    public void allowsUnmergeableStepsInLocalChildren() {
+        final List<Object> result = ParallelTraversalRunner.run(graph, __.local(__.out().limit(1)).values("name"), 3);
+        assertEquals(g.V().local(__.out().limit(1)).values("name").toList(), result);
+        assertEquals(g.V().out().values("name").fold().next(),
+                     ParallelTraversalRunner.run(graph, __.out().values("name").fold(), 3).get(0));
+    }
+}
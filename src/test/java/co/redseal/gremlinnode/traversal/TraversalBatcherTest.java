@@ -0,0 +1,73 @@
+package co.redseal.gremlinnode.traversal;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TraversalBatcherTest {
+
+    private Graph graph;
+
+    @Before
+    public void initGraph() {
+        graph = TinkerFactory.createClassic();
+    }
+
+    @Test
+    public void drainsTraversalInBatches() {
+        final TraversalBatcher batcher = new TraversalBatcher(graph.traversal().V().values("name"), 4);
+        assertTrue(batcher.hasNext());
+        assertEquals(4, batcher.nextBatch().size());
+        assertTrue(batcher.hasNext());
+        assertEquals(2, batcher.nextBatch().size());
+        assertFalse(batcher.hasNext());
+        assertTrue(batcher.nextBatch().isEmpty());
+    }
+
+    @Test
+    public void batchesPreserveOrder() {
+        final List<Integer> source = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+        final List<Object> seen = new ArrayList<>();
+        final TraversalBatcher batcher = new TraversalBatcher(source.iterator(), 64);
+        while (batcher.hasNext()) {
+            seen.addAll(batcher.nextBatch());
+        }
+        assertEquals(source, seen);
+    }
+
+    @Test
+    public void prefetchingBatchesPreserveOrder() {
+        final List<Integer> source = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+        final List<Object> seen = new ArrayList<>();
+        try (final TraversalBatcher batcher = new TraversalBatcher(source.iterator(), 64, true)) {
+            List<Object> batch;
+            while (!(batch = batcher.nextBatch()).isEmpty()) {
+                seen.addAll(batch);
+            }
+        }
+        assertEquals(source, seen);
+    }
+
+    @Test
+    public void nextArrayReturnsObjectArray() {
+        final TraversalBatcher batcher = new TraversalBatcher(graph.traversal().V(1).values("name"));
+        assertArrayEquals(new Object[] { "marko" }, batcher.nextArray());
+        assertEquals(0, batcher.nextArray().length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyBatches() {
+        new TraversalBatcher(graph.traversal().V(), 0);
+    }
+}
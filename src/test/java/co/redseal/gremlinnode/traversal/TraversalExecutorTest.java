@@ -0,0 +1,212 @@
+package co.redseal.gremlinnode.traversal;
+
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TraversalExecutorTest {
+
+    private TraversalExecutor executor;
+
+    @Before
+    public void createExecutor() {
+        executor = new TraversalExecutor(2, 2, 1);
+    }
+
+    @After
+    public void closeExecutor() {
+        executor.close();
+    }
+
+    private static List<Object> drain(final TraversalExecutor.Execution execution) {
+        final List<Object> results = new ArrayList<>();
+        while (!execution.isDone()) {
+            results.addAll(Arrays.asList(execution.poll(10, 10)));
+        }
+        return results;
+    }
+
+    // Counts up forever, optionally pausing before each element.
+    private static Iterator<Object> counter(final long pauseMillis) {
+        return new Iterator<Object>() {
+            private long next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Object next() {
+                if (pauseMillis > 0) {
+                    try {
+                        Thread.sleep(pauseMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return next++;
+            }
+        };
+    }
+
+    // Blocks in hasNext() until the latch is released.
+    private static Iterator<Object> blocked(final CountDownLatch latch) {
+        return new Iterator<Object>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return false;
+            }
+
+            @Override
+            public Object next() {
+                throw new IllegalStateException();
+            }
+        };
+    }
+
+    @Test
+    public void drainsTraversal() {
+        final TraversalExecutor.Execution execution =
+            executor.submit(TinkerFactory.createClassic().traversal().V().values("name"));
+        final List<Object> names = drain(execution);
+        Collections.sort((List) names);
+        assertEquals(Arrays.asList("josh", "lop", "marko", "peter", "ripple", "vadas"), names);
+        assertEquals(6, execution.getResultCount());
+        assertEquals(0, execution.poll(10).length);
+        assertEquals(1, executor.getCompletedCount());
+    }
+
+    @Test
+    public void nullResultsArePreserved() {
+        assertEquals(Arrays.asList("a", null, "b"), drain(executor.submit(Arrays.asList("a", null, "b").iterator())));
+    }
+
+    @Test
+    public void fullQueueStallsTheTraversal() throws InterruptedException {
+        final TraversalExecutor.Execution execution = executor.submit(counter(0));
+        Thread.sleep(50);
+        assertEquals(2, execution.getQueueDepth());
+        assertEquals(2, execution.getResultCount());
+        assertEquals(Arrays.asList(0L, 1L), Arrays.asList(execution.poll(2)));
+        assertTrue(execution.cancel());
+        assertTrue(execution.isDone());
+        assertFalse(execution.cancel());
+        assertEquals(1, executor.getCancelledCount());
+    }
+
+    @Test
+    public void timeoutStopsTheTraversal() {
+        final TraversalExecutor.Execution execution = executor.submit(counter(5), 50);
+        try {
+            drain(execution);
+            fail("Expected a timeout");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertEquals(1, executor.getTimedOutCount());
+    }
+
+    @Test
+    public void timeoutIsReportedWhileStuckInAStep() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final TraversalExecutor.Execution execution = executor.submit(blocked(latch), 20);
+        Thread.sleep(50);
+        try {
+            execution.poll(10);
+            fail("Expected a timeout");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertTrue(execution.isDone());
+        latch.countDown();
+        assertEquals(1, executor.getTimedOutCount());
+    }
+
+    @Test
+    public void failureFollowsBufferedResults() {
+        final Iterator<Object> failing = new Iterator<Object>() {
+            private int count = 0;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Object next() {
+                if (count++ == 1) {
+                    throw new UnsupportedOperationException("boom");
+                }
+                return "first";
+            }
+        };
+        final TraversalExecutor.Execution execution = executor.submit(failing);
+        final List<Object> results = new ArrayList<>();
+        try {
+            while (!execution.isDone()) {
+                results.addAll(Arrays.asList(execution.poll(10, 10)));
+            }
+            fail("Expected the traversal's exception");
+        } catch (UnsupportedOperationException e) {
+            assertEquals("boom", e.getMessage());
+        }
+        assertEquals(Collections.singletonList("first"), results);
+        assertEquals(1, executor.getFailedCount());
+    }
+
+    @Test
+    public void longTraversalDoesNotBlockShortOnes() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final TraversalExecutor.Execution slow = executor.submit(blocked(latch));
+        final TraversalExecutor.Execution fast = executor.submit(Arrays.asList(1, 2, 3).iterator());
+        assertEquals(Arrays.asList(1, 2, 3), drain(fast));
+        assertFalse(slow.isDone());
+        latch.countDown();
+        assertEquals(Collections.emptyList(), drain(slow));
+        assertTrue(executor.getAverageQueueWaitMillis() >= 0);
+        assertEquals(2, executor.getCompletedCount());
+    }
+
+    @Test
+    public void rejectsWhenTooManyAreWaiting() {
+        final CountDownLatch latch = new CountDownLatch(1);
+        executor.submit(blocked(latch));
+        executor.submit(blocked(latch));
+        final TraversalExecutor.Execution waiting = executor.submit(blocked(latch));
+        assertEquals(1, executor.getWaitingCount());
+        try {
+            executor.submit(blocked(latch));
+            fail("Expected rejection");
+        } catch (RejectedExecutionException e) {
+            assertEquals(3, executor.getSubmittedCount());
+        } finally {
+            latch.countDown();
+        }
+        assertEquals(Collections.emptyList(), drain(waiting));
+        assertTrue(waiting.getQueueWaitMillis() > 0);
+        assertTrue(executor.getActiveCount() <= 2);
+        executor.close();
+        assertTrue(executor.toString(), executor.toString().startsWith("TraversalExecutor(threads=2"));
+    }
+}
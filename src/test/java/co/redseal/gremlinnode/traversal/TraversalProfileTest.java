@@ -0,0 +1,132 @@
+package co.redseal.gremlinnode.traversal;
+
+import co.redseal.gremlinnode.function.GroovyLambda;
+import co.redseal.gremlinnode.function.LambdaMetricsRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.LambdaHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import javax.script.ScriptException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TraversalProfileTest {
+
+    private GraphTraversalSource g;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void initGraph() {
+        g = TinkerFactory.createClassic().traversal();
+    }
+
+    @Test
+    public void summarizesEveryStep() throws IOException {
+        final JsonNode profile = mapper.readTree(TraversalProfile.profileToJson(g.V().out().values("name")));
+        assertTrue(profile.get("durationMs").asDouble() >= 0);
+        final JsonNode steps = profile.get("steps");
+        // The last step is the cap that collects the metrics.
+        assertEquals(4, steps.size());
+        assertTrue(steps.get(0).get("name").asText().contains("GraphStep"));
+        assertEquals(6, steps.get(0).get("traversers").asLong());
+        assertEquals(6, steps.get(1).get("elements").asLong());
+        double percent = 0;
+        for (JsonNode step : steps) {
+            percent += step.get("percentDuration").asDouble();
+        }
+        assertEquals(100, percent, 0.5);
+        assertEquals(0, profile.get("lambdas").size());
+    }
+
+    @Test
+    public void reportsTimeInsideEachLambda() throws IOException {
+        try {
+            final GroovyLambda person = GroovyLambda.of("{ t -> t.get().value('name').length() == 5 }");
+            final GroovyLambda name = GroovyLambda.of("{ t -> t.get().value('name') }");
+            final JsonNode profile = mapper.readTree(TraversalProfile.profileToJson(
+                g.V().filter((Predicate) person).map((Function) name)));
+
+            final JsonNode filter = profile.get("lambdas").get(person.toString());
+            assertEquals(6, filter.get("invocations").asLong());
+            assertEquals(0.5, filter.get("passRatio").asDouble(), 1e-9);
+            assertTrue(filter.get("durationMs").asDouble() > 0);
+            assertEquals(3, profile.get("lambdas").get(name.toString()).get("invocations").asLong());
+
+            // Profiling uses its own metrics, not the global registry.
+            assertNull(LambdaMetricsRegistry.get(person.toString()));
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void findsLambdasInNestedTraversals() throws IOException {
+        try {
+            final GroovyLambda age = GroovyLambda.of("{ t -> t.get().value('age') > 30 }");
+            final JsonNode profile = mapper.readTree(TraversalProfile.profileToJson(
+                g.V().has("age").local(__.filter((Predicate) age).values("name")).count()));
+            final JsonNode lambda = profile.get("lambdas").get(age.toString());
+            assertEquals(4, lambda.get("invocations").asLong());
+            assertEquals(0.5, lambda.get("passRatio").asDouble(), 1e-9);
+        }
+        catch (ScriptException se) {
+            assertTrue(se.toString(), false);
+        }
+    }
+
+    @Test
+    public void javaLambdasAreFoundButNotReported() throws IOException {
+        final JsonNode profile = mapper.readTree(TraversalProfile.profileToJson(
+            g.V().filter(t -> t.get().label().equals("vertex")).map(t -> t.get().id())));
+        assertEquals(6, profile.get("steps").get(1).get("traversers").asLong());
+        assertEquals(0, profile.get("lambdas").size());
+    }
+
+    @Test
+    public void failsLoudlyWhenALambdaCannotBeFound() {
+        final GraphTraversal<Vertex, Vertex> traversal = g.V();
+        traversal.asAdmin().addStep(new OpaqueLambdaStep<>(traversal.asAdmin(), t -> true));
+        try {
+            TraversalProfile.profileToJson(traversal);
+            fail("Expected an IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(OpaqueLambdaStep.class.getName()));
+        }
+        // Nothing was run.
+        assertTrue(traversal.asAdmin().getSideEffects().keys().isEmpty());
+    }
+
+    // A lambda step that hides its lambda where profiling does not look, as a future TinkerPop might.
+    private final static class OpaqueLambdaStep<S> extends FilterStep<S> implements LambdaHolder {
+        private final Object[] predicate;
+
+        private OpaqueLambdaStep(final Traversal.Admin traversal, final Predicate<Traverser<S>> predicate) {
+            super(traversal);
+            this.predicate = new Object[] {predicate};
+        }
+
+        // FilterStep.filter
+        @Override
+        @SuppressWarnings("unchecked")
+        protected boolean filter(final Traverser.Admin<S> traverser) {
+            return ((Predicate<Traverser<S>>) predicate[0]).test(traverser);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package co.redseal.gremlinnode.traversal;
+
+import co.redseal.gremlinnode.io.TraversalJson;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TraversalResultCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1000);
+    private TraversalResultCache cache;
+    private GraphTraversalSource g;
+
+    @Before
+    public void initGraph() {
+        cache = new TraversalResultCache(2, 100, now::get);
+        g = cache.traversal(TinkerFactory.createClassic());
+    }
+
+    @Test
+    public void repeatedTraversalIsServedFromCache() {
+        final String first = cache.toJson(g.V().has("name", "marko").out().values("name"));
+        assertEquals("[\"lop\",\"vadas\",\"josh\"]", first);
+        assertSame(first, cache.toJson(g.V().has("name", "marko").out().values("name")));
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void keyIncludesStepArguments() {
+        assertNotEquals(TraversalResultCache.canonicalKey(g.V().has("name", "marko")),
+                        TraversalResultCache.canonicalKey(g.V().has("name", "josh")));
+        assertEquals(TraversalResultCache.canonicalKey(g.V().has("name", "marko")),
+                     TraversalResultCache.canonicalKey(g.V().has("name", "marko")));
+    }
+
+    @Test
+    public void keyIncludesArgumentTypes() {
+        assertEquals("[\"marko\"]", cache.toJson(g.V().has("age", 29).values("name")));
+        assertEquals("[]", cache.toJson(g.V().has("age", "29").values("name")));
+        assertEquals("[\"marko\"]", cache.toJson(g.V(1).values("name")));
+        assertEquals(TraversalJson.traversalToJson(g.V("1").values("name")), cache.toJson(g.V("1").values("name")));
+        assertEquals(4, cache.misses());
+        assertEquals(0, cache.hits());
+        assertNotEquals(TraversalResultCache.canonicalKey(g.V(1)), TraversalResultCache.canonicalKey(g.V("1")));
+        assertNotEquals(TraversalResultCache.canonicalKey(g.V().constant(1)),
+                        TraversalResultCache.canonicalKey(g.V().constant(1L)));
+        assertNotEquals(TraversalResultCache.canonicalKey(g.V().<Object>values("age").inject(5)),
+                        TraversalResultCache.canonicalKey(g.V().<Object>values("age").inject("5")));
+        assertNotEquals(TraversalResultCache.canonicalKey(g.V().choose(__.values("age")).option(29, __.out())),
+                        TraversalResultCache.canonicalKey(g.V().choose(__.values("age")).option("29", __.out())));
+        assertNotEquals(TraversalResultCache.canonicalKey(g.V().where(__.out().is(P.gt(1)))),
+                        TraversalResultCache.canonicalKey(g.V().where(__.out().is(P.gt(1.0)))));
+        assertEquals(TraversalResultCache.canonicalKey(g.V().choose(__.values("age")).option(29, __.out())),
+                     TraversalResultCache.canonicalKey(g.V().choose(__.values("age")).option(29, __.out())));
+    }
+
+    @Test
+    public void mutationMakesResultsStale() {
+        assertEquals("[\"6\"]", cache.toJson(g.V().count()));
+        g.addV(T.id, 100, "name", "zed").iterate();
+        assertTrue(cache.getVersion() > 0);
+        assertEquals("[\"7\"]", cache.toJson(g.V().count()));
+        assertEquals(2, cache.misses());
+        assertEquals(0, cache.hits());
+    }
+
+    @Test
+    public void mutatingTraversalsAreNotCached() {
+        final long version = cache.getVersion();
+        cache.toJson(g.V().has("name", "marko").property("age", 30));
+        assertEquals(0, cache.size());
+        assertTrue(cache.getVersion() > version);
+    }
+
+    @Test
+    public void bumpVersionCoversOutsideChanges() {
+        cache.toJson("ages", g.V().values("age").sum());
+        cache.bumpVersion();
+        cache.toJson("ages", g.V().values("age").sum());
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    public void entriesExpire() {
+        cache.toJson(g.V().count());
+        now.addAndGet(99);
+        cache.toJson(g.V().count());
+        now.addAndGet(1);
+        cache.toJson(g.V().count());
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(1, cache.expirations());
+    }
+
+    @Test
+    public void leastRecentlyUsedIsEvicted() {
+        cache.toJson("a", g.V().count());
+        cache.toJson("b", g.E().count());
+        cache.toJson("a", g.V().count());       // touch a, so b is now eldest
+        cache.toJson("c", g.V().values("name"));  // evicts b
+        assertEquals(1, cache.evictions());
+        assertEquals(2, cache.size());
+        assertFalse(cache.invalidate("b"));
+        assertTrue(cache.invalidate("a"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void hitDoesNotExecuteTheTraversal() {
+        cache.toJson("names", g.V().values("name"));
+        // A traversal that would fail if executed.
+        assertEquals(cache.toJson("names", g.V().values("name")),
+                     cache.toJson("names", g.V().map(t -> { throw new IllegalStateException(); })));
+    }
+}
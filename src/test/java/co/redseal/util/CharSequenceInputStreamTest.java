@@ -0,0 +1,89 @@
+package co.redseal.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_16BE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CharSequenceInputStreamTest {
+
+    // Multi-byte characters, including a surrogate pair, so chunk boundaries fall mid-character.
+    private final static String MIXED =
+        "{\"name\":\"marko\",\"city\":\"Z\u00fcrich\",\"emoji\":\"\uD83D\uDE00\",\"yen\":\"\u00a5\"}\n";
+
+    static byte[] drain(final InputStream stream, final int bufferSize) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[bufferSize];
+        for (int count; (count = stream.read(buffer)) != -1; ) {
+            out.write(buffer, 0, count);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void matchesGetBytesAcrossChunkBoundaries() throws IOException {
+        final StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            source.append(MIXED);
+        }
+        for (int chunkSize : new int[] { 16, 17, 31, 4096 }) {
+            try (final InputStream stream = new CharSequenceInputStream(source, UTF_8, chunkSize)) {
+                assertArrayEquals(source.toString().getBytes(UTF_8), drain(stream, 7));
+            }
+        }
+    }
+
+    @Test
+    public void singleByteReads() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final InputStream stream = new CharSequenceInputStream(MIXED)) {
+            for (int b; (b = stream.read()) != -1; ) {
+                out.write(b);
+            }
+        }
+        assertArrayEquals(MIXED.getBytes(UTF_8), out.toByteArray());
+    }
+
+    @Test
+    public void encodesOtherCharsets() throws IOException {
+        try (final InputStream stream = new CharSequenceInputStream(MIXED, UTF_16BE, 16)) {
+            assertArrayEquals(MIXED.getBytes(UTF_16BE), drain(stream, 5));
+        }
+    }
+
+    @Test
+    public void replacesLoneSurrogatesLikeGetBytes() throws IOException {
+        final String malformed = "a\uD83Db";
+        try (final InputStream stream = StringInputStream.from(malformed)) {
+            assertArrayEquals(malformed.getBytes(UTF_8), drain(stream, 16));
+        }
+    }
+
+    @Test
+    public void emptySequence() throws IOException {
+        try (final InputStream stream = StringInputStream.from("")) {
+            assertEquals(-1, stream.read());
+            assertEquals(-1, stream.read(new byte[4], 0, 4));
+        }
+    }
+
+    @Test
+    public void holdsOnlyOneChunk() throws IOException {
+        try (final InputStream stream = new CharSequenceInputStream(MIXED + MIXED, UTF_8, 16)) {
+            stream.read();
+            assertTrue(stream.available() < 16);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTinyChunks() {
+        new CharSequenceInputStream(MIXED, UTF_8, 3);
+    }
+}
@@ -0,0 +1,110 @@
+package co.redseal.util;
+
+import co.redseal.gremlinnode.io.PrettyGraphSON;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONWriter;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static co.redseal.util.CharSequenceInputStreamTest.drain;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class MappedFileInputStreamTest {
+
+    private static File withContents(final byte[] contents) throws IOException {
+        final File file = File.createTempFile("mapped", ".bin");
+        file.deleteOnExit();
+        Files.write(file.toPath(), contents);
+        return file;
+    }
+
+    @Test
+    public void readsAcrossWindows() throws IOException {
+        final byte[] contents = new byte[10000];
+        new Random(42).nextBytes(contents);
+        final File file = withContents(contents);
+        try {
+            for (long windowSize : new long[] { 1, 999, 4096, 1 << 20 }) {
+                try (final InputStream stream = new MappedFileInputStream(file.toPath(), windowSize)) {
+                    assertEquals(contents.length, stream.available());
+                    assertArrayEquals(contents, drain(stream, 333));
+                }
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void skipsWithinAndAcrossWindows() throws IOException {
+        final byte[] contents = new byte[1000];
+        for (int i = 0; i < contents.length; i++) {
+            contents[i] = (byte) i;
+        }
+        final File file = withContents(contents);
+        try (final InputStream stream = new MappedFileInputStream(file.toPath(), 100)) {
+            assertEquals(10, stream.skip(10));
+            assertEquals(10, stream.read());
+            assertEquals(250, stream.skip(250));
+            assertEquals(261 & 0xff, stream.read());
+            assertEquals(738, stream.skip(10000));
+            assertEquals(-1, stream.read());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void emptyFile() throws IOException {
+        final File file = withContents(new byte[0]);
+        try (final InputStream stream = StringInputStream.fromFile(file.getPath())) {
+            assertEquals(-1, stream.read());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void readAfterCloseFails() throws IOException {
+        final File file = withContents("x".getBytes(UTF_8));
+        try {
+            final InputStream stream = StringInputStream.fromFile(file.getPath());
+            stream.close();
+            stream.read();
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void loadsGraphSONFromFileAndString() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GraphSONWriter.build().mapper(PrettyGraphSON.newMapper()).create()
+            .writeGraph(out, TinkerFactory.createModern());
+        final String graphSON = out.toString("UTF-8");
+
+        final Graph fromString;
+        try (final InputStream stream = StringInputStream.from(graphSON)) {
+            fromString = PrettyGraphSON.load(TinkerGraph.open(), stream);
+        }
+        assertEquals(6L, fromString.traversal().V().count().next().longValue());
+
+        final File file = withContents(out.toByteArray());
+        try (final InputStream stream = StringInputStream.fromFile(file.getPath())) {
+            final Graph fromFile = PrettyGraphSON.load(TinkerGraph.open(), stream);
+            assertEquals(6L, fromFile.traversal().E().count().next().longValue());
+        } finally {
+            file.delete();
+        }
+    }
+}
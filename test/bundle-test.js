@@ -1,8 +0,0 @@
-/// <reference path="../lib/index.d.ts"/>
-/// <reference path="../typings/mocha/mocha.d.ts"/>
-describe('bundle-test', function () {
-    it('compiles', function () {
-        // empty
-    });
-});
-//# sourceMappingURL=bundle-test.js.map
\ No newline at end of file
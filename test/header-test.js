@@ -1,8 +0,0 @@
-/// <reference path="../typings/ts-tinkerpop/index.d.ts"/>
-/// <reference path="../typings/mocha/mocha.d.ts"/>
-describe('header-test', function () {
-    it('compiles', function () {
-        // empty
-    });
-});
-//# sourceMappingURL=header-test.js.map
\ No newline at end of file
@@ -250,6 +250,33 @@ describe('Gremlin', (): void => {
         });
     });
 
+    it('choose(Function).option with integer choice, native lambda', (): BluePromise<void> => {
+      var __ = TP.__;
+
+      // The same closure as above, evaluated without Groovy.
+      var lambda = TP.newNativeLambda('{ vertex -> vertex.value("name").length() }');
+
+      var chosen = graph.traversal().V().has('age').choose(lambda)
+          .option(5, __.in())
+          .option(4, __.out())
+          .option(3, __.both())
+          .values('name');
+
+      return chosen.toListP()
+        .then((list: Java.List) => list.toArrayP())
+        .then((actual: Java.object_t[] ) => {
+          var expected = ['marko', 'ripple', 'lop'];
+          expect(actual.sort()).to.deep.equal(expected.sort());
+        });
+    });
+
+    it('filter with a native lambda', (): void => {
+      var lambda = TP.newNativeLambda('{ t -> t.get().value("age") > 30 }');
+      var names: string[] = TP.jsify(graph.traversal().V().filter(lambda).values('name').toList().toArray());
+      expect(names.sort()).to.deep.equal(['josh', 'peter']);
+      expect(() => TP.newNativeLambda('{ v -> v.outE() }')).to.throw(/Unsupported method 'outE'/);
+    });
+
     it('TP.forEach(g.V())', (): BluePromise<void> => {
       var traversal = graph.traversal().V();
       return TP.forEach(traversal, (obj: Java.Object): BluePromise<void> => {
@@ -505,6 +532,83 @@ describe('Groovy support', (): void => {
     expect(() => TP.newGroovyLambda('new TestClass()').get()).to.throw(/unable to resolve class TestClass/);
   });
 
+  it('importGroovy takes a batch and keeps compiled closures when nothing new is imported', function () {
+    var groovy: string = '{ -> new ConcurrentSkipListSet([3, 1, 2]).first() }';
+    TP.importGroovy(['co.redseal.gremlinnode.testing.TestClass', 'java.util.concurrent.*', 'static java.lang.Math.max']);
+    expect(TP.newGroovyClosure(groovy).get()).to.equal(1);
+    expect(TP.newGroovyClosure('{ -> max(1, 2) }').get()).to.equal(2);
+
+    var misses: string = TP.GroovyLambda.getClosureCache().misses().longValue;
+    TP.importGroovy(['java.util.concurrent.*', 'co.redseal.gremlinnode.testing.TestClass']);
+    TP.newGroovyClosure(groovy);
+    expect(TP.GroovyLambda.getClosureCache().misses().longValue).to.equal(misses);
+  });
+
+  it('newInstrumentedGroovyClosure records metrics that newGroovyClosure does not', (): void => {
+    // A source no other test uses, so that no metrics are registered for it yet.
+    var groovy: string = '{ x -> x > 1 /* instrumented */ }';
+    var plain: Java.GroovyLambda = TP.newGroovyClosure(groovy);
+    expect(plain.test(2)).to.equal(true);
+    expect(TP.lambdaMetrics()['GroovyLambda(' + groovy + ')']).to.not.exist;
+
+    var instrumented: Java.GlobFunction = TP.newInstrumentedGroovyClosure(groovy);
+    expect(instrumented.test(2)).to.equal(true);
+    expect(instrumented.test(0)).to.equal(false);
+    var metrics: any = TP.lambdaMetrics()['GroovyLambda(' + groovy + ')'];
+    expect(metrics).to.exist;
+    expect(metrics.invocations).to.equal(2);
+    expect(metrics.passed).to.equal(1);
+  });
+
+  it('setLambdaMetricsEnabled makes newGroovyClosure record metrics', (): void => {
+    var groovy: string = '{ x -> x > 1 /* switched on */ }';
+    TP.setLambdaMetricsEnabled(true);
+    var lambda: Java.GroovyLambda;
+    try {
+      lambda = TP.newGroovyClosure(groovy);
+    } finally {
+      TP.setLambdaMetricsEnabled(false);
+    }
+    expect(lambda.isInstrumented()).to.equal(true);
+    expect(lambda.test(2)).to.equal(true);
+    expect(lambda.test(0)).to.equal(false);
+    var metrics: any = TP.lambdaMetrics()['GroovyLambda(' + groovy + ')'];
+    expect(metrics.invocations).to.equal(2);
+    expect(metrics.passed).to.equal(1);
+    // Closures created after the switch is turned off do not record.
+    expect(TP.newGroovyClosure('{ x -> x > 2 /* switched on */ }').isInstrumented()).to.equal(false);
+  });
+
+  it('warmUpGroovyClosures loads closures from the store it wrote', (): BluePromise<void> => {
+    var closures: string[] = ['{ x -> x * 3 /* warmed */ }', '{ v -> v.value("name") /* warmed */ }'];
+    var tmpNameP = BluePromise.promisify(tmp.tmpName);
+    var store: string;
+    return tmpNameP()
+      .then((_store: string): void => {
+        store = _store;
+        var first: any = TP.warmUpGroovyClosures(store, closures);
+        expect(first.closures).to.equal(2);
+        expect(first.storeHit).to.equal(false);
+
+        var second: any = TP.warmUpGroovyClosures(store, closures);
+        expect(second.storeHits).to.equal(2);
+        expect(second.compiled).to.equal(0);
+        expect(second.storeHit).to.equal(true);
+        expect(TP.newGroovyClosure(closures[0]).apply(2)).to.equal(6);
+      })
+      .finally((): void => {
+        // The store keeps its class files in one directory per Groovy and TinkerPop version.
+        if (store && fs.existsSync(store)) {
+          _.forEach(fs.readdirSync(store), (version: string): void => {
+            var versionDirectory: string = path.join(store, version);
+            _.forEach(fs.readdirSync(versionDirectory), (file: string) => fs.unlinkSync(path.join(versionDirectory, file)));
+            fs.rmdirSync(versionDirectory);
+          });
+          fs.rmdirSync(store);
+        }
+      });
+  });
+
 });
 
 describe('isLongValue', () => {
@@ -770,6 +874,239 @@ describe('GraphSON support', () => {
 
 });
 
+describe('Gryo support', () => {
+
+  var g: Java.Graph;
+
+  beforeEach((done: MochaDone): void => {
+    TP.TinkerFactory.createClassicP()
+      .then((graph: Java.Graph): void => {
+        g = graph;
+      })
+      .then((): void => done())
+      .catch(done);
+  });
+
+  it('can save and load Gryo synchronously', (done: MochaDone): void => {
+    tmp.tmpName((err: any, path: string): void => {
+      if (err) {
+        throw err;
+      }
+      expect(TP.saveGryoSync(g, path), 'saveGryoSync did not return graph').to.deep.equal(g);
+      var g2: Java.Graph = TP.TinkerGraph.open();
+      expect(TP.loadGryoSync(g2, path), 'loadGryoSync did not return graph').to.deep.equal(g2);
+      expect(g2.toString(), 'Gryo was not read correctly').to.deep.equal('tinkergraph[vertices:6 edges:6]');
+      fs.unlink(path, done);
+    });
+  });
+
+  it('can save and load compressed Gryo asynchronously via promise', (): BluePromise<void> => {
+    var tmpNameP = BluePromise.promisify(tmp.tmpName);
+    var g2: Java.Graph;
+    var path: string;
+    return tmpNameP()
+      .then((_path: string): BluePromise<Java.Graph> => {
+        path = _path;
+        return TP.saveGryo(g, path, true);
+      })
+      .then((graph: Java.Graph): BluePromise<Java.Graph> => {
+        expect(g, 'saveGryo did not return graph').to.deep.equal(graph);
+        g2 = TP.TinkerGraph.open();
+        return TP.loadGryo(g2, path);
+      })
+      .then((graph: Java.Graph): BluePromise<any> => {
+        expect(g2, 'loadGryo did not return graph').to.deep.equal(graph);
+        expect(g2.toString(), 'Gryo was not read correctly').to.deep.equal('tinkergraph[vertices:6 edges:6]');
+        var unlinkP = BluePromise.promisify(fs.unlink);
+        return unlinkP(path);
+      });
+  });
+
+});
+
+describe('Projected element JSON', () => {
+
+  var g: Java.GraphTraversalSource;
+
+  before((): void => {
+    g = TP.TinkerFactory.createClassic().traversal();
+  });
+
+  it('projectedVertexToJson matches simplifyVertexProperties', (): void => {
+    var vertex: Java.Vertex = g.V(1).next();
+    var expected: any = TP.simplifyVertexProperties(TP.vertexToJson(vertex));
+    expect(TP.projectedVertexToJson(vertex)).to.deep.equal(expected);
+    expect(TP.projectedVertexToJson(vertex, ['name'])).to.deep.equal({ id: 1, label: 'vertex', properties: { name: 'marko' } });
+  });
+
+  it('projectedVertexToJson includes adjacent edges only when asked', (): void => {
+    var json: any = TP.projectedVertexToJson(g.V(2).next(), [], true);
+    expect(json.properties).to.deep.equal({});
+    expect(json.outE).to.deep.equal({});
+    expect(json.inE).to.deep.equal({ knows: [ { id: 7, outV: 1, properties: {} } ] });
+  });
+
+  it('projectedEdgeToJson matches edgeToJson', (): void => {
+    var edge: Java.Edge = g.E(7).next();
+    expect(TP.projectedEdgeToJson(edge)).to.deep.equal(TP.edgeToJson(edge));
+  });
+
+  it('projectedTraversalToJsonP projects every vertex', (): BluePromise<void> => {
+    return TP.projectedTraversalToJsonP(g.V().has('lang'), ['name'])
+      .then((json: any[]): void => {
+        expect(_.map(json, 'properties')).to.deep.equal([ { name: 'lop' }, { name: 'ripple' } ]);
+      });
+  });
+
+});
+
+describe('Traversal helpers', () => {
+
+  var graph: Java.TinkerGraph;
+  var g: Java.GraphTraversalSource;
+
+  before((): void => {
+    graph = TP.TinkerFactory.createClassic();
+    g = graph.traversal();
+  });
+
+  it('forEachBatch consumes every object in batches of batchSize', (): BluePromise<void> => {
+    var batches: string[][] = [];
+    return TP.forEachBatch(g.V().values('name'), (batch: string[]): void => {
+      batches.push(batch);
+    }, 4)
+      .then((): BluePromise<void> => {
+        expect(_.map(batches, 'length')).to.deep.equal([4, 2]);
+        expect(_.flatten(batches)).to.deep.equal(['marko', 'vadas', 'lop', 'josh', 'ripple', 'peter']);
+        var prefetched: string[] = [];
+        return TP.forEachBatch(g.V().has('lang').values('name'), (batch: string[]): BluePromise<void> => {
+          prefetched = prefetched.concat(batch);
+          return BluePromise.resolve();
+        }, 1, true)
+          .then((): void => {
+            expect(prefetched).to.deep.equal(['lop', 'ripple']);
+          });
+      });
+  });
+
+  it('forEachBatchOn consumes every object on executor threads', (): BluePromise<void> => {
+    var executor: Java.TraversalExecutor = new TP.TraversalExecutor(2);
+    var names: string[] = [];
+    return TP.forEachBatchOn(executor, g.V().values('name'), (batch: string[]): void => {
+      expect(batch.length).to.be.within(1, 4);
+      names = names.concat(batch);
+    }, 4)
+      .then((): BluePromise<void> => {
+        expect(names).to.deep.equal(['marko', 'vadas', 'lop', 'josh', 'ripple', 'peter']);
+        expect(Number(executor.getCompletedCount())).to.equal(1);
+        return TP.forEachBatchOn(executor, g.V(), (batch: Java.object_t[]): void => {
+          throw new Error('consumer failed');
+        });
+      })
+      .then((): void => {
+        throw new Error('forEachBatchOn should have rejected');
+      }, (e: Error): void => {
+        expect(e.message).to.equal('consumer failed');
+      })
+      .finally((): void => executor.close());
+  });
+
+  it('parallelTraversalToJsonP merges the partial results of every partition', (): BluePromise<void> => {
+    return TP.parallelTraversalToJsonP(graph, TP.__.out().groupCount().by('name'), 3)
+      .then((json: any[]): BluePromise<any[]> => {
+        // Longs are written as strings, as by traversalToJson.
+        expect(json).to.deep.equal([ { lop: '3', vadas: '1', josh: '1', ripple: '1' } ]);
+        return TP.parallelTraversalToJsonP(graph, TP.__.out().count(), 3);
+      })
+      .then((json: any[]): BluePromise<any[]> => {
+        expect(json).to.deep.equal(['6']);
+        return TP.parallelTraversalToJsonP(graph, TP.__.out().dedup(), 3);
+      })
+      .then((): void => {
+        throw new Error('parallelTraversalToJsonP should have rejected dedup()');
+      }, (e: Error): void => {
+        expect(e.message).to.match(/cannot be merged across partitions/);
+      });
+  });
+
+  it('cachedTraversalToJsonP serves repeated traversals from the cache', (): BluePromise<void> => {
+    var cache: Java.TraversalResultCache = new TP.TraversalResultCache();
+    var source: Java.GraphTraversalSource = cache.traversal(graph);
+    return TP.cachedTraversalToJsonP(cache, source.V().has('age', 29).values('name'))
+      .then((json: any[]): BluePromise<any[]> => {
+        expect(json).to.deep.equal(['marko']);
+        return TP.cachedTraversalToJsonP(cache, source.V().has('age', 29).values('name'));
+      })
+      .then((json: any[]): BluePromise<any[]> => {
+        expect(json).to.deep.equal(['marko']);
+        expect(Number(cache.hits())).to.equal(1);
+        // A string argument is a different traversal.
+        return TP.cachedTraversalToJsonP(cache, source.V().has('age', '29').values('name'));
+      })
+      .then((json: any[]): BluePromise<any[]> => {
+        expect(json).to.deep.equal([]);
+        expect(Number(cache.misses())).to.equal(2);
+        return TP.cachedTraversalToJsonP(cache, source.V().has('lang').values('name'), 'software');
+      })
+      .then((json: any[]): BluePromise<any[]> => {
+        expect(json).to.deep.equal(['lop', 'ripple']);
+        // An explicit key is trusted, whatever the traversal.
+        return TP.cachedTraversalToJsonP(cache, source.V().values('name'), 'software');
+      })
+      .then((json: any[]): BluePromise<any[]> => {
+        expect(json).to.deep.equal(['lop', 'ripple']);
+        cache.bumpVersion();
+        return TP.cachedTraversalToJsonP(cache, source.V().values('name'), 'software');
+      })
+      .then((json: any[]): void => {
+        expect(json).to.deep.equal(['marko', 'vadas', 'lop', 'josh', 'ripple', 'peter']);
+        expect(Number(cache.hits())).to.equal(2);
+      });
+  });
+
+  it('traversalProfileP reports every step and the time inside each lambda', (): BluePromise<void> => {
+    var groovy: string = '{ t -> t.get().value("name").length() == 5 }';
+    var lambda: Java.GroovyLambda = TP.newGroovyClosure(groovy);
+    return TP.traversalProfileP(g.V().filter(lambda).values('name'))
+      .then((profile: any): void => {
+        expect(profile.durationMs).to.be.at.least(0);
+        // The last step is the cap that collects the metrics.
+        expect(profile.steps).to.have.length(4);
+        expect(profile.steps[0].name).to.contain('GraphStep');
+        expect(profile.steps[0].traversers).to.equal(6);
+        expect(profile.steps[2].traversers).to.equal(3);
+        var metrics: any = profile.lambdas['GroovyLambda(' + groovy + ')'];
+        expect(metrics.invocations).to.equal(6);
+        expect(metrics.passRatio).to.equal(0.5);
+        expect(metrics.exceptions).to.equal(0);
+      });
+  });
+
+});
+
+describe('Bulk loading', () => {
+
+  it('loads columns built with longs, doubles and strings', (): void => {
+    var graph: Java.TinkerGraph = TP.TinkerGraph.open();
+    var loader: Java.BulkLoader = new TP.BulkLoader(graph);
+    loader.vertices(TP.longs([1, 2]), TP.strings(['person']))
+      .property('name', TP.strings(['marko', 'vadas']))
+      .property('age', TP.longs([29, 27]));
+    loader.edges(null, TP.strings(['knows']), TP.longs([1]), TP.longs([2]))
+      .property('weight', TP.doubles([0.5]));
+    expect(loader.load()).to.deep.equal(graph);
+    expect(graph.toString()).to.equal('tinkergraph[vertices:2 edges:1]');
+
+    var g: Java.GraphTraversalSource = graph.traversal();
+    expect(TP.asJSON(g.V().values('name'))).to.deep.equal(['marko', 'vadas']);
+    // Loaded from a long[], so the ages are Longs, which asJSON writes as strings.
+    expect(TP.asJSON(g.V().values('age'))).to.deep.equal(['29', '27']);
+    expect(TP.asJSON(g.V(TP.id(1)).outE('knows').values('weight'))).to.deep.equal([0.5]);
+    expect(TP.asJSON(g.V().label())).to.deep.equal(['person', 'person']);
+  });
+
+});
+
 describe('Pretty GraphSON support using TheCrew', () => {
 
   var g: Java.Graph;